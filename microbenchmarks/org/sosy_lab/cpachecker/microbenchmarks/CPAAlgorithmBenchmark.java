@@ -0,0 +1,85 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
+import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Benchmarks for a complete run of {@link CPAAlgorithm} with a value analysis on small synthetic
+ * programs. Parsing and CPA creation are not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CPAAlgorithmBenchmark {
+
+  /** Number of nondeterministic branches in the program, the state space grows exponentially. */
+  @Param({"4", "8", "11"})
+  public int branches;
+
+  /** Reached-set implementation, cf. option analysis.reachedSet */
+  @Param({"PARTITIONED", "LOCATIONMAPPED"})
+  public String reachedSet;
+
+  private SyntheticAnalysis analysis;
+  private ReachedSetFactory reachedSetFactory;
+  private Algorithm algorithm;
+
+  @Setup
+  public void setup()
+      throws InvalidConfigurationException, ParserException, InterruptedException, CPAException {
+    analysis =
+        new SyntheticAnalysis(
+            TestDataTools.configurationForTest().setOption("analysis.reachedSet", reachedSet),
+            branches);
+    reachedSetFactory = new ReachedSetFactory(analysis.config, analysis.logger);
+    algorithm =
+        CPAAlgorithm.create(
+            analysis.cpa, analysis.logger, analysis.config, analysis.shutdownNotifier);
+  }
+
+  @Benchmark
+  public ReachedSet run() throws CPAException, InterruptedException {
+    ReachedSet reached = reachedSetFactory.create();
+    analysis.initialize(reached);
+    algorithm.run(reached);
+    return reached;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
+
+/**
+ * Benchmarks for the arithmetic operations of {@link CompoundBitVectorInterval}, which are used
+ * heavily by the invariants analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompoundBitVectorIntervalBenchmark {
+
+  /** Number of disjoint intervals in each operand. */
+  @Param({"1", "4", "16"})
+  public int intervals;
+
+  /** Whether signed overflows wrap around or lead to the top value. */
+  @Param({"true", "false"})
+  public boolean allowSignedWrapAround;
+
+  private CompoundBitVectorInterval left;
+  private CompoundBitVectorInterval right;
+
+  @Setup
+  public void setup() {
+    BitVectorInfo info = BitVectorInfo.from(32, true);
+    left = createOperand(info, -1000, 37);
+    right = createOperand(info, 3, 11);
+  }
+
+  private CompoundBitVectorInterval createOperand(BitVectorInfo pInfo, int pStart, int pStep) {
+    CompoundBitVectorInterval result = CompoundBitVectorInterval.bottom(pInfo);
+    for (int i = 0; i < intervals; i++) {
+      BigInteger lowerBound = BigInteger.valueOf(pStart + 4L * i * pStep);
+      BigInteger upperBound = lowerBound.add(BigInteger.valueOf(pStep));
+      result = result.unionWith(BitVectorInterval.of(pInfo, lowerBound, upperBound));
+    }
+    return result;
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval add() {
+    return left.add(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval multiply() {
+    return left.multiply(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval divide() {
+    return left.divide(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval modulo() {
+    return left.modulo(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval shiftLeft() {
+    return left.shiftLeft(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval binaryAnd() {
+    return left.binaryAnd(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval union() {
+    return left.unionWith(right);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval lessThan() {
+    return left.lessThan(right);
+  }
+}
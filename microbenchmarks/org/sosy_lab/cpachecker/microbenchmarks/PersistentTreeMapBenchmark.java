@@ -0,0 +1,96 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
+
+/**
+ * Benchmarks for updates of {@link PathCopyingPersistentTreeMap}, which backs most of the abstract
+ * states (e.g., {@link org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap} and
+ * {@link org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PersistentTreeMapBenchmark {
+
+  /** Number of entries in the map before the measured update. */
+  @Param({"16", "1024", "65536"})
+  public int size;
+
+  private PersistentSortedMap<String, Integer> map;
+  private String[] existingKeys;
+  private String[] newKeys;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    existingKeys = new String[size];
+    newKeys = new String[size];
+    PersistentSortedMap<String, Integer> m = PathCopyingPersistentTreeMap.of();
+    for (int i = 0; i < size; i++) {
+      existingKeys[i] = "var" + random.nextInt();
+      newKeys[i] = "new" + random.nextInt();
+      m = m.putAndCopy(existingKeys[i], i);
+    }
+    map = m;
+  }
+
+  private int nextIndex() {
+    next = (next + 1) % size;
+    return next;
+  }
+
+  @Benchmark
+  public PersistentSortedMap<String, Integer> putNewKey() {
+    return map.putAndCopy(newKeys[nextIndex()], 0);
+  }
+
+  @Benchmark
+  public PersistentSortedMap<String, Integer> putExistingKey() {
+    return map.putAndCopy(existingKeys[nextIndex()], -1);
+  }
+
+  @Benchmark
+  public PersistentSortedMap<String, Integer> removeExistingKey() {
+    return map.removeAndCopy(existingKeys[nextIndex()]);
+  }
+
+  @Benchmark
+  public Integer getExistingKey() {
+    return map.get(existingKeys[nextIndex()]);
+  }
+}
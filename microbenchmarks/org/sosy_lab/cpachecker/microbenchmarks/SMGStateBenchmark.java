@@ -0,0 +1,145 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
+import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.cfa.types.c.CVoidType;
+import org.sosy_lab.cpachecker.cpa.smg.SMGInconsistentException;
+import org.sosy_lab.cpachecker.cpa.smg.SMGOptions;
+import org.sosy_lab.cpachecker.cpa.smg.SMGState;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.CLangSMG;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgePointsTo;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.object.SMGRegion;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownExpValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownSymValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownSymbolicValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGZeroValue;
+
+/**
+ * Benchmarks for copying and updating {@link SMGState}s of list-heavy programs, which happens for
+ * every successor computation of the SMG analysis. The state contains a singly-linked list on the
+ * heap, explicit values, and path predicates for the data fields of the list nodes.
+ *
+ * <p>Run with {@code -Dmicrobenchmark.args="-prof gc"} to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SMGStateBenchmark {
+
+  private static final MachineModel MACHINE_MODEL = MachineModel.LINUX32;
+  private static final CSimpleType DATA_TYPE = CNumericTypes.INT;
+  private static final CType POINTER_TYPE = new CPointerType(false, false, CVoidType.VOID);
+  private static final int DATA_SIZE = MACHINE_MODEL.getSizeofInBits(DATA_TYPE);
+  private static final int NODE_SIZE = DATA_SIZE + MACHINE_MODEL.getSizeofPtrInBits();
+
+  /** Number of list nodes on the heap. */
+  @Param({"16", "256", "4096"})
+  public int size;
+
+  private SMGState state;
+  private SMGRegion[] nodes;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws InvalidConfigurationException {
+    CLangSMG heap = new CLangSMG(MACHINE_MODEL);
+    nodes = new SMGRegion[size];
+    SMGKnownSymbolicValue previousData = null;
+    SMGKnownSymbolicValue nextPointer = null;
+    ImmutableMap.Builder<SMGKnownSymbolicValue, SMGKnownExpValue> explicitValues =
+        ImmutableMap.builder();
+    for (int i = size - 1; i >= 0; i--) {
+      nodes[i] = new SMGRegion(NODE_SIZE, "node" + i);
+      heap.addHeapObject(nodes[i]);
+
+      SMGKnownSymbolicValue data = SMGKnownSymValue.of();
+      heap.addValue(data);
+      heap.addHasValueEdge(new SMGEdgeHasValue(DATA_TYPE, 0, nodes[i], data));
+      explicitValues.put(data, SMGKnownExpValue.valueOf(i));
+      if (previousData != null) {
+        heap.addPathPredicateRelation(
+            data, DATA_SIZE, previousData, DATA_SIZE, BinaryOperator.LESS_THAN);
+      }
+      previousData = data;
+
+      if (nextPointer == null) {
+        heap.addHasValueEdge(
+            new SMGEdgeHasValue(POINTER_TYPE, DATA_SIZE, nodes[i], SMGZeroValue.INSTANCE));
+      } else {
+        heap.addHasValueEdge(new SMGEdgeHasValue(POINTER_TYPE, DATA_SIZE, nodes[i], nextPointer));
+      }
+      nextPointer = SMGKnownSymValue.of();
+      heap.addValue(nextPointer);
+      heap.addPointsToEdge(new SMGEdgePointsTo(nextPointer, nodes[i], 0));
+    }
+
+    SMGOptions options = new SMGOptions(Configuration.defaultConfiguration());
+    state =
+        new SMGState(LogManager.createNullLogManager(), options, heap, 0, explicitValues.build());
+  }
+
+  @Benchmark
+  public SMGState copy() {
+    return state.copyOf();
+  }
+
+  /** Corresponds to the successor computation for an assignment to a list node. */
+  @Benchmark
+  public SMGState copyAndWrite() throws SMGInconsistentException {
+    next = (next + 1) % size;
+    SMGState successor = state.copyOf();
+    successor.writeValue(nodes[next], 0, DATA_TYPE, SMGKnownSymValue.of());
+    return successor;
+  }
+
+  /** Corresponds to the successor computation for an assumption with an explicit value. */
+  @Benchmark
+  public SMGState copyAndPutExplicit() {
+    next = (next + 1) % size;
+    SMGState successor = state.copyOf();
+    SMGKnownSymbolicValue value = SMGKnownSymValue.of();
+    successor.putExplicit(value, SMGKnownExpValue.valueOf(size + next));
+    return successor;
+  }
+}
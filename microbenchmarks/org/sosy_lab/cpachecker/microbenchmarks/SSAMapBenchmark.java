@@ -0,0 +1,103 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.common.collect.MapsDifference;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
+
+/**
+ * Benchmarks for {@link SSAMap#merge(SSAMap, SSAMap, MapsDifference.Visitor)}, which is called
+ * for every merge of path formulas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SSAMapBenchmark {
+
+  /** Number of variables in each of the merged maps. */
+  @Param({"16", "256", "4096"})
+  public int size;
+
+  /** Percentage of variables that have a different index in both maps. */
+  @Param({"1", "50"})
+  public int differencePercentage;
+
+  private SSAMap base;
+  private SSAMap left;
+  private SSAMap right;
+
+  @Setup
+  public void setup() {
+    SSAMapBuilder baseBuilder = SSAMap.emptySSAMap().builder();
+    for (int i = 0; i < size; i++) {
+      baseBuilder.setIndex(variable(i), CNumericTypes.INT, 1);
+    }
+    base = baseBuilder.build();
+
+    SSAMapBuilder leftBuilder = base.builder();
+    SSAMapBuilder rightBuilder = base.builder();
+    int differences = Math.max(1, size * differencePercentage / 100);
+    for (int i = 0; i < differences; i++) {
+      int var = (int) ((long) i * size / differences);
+      leftBuilder.setIndex(variable(var), CNumericTypes.INT, 2);
+      rightBuilder.setIndex(variable(var), CNumericTypes.INT, 3);
+    }
+    left = leftBuilder.build();
+    right = rightBuilder.build();
+  }
+
+  private static String variable(int i) {
+    return "main::var" + i;
+  }
+
+  @Benchmark
+  public SSAMap mergeIdentical() {
+    return SSAMap.merge(base, base, MapsDifference.ignoreMapsDifference());
+  }
+
+  @Benchmark
+  public SSAMap mergeDifferent() {
+    return SSAMap.merge(left, right, MapsDifference.ignoreMapsDifference());
+  }
+
+  @Benchmark
+  public List<MapsDifference.Entry<String, Integer>> mergeDifferentCollectingDifferences() {
+    List<MapsDifference.Entry<String, Integer>> differences = new ArrayList<>();
+    SSAMap.merge(left, right, MapsDifference.collectMapsDifferenceTo(differences));
+    return differences;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CoreComponentsFactory;
+import org.sosy_lab.cpachecker.core.Specification;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * A value analysis (with ARG, location and callstack tracking) of a small synthetic program,
+ * which serves as realistic workload for the benchmarks.
+ */
+class SyntheticAnalysis {
+
+  final LogManager logger = LogManager.createNullLogManager();
+  final ShutdownNotifier shutdownNotifier = ShutdownNotifier.createDummy();
+  final Configuration config;
+  final CFA cfa;
+  final ConfigurableProgramAnalysis cpa;
+
+  /**
+   * Create the analysis for a program with the given number of consecutive nondeterministic
+   * branches. Each branch doubles the number of distinct abstract states.
+   */
+  SyntheticAnalysis(ConfigurationBuilder pConfig, int pBranches)
+      throws InvalidConfigurationException, ParserException, InterruptedException, CPAException {
+    pConfig
+        .setOption("cpa", "cpa.arg.ARGCPA")
+        .setOption("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .setOption(
+            "CompositeCPA.cpas",
+            "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA");
+    config = pConfig.build();
+    cfa = TestDataTools.makeCFA(config, branchingProgram(pBranches));
+    cpa =
+        new CoreComponentsFactory(config, logger, shutdownNotifier, new AggregatedReachedSets())
+            .createCPA(cfa, Specification.alwaysSatisfied());
+  }
+
+  private static String[] branchingProgram(int pBranches) {
+    List<String> lines = new ArrayList<>();
+    lines.add("extern int __VERIFIER_nondet_int();");
+    lines.add("int inc(int v) { return v + 1; }");
+    lines.add("int main() {");
+    lines.add("  int x = 0;");
+    lines.add("  int i;");
+    for (int i = 0; i < pBranches; i++) {
+      lines.add("  if (__VERIFIER_nondet_int()) { x = 2 * x; } else { x = inc(2 * x); }");
+    }
+    lines.add("  for (i = 0; i < 8; i++) { x = x + i; }");
+    lines.add("  return x;");
+    lines.add("}");
+    return lines.toArray(new String[0]);
+  }
+
+  /** Add the initial state of the analysis to the given (empty) reached set. */
+  void initialize(ReachedSet pReached) throws InterruptedException {
+    CFANode mainFunction = cfa.getMainFunction();
+    StateSpacePartition partition = StateSpacePartition.getDefaultPartition();
+    pReached.add(
+        cpa.getInitialState(mainFunction, partition),
+        cpa.getInitialPrecision(mainFunction, partition));
+  }
+}
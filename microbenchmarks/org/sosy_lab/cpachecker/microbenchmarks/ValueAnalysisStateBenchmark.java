@@ -0,0 +1,86 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Benchmarks for copying and updating {@link ValueAnalysisState}, which happens for every
+ * successor computation of the value analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValueAnalysisStateBenchmark {
+
+  /** Number of tracked memory locations in the state. */
+  @Param({"16", "256", "4096"})
+  public int size;
+
+  private ValueAnalysisState state;
+  private MemoryLocation[] locations;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    state = new ValueAnalysisState(MachineModel.LINUX32);
+    locations = new MemoryLocation[size];
+    for (int i = 0; i < size; i++) {
+      locations[i] = MemoryLocation.valueOf("main", "var" + i);
+      state.assignConstant(locations[i], new NumericValue(i), CNumericTypes.INT);
+    }
+  }
+
+  @Benchmark
+  public ValueAnalysisState copy() {
+    return ValueAnalysisState.copyOf(state);
+  }
+
+  /** Corresponds to the successor computation for an assignment. */
+  @Benchmark
+  public ValueAnalysisState copyAndAssign() {
+    next = (next + 1) % size;
+    ValueAnalysisState successor = ValueAnalysisState.copyOf(state);
+    successor.assignConstant(locations[next], new NumericValue(-next), CNumericTypes.INT);
+    return successor;
+  }
+
+  @Benchmark
+  public boolean isLessOrEqual() {
+    return state.isLessOrEqual(state);
+  }
+}
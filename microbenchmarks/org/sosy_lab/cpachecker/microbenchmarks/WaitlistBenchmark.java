@@ -0,0 +1,126 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.microbenchmarks;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Benchmarks for the waitlist implementations. The states that are added to and popped from the
+ * waitlist are the reached states of a value analysis of a small synthetic program, such that
+ * sorting waitlists (e.g., by reverse postorder or callstack) see realistic states.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WaitlistBenchmark {
+
+  /**
+   * Traversal order (cf. option analysis.traversal.order), optionally followed by further boolean
+   * options of the form analysis.traversal.* that should be enabled, separated by "+".
+   */
+  @Param({
+    "DFS",
+    "BFS",
+    "RAND",
+    "RANDOM_PATH",
+    "DFS+useReversePostorder",
+    "DFS+useReversePostorder+useCallstack",
+    "BFS+useLoopstack"
+  })
+  public String traversal;
+
+  private WaitlistFactory waitlistFactory;
+  private List<AbstractState> states;
+
+  @Setup
+  public void setup()
+      throws InvalidConfigurationException, ParserException, InterruptedException, CPAException {
+    ConfigurationBuilder config = TestDataTools.configurationForTest();
+    List<String> parts = Splitter.on('+').splitToList(traversal);
+    config.setOption("analysis.traversal.order", parts.get(0));
+    for (String option : parts.subList(1, parts.size())) {
+      config.setOption("analysis.traversal." + option, "true");
+    }
+    SyntheticAnalysis analysis = new SyntheticAnalysis(config, 10);
+    ReachedSetFactory reachedSetFactory = new ReachedSetFactory(analysis.config, analysis.logger);
+    waitlistFactory = reachedSetFactory.createWaitlistFactory();
+
+    ReachedSet reached = reachedSetFactory.create();
+    analysis.initialize(reached);
+    CPAAlgorithm.create(analysis.cpa, analysis.logger, analysis.config, analysis.shutdownNotifier)
+        .run(reached);
+    states = ImmutableList.copyOf(reached);
+  }
+
+  /** Add all states to a new waitlist and pop them in the order of the waitlist. */
+  @Benchmark
+  public int addAndPopAll() {
+    Waitlist waitlist = waitlistFactory.createWaitlistInstance();
+    for (AbstractState state : states) {
+      waitlist.add(state);
+    }
+    int count = 0;
+    while (!waitlist.isEmpty()) {
+      waitlist.pop();
+      count++;
+    }
+    return count;
+  }
+
+  /** Interleaved adding and popping, as done by {@link CPAAlgorithm}. */
+  @Benchmark
+  public int interleavedAddAndPop() {
+    Waitlist waitlist = waitlistFactory.createWaitlistInstance();
+    int count = 0;
+    for (AbstractState state : states) {
+      waitlist.add(state);
+      if (count++ % 3 == 2) {
+        waitlist.pop();
+      }
+    }
+    return waitlist.size();
+  }
+}
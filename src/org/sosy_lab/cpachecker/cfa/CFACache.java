@@ -0,0 +1,290 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+
+/**
+ * A cache for fully post-processed CFAs (including variable classification, loop structure, live
+ * variables etc.) on disk, such that repeated analyses of the same program can skip parsing.
+ *
+ * <p>Each CFA is stored in a file whose name is a hash over the content of the input files, the
+ * version of CPAchecker, and all options that influence the creation of the CFA. The CFA is written
+ * with Java serialization, but instead of the full class descriptors only the class names, their
+ * serialVersionUIDs, and a hash of their serializable fields are written, and a fast compression
+ * level is used. Thus a cached CFA is rejected if a class changed (e.g., in a development build
+ * with the same version). Header files that are included by the preprocessor are not part of the
+ * hash, thus {@link CFACreator} does not use the cache if the preprocessor is run.
+ */
+@Options(prefix = "cfa.cache")
+class CFACache {
+
+  private static final int MAGIC = 0x43464143; // "CFAC"
+  private static final int FORMAT_VERSION = 2;
+  private static final String FILE_SUFFIX = ".cfa";
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** Prefixes of all options that may influence the created CFA. */
+  private static final ImmutableList<String> RELEVANT_OPTIONS =
+      ImmutableList.of(
+          "analysis.entryFunction",
+          "analysis.functionPointer",
+          "analysis.interprocedural",
+          "analysis.machineModel",
+          "analysis.matchAssignedFunctionPointers",
+          "analysis.replace",
+          "analysis.summaryEdges",
+          "analysis.threadOperationsTransform",
+          "analysis.useGlobalVars",
+          "analysis.useLoopStructure",
+          "cfa.",
+          "dependencegraph.",
+          "java.",
+          "language",
+          "liveVar.",
+          "locmapper.",
+          "parser.");
+
+  /** Prefixes of options that match {@link #RELEVANT_OPTIONS} but do not change the CFA. */
+  private static final ImmutableList<String> IRRELEVANT_OPTIONS =
+      ImmutableList.of(
+          "cfa.cache.",
+          "cfa.useCache",
+          "cfa.callgraph.",
+          "cfa.export",
+          "cfa.file",
+          "cfa.numberOfThreads",
+          "cfa.pixelGraphicFile",
+          "cfa.serialize");
+
+  @Option(
+    description =
+        "directory where cached CFAs are stored"
+            + " (use an absolute path to share the cache between runs with different output"
+            + " directories)"
+  )
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private @Nullable Path directory = Paths.get("cfa-cache");
+
+  private final Configuration config;
+  private final LogManager logger;
+
+  CFACache(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    logger = pLogger;
+  }
+
+  /**
+   * Compute the key under which the CFA for the given source files is cached.
+   *
+   * @return the key, or an empty optional if caching is disabled
+   */
+  Optional<String> computeKey(List<String> pSourceFiles) throws IOException {
+    if (directory == null) {
+      return Optional.empty();
+    }
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(FORMAT_VERSION);
+    hasher.putString(CPAchecker.getPlainVersion(), UTF_8);
+    for (String option : Splitter.on('\n').omitEmptyStrings().split(config.asPropertiesString())) {
+      if (isRelevantOption(option)) {
+        hasher.putString(option, UTF_8).putByte((byte) 0);
+      }
+    }
+    for (String sourceFile : pSourceFiles) {
+      hasher.putString(sourceFile, UTF_8).putByte((byte) 0);
+      hasher.putBytes(
+          MoreFiles.asByteSource(Paths.get(sourceFile)).hash(Hashing.sha256()).asBytes());
+    }
+    return Optional.of(hasher.hash().toString());
+  }
+
+  private static boolean isRelevantOption(String pOption) {
+    return RELEVANT_OPTIONS.stream().anyMatch(pOption::startsWith)
+        && IRRELEVANT_OPTIONS.stream().noneMatch(pOption::startsWith);
+  }
+
+  private Path getFile(String pKey) {
+    return directory.resolve(pKey + FILE_SUFFIX);
+  }
+
+  /**
+   * Load the CFA that was stored under the given key.
+   *
+   * @return the CFA, or an empty optional if no (valid) CFA was stored under this key
+   */
+  Optional<CFA> load(String pKey) {
+    Path file = getFile(pKey);
+    if (!Files.isReadable(file)) {
+      return Optional.empty();
+    }
+
+    Inflater inflater = new Inflater();
+    try (InputStream in = Files.newInputStream(file);
+        InputStream inflated = new InflaterInputStream(in, inflater, BUFFER_SIZE);
+        ObjectInputStream ois =
+            new CompactObjectInputStream(new BufferedInputStream(inflated, BUFFER_SIZE))) {
+      if (ois.readInt() != MAGIC
+          || ois.readInt() != FORMAT_VERSION
+          || !ois.readUTF().equals(pKey)) {
+        throw new StreamCorruptedException("unexpected file header");
+      }
+      return Optional.of((CFA) ois.readObject());
+
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      // Deserializing objects of changed classes may also fail with arbitrary runtime exceptions
+      // thrown by readObject() methods, e.g., IllegalStateException or IndexOutOfBoundsException.
+      logger.logUserException(
+          Level.WARNING, e, "Could not read CFA from cache, parsing program instead");
+      return Optional.empty();
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Store the given CFA under the given key. The file is written atomically, such that concurrent
+   * runs never read a partially written CFA. Errors are only logged.
+   */
+  void store(String pKey, CFA pCfa) {
+    Path file = getFile(pKey);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      MoreFiles.createParentDirectories(file);
+      Path tmpFile = Files.createTempFile(directory, pKey, ".tmp");
+      try {
+        try (OutputStream out = Files.newOutputStream(tmpFile);
+            OutputStream deflated = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            ObjectOutputStream oos =
+                new CompactObjectOutputStream(new BufferedOutputStream(deflated, BUFFER_SIZE))) {
+          oos.writeInt(MAGIC);
+          oos.writeInt(FORMAT_VERSION);
+          oos.writeUTF(pKey);
+          oos.writeObject(pCfa);
+        }
+        Files.move(
+            tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmpFile);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write CFA to cache");
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * {@link ObjectOutputStream} that writes only the name, the serialVersionUID, and a hash of the
+   * serializable fields of each class instead of its full descriptor (all fields with their types,
+   * the super classes etc.). The counterpart {@link CompactObjectInputStream} rejects classes whose
+   * serialVersionUID or fields differ, such that a changed class cannot be read with a wrong
+   * layout.
+   */
+  static class CompactObjectOutputStream extends ObjectOutputStream {
+
+    CompactObjectOutputStream(OutputStream pOut) throws IOException {
+      super(pOut);
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass pDesc) throws IOException {
+      writeUTF(pDesc.getName());
+      writeLong(pDesc.getSerialVersionUID());
+      writeInt(hashFields(pDesc));
+    }
+  }
+
+  /** Counterpart of {@link CompactObjectOutputStream}. */
+  static class CompactObjectInputStream extends ObjectInputStream {
+
+    CompactObjectInputStream(InputStream pIn) throws IOException {
+      super(pIn);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      String name = readUTF();
+      long serialVersionUID = readLong();
+      int fieldsHash = readInt();
+      ObjectStreamClass desc =
+          ObjectStreamClass.lookup(Class.forName(name, false, CFACache.class.getClassLoader()));
+      if (desc == null) {
+        throw new InvalidClassException(name, "class is not serializable");
+      }
+      if (desc.getSerialVersionUID() != serialVersionUID || hashFields(desc) != fieldsHash) {
+        throw new InvalidClassException(name, "class has changed since the CFA was cached");
+      }
+      return desc;
+    }
+  }
+
+  private static int hashFields(ObjectStreamClass pDesc) {
+    int hash = 0;
+    for (ObjectStreamField field : pDesc.getFields()) {
+      hash = 31 * hash + field.getName().hashCode();
+      hash = 31 * hash + Objects.hashCode(field.getTypeString());
+      hash = 31 * hash + field.getTypeCode();
+    }
+    return hash;
+  }
+}
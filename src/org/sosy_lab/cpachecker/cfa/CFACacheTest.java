@@ -0,0 +1,240 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFACache.CompactObjectInputStream;
+import org.sosy_lab.cpachecker.cfa.CFACache.CompactObjectOutputStream;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+
+public class CFACacheTest {
+
+  private static final String PROGRAM =
+      "int main() { int x = 0; while (x < 10) { x++; } return x; }";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private FileTypeConverter fileTypeConverter;
+  private List<String> sourceFiles;
+
+  @Before
+  public void setUp() throws IOException, InvalidConfigurationException {
+    fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.newFolder("output").toString())
+                .setOption("rootDirectory", tempFolder.getRoot().toString())
+                .build());
+    Path program = tempFolder.newFile("program.c").toPath();
+    Files.write(program, PROGRAM.getBytes(StandardCharsets.UTF_8));
+    sourceFiles = ImmutableList.of(program.toString());
+  }
+
+  private Configuration createConfig(String... pOptions) throws InvalidConfigurationException {
+    ConfigurationBuilder builder =
+        Configuration.builder()
+            .addConverter(FileOption.class, fileTypeConverter)
+            .setOption("cfa.useCache", "true")
+            .setOption("cfa.findLiveVariables", "true")
+            .setOption("cfa.export", "false")
+            .setOption("cfa.exportPerFunction", "false");
+    for (int i = 0; i < pOptions.length; i += 2) {
+      builder.setOption(pOptions[i], pOptions[i + 1]);
+    }
+    return builder.build();
+  }
+
+  private CFA createCFA(Configuration pConfig)
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    return new CFACreator(pConfig, logger, ShutdownNotifier.createDummy())
+        .parseFileAndCreateCFA(sourceFiles);
+  }
+
+  private static ImmutableList<Integer> nodeNumbers(CFA pCfa) {
+    return FluentIterable.from(pCfa.getAllNodes())
+        .transform(CFANode::getNodeNumber)
+        .toSortedList(Integer::compare);
+  }
+
+  @Test
+  public void testCfaIsLoadedFromCache()
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    Configuration config = createConfig();
+    CFA created = createCFA(config);
+    CFA loaded = createCFA(config);
+
+    // a newly created CFA would have fresh node numbers
+    assertThat(nodeNumbers(loaded)).isEqualTo(nodeNumbers(created));
+    assertThat(loaded.getAllFunctionNames()).isEqualTo(created.getAllFunctionNames());
+    assertThat(loaded.getMainFunction().getNodeNumber())
+        .isEqualTo(created.getMainFunction().getNodeNumber());
+    assertThat(loaded.getLoopStructure()).isPresent();
+    assertThat(loaded.getLoopStructure().get().getCount()).isEqualTo(1);
+    assertThat(loaded.getVarClassification()).isPresent();
+    assertThat(loaded.getLiveVariables()).isPresent();
+    for (CFANode node : created.getAllNodes()) {
+      CFANode loadedNode =
+          FluentIterable.from(loaded.getAllNodes())
+              .firstMatch(n -> n.getNodeNumber() == node.getNodeNumber())
+              .get();
+      assertThat(loadedNode.getNumLeavingEdges()).isEqualTo(node.getNumLeavingEdges());
+      assertThat(loaded.getLiveVariables().get().getLiveVariablesForNode(loadedNode))
+          .hasSize(created.getLiveVariables().get().getLiveVariablesForNode(node).size());
+    }
+
+    // nodes created later must not clash with the nodes of the loaded CFA
+    assertThat(nodeNumbers(loaded)).doesNotContain(new CFANode("main").getNodeNumber());
+  }
+
+  @Test
+  public void testKeyDependsOnRelevantOptions()
+      throws InvalidConfigurationException, IOException {
+    Optional<String> key = new CFACache(createConfig(), logger).computeKey(sourceFiles);
+    assertThat(key).isPresent();
+
+    assertThat(
+            new CFACache(createConfig("cfa.export", "true", "cpa.value.merge", "JOIN"), logger)
+                .computeKey(sourceFiles))
+        .isEqualTo(key);
+    assertThat(
+            new CFACache(createConfig("analysis.machineModel", "LINUX64"), logger)
+                .computeKey(sourceFiles))
+        .isNotEqualTo(key);
+    assertThat(
+            new CFACache(createConfig("cfa.simplifyCfa", "false"), logger)
+                .computeKey(sourceFiles))
+        .isNotEqualTo(key);
+  }
+
+  @Test
+  public void testKeyDependsOnFileContent() throws InvalidConfigurationException, IOException {
+    CFACache cache = new CFACache(createConfig(), logger);
+    Optional<String> key = cache.computeKey(sourceFiles);
+
+    Files.write(
+        tempFolder.getRoot().toPath().resolve("program.c"),
+        (PROGRAM + "\n").getBytes(StandardCharsets.UTF_8));
+    assertThat(cache.computeKey(sourceFiles)).isNotEqualTo(key);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testPreprocessorIsRejected() throws InvalidConfigurationException {
+    // included header files are not part of the key
+    new CFACreator(
+        createConfig("parser.usePreprocessor", "true"), logger, ShutdownNotifier.createDummy());
+  }
+
+  @Test
+  public void testInvalidCacheFileIsIgnored() throws InvalidConfigurationException, IOException {
+    CFACache cache = new CFACache(createConfig(), logger);
+    String key = cache.computeKey(sourceFiles).get();
+    Path cacheDir = tempFolder.getRoot().toPath().resolve("output").resolve("cfa-cache");
+    Files.createDirectories(cacheDir);
+    Files.write(cacheDir.resolve(key + ".cfa"), new byte[] {1, 2, 3});
+
+    assertThat(cache.load(key)).isEmpty();
+    assertThat(cache.load("unknown")).isEmpty();
+  }
+
+  private static class TestObject implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String value;
+
+    private TestObject(String pValue) {
+      value = pValue;
+    }
+  }
+
+  private static Object readCompact(byte[] pBytes) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new CompactObjectInputStream(new ByteArrayInputStream(pBytes))) {
+      return in.readObject();
+    }
+  }
+
+  @Test
+  public void testCompactSerialization() throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new CompactObjectOutputStream(bytes)) {
+      out.writeObject(ImmutableList.of(new TestObject("a"), new TestObject("b")));
+    }
+
+    Object read = readCompact(bytes.toByteArray());
+    assertThat(read).isInstanceOf(List.class);
+    assertThat(FluentIterable.from((List<?>) read).filter(TestObject.class).transform(o -> o.value))
+        .containsExactly("a", "b")
+        .inOrder();
+  }
+
+  @Test(expected = InvalidClassException.class)
+  public void testChangedClassIsRejected() throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out =
+        new CompactObjectOutputStream(bytes) {
+          @Override
+          protected void writeClassDescriptor(ObjectStreamClass pDesc) throws IOException {
+            // simulate a stream that was written with a different version of the class
+            writeUTF(pDesc.getName());
+            writeLong(pDesc.getSerialVersionUID() + 1);
+            writeInt(0);
+          }
+        }) {
+      out.writeObject(new TestObject("a"));
+    }
+
+    readCompact(bytes.toByteArray());
+  }
+}
@@ -26,6 +26,9 @@ package org.sosy_lab.cpachecker.cfa;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.io.MoreFiles;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
@@ -43,8 +46,13 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Concurrency;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -213,6 +221,17 @@ public class CFACreator {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path serializeCfaFile = Paths.get("cfa.ser.gz");
 
+  @Option(
+    name = "cfa.useCache",
+    description =
+        "Load the CFA from the cache if it was created before for the same input files and"
+            + " options, and store newly created CFAs in the cache (cf. cfa.cache.directory)."
+            + " This skips parsing and post-processing on repeated runs."
+            + " Only the given input files are part of the cache key, thus this is not supported"
+            + " together with parser.usePreprocessor (included headers) or for Java programs."
+  )
+  private boolean useCfaCache = false;
+
   @Option(
     secure = true,
     name = "cfa.pixelGraphicFile",
@@ -236,6 +255,17 @@ public class CFACreator {
           + "create a series of if-else edges with explicit indizes instead.")
   private boolean expandFunctionPointerArrayAssignments = false;
 
+  @Option(
+    secure = true,
+    name = "cfa.numberOfThreads",
+    description =
+        "number of threads for parsing several source files and for post-processing the CFA. "
+            + "With 1 everything is done sequentially, "
+            + "with -1 we use the number of available cores of the machine. "
+            + "The resulting CFA does not depend on this value."
+  )
+  private int numberOfThreads = 1;
+
   @Option(secure=true, name="cfa.simplifyCfa",
         description="Remove all edges which don't have any effect on the program")
   private boolean simplifyCfa = true;
@@ -297,7 +327,15 @@ private boolean classifyNodes = false;
     private Timer conversionTime;
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
+    private final Timer simplificationTime = new Timer();
+    private final Timer declarationMovingTime = new Timer();
+    private final Timer postorderTime = new Timer();
+    private final Timer loopStructureTime = new Timer();
+    private final Timer variableClassificationTime = new Timer();
+    private final Timer liveVariablesTime = new Timer();
+    private final Timer dependenceGraphTime = new Timer();
     private final Timer exportTime = new Timer();
+    private final Timer cacheTime = new Timer();
     private final List<Statistics> statisticsCollection;
     private final LogManager logger;
 
@@ -319,16 +357,32 @@ private boolean classifyNodes = false;
       out.println("    Time for AST to CFA:      " + conversionTime);
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
+      printPhaseTime(out, "Time for simplification:   ", simplificationTime);
+      printPhaseTime(out, "Time for moving decl.:     ", declarationMovingTime);
+      printPhaseTime(out, "Time for postorder:        ", postorderTime);
+      printPhaseTime(out, "Time for loop structure:   ", loopStructureTime);
+      printPhaseTime(out, "Time for var. class.:      ", variableClassificationTime);
+      printPhaseTime(out, "Time for live variables:   ", liveVariablesTime);
+      printPhaseTime(out, "Time for dependence graph: ", dependenceGraphTime);
 
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
       }
+      if (cacheTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for CFA cache:       " + cacheTime);
+      }
 
       for (Statistics st : statisticsCollection) {
         StatisticsUtils.printStatistics(st, out, logger, pResult, pReached);
       }
     }
 
+    private static void printPhaseTime(PrintStream out, String label, Timer timer) {
+      if (timer.getNumberOfIntervals() > 0) {
+        out.println("      " + label + timer);
+      }
+    }
+
     @Override
     public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
       for (Statistics st : statisticsCollection) {
@@ -339,16 +393,33 @@ private boolean classifyNodes = false;
 
   private final CFACreatorStatistics stats;
   private final Configuration config;
+  private final @Nullable CFACache cache;
 
   public CFACreator(Configuration config, LogManager logger, ShutdownNotifier pShutdownNotifier)
       throws InvalidConfigurationException {
 
     config.inject(this);
+    if (numberOfThreads == -1) {
+      numberOfThreads = Runtime.getRuntime().availableProcessors();
+    } else if (numberOfThreads < 1) {
+      throw new InvalidConfigurationException(
+          "Option cfa.numberOfThreads needs to be a positive number or -1.");
+    }
 
     this.config = config;
     this.logger = logger;
     this.shutdownNotifier = pShutdownNotifier;
     this.stats = new CFACreatorStatistics(logger);
+    if (useCfaCache && usePreprocessor) {
+      throw new InvalidConfigurationException(
+          "Option cfa.useCache is not supported together with parser.usePreprocessor,"
+              + " because changes of included header files would not be detected.");
+    }
+    if (useCfaCache && language == Language.JAVA) {
+      throw new InvalidConfigurationException(
+          "Option cfa.useCache is not supported for Java programs.");
+    }
+    cache = useCfaCache ? new CFACache(config, logger) : null;
 
     stats.parserInstantiationTime.start();
 
@@ -357,8 +428,9 @@ private boolean classifyNodes = false;
       parser = Parsers.getJavaParser(logger, config);
       break;
     case C:
-      CParser outerParser =
-          CParser.Factory.getParser(logger, CParser.Factory.getOptions(config), machineModel);
+      CParser.ParserOptions parserOptions = CParser.Factory.getOptions(config);
+      parserOptions.setNumberOfThreads(numberOfThreads);
+      CParser outerParser = CParser.Factory.getParser(logger, parserOptions, machineModel);
 
       outerParser =
           new CParserWithLocationMapper(
@@ -428,6 +500,22 @@ private boolean classifyNodes = false;
 
     stats.totalTime.start();
     try {
+      Optional<String> cacheKey = Optional.empty();
+      if (cache != null) {
+        stats.cacheTime.start();
+        try {
+          cacheKey = cache.computeKey(sourceFiles);
+          Optional<CFA> cachedCfa = cacheKey.flatMap(cache::load);
+          if (cachedCfa.isPresent()) {
+            logger.log(Level.INFO, "Using CFA from cache instead of parsing the program.");
+            exportCFAAsyncIfRequested(cachedCfa.get());
+            return cachedCfa.get();
+          }
+        } finally {
+          stats.cacheTime.stop();
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -448,7 +536,17 @@ private boolean classifyNodes = false;
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      CFA cfa = createCFA(c, mainFunction);
+
+      if (cacheKey.isPresent()) {
+        stats.cacheTime.start();
+        try {
+          cache.store(cacheKey.get(), cfa);
+        } finally {
+          stats.cacheTime.stop();
+        }
+      }
+      return cfa;
 
     } finally {
       stats.totalTime.stop();
@@ -482,7 +580,29 @@ private boolean classifyNodes = false;
     // SECOND, do those post-processings that change the CFA by adding/removing nodes/edges
     stats.processingTime.start();
 
-    cfa = postProcessingOnMutableCFAs(cfa, pParseResult.getGlobalDeclarations());
+    // The executor is used for post-processings that handle each function on its own.
+    // Such post-processings must not create CFA nodes (this would make the node numbering
+    // depend on the scheduling) and must merge their results in a deterministic order.
+    final ExecutorService executor =
+        numberOfThreads > 1
+            ? Executors.newFixedThreadPool(
+                numberOfThreads,
+                new ThreadFactoryBuilder().setNameFormat("CFA post-processing %d").build())
+            : MoreExecutors.newDirectExecutorService();
+    try {
+      cfa = postProcessingOnMutableCFAs(cfa, pParseResult.getGlobalDeclarations(), executor);
+      return finishCFA(cfa, pParseResult, mainFunction, executor);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ImmutableCFA finishCFA(
+      MutableCFA cfa,
+      ParseResult pParseResult,
+      FunctionEntryNode mainFunction,
+      ExecutorService executor)
+      throws InvalidConfigurationException, InterruptedException, ParserException {
 
     // Check CFA again after post-processings
     stats.checkTime.start();
@@ -495,19 +615,18 @@ private boolean classifyNodes = false;
     // THIRD, do read-only post-processings on each single function CFA
 
     // Annotate CFA nodes with reverse postorder information for later use.
-    for (FunctionEntryNode function : cfa.getAllFunctionHeads()) {
-      CFAReversePostorder sorter = new CFAReversePostorder();
-      sorter.assignSorting(function);
-    }
+    assignReversePostorder(cfa, executor);
 
     // get loop information
     // (needs post-order information)
     if (useLoopStructure) {
+      stats.loopStructureTime.start();
       addLoopStructure(cfa);
+      stats.loopStructureTime.stop();
     }
 
     // instrument the cfa, if any configuration regarding that is set (needs loop structure)
-    instrumentCfa(cfa);
+    instrumentCfa(cfa, executor);
 
     // FOURTH, insert call and return edges and build the supergraph
     if (interprocedural) {
@@ -528,12 +647,15 @@ private boolean classifyNodes = false;
     // Get information about variables, needed for some analysis.
     final Optional<VariableClassification> varClassification;
     if (language == Language.C) {
+      stats.variableClassificationTime.start();
       try {
         VariableClassificationBuilder builder = new VariableClassificationBuilder(config, logger);
         varClassification = Optional.of(builder.build(cfa));
         builder.collectStatistics(stats.statisticsCollection);
       } catch (UnrecognizedCodeException e) {
         throw new CParserException(e);
+      } finally {
+        stats.variableClassificationTime.stop();
       }
     } else {
       varClassification = Optional.empty();
@@ -542,10 +664,15 @@ private boolean classifyNodes = false;
     // create the live variables if the variable classification is present
     if (findLiveVariables &&
         (varClassification.isPresent() || cfa.getLanguage() != Language.C)) {
-      cfa.setLiveVariables(LiveVariables.create(varClassification,
-                                                pParseResult.getGlobalDeclarations(),
-                                                cfa, logger, shutdownNotifier,
-                                                config));
+      stats.liveVariablesTime.start();
+      try {
+        cfa.setLiveVariables(LiveVariables.create(varClassification,
+                                                  pParseResult.getGlobalDeclarations(),
+                                                  cfa, logger, shutdownNotifier,
+                                                  config));
+      } finally {
+        stats.liveVariablesTime.stop();
+      }
     }
 
     Optional<DependenceGraph> depGraph;
@@ -556,6 +683,7 @@ private boolean classifyNodes = false;
             "Variable Classification not present. Consider turning this on "
                 + "to improve dependence graph construction.");
       }
+      stats.dependenceGraphTime.start();
       try {
         DependenceGraphBuilder depGraphBuilder =
             DependenceGraph.builder(cfa, varClassification, config, logger, shutdownNotifier);
@@ -563,6 +691,8 @@ private boolean classifyNodes = false;
         depGraphBuilder.collectStatistics(stats.statisticsCollection);
       } catch (CPAException pE) {
         throw new CParserException(pE);
+      } finally {
+        stats.dependenceGraphTime.stop();
       }
     } else {
       depGraph = Optional.empty();
@@ -577,20 +707,15 @@ private boolean classifyNodes = false;
     assert CFACheck.check(mainFunction, null, machineModel);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)
-        || ((serializeCfaFile != null) && serializeCfa)
-        || (exportCfaPixelFile != null)
-        || (exportCfaToCFile != null && exportCfaToC)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportCFAAsyncIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
 
     return immutableCFA;
   }
 
-  private void instrumentCfa(MutableCFA pCfa) throws InvalidConfigurationException {
+  private void instrumentCfa(MutableCFA pCfa, ExecutorService pExecutor)
+      throws InvalidConfigurationException, InterruptedException {
     if (addLabels) {
       // add a block label at the beginning of each basic block.
       // This may require the CFA's loop structure, and thus should be done
@@ -598,10 +723,33 @@ private boolean classifyNodes = false;
       new LabelAdder(config).addLabels(pCfa);
 
       // Re-compute postorder ids to include newly added label nodes
+      assignReversePostorder(pCfa, pExecutor);
+    }
+  }
+
+  /**
+   * Annotate the CFA nodes of each function with reverse postorder information. Each function is
+   * handled independently by the given executor, because only the nodes of this function are
+   * written.
+   */
+  private void assignReversePostorder(MutableCFA pCfa, ExecutorService pExecutor)
+      throws InterruptedException {
+    stats.postorderTime.start();
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>();
       for (FunctionEntryNode function : pCfa.getAllFunctionHeads()) {
-        CFAReversePostorder sorter = new CFAReversePostorder();
-        sorter.assignSorting(function);
+        tasks.add(
+            () -> {
+              CFAReversePostorder sorter = new CFAReversePostorder();
+              sorter.assignSorting(function);
+              return null;
+            });
       }
+      for (Future<Void> task : pExecutor.invokeAll(tasks)) {
+        Futures.getUnchecked(task);
+      }
+    } finally {
+      stats.postorderTime.stop();
     }
   }
 
@@ -673,17 +821,27 @@ private boolean classifyNodes = false;
    * @return either a modified old CFA or a complete new CFA
    */
   private MutableCFA postProcessingOnMutableCFAs(
-      MutableCFA cfa, final List<Pair<ADeclaration, String>> globalDeclarations)
-      throws InvalidConfigurationException, CParserException {
+      MutableCFA cfa,
+      final List<Pair<ADeclaration, String>> globalDeclarations,
+      ExecutorService executor)
+      throws InvalidConfigurationException, CParserException, InterruptedException {
 
     // remove all edges which don't have any effect on the program
     if (simplifyCfa) {
-      CFASimplifier.simplifyCFA(cfa);
+      stats.simplificationTime.start();
+      try {
+        CFASimplifier.simplifyCFA(cfa, executor);
+      } finally {
+        stats.simplificationTime.stop();
+      }
     }
 
+    // This creates new CFA nodes and is thus done sequentially.
     if (moveDeclarationsToFunctionStart) {
+      stats.declarationMovingTime.start();
       CFADeclarationMover declarationMover = new CFADeclarationMover(logger);
       declarationMover.moveDeclarationsToFunctionStart(cfa);
+      stats.declarationMovingTime.stop();
     }
 
     if (checkNullPointers) {
@@ -986,6 +1144,16 @@ v.addInitializer(initializer);
     }
   }
 
+  private void exportCFAAsyncIfRequested(final CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)
+        || ((serializeCfaFile != null) && serializeCfa)
+        || (exportCfaPixelFile != null)
+        || (exportCfaToCFile != null && exportCfaToC)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   private void exportCFAAsync(final CFA cfa) {
     // Execute asynchronously, this may take several seconds for large programs on slow disks.
     // This is safe because we don't modify the CFA from this point on.
@@ -0,0 +1,148 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+public class CFACreatorTest {
+
+  private static final ImmutableList<String> PROGRAMS =
+      ImmutableList.of(
+          "int f(int x) { int i = 0; while (i < x) { i++; } return i; }\n"
+              + "int main() { int a = f(3); if (a != 3) { return 1; } return g(a); }",
+          "int g(int y) { static int s = 0; s += y; return s > 10 ? h(y) : s; }",
+          "int h(int z) { int k; for (k = 0; k < z; k++) { z--; } return z; }");
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private List<String> sourceFiles;
+
+  @Before
+  public void setUp() throws IOException {
+    ImmutableList.Builder<String> files = ImmutableList.builder();
+    for (int i = 0; i < PROGRAMS.size(); i++) {
+      Path file = tempFolder.newFile("program" + i + ".c").toPath();
+      Files.write(file, PROGRAMS.get(i).getBytes(StandardCharsets.UTF_8));
+      files.add(file.toString());
+    }
+    sourceFiles = files.build();
+  }
+
+  private CFA createCFA(int pNumberOfThreads)
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("cfa.numberOfThreads", Integer.toString(pNumberOfThreads))
+            .setOption("cfa.findLiveVariables", "true")
+            .build();
+    return new CFACreator(config, LogManager.createTestLogManager(), ShutdownNotifier.createDummy())
+        .parseFileAndCreateCFA(sourceFiles);
+  }
+
+  /**
+   * Describe the CFA by its nodes, in the order of their node numbers. Node numbers are global,
+   * so they are made relative to the smallest node number of the CFA.
+   */
+  private static ImmutableList<String> describe(CFA pCfa) {
+    ImmutableList<CFANode> nodes =
+        FluentIterable.from(pCfa.getAllNodes())
+            .toSortedList((n1, n2) -> Integer.compare(n1.getNodeNumber(), n2.getNodeNumber()));
+    int offset = nodes.get(0).getNodeNumber();
+
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    for (CFANode node : nodes) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(node.getNodeNumber() - offset)
+          .append(" in ")
+          .append(node.getFunctionName())
+          .append(" rpo ")
+          .append(node.getReversePostorderId());
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        sb.append(" -{")
+            .append(edge.getDescription())
+            .append("}-> ")
+            .append(edge.getSuccessor().getNodeNumber() - offset);
+      }
+      result.add(sb.toString());
+    }
+    return result.build();
+  }
+
+  @Test
+  public void testParallelCreationEqualsSequentialCreation()
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    CFA sequential = createCFA(1);
+    CFA parallel = createCFA(PROGRAMS.size());
+
+    assertThat(parallel.getAllFunctionNames())
+        .containsExactlyElementsIn(sequential.getAllFunctionNames());
+    assertThat(parallel.getMainFunction().getNodeNumber() - minNodeNumber(parallel))
+        .isEqualTo(sequential.getMainFunction().getNodeNumber() - minNodeNumber(sequential));
+    assertThat(describe(parallel)).containsExactlyElementsIn(describe(sequential)).inOrder();
+  }
+
+  @Test
+  public void testRepeatedParallelCreationIsDeterministic()
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    ImmutableList<String> expected = describe(createCFA(PROGRAMS.size()));
+    for (int i = 0; i < 5; i++) {
+      assertThat(describe(createCFA(PROGRAMS.size())))
+          .containsExactlyElementsIn(expected)
+          .inOrder();
+    }
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testInvalidNumberOfThreads()
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    createCFA(0);
+  }
+
+  private static int minNodeNumber(CFA pCfa) {
+    return FluentIterable.from(pCfa.getAllNodes())
+        .transform(CFANode::getNodeNumber)
+        .toSortedList(Integer::compare)
+        .get(0);
+  }
+}
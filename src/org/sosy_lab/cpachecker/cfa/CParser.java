@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cfa;
 
+import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.util.List;
 import org.sosy_lab.common.configuration.Configuration;
@@ -177,11 +178,24 @@ public interface CParser extends Parser {
     @Option(secure=true, description="C dialect for parser")
     private Dialect dialect = Dialect.GNUC;
 
+    /** Set by the CFA creator from the option cfa.numberOfThreads. */
+    private int numberOfThreads = 1;
+
     protected ParserOptions() {}
 
     public Dialect getDialect() {
       return dialect;
     }
+
+    /** The number of threads the parser may use for parsing several source files. */
+    public int getNumberOfThreads() {
+      return numberOfThreads;
+    }
+
+    public void setNumberOfThreads(int pNumberOfThreads) {
+      Preconditions.checkArgument(pNumberOfThreads >= 1);
+      numberOfThreads = pNumberOfThreads;
+    }
   }
 
   /** Factory that tries to create a parser based on available libraries (e.g. Eclipse CDT). */
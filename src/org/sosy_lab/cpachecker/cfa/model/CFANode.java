@@ -33,7 +33,7 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import org.sosy_lab.common.UniqueIdGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclaration;
 
@@ -41,7 +41,7 @@ public class CFANode implements Comparable<CFANode>, Serializable {
 
   private static final long serialVersionUID = 5168350921309486536L;
 
-  private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+  private static final AtomicInteger idGenerator = new AtomicInteger();
 
   private final int nodeNumber;
 
@@ -71,7 +71,7 @@ public class CFANode implements Comparable<CFANode>, Serializable {
     assert !pFunctionName.isEmpty();
 
     functionName = pFunctionName;
-    nodeNumber = idGenerator.getFreshId();
+    nodeNumber = idGenerator.getAndIncrement();
   }
 
   public int getNodeNumber() {
@@ -265,6 +265,9 @@ public class CFANode implements Comparable<CFANode>, Serializable {
     // leaving and entering edges have to be updated explicitly after reading a node
     leavingEdges = new ArrayList<>(1);
     enteringEdges = new ArrayList<>(1);
+
+    // nodes created after reading a CFA must not reuse the numbers of the read nodes
+    idGenerator.accumulateAndGet(nodeNumber + 1, Math::max);
   }
 
   public void addOutOfScopeVariables(Collection<CSimpleDeclaration> pOutOfScopeVariables) {
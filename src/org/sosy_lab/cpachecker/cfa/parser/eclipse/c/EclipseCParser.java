@@ -28,10 +28,13 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.io.MoreFiles;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -43,6 +46,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
@@ -56,7 +63,6 @@ import org.eclipse.cdt.core.dom.parser.c.ICParserExtensionConfiguration;
 import org.eclipse.cdt.core.index.IIndexFileLocation;
 import org.eclipse.cdt.core.model.ILanguage;
 import org.eclipse.cdt.core.parser.FileContent;
-import org.eclipse.cdt.core.parser.IParserLogService;
 import org.eclipse.cdt.core.parser.IScannerInfo;
 import org.eclipse.cdt.core.parser.ParserFactory;
 import org.eclipse.cdt.internal.core.parser.IMacroDictionary;
@@ -64,6 +70,7 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.common.time.Timer;
@@ -84,8 +91,6 @@ class EclipseCParser implements CParser {
 
   protected final ILanguage language;
 
-  protected final IParserLogService parserLog = ParserFactory.createDefaultLogService();
-
   private final MachineModel machine;
 
   private final LogManager logger;
@@ -158,19 +163,74 @@ class EclipseCParser implements CParser {
     ParseContext parseContext =
         new ParseContext(createNiceFileNameFunction(fileNameMapping.keySet()), sourceOriginMapping);
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+    final int numberOfThreads = Math.min(options.getNumberOfThreads(), pInput.size());
+    final List<IASTTranslationUnit> astUnits;
+    if (numberOfThreads > 1) {
+      astUnits = parseInParallel(pInput, parseContext, pWrapperFunction, numberOfThreads);
+    } else {
+      astUnits = new ArrayList<>(pInput.size());
+      for (FileToParse f : pInput) {
+        astUnits.add(parse(wrap(f, pWrapperFunction), parseContext));
+      }
+    }
 
-    for (FileToParse f : pInput) {
-      final String fileName = fixPath(f.getFileName());
+    return buildCFA(astUnits, parseContext, scope);
+  }
+
+  private static FileContent wrap(FileToParse pFile, FileParseWrapper pWrapperFunction)
+      throws CParserException {
+    try {
+      return pWrapperFunction.wrap(fixPath(pFile.getFileName()), pFile);
+    } catch (IOException e) {
+      throw new CParserException("IO failed!", e);
+    }
+  }
+
+  /**
+   * Parse the given translation units concurrently. The translation units are independent of
+   * each other, and the result list has the same order as the input, such that the following CFA
+   * construction (and thus the numbering of CFA nodes) does not depend on the scheduling. If
+   * several files cannot be parsed, the error for the first of them is reported.
+   */
+  private List<IASTTranslationUnit> parseInParallel(
+      List<? extends FileToParse> pInput,
+      ParseContext parseContext,
+      FileParseWrapper pWrapperFunction,
+      int numberOfThreads)
+      throws CParserException {
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            numberOfThreads,
+            new ThreadFactoryBuilder().setNameFormat("CFA parser %d").setDaemon(true).build());
+    parseTimer.start();
+    try {
+      List<Future<IASTTranslationUnit>> futures = new ArrayList<>(pInput.size());
+      for (FileToParse f : pInput) {
+        futures.add(
+            executor.submit(() -> parseUnit(wrap(f, pWrapperFunction), parseContext)));
+      }
 
-      try {
-        astUnits.add(parse(pWrapperFunction.wrap(fileName, f), parseContext));
-      } catch (IOException e) {
-        throw new CParserException("IO failed!", e);
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+      for (Future<IASTTranslationUnit> future : futures) {
+        astUnits.add(getUninterruptiblyOrThrow(future));
       }
+      return astUnits;
+
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
     }
+  }
 
-    return buildCFA(astUnits, parseContext, scope);
+  private static IASTTranslationUnit getUninterruptiblyOrThrow(
+      Future<IASTTranslationUnit> pFuture) throws CParserException {
+    try {
+      return Uninterruptibles.getUninterruptibly(pFuture);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CParserException.class);
+      throw new UnexpectedCheckedException("parsing", e.getCause());
+    }
   }
 
   @Override
@@ -307,6 +367,16 @@ class EclipseCParser implements CParser {
   private IASTTranslationUnit parse(FileContent codeReader, ParseContext parseContext)
       throws CParserException {
     parseTimer.start();
+    try {
+      return parseUnit(codeReader, parseContext);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  /** Parse a single translation unit. This method is thread-safe. */
+  private IASTTranslationUnit parseUnit(FileContent codeReader, ParseContext parseContext)
+      throws CParserException {
     try {
       IASTTranslationUnit result = getASTTranslationUnit(codeReader);
 
@@ -333,20 +403,23 @@ class EclipseCParser implements CParser {
 
     } catch (CFAGenerationRuntimeException | CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
+  /**
+   * Create the AST of a single translation unit. The include-file provider and the log service of
+   * CDT keep state while parsing, so each call gets its own instances and parallel parse tasks do
+   * not share them.
+   */
   private IASTTranslationUnit getASTTranslationUnit(FileContent pCode)
       throws CFAGenerationRuntimeException, CoreException {
 
     return language.getASTTranslationUnit(pCode,
                                           StubScannerInfo.instance,
-                                          FileContentProvider.instance,
+                                          new FileContentProvider(),
                                           null,
                                           PARSER_OPTIONS,
-                                          parserLog);
+                                          ParserFactory.createDefaultLogService());
   }
 
   /**
@@ -536,8 +609,6 @@ class EclipseCParser implements CParser {
 
   private static class FileContentProvider extends InternalFileContentProvider {
 
-    static final InternalFileContentProvider instance = new FileContentProvider();
-
     @Override
     public InternalFileContent getContentForInclusion(String pFilePath,
         IMacroDictionary pMacroDictionary) {
@@ -28,6 +28,7 @@ import static org.sosy_lab.cpachecker.util.CFAUtils.predecessorsOf;
 import static org.sosy_lab.cpachecker.util.CFAUtils.successorsOf;
 
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 
 import org.sosy_lab.cpachecker.cfa.CFACreationUtils;
 import org.sosy_lab.cpachecker.cfa.MutableCFA;
@@ -45,6 +46,10 @@ import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 
 public class CFASimplifier {
@@ -55,22 +60,48 @@ public class CFASimplifier {
    * BlankEdges in the subtree of an AssumeEdge) are deleted and replaced by a
    * single BlankEdge.
    *
+   * <p>The functions are simplified independently of each other by the given executor,
+   * which is possible because the CFAs of the functions are not yet connected
+   * by call and return edges. The nodes are removed from the cfa afterwards
+   * in the order of the function heads, thus the result does not depend on the executor.
+   *
    * @param cfa The cfa which should be simplified
+   * @param executor The executor that runs the simplification of each function
    */
-  public static void simplifyCFA(MutableCFA cfa) {
+  public static void simplifyCFA(MutableCFA cfa, ExecutorService executor)
+      throws InterruptedException {
+    List<Callable<List<CFANode>>> tasks = new ArrayList<>();
     for (CFANode root : cfa.getAllFunctionHeads()) {
-      simplifyFunction(root, cfa);
+      tasks.add(
+          () -> {
+            List<CFANode> removedNodes = new ArrayList<>();
+            simplifyFunction(root, cfa, removedNodes);
+            return removedNodes;
+          });
+    }
+
+    for (Future<List<CFANode>> removedNodes : executor.invokeAll(tasks)) {
+      try {
+        removedNodes.get().forEach(cfa::removeNode);
+      } catch (ExecutionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new AssertionError(e.getCause());
+      }
     }
   }
 
   /**
    * This method makes the simplification step for a single function, the
    * root node is the node where the search for possible simplifications starts.
+   * The set of nodes of the given cfa is not modified, instead all nodes that need to be removed
+   * from it are added to the given list.
    *
    * @param root start node for simplification
    * @param cfa The cfa where the simplifications should be applied
+   * @param removedNodes The list that collects the nodes that are no longer part of the cfa
    */
-  private static void simplifyFunction(final CFANode root, final MutableCFA cfa) {
+  private static void simplifyFunction(
+      final CFANode root, final MutableCFA cfa, final List<CFANode> removedNodes) {
     // We want to eliminate branching with two empty branches (only blank edges).
     // Inner branches need to be eliminated first.
 
@@ -83,7 +114,7 @@ public class CFASimplifier {
     while (!branchingPoints.isEmpty()) {
       final CFANode branchingPoint = branchingPoints.pollLast();
 
-      simplifyBranching(branchingPoint, cfa);
+      simplifyBranching(branchingPoint, removedNodes);
     }
   }
 
@@ -184,9 +215,10 @@ public class CFASimplifier {
   /**
    * Simplify one branching in the CFA at the given node (if possible).
    * @param branchingPoint The root of the branching (needs to have 2 outgoing AssumeEdges).
-   * @param cfa the cfa which should be simplified
+   * @param removedNodes the list that collects the nodes that are removed from the cfa
    */
-  private static void simplifyBranching(final CFANode branchingPoint, final MutableCFA cfa) {
+  private static void simplifyBranching(
+      final CFANode branchingPoint, final List<CFANode> removedNodes) {
     CFANode leftEndpoint  = findEndOfBlankEdgeChain(branchingPoint.getLeavingEdge(0).getSuccessor());
     CFANode rightEndpoint = findEndOfBlankEdgeChain(branchingPoint.getLeavingEdge(1).getSuccessor());
 
@@ -203,7 +235,7 @@ public class CFASimplifier {
         removedFileLocations.add(leftEdge.getFileLocation());
         CFANode toRemove = leftEdge.getSuccessor();
         toRemove.removeEnteringEdge(leftEdge);
-        removeChainOfNodes(toRemove, endpoint, cfa, removedFileLocations);
+        removeChainOfNodes(toRemove, endpoint, removedNodes, removedFileLocations);
       }
       {
         branchingPoint.removeLeavingEdge(rightEdge);
@@ -211,13 +243,13 @@ public class CFASimplifier {
         removedFileLocations.add(rightEdge.getFileLocation());
         CFANode toRemove = rightEdge.getSuccessor();
         toRemove.removeEnteringEdge(rightEdge);
-        removeChainOfNodes(toRemove, endpoint, cfa, removedFileLocations);
+        removeChainOfNodes(toRemove, endpoint, removedNodes, removedFileLocations);
       }
 
       // Maybe there are more outgoing blank edges from the endpoint,
       // also remove them.
       final CFANode endpoint2 = findEndOfBlankEdgeChain(endpoint);
-      removeChainOfNodes(endpoint, endpoint2, cfa, removedFileLocations);
+      removeChainOfNodes(endpoint, endpoint2, removedNodes, removedFileLocations);
 
       CFAEdge blankEdge = new BlankEdge("skipped unnecessary edges",
           FileLocation.merge(removedFileLocations), branchingPoint, endpoint2, "skipped unnecessary edges");
@@ -241,7 +273,7 @@ public class CFASimplifier {
   }
 
   private static void removeChainOfNodes(final CFANode start, final CFANode endpoint,
-      final MutableCFA cfa, final List<FileLocation> removedFileLocations) {
+      final List<CFANode> removedNodes, final List<FileLocation> removedFileLocations) {
     CFANode toRemove = start;
 
     while (!toRemove.equals(endpoint)) {
@@ -253,7 +285,7 @@ public class CFASimplifier {
 
       CFAEdge leavingEdge = toRemove.getLeavingEdge(0);
       toRemove.removeLeavingEdge(leavingEdge);
-      cfa.removeNode(toRemove);
+      removedNodes.add(toRemove);
 
       CFANode nextNode = leavingEdge.getSuccessor();
       nextNode.removeEnteringEdge(leavingEdge);
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cmdline;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 import static org.sosy_lab.common.io.DuplicateOutputStream.mergeStreams;
 
@@ -42,6 +43,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -91,6 +93,8 @@ import org.sosy_lab.cpachecker.util.SpecificationProperty;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsTree;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsTreeStream;
 
 public class CPAMain {
 
@@ -272,6 +276,22 @@ public class CPAMain {
     @FileOption(FileOption.Type.OUTPUT_FILE)
     private Path exportStatisticsFile = Paths.get("Statistics.txt");
 
+    @Option(
+        secure = true,
+        name = "statistics.json",
+        description =
+            "write the statistics additionally in machine-readable JSON format to this file")
+    @FileOption(FileOption.Type.OUTPUT_FILE)
+    private @Nullable Path exportStatisticsJsonFile = null;
+
+    @Option(
+        secure = true,
+        name = "statistics.csv",
+        description =
+            "write the statistics additionally as CSV table with key path and value to this file")
+    @FileOption(FileOption.Type.OUTPUT_FILE)
+    private @Nullable Path exportStatisticsCsvFile = null;
+
     @Option(secure=true, name="statistics.print", description="print statistics to console")
     private boolean printStatistics = false;
 
@@ -700,11 +720,23 @@ public class CPAMain {
     PrintStream stream = makePrintStream(mergeStreams(console, file));
 
     StringWriter statistics = new StringWriter();
+    StatisticsTree statisticsTree = null;
     try {
       // print statistics
-      PrintStream statisticsStream =
-          makePrintStream(mergeStreams(stream, new WriterOutputStream(statistics)));
+      OutputStream statisticsOutput = mergeStreams(stream, new WriterOutputStream(statistics));
+      PrintStream statisticsStream;
+      if (options.exportStatistics
+          && (options.exportStatisticsJsonFile != null
+              || options.exportStatisticsCsvFile != null)) {
+        // collect the statistics additionally in machine-readable form
+        StatisticsTreeStream treeStream = new StatisticsTreeStream(statisticsOutput);
+        statisticsTree = treeStream.getTree();
+        statisticsStream = treeStream;
+      } else {
+        statisticsStream = makePrintStream(statisticsOutput);
+      }
       mResult.printStatistics(statisticsStream);
+      statisticsStream.flush();
       stream.println();
 
       // print result
@@ -728,12 +760,35 @@ public class CPAMain {
       closer.close();
     }
 
+    if (statisticsTree != null) {
+      exportStatisticsTree(statisticsTree, options, logManager);
+    }
+
     // export report
     if (mResult.getResult() != Result.NOT_YET_STARTED) {
       reportGenerator.generate(mResult.getCfa(), mResult.getReached(), statistics.toString());
     }
   }
 
+  private static void exportStatisticsTree(
+      StatisticsTree tree, MainOptions options, LogManager logManager) {
+    if (options.exportStatisticsJsonFile != null) {
+      try (Writer w = IO.openOutputFile(options.exportStatisticsJsonFile, UTF_8)) {
+        tree.writeJson(w);
+        w.write('\n');
+      } catch (IOException e) {
+        logManager.logUserException(Level.WARNING, e, "Could not write statistics to JSON file");
+      }
+    }
+    if (options.exportStatisticsCsvFile != null) {
+      try (Writer w = IO.openOutputFile(options.exportStatisticsCsvFile, UTF_8)) {
+        tree.writeCsv(w);
+      } catch (IOException e) {
+        logManager.logUserException(Level.WARNING, e, "Could not write statistics to CSV file");
+      }
+    }
+  }
+
   @SuppressFBWarnings(value="DM_DEFAULT_ENCODING",
       justification="Default encoding is the correct one for stdout.")
   private static PrintStream makePrintStream(OutputStream stream) {
@@ -535,6 +535,7 @@ public class CPAchecker {
     CPAcheckerBean mxbean = new CPAcheckerBean(reached, logger, shutdownManager);
     mxbean.register();
 
+    stats.monitorSubStatistics();
     stats.startAnalysisTimer();
     try {
       int counterExampleCount = 0;
@@ -61,6 +61,7 @@ import org.sosy_lab.common.configuration.FileOption.Type;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.io.PathTemplate;
 import org.sosy_lab.common.log.LogManager;
@@ -90,6 +91,7 @@ import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
 import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsTreeStream;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
@@ -144,11 +146,31 @@ class MainCPAStatistics implements Statistics {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path outputCoverageFile = Paths.get("coverage.info");
 
+  @Option(
+    secure = true,
+    name = "statistics.snapshots.interval",
+    description =
+        "periodically write a snapshot of time, reached-set size, waitlist size, and memory usage"
+            + " to a file during the analysis (use seconds or specify a unit; 0 to disable)"
+  )
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
+  private TimeSpan snapshotInterval = TimeSpan.ofMillis(0);
+
+  @Option(
+    secure = true,
+    name = "statistics.snapshots.file",
+    description = "file for the statistics snapshots, one JSON object per line"
+  )
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path snapshotFile = Paths.get("StatisticsSnapshots.jsonl");
+
   private final LogManager logger;
   private final Collection<Statistics> subStats;
   private final @Nullable MemoryStatistics memStats;
   private final @Nullable CExpressionInvariantExporter cExpressionInvariantExporter;
   private Thread memStatsThread;
+  private final @Nullable StatisticsSnapshotWriter snapshotWriter;
+  private Thread snapshotThread;
 
   private final Timer programTime = new Timer();
   final Timer creationTime = new Timer();
@@ -180,6 +202,15 @@ class MainCPAStatistics implements Statistics {
       memStats = null;
     }
 
+    if (!snapshotInterval.isEmpty() && snapshotFile != null) {
+      snapshotWriter = new StatisticsSnapshotWriter(pLogger, snapshotFile, snapshotInterval);
+      snapshotThread =
+          Concurrency.newDaemonThread("CPAchecker statistics snapshot writer", snapshotWriter);
+      snapshotThread.start();
+    } else {
+      snapshotWriter = null;
+    }
+
     programTime.start();
     try {
       programCpuTime = ProcessCpuTime.read();
@@ -216,6 +247,16 @@ class MainCPAStatistics implements Statistics {
     return "CPAchecker";
   }
 
+  /**
+   * Report the snapshot values of the sub statistics in the statistics snapshots (if enabled).
+   * This should be called after all sub statistics were registered.
+   */
+  void monitorSubStatistics() {
+    if (snapshotWriter != null) {
+      snapshotWriter.monitorStatistics(subStats);
+    }
+  }
+
   void startAnalysisTimer() {
     analysisTime.start();
     try {
@@ -282,6 +323,9 @@ class MainCPAStatistics implements Statistics {
     if (memStats != null) {
       memStatsThread.interrupt(); // stop memory statistics collection
     }
+    if (snapshotWriter != null) {
+      snapshotThread.interrupt(); // write last snapshot and stop
+    }
 
     final Timer statisticsTime = new Timer();
     statisticsTime.start();
@@ -295,6 +339,9 @@ class MainCPAStatistics implements Statistics {
     out.println();
     out.println("CPAchecker general statistics");
     out.println("-----------------------------");
+    if (out instanceof StatisticsTreeStream) {
+      ((StatisticsTreeStream) out).beginSection("CPAchecker general statistics");
+    }
 
     printCfaStatistics(out);
 
@@ -330,6 +377,20 @@ class MainCPAStatistics implements Statistics {
     out.println();
 
     printMemoryStatistics(out);
+
+    if (out instanceof StatisticsTreeStream) {
+      ((StatisticsTreeStream) out).endSection();
+    }
+  }
+
+  /**
+   * Add a value to the machine-readable statistics if they are collected, for values that are
+   * printed directly and not with {@link StatisticsWriter}.
+   */
+  private static void putTreeValue(PrintStream out, int level, String name, Object value) {
+    if (out instanceof StatisticsTreeStream) {
+      ((StatisticsTreeStream) out).putValue(level, name, value);
+    }
   }
 
   private void exportCoverage(PrintStream out, UnmodifiableReachedSet reached) {
@@ -437,6 +498,7 @@ class MainCPAStatistics implements Statistics {
     int reachedSize = reached.size();
 
     out.println("Size of reached set:             " + reachedSize);
+    putTreeValue(out, 0, "Size of reached set", reachedSize);
 
     if (!reached.isEmpty()) {
       if (reachedSize < MAX_SIZE_FOR_REACHED_STATISTICS) {
@@ -445,6 +507,7 @@ class MainCPAStatistics implements Statistics {
 
       if (reached.hasWaitingState()) {
         out.println("  Size of final wait list:       " + reached.getWaitlist().size());
+        putTreeValue(out, 1, "Size of final wait list", reached.getWaitlist().size());
       }
     }
   }
@@ -537,18 +600,26 @@ class MainCPAStatistics implements Statistics {
       Timer statisticsTime) {
     out.println("Time for analysis setup:      " + creationTime);
     out.println("  Time for loading CPAs:      " + cpaCreationTime);
+    putTreeValue(out, 0, "Time for analysis setup", creationTime);
+    putTreeValue(out, 1, "Time for loading CPAs", cpaCreationTime);
     if (cfaCreatorStatistics != null) {
       StatisticsUtils.printStatistics(cfaCreatorStatistics, out, logger, result, reached);
       StatisticsUtils.writeOutputFiles(cfaCreatorStatistics, logger, result, reached);
     }
     out.println("Time for Analysis:            " + analysisTime);
     out.println("CPU time for analysis:        " + TimeSpan.ofNanos(analysisCpuTime).formatAs(TimeUnit.SECONDS));
+    putTreeValue(out, 0, "Time for Analysis", analysisTime);
+    putTreeValue(out, 0, "CPU time for analysis", TimeSpan.ofNanos(analysisCpuTime));
     if (resultAnalysisTime.getNumberOfIntervals() > 0) {
       out.println("Time for analyzing result:    " + resultAnalysisTime);
+      putTreeValue(out, 0, "Time for analyzing result", resultAnalysisTime);
     }
     out.println("Total time for CPAchecker:    " + programTime);
     out.println("Total CPU time for CPAchecker:" + TimeSpan.ofNanos(programCpuTime).formatAs(TimeUnit.SECONDS));
     out.println("Time for statistics:          " + statisticsTime);
+    putTreeValue(out, 0, "Total time for CPAchecker", programTime);
+    putTreeValue(out, 0, "Total CPU time for CPAchecker", TimeSpan.ofNanos(programCpuTime));
+    putTreeValue(out, 0, "Time for statistics", statisticsTime);
   }
 
   private void printMemoryStatistics(PrintStream out) {
@@ -0,0 +1,130 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import javax.management.JMException;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsTree;
+
+/**
+ * This class is a runnable that periodically writes a snapshot of some key statistics (time,
+ * memory usage, and the values that the statistics of the components add with {@link
+ * Statistics#writeSnapshot(StatisticsTree)}, e.g., the size of reached set and waitlist) to a file,
+ * one JSON object per line. This allows to observe how these values develop over the course of a
+ * long analysis. To use it, let a {@link Thread} run it and call {@link Thread#interrupt()} to stop
+ * it, which writes a final snapshot.
+ *
+ * <p>The analysis is never blocked by the snapshots, and no data structure of the analysis is
+ * read from this thread, only values that the components publish for concurrent reading.
+ */
+class StatisticsSnapshotWriter implements Runnable {
+
+  private final LogManager logger;
+  private final Path outputFile;
+  private final TimeSpan interval;
+
+  private final long startTime = System.nanoTime();
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+  private volatile ImmutableList<Statistics> statistics = ImmutableList.of();
+
+  StatisticsSnapshotWriter(LogManager pLogger, Path pOutputFile, TimeSpan pInterval) {
+    logger = pLogger;
+    outputFile = pOutputFile;
+    interval = pInterval;
+  }
+
+  /** Set the statistics whose snapshot values should be reported from now on. */
+  void monitorStatistics(Iterable<Statistics> pStatistics) {
+    statistics = ImmutableList.copyOf(pStatistics);
+  }
+
+  @Override
+  public void run() {
+    try (Writer out = IO.openOutputFile(outputFile, UTF_8)) {
+      while (true) { // no stop condition, call Thread#interrupt() to stop it
+        writeSnapshot(out);
+        try {
+          Thread.sleep(interval.asMillis());
+        } catch (InterruptedException e) {
+          writeSnapshot(out);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write statistics snapshots");
+    }
+  }
+
+  private void writeSnapshot(Writer out) throws IOException {
+    StatisticsTree snapshot = new StatisticsTree();
+    snapshot.put("time", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    try {
+      snapshot.put("cpuTime", TimeSpan.ofNanos(ProcessCpuTime.read()).asMillis());
+    } catch (JMException | NoClassDefFoundError e) {
+      // user was already warned by MainCPAStatistics
+    }
+
+    for (Statistics stats : statistics) {
+      String name = stats.getName();
+      StatisticsTree values = new StatisticsTree();
+      stats.writeSnapshot(values);
+      if (!values.isEmpty() && !Strings.isNullOrEmpty(name)) {
+        snapshot.put(snapshot.makeUnique(name), values);
+      }
+    }
+
+    snapshot.put("heapUsed", memory.getHeapMemoryUsage().getUsed());
+    snapshot.put("nonHeapUsed", memory.getNonHeapMemoryUsage().getUsed());
+
+    long gcTime = 0;
+    long gcCount = 0;
+    for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      gcTime += Math.max(gcBean.getCollectionTime(), 0);
+      gcCount += Math.max(gcBean.getCollectionCount(), 0);
+    }
+    snapshot.put("gcTime", gcTime);
+    snapshot.put("gcCount", gcCount);
+
+    snapshot.writeJson(out);
+    out.write('\n');
+    out.flush();
+  }
+}
@@ -36,6 +36,7 @@ import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.AbstractMBean;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
@@ -54,9 +55,13 @@ import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ReexplorationCache;
 import org.sosy_lab.cpachecker.cpa.value.refiner.UnsoundRefiner;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSetUpdater {
 
@@ -76,6 +81,12 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
     private long totalReachedSizeBeforeRefinement = 0;
     private long totalReachedSizeAfterRefinement = 0;
 
+    private final @Nullable ReexplorationCache reexplorationCache;
+
+    private CEGARStatistics(@Nullable ReexplorationCache pReexplorationCache) {
+      reexplorationCache = pReexplorationCache;
+    }
+
     @Override
     public String getName() {
       return "CEGAR algorithm";
@@ -98,11 +109,16 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
         out.println("Time for refinements:             " + refinementTimer);
         out.println("Average time for refinement:      " + refinementTimer.getAvgTime().formatAs(TimeUnit.SECONDS));
         out.println("Max time for refinement:          " + refinementTimer.getMaxTime().formatAs(TimeUnit.SECONDS));
+
+        if (reexplorationCache != null) {
+          out.println("");
+          reexplorationCache.printStatistics(StatisticsWriter.writingStatisticsTo(out));
+        }
       }
     }
   }
 
-  private final CEGARStatistics stats = new CEGARStatistics();
+  private final CEGARStatistics stats;
 
   private final List<ReachedSetUpdateListener> reachedSetUpdateListeners =
       new CopyOnWriteArrayList<>();
@@ -170,6 +186,7 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
     private final AlgorithmFactory algorithmFactory;
     private final LogManager logger;
     private final Refiner refiner;
+    private final @Nullable ReexplorationCache reexplorationCache;
 
     public CEGARAlgorithmFactory(
         Algorithm pAlgorithm,
@@ -191,12 +208,19 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
       logger = pLogger;
       verifyNotNull(refinerFactory);
       refiner = refinerFactory.create(pCpa);
+      ARGCPA argCpa = CPAs.retrieveCPA(pCpa, ARGCPA.class);
+      reexplorationCache = argCpa == null ? null : argCpa.getReexplorationCache();
     }
 
     @Override
     public CEGARAlgorithm newInstance() {
       return new CEGARAlgorithm(
-          algorithmFactory.newInstance(), refiner, logger, globalRefinement, maxRefinementNum);
+          algorithmFactory.newInstance(),
+          refiner,
+          reexplorationCache,
+          logger,
+          globalRefinement,
+          maxRefinementNum);
     }
   }
 
@@ -212,9 +236,11 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
   private CEGARAlgorithm(
       Algorithm pAlgorithm,
       Refiner pRefiner,
+      @Nullable ReexplorationCache pReexplorationCache,
       LogManager pLogger,
       boolean pGlobalRefinement,
       int pMaxRefinementNum) {
+    stats = new CEGARStatistics(pReexplorationCache);
     algorithm = pAlgorithm;
     mRefiner = Preconditions.checkNotNull(pRefiner);
     logger = pLogger;
@@ -24,6 +24,9 @@
 package org.sosy_lab.cpachecker.core.algorithm;
 
 import com.google.common.base.Functions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,9 +36,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
@@ -58,16 +71,21 @@ import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentPartitionedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGLinkLock;
 import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsTree;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 public class CPAAlgorithm implements Algorithm, StatisticsProvider {
@@ -83,7 +101,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     private Timer addTimer           = new Timer();
     private Timer forcedCoveringTimer = new Timer();
 
-    private int   countIterations   = 0;
+    private volatile int countIterations = 0; // volatile for snapshots
     private int   maxWaitlistSize   = 0;
     private long  countWaitlistSize = 0;
     private int   countSuccessors   = 0;
@@ -94,6 +112,13 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
     private Map<String, AbstractStatValue> reachedSetStatistics = new HashMap<>();
 
+    /** The latest sizes of reached set and waitlist, for snapshots. */
+    private volatile int currentReachedSetSize = 0;
+    private volatile int currentWaitlistSize = 0;
+
+    /** Statistics of the single workers, only used in parallel mode. */
+    private final List<CPAStatistics> workerStatistics = new CopyOnWriteArrayList<>();
+
     @Override
     public String getName() {
       return "CPA algorithm";
@@ -101,38 +126,94 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
     @Override
     public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
-      out.println("Number of iterations:            " + countIterations);
-      if (countIterations == 0) {
+      int totalIterations = countIterations;
+      int totalMaxWaitlistSize = maxWaitlistSize;
+      long totalWaitlistSize = countWaitlistSize;
+      for (CPAStatistics worker : workerStatistics) {
+        totalIterations += worker.countIterations;
+        totalMaxWaitlistSize = Math.max(totalMaxWaitlistSize, worker.maxWaitlistSize);
+        totalWaitlistSize += worker.countWaitlistSize;
+      }
+      out.println("Number of iterations:            " + totalIterations);
+      if (totalIterations == 0) {
         // Statistics not relevant, prevent division by zero
         return;
       }
 
-      out.println("Max size of waitlist:            " + maxWaitlistSize);
-      out.println("Average size of waitlist:        " + countWaitlistSize
-          / countIterations);
+      out.println("Max size of waitlist:            " + totalMaxWaitlistSize);
+      out.println("Average size of waitlist:        " + totalWaitlistSize
+          / totalIterations);
       StatisticsWriter w = StatisticsWriter.writingStatisticsTo(out);
       for (AbstractStatValue c : reachedSetStatistics.values()) {
         w.put(c);
       }
-      out.println("Number of computed successors:   " + countSuccessors);
-      out.println("Max successors for one state:    " + maxSuccessors);
-      out.println("Number of times merged:          " + countMerge);
-      out.println("Number of times stopped:         " + countStop);
-      out.println("Number of times breaked:         " + countBreak);
+      int totalSuccessors = countSuccessors;
+      int totalMaxSuccessors = maxSuccessors;
+      int totalMerge = countMerge;
+      int totalStop = countStop;
+      int totalBreak = countBreak;
+      for (CPAStatistics worker : workerStatistics) {
+        totalSuccessors += worker.countSuccessors;
+        totalMaxSuccessors = Math.max(totalMaxSuccessors, worker.maxSuccessors);
+        totalMerge += worker.countMerge;
+        totalStop += worker.countStop;
+        totalBreak += worker.countBreak;
+      }
+      out.println("Number of computed successors:   " + totalSuccessors);
+      out.println("Max successors for one state:    " + totalMaxSuccessors);
+      out.println("Number of times merged:          " + totalMerge);
+      out.println("Number of times stopped:         " + totalStop);
+      out.println("Number of times breaked:         " + totalBreak);
       out.println();
       out.println("Total time for CPA algorithm:     " + totalTimer + " (Max: " + totalTimer.getMaxTime().formatAs(TimeUnit.SECONDS) + ")");
-      out.println("  Time for choose from waitlist:  " + chooseTimer);
+      if (workerStatistics.isEmpty()) {
+        out.println("  Time for choose from waitlist:  " + chooseTimer);
+        printTimers(out, "  ");
+      } else {
+        for (int i = 0; i < workerStatistics.size(); i++) {
+          CPAStatistics worker = workerStatistics.get(i);
+          out.println("  Worker " + i + ":");
+          out.println("    Number of processed states:   " + worker.countIterations);
+          out.println("    Time for choose from waitlist:  " + worker.chooseTimer);
+          worker.printTimers(out, "    ");
+        }
+      }
+    }
+
+    @Override
+    public void writeSnapshot(StatisticsTree pSnapshot) {
+      int totalIterations = countIterations;
+      for (CPAStatistics worker : workerStatistics) {
+        totalIterations += worker.countIterations;
+      }
+      pSnapshot
+          .put("iterations", totalIterations)
+          .put("reachedSetSize", currentReachedSetSize)
+          .put("waitlistSize", currentWaitlistSize);
+    }
+
+    private void printTimers(PrintStream out, String indent) {
       if (forcedCoveringTimer.getNumberOfIntervals() > 0) {
-        out.println("  Time for forced covering:       " + forcedCoveringTimer);
+        out.println(indent + "Time for forced covering:       " + forcedCoveringTimer);
       }
-      out.println("  Time for precision adjustment:  " + precisionTimer);
-      out.println("  Time for transfer relation:     " + transferTimer);
+      out.println(indent + "Time for precision adjustment:  " + precisionTimer);
+      out.println(indent + "Time for transfer relation:     " + transferTimer);
       if (mergeTimer.getNumberOfIntervals() > 0) {
-        out.println("  Time for merge operator:        " + mergeTimer);
+        out.println(indent + "Time for merge operator:        " + mergeTimer);
       }
-      out.println("  Time for stop operator:         " + stopTimer);
-      out.println("  Time for adding to reached set: " + addTimer);
+      out.println(indent + "Time for stop operator:         " + stopTimer);
+      out.println(indent + "Time for adding to reached set: " + addTimer);
+    }
 
+    private void stopAllTimers() {
+      totalTimer.stopIfRunning();
+      chooseTimer.stopIfRunning();
+      precisionTimer.stopIfRunning();
+      transferTimer.stopIfRunning();
+      mergeTimer.stopIfRunning();
+      stopTimer.stopIfRunning();
+      addTimer.stopIfRunning();
+      forcedCoveringTimer.stopIfRunning();
     }
   }
 
@@ -150,6 +231,17 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         + " Useful for incomplete analysis with no counterexample checking.")
     private boolean reportFalseAsUnknown = false;
 
+    @Option(
+        secure = true,
+        description =
+            "number of worker threads that explore the state space in parallel. "
+                + "With 1 the sequential algorithm is used, "
+                + "with -1 we use the number of available cores of the machine. "
+                + "Successors are computed concurrently, thus all transfer relations "
+                + "of the analysis need to be thread-safe. "
+                + "Merge, stop, and adding states to the reached set are serialized.")
+    private int numberOfWorkers = 1;
+
     private final ForcedCovering forcedCovering;
 
     private final ConfigurableProgramAnalysis cpa;
@@ -160,6 +252,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         Configuration config, ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
 
       config.inject(this);
+      if (numberOfWorkers == -1) {
+        numberOfWorkers = Runtime.getRuntime().availableProcessors();
+      } else if (numberOfWorkers < 1) {
+        throw new InvalidConfigurationException(
+            "Option cpa.numberOfWorkers needs to be a positive number or -1.");
+      }
       this.cpa = cpa;
       this.logger = logger;
       this.shutdownNotifier = pShutdownNotifier;
@@ -174,7 +272,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
     @Override
     public CPAAlgorithm newInstance() {
-      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, reportFalseAsUnknown);
+      return new CPAAlgorithm(
+          cpa, logger, shutdownNotifier, forcedCovering, reportFalseAsUnknown, numberOfWorkers);
     }
   }
 
@@ -200,10 +299,16 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private final AlgorithmStatus status;
 
+  private final int numberOfWorkers;
+
+  /** the lock that guards the ARG during a parallel exploration, if the analysis builds an ARG */
+  private final @Nullable ARGLinkLock argLinkLock;
+
   private CPAAlgorithm(ConfigurableProgramAnalysis cpa, LogManager logger,
       ShutdownNotifier pShutdownNotifier,
       ForcedCovering pForcedCovering,
-      boolean pIsImprecise) {
+      boolean pIsImprecise,
+      int pNumberOfWorkers) {
 
     transferRelation = cpa.getTransferRelation();
     mergeOperator = cpa.getMergeOperator();
@@ -213,22 +318,29 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.shutdownNotifier = pShutdownNotifier;
     this.forcedCovering = pForcedCovering;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
+    numberOfWorkers = pNumberOfWorkers;
+    ARGCPA argCpa = CPAs.retrieveCPA(cpa, ARGCPA.class);
+    argLinkLock = argCpa == null ? null : argCpa.getLinkLock();
+    if (numberOfWorkers > 1) {
+      if (argLinkLock != null) {
+        argLinkLock.enable();
+      }
+      for (int i = 0; i < numberOfWorkers; i++) {
+        stats.workerStatistics.add(new CPAStatistics());
+      }
+    }
   }
 
   @Override
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     stats.totalTimer.start();
     try {
+      if (numberOfWorkers > 1) {
+        return runParallel(reachedSet);
+      }
       return run0(reachedSet);
     } finally {
-      stats.totalTimer.stopIfRunning();
-      stats.chooseTimer.stopIfRunning();
-      stats.precisionTimer.stopIfRunning();
-      stats.transferTimer.stopIfRunning();
-      stats.mergeTimer.stopIfRunning();
-      stats.stopTimer.stopIfRunning();
-      stats.addTimer.stopIfRunning();
-      stats.forcedCoveringTimer.stopIfRunning();
+      stats.stopAllTimers();
 
       for (Entry<String, ? extends AbstractStatValue> e : reachedSet.getStatistics().entrySet()) {
           String key = e.getKey();
@@ -270,6 +382,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         stats.maxWaitlistSize = size;
       }
       stats.countWaitlistSize += size;
+      stats.currentWaitlistSize = size;
+      stats.currentReachedSetSize = reachedSet.size();
 
       stats.chooseTimer.start();
       final AbstractState state = reachedSet.popFromWaitlist();
@@ -278,7 +392,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
       logger.log(Level.FINER, "Retrieved state from waitlist");
       try {
-        if (handleState(state, precision, reachedSet)) {
+        if (handleState(state, precision, reachedSet, stats)) {
           // Prec operator requested break
           return status;
         }
@@ -294,20 +408,322 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     return status;
   }
 
+  /**
+   * Explore the state space with several worker threads. Each worker takes a state from the
+   * waitlist and computes its successors independently of the other workers. Access to the reached
+   * set (choosing from the waitlist, forced covering, precision adjustment, merge, stop, and adding
+   * states) is serialized, such that the reached set does not need to be thread-safe. With a {@link
+   * ConcurrentPartitionedReachedSet}, precision adjustment, merge, stop, and adding states are
+   * only serialized per location partition. If the analysis builds an ARG, its operators
+   * additionally take the ARG lock (cf. {@link ARGCPA#getLinkLock()}) for the short moments in
+   * which they update the links between ARG states, because these links connect states of
+   * several partitions. Locks are always acquired in the order global or partition lock, then ARG
+   * lock.
+   */
+  private AlgorithmStatus runParallel(final ReachedSet reachedSet)
+      throws CPAException, InterruptedException {
+    final ParallelExploration exploration = new ParallelExploration(reachedSet);
+    final ExecutorService pool =
+        Executors.newFixedThreadPool(
+            numberOfWorkers,
+            new ThreadFactoryBuilder().setNameFormat("CPAAlgorithm-worker-%d").build());
+    final List<Future<Void>> futures = new ArrayList<>(numberOfWorkers);
+    try {
+      for (CPAStatistics workerStats : stats.workerStatistics) {
+        futures.add(pool.submit(() -> exploration.runWorker(workerStats)));
+      }
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+          throw new UnexpectedCheckedException("parallel exploration", t);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    return status;
+  }
+
+  /**
+   * Shared state of the workers of a parallel exploration. Fields are guarded by {@link
+   * #reachedSetLock} unless noted otherwise.
+   */
+  private final class ParallelExploration {
+
+    private final ReachedSet reachedSet;
+    private final Lock reachedSetLock = new ReentrantLock();
+    private final Condition waitlistChanged = reachedSetLock.newCondition();
+
+    /**
+     * whether successors are handled under the lock of their partition instead of the global
+     * lock, and states are taken from the waitlist without any lock. This requires a thread-safe
+     * reached set. Forced covering and the merge of CPA-enabled analyses may touch arbitrary
+     * partitions, thus we use the global lock when they are used.
+     */
+    private final boolean lockPartitions;
+
+    /**
+     * number of workers that wait for new states in the waitlist. Only modified while holding the
+     * global lock, but read without it by workers that need to decide whether to signal a change of
+     * the waitlist. The exploration is finished if all workers wait and the waitlist is empty.
+     */
+    private final AtomicInteger waitingWorkers = new AtomicInteger(0);
+
+    /**
+     * whether the exploration is finished, because of a BREAK or an exception. Only written while
+     * holding the global lock, but also read without it.
+     */
+    private volatile boolean finished = false;
+
+    private ParallelExploration(ReachedSet pReachedSet) {
+      reachedSet = pReachedSet;
+      lockPartitions =
+          pReachedSet instanceof ConcurrentPartitionedReachedSet
+              && forcedCovering == null
+              && !(mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis);
+    }
+
+    private Void runWorker(final CPAStatistics pStats) throws CPAException, InterruptedException {
+      try {
+        while (true) {
+          shutdownNotifier.shutdownIfNecessary();
+
+          final AbstractState state = takeState(pStats);
+          if (state == null) {
+            return null;
+          }
+          final Precision precision = reachedSet.getPrecision(state);
+
+          logger.log(Level.FINER, "Retrieved state from waitlist");
+          boolean stop = false;
+          try {
+            stop = handleStateConcurrently(state, precision, pStats);
+          } catch (CPAException | InterruptedException | RuntimeException | Error e) {
+            reachedSetLock.lock();
+            try {
+              // re-add the old state to the waitlist, there might be unhandled successors left
+              // that otherwise would be forgotten (which would be unsound)
+              reachedSet.reAddToWaitlist(state);
+              finished = true;
+              waitlistChanged.signalAll();
+            } finally {
+              reachedSetLock.unlock();
+            }
+            throw e;
+          }
+
+          if (stop || waitingWorkers.get() > 0) {
+            // Waiting workers increment the counter before they check the waitlist,
+            // so either they see our new states or we see them waiting.
+            reachedSetLock.lock();
+            try {
+              if (stop) {
+                // Prec operator requested break
+                finished = true;
+              }
+              waitlistChanged.signalAll();
+            } finally {
+              reachedSetLock.unlock();
+            }
+          }
+        }
+      } finally {
+        pStats.stopAllTimers();
+      }
+    }
+
+    /**
+     * Take the next state from the waitlist. If the waitlist is empty, wait until another worker
+     * adds new states or until all workers wait, which means that the exploration is finished.
+     *
+     * @return the next state or null if the exploration is finished
+     */
+    private @Nullable AbstractState takeState(final CPAStatistics pStats)
+        throws InterruptedException {
+      while (true) {
+        AbstractState state = pollState(pStats);
+        if (state != null) {
+          return state;
+        }
+
+        reachedSetLock.lock();
+        try {
+          waitingWorkers.incrementAndGet();
+          try {
+            while (!finished && !reachedSet.hasWaitingState()) {
+              if (waitingWorkers.get() == numberOfWorkers) {
+                // nobody holds a state from which new states could be produced
+                finished = true;
+                waitlistChanged.signalAll();
+              } else {
+                waitlistChanged.await();
+              }
+            }
+          } finally {
+            waitingWorkers.decrementAndGet();
+          }
+          if (finished) {
+            return null;
+          }
+        } finally {
+          reachedSetLock.unlock();
+        }
+      }
+    }
+
+    /** Take the next state from the waitlist, or return null if it is empty. */
+    private @Nullable AbstractState pollState(final CPAStatistics pStats) {
+      if (finished) {
+        return null;
+      }
+      if (lockPartitions) {
+        ConcurrentPartitionedReachedSet concurrentReachedSet =
+            (ConcurrentPartitionedReachedSet) reachedSet;
+        pStats.chooseTimer.start();
+        AbstractState state = concurrentReachedSet.pollFromWaitlist();
+        pStats.chooseTimer.stop();
+        if (state != null) {
+          recordIteration(pStats);
+        }
+        return state;
+      }
+
+      reachedSetLock.lock();
+      try {
+        if (finished || !reachedSet.hasWaitingState()) {
+          return null;
+        }
+        recordIteration(pStats);
+        pStats.chooseTimer.start();
+        try {
+          return reachedSet.popFromWaitlist();
+        } finally {
+          pStats.chooseTimer.stop();
+        }
+      } finally {
+        reachedSetLock.unlock();
+      }
+    }
+
+    private void recordIteration(final CPAStatistics pStats) {
+      pStats.countIterations++;
+      int size = reachedSet.getWaitlist().size();
+      if (size >= pStats.maxWaitlistSize) {
+        pStats.maxWaitlistSize = size;
+      }
+      pStats.countWaitlistSize += size;
+      stats.currentWaitlistSize = size;
+      stats.currentReachedSetSize = reachedSet.size();
+    }
+
+    private boolean handleStateConcurrently(
+        final AbstractState state, final Precision precision, final CPAStatistics pStats)
+        throws CPAException, InterruptedException {
+      logger.log(Level.ALL, "Current state is", state, "with precision", precision);
+
+      if (forcedCovering != null) {
+        reachedSetLock.lock();
+        lockARG();
+        pStats.forcedCoveringTimer.start();
+        try {
+          if (forcedCovering.tryForcedCovering(state, precision, reachedSet)) {
+            return false;
+          }
+        } finally {
+          pStats.forcedCoveringTimer.stop();
+          unlockARG();
+          reachedSetLock.unlock();
+        }
+      }
+
+      Collection<? extends AbstractState> successors =
+          computeSuccessors(state, precision, pStats);
+
+      if (lockPartitions) {
+        return handleSuccessorsPerPartition(state, precision, successors, pStats);
+      }
+
+      reachedSetLock.lock();
+      try {
+        if (finished) {
+          // another worker signalled a break, keep the state for a later continuation
+          reachedSet.reAddToWaitlist(state);
+          return false;
+        }
+        return handleSuccessors(state, precision, successors, reachedSet, pStats);
+      } finally {
+        reachedSetLock.unlock();
+      }
+    }
+
+    private boolean handleSuccessorsPerPartition(
+        final AbstractState state,
+        final Precision precision,
+        final Collection<? extends AbstractState> successors,
+        final CPAStatistics pStats)
+        throws CPAException, InterruptedException {
+      ConcurrentPartitionedReachedSet concurrentReachedSet =
+          (ConcurrentPartitionedReachedSet) reachedSet;
+      for (Iterator<? extends AbstractState> it = successors.iterator(); it.hasNext(); ) {
+        AbstractState successor = it.next();
+        Lock partitionLock = concurrentReachedSet.getPartitionLock(successor);
+        partitionLock.lock();
+        try {
+          if (finished) {
+            // another worker signalled a break, keep the state for a later continuation
+            reachedSet.reAddToWaitlist(state);
+            return false;
+          }
+          if (handleSuccessors(
+              state, precision, ImmutableList.of(successor), reachedSet, pStats)) {
+            if (it.hasNext()) {
+              // re-add the old state to the waitlist, there are unhandled
+              // successors left that otherwise would be forgotten
+              reachedSet.reAddToWaitlist(state);
+            }
+            return true;
+          }
+        } finally {
+          partitionLock.unlock();
+        }
+      }
+      return false;
+    }
+
+    private void lockARG() {
+      if (argLinkLock != null) {
+        argLinkLock.lock();
+      }
+    }
+
+    private void unlockARG() {
+      if (argLinkLock != null) {
+        argLinkLock.unlock();
+      }
+    }
+  }
+
   /**
    * Handle one state from the waitlist, i.e., produce successors etc.
    * @param state The abstract state that was taken out of the waitlist
    * @param precision The precision for this abstract state.
    * @param reachedSet The reached set.
+   * @param pStats The statistics to update.
    * @return true if analysis should terminate, false if analysis should continue with next state
    */
   private boolean handleState(
-      final AbstractState state, final Precision precision, final ReachedSet reachedSet)
+      final AbstractState state,
+      final Precision precision,
+      final ReachedSet reachedSet,
+      final CPAStatistics pStats)
       throws CPAException, InterruptedException {
     logger.log(Level.ALL, "Current state is", state, "with precision", precision);
 
     if (forcedCovering != null) {
-      stats.forcedCoveringTimer.start();
+      pStats.forcedCoveringTimer.start();
       try {
         boolean stop = forcedCovering.tryForcedCovering(state, precision, reachedSet);
 
@@ -316,32 +732,60 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           return false;
         }
       } finally {
-        stats.forcedCoveringTimer.stop();
+        pStats.forcedCoveringTimer.stop();
       }
     }
 
-    stats.transferTimer.start();
+    Collection<? extends AbstractState> successors =
+        computeSuccessors(state, precision, pStats);
+    return handleSuccessors(state, precision, successors, reachedSet, pStats);
+  }
+
+  /**
+   * Compute the abstract successors of a state with the transfer relation. This method does not
+   * access the reached set and may be called concurrently by several workers.
+   */
+  private Collection<? extends AbstractState> computeSuccessors(
+      final AbstractState state, final Precision precision, final CPAStatistics pStats)
+      throws CPAException, InterruptedException {
+    pStats.transferTimer.start();
     Collection<? extends AbstractState> successors;
     try {
       successors = transferRelation.getAbstractSuccessors(state, precision);
     } finally {
-      stats.transferTimer.stop();
+      pStats.transferTimer.stop();
     }
     // TODO When we have a nice way to mark the analysis result as incomplete,
     // we could continue analysis on a CPATransferException with the next state from waitlist.
 
     int numSuccessors = successors.size();
     logger.log(Level.FINER, "Current state has", numSuccessors, "successors");
-    stats.countSuccessors += numSuccessors;
-    stats.maxSuccessors = Math.max(numSuccessors, stats.maxSuccessors);
+    pStats.countSuccessors += numSuccessors;
+    pStats.maxSuccessors = Math.max(numSuccessors, pStats.maxSuccessors);
+
+    return successors;
+  }
 
+  /**
+   * Apply precision adjustment, merge, and stop to the successors of a state and add them to the
+   * reached set.
+   *
+   * @return true if analysis should terminate, false if analysis should continue with next state
+   */
+  private boolean handleSuccessors(
+      final AbstractState state,
+      final Precision precision,
+      final Collection<? extends AbstractState> successors,
+      final ReachedSet reachedSet,
+      final CPAStatistics pStats)
+      throws CPAException, InterruptedException {
     for (Iterator<? extends AbstractState> it = successors.iterator(); it.hasNext();) {
       AbstractState successor = it.next();
       shutdownNotifier.shutdownIfNecessary();
       logger.log(Level.FINER, "Considering successor of current state");
       logger.log(Level.ALL, "Successor of", state, "\nis", successor);
 
-      stats.precisionTimer.start();
+      pStats.precisionTimer.start();
       PrecisionAdjustmentResult precAdjustmentResult;
       try {
         Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
@@ -352,7 +796,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         }
         precAdjustmentResult = precAdjustmentOptional.get();
       } finally {
-        stats.precisionTimer.stop();
+        pStats.precisionTimer.stop();
       }
 
       successor = precAdjustmentResult.abstractState();
@@ -360,24 +804,24 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       Action action = precAdjustmentResult.action();
 
       if (action == Action.BREAK) {
-        stats.stopTimer.start();
+        pStats.stopTimer.start();
         boolean stop;
         try {
           stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
         } finally {
-          stats.stopTimer.stop();
+          pStats.stopTimer.stop();
         }
 
         if (AbstractStates.isTargetState(successor) && stop) {
           // don't signal BREAK for covered states
           // no need to call merge and stop either, so just ignore this state
           // and handle next successor
-          stats.countStop++;
+          pStats.countStop++;
           logger.log(Level.FINER, "Break was signalled but ignored because the state is covered.");
           continue;
 
         } else {
-          stats.countBreak++;
+          pStats.countBreak++;
           logger.log(Level.FINER, "Break signalled, CPAAlgorithm will stop.");
 
           // add the new state
@@ -399,7 +843,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       // An optimization, we don't bother merging if we know that the
       // merge operator won't do anything (i.e., it is merge-sep).
       if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
-        stats.mergeTimer.start();
+        pStats.mergeTimer.start();
         try {
           List<AbstractState> toRemove = new ArrayList<>();
           List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
@@ -415,7 +859,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
                 logger.log(Level.FINER, "Successor was merged with state from reached set");
                 logger.log(
                     Level.ALL, "Merged", successor, "\nand", reachedState, "\n-->", mergedState);
-                stats.countMerge++;
+                pStats.countMerge++;
 
                 toRemove.add(reachedState);
                 toAdd.add(Pair.of(mergedState, successorPrecision));
@@ -433,28 +877,28 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           }
 
         } finally {
-          stats.mergeTimer.stop();
+          pStats.mergeTimer.stop();
         }
       }
 
-      stats.stopTimer.start();
+      pStats.stopTimer.start();
       boolean stop;
       try {
         stop = stopOperator.stop(successor, reached, successorPrecision);
       } finally {
-        stats.stopTimer.stop();
+        pStats.stopTimer.stop();
       }
 
       if (stop) {
         logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
-        stats.countStop++;
+        pStats.countStop++;
 
       } else {
         logger.log(Level.FINER, "No need to stop, adding successor to waitlist");
 
-        stats.addTimer.start();
+        pStats.addTimer.start();
         reachedSet.add(successor, successorPrecision);
-        stats.addTimer.stop();
+        pStats.addTimer.stop();
       }
     }
 
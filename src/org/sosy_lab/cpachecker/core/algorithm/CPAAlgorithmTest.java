@@ -0,0 +1,142 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.common.io.TempFile.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/** Tests that a parallel exploration gives the same result as the sequential one. */
+public class CPAAlgorithmTest {
+
+  private static final List<String> SAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "int global;",
+          "",
+          "int f(int x) {",
+          "  if (x > 5) {",
+          "    global = global + x;",
+          "  } else {",
+          "    global = global - x;",
+          "  }",
+          "  return global;",
+          "}",
+          "",
+          "void main() {",
+          "  int i;",
+          "  int sum = 0;",
+          "  for (i = 0; i < 10; i++) {",
+          "    sum = sum + f(i);",
+          "  }",
+          "  if (__VERIFIER_nondet_int()) {",
+          "    global = 1;",
+          "  } else {",
+          "    global = 2;",
+          "  }",
+          "  if (sum != -25) {",
+          "ERROR:",
+          "    return;",
+          "  }",
+          "}");
+
+  private static final List<String> UNSAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "void main() {",
+          "  int i;",
+          "  int sum = 0;",
+          "  for (i = 0; i < 10; i++) {",
+          "    if (__VERIFIER_nondet_int()) {",
+          "      sum = sum + 1;",
+          "    }",
+          "  }",
+          "  if (sum == 3) {",
+          "ERROR:",
+          "    return;",
+          "  }",
+          "}");
+
+  @Test
+  public void testParallelSafe() throws Exception {
+    CPAcheckerResult sequential = run(SAFE_PROGRAM, 1, "PARTITIONED");
+    assertThat(sequential.getResult()).isEqualTo(Result.TRUE);
+
+    CPAcheckerResult parallel = run(SAFE_PROGRAM, 4, "PARTITIONED");
+    assertThat(parallel.getResult()).isEqualTo(Result.TRUE);
+    assertThat(parallel.getReached().size()).isEqualTo(sequential.getReached().size());
+  }
+
+  @Test
+  public void testParallelSafeWithConcurrentReachedSet() throws Exception {
+    CPAcheckerResult sequential = run(SAFE_PROGRAM, 1, "PARTITIONED");
+    assertThat(sequential.getResult()).isEqualTo(Result.TRUE);
+
+    CPAcheckerResult parallel = run(SAFE_PROGRAM, 4, "CONCURRENT");
+    assertThat(parallel.getResult()).isEqualTo(Result.TRUE);
+    assertThat(parallel.getReached().size()).isEqualTo(sequential.getReached().size());
+  }
+
+  @Test
+  public void testParallelUnsafe() throws Exception {
+    // the exploration stops at the first target state, thus the size of the reached set
+    // depends on the order in which the workers explore the state space
+    assertThat(run(UNSAFE_PROGRAM, 1, "PARTITIONED").getResult()).isEqualTo(Result.FALSE);
+    assertThat(run(UNSAFE_PROGRAM, 4, "PARTITIONED").getResult()).isEqualTo(Result.FALSE);
+    assertThat(run(UNSAFE_PROGRAM, 4, "CONCURRENT").getResult()).isEqualTo(Result.FALSE);
+  }
+
+  private static CPAcheckerResult run(
+      List<String> pProgram, int pNumberOfWorkers, String pReachedSetType) throws Exception {
+    try (DeleteOnCloseFile programFile =
+        TempFile.builder().prefix("test").suffix(".c").createDeleteOnClose()) {
+      Files.write(programFile.toPath(), pProgram);
+
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .setOption("cpa", "cpa.arg.ARGCPA")
+              .setOption("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+              .setOption(
+                  "CompositeCPA.cpas",
+                  "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA")
+              .setOption("specification", "config/specification/default.spc")
+              .setOption("analysis.reachedSet", pReachedSetType)
+              .setOption("cpa.numberOfWorkers", Integer.toString(pNumberOfWorkers))
+              .build();
+
+      return CPATestRunner.run(config, programFile.toPath().toString()).getCheckerResult();
+    }
+  }
+}
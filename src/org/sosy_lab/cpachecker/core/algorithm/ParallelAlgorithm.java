@@ -33,6 +33,7 @@ import static org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition.getDef
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -87,6 +88,7 @@ import org.sosy_lab.cpachecker.exceptions.CompoundException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.predicates.smt.SharedSolverResultCache;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 import org.sosy_lab.cpachecker.util.resources.ThreadCpuTimeLimit;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
@@ -109,6 +111,18 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<AnnotatedValue<Path>> configFiles;
 
+  @Option(
+      secure = true,
+      description =
+          "share the results of satisfiability checks between all analyses that are run "
+              + "in parallel (sets solver.useSharedResultCache for all analyses)")
+  private boolean useSharedSolverCache = false;
+
+  @Option(
+      secure = true,
+      description = "maximum number of entries in the solver cache shared by all analyses")
+  private long sharedSolverCacheSize = 100000;
+
   private static final String SUCCESS_MESSAGE =
       "One of the parallel analyses has finished successfully, cancelling all other runs.";
 
@@ -152,17 +166,24 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     mainEntryNode = AbstractStates.extractLocation(pReachedSet.getFirstState());
     ForwardingReachedSet forwardingReachedSet = (ForwardingReachedSet) pReachedSet;
 
+    SharedSolverResultCache sharedSolverCache = null;
+    if (useSharedSolverCache) {
+      sharedSolverCache = new SharedSolverResultCache(sharedSolverCacheSize);
+      SharedSolverResultCache.install(sharedSolverCache);
+      stats.sharedSolverCache = sharedSolverCache;
+    }
+
     ListeningExecutorService exec = listeningDecorator(newFixedThreadPool(configFiles.size()));
     List<ListenableFuture<ParallelAnalysisResult>> futures = new ArrayList<>();
 
-    for (AnnotatedValue<Path> p : configFiles) {
-      futures.add(exec.submit(createParallelAnalysis(p, ++stats.noOfAlgorithmsUsed)));
-    }
+    try {
+      for (AnnotatedValue<Path> p : configFiles) {
+        futures.add(exec.submit(createParallelAnalysis(p, ++stats.noOfAlgorithmsUsed)));
+      }
 
-    // shutdown the executor service,
-    exec.shutdown();
+      // shutdown the executor service,
+      exec.shutdown();
 
-    try {
       handleFutureResults(futures);
 
     } finally {
@@ -173,6 +194,10 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       }
 
       exec.shutdownNow();
+
+      if (sharedSolverCache != null) {
+        SharedSolverResultCache.uninstall(sharedSolverCache);
+      }
     }
 
     if (finalResult != null) {
@@ -504,6 +529,9 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       singleConfigBuilder.clearOption("parallelAlgorithm.configFiles");
       singleConfigBuilder.clearOption("analysis.useParallelAnalyses");
       singleConfigBuilder.loadFromFile(singleConfigFileName);
+      if (useSharedSolverCache) {
+        singleConfigBuilder.setOption("solver.useSharedResultCache", "true");
+      }
 
       Configuration singleConfig = singleConfigBuilder.build();
       NestingAlgorithm.checkConfigs(globalConfig, singleConfig, singleConfigFileName, logger);
@@ -581,6 +609,7 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     private final List<StatisticsEntry> allAnalysesStats = Lists.newCopyOnWriteArrayList();
     private int noOfAlgorithmsUsed = 0;
     private String successfulAnalysisName = null;
+    private @Nullable SharedSolverResultCache sharedSolverCache = null;
 
     ParallelAlgorithmStatistics(LogManager pLogger) {
       logger = checkNotNull(pLogger);
@@ -605,6 +634,19 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       if (successfulAnalysisName != null) {
         out.println("Successful analysis: " + successfulAnalysisName);
       }
+      if (sharedSolverCache != null) {
+        CacheStats cacheStats = sharedSolverCache.getStatistics();
+        out.println("Shared solver cache lookups:      " + cacheStats.requestCount());
+        out.println(
+            "  Hits:                           "
+                + cacheStats.hitCount()
+                + " ("
+                + StatisticsUtils.toPercent(cacheStats.hitRate(), 1)
+                + ")");
+        out.println("  Misses:                         " + cacheStats.missCount());
+        out.println("  Evictions:                      " + cacheStats.evictionCount());
+        out.println("  Entries:                        " + sharedSolverCache.size());
+      }
       printSubStatistics(out, result);
     }
 
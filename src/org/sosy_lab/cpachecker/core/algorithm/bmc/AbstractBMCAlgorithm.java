@@ -112,13 +112,18 @@ import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 
 @Options(prefix = "bmc")
 abstract class AbstractBMCAlgorithm
     implements StatisticsProvider, ConditionAdjustmentEventSubscriber {
 
+  private static final String TARGET_ACTIVATION_VARIABLE = "__BMC_TARGET_";
+
   static final Predicate<AbstractState> IS_STOP_STATE =
     Predicates.compose(new Predicate<AssumptionStorageState>() {
                              @Override
@@ -167,6 +172,17 @@ abstract class AbstractBMCAlgorithm
   )
   private boolean usePropertyDirection = false;
 
+  @Option(
+    secure = true,
+    description =
+        "Check the target states incrementally: instead of pushing the formula of the whole"
+            + " unrolled program for each bound, keep the formulas of all target states on the"
+            + " solver stack and only add those of the newly unrolled target states."
+            + " This allows the solver to reuse its internal state and learned clauses"
+            + " across bounds."
+  )
+  private boolean incrementalSatCheck = false;
+
   protected final BMCStatistics stats;
   private final Algorithm algorithm;
   private final ConfigurableProgramAnalysis cpa;
@@ -201,6 +217,30 @@ abstract class AbstractBMCAlgorithm
   private final List<ConditionAdjustmentEventSubscriber> conditionAdjustmentEventSubscribers =
       new CopyOnWriteArrayList<>();
 
+  /**
+   * The state of the incremental sat checks, which is only valid for the prover it was created
+   * for (there is one prover per call to {@link #run(ReachedSet)}, and PDR uses its own provers).
+   */
+  private @Nullable IncrementalSatCheckState incrementalSatCheckState = null;
+
+  private int activationCounter = 0;
+
+  /** The formulas that are already asserted on the stack of a single prover. */
+  private static class IncrementalSatCheckState {
+
+    private final ProverEnvironmentWithFallback prover;
+
+    /** The target states whose formulas are asserted, each with its activation variable. */
+    private final Map<AbstractState, BooleanFormula> targetStateActivations = new HashMap<>();
+
+    /** All (sub-)formulas that are asserted, for the statistics. */
+    private final Set<Formula> assertedFormulas = new HashSet<>();
+
+    private IncrementalSatCheckState(ProverEnvironmentWithFallback pProver) {
+      prover = pProver;
+    }
+  }
+
   protected AbstractBMCAlgorithm(
       Algorithm pAlgorithm,
       ConfigurableProgramAnalysis pCPA,
@@ -431,6 +471,9 @@ abstract class AbstractBMCAlgorithm
         }
       }
       while (status.isSound() && adjustConditions());
+    } finally {
+      // the formulas asserted on the prover are gone with the prover
+      incrementalSatCheckState = null;
     }
 
     return AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -599,6 +642,12 @@ abstract class AbstractBMCAlgorithm
       ProverEnvironmentWithFallback pProver,
       CandidateInvariant pCandidateInvariant)
       throws CPATransferException, InterruptedException, SolverException {
+    if (incrementalSatCheck
+        && pCandidateInvariant == TargetLocationCandidateInvariant.INSTANCE
+        && pReachedSet instanceof ReachedSet) {
+      return boundedModelCheckIncrementally((ReachedSet) pReachedSet, pProver);
+    }
+
     BooleanFormula program = bfmgr.not(pCandidateInvariant.getAssertion(pReachedSet, fmgr, pmgr));
     logger.log(Level.INFO, "Starting satisfiability check...");
     stats.satCheck.start();
@@ -621,6 +670,87 @@ abstract class AbstractBMCAlgorithm
     return safe;
   }
 
+  /**
+   * Check whether a target state is reachable, reusing the formulas of previous checks that are
+   * still on the prover stack. For each target state that was not yet checked, an implication from
+   * a fresh activation variable to the formula of the state is asserted on a new stack level that
+   * is never popped. Because each activation variable may be false, these assertions do not
+   * influence the satisfiability of any other query on the same prover. The actual query is only
+   * the disjunction of the activation variables of the current target states.
+   */
+  private boolean boundedModelCheckIncrementally(
+      ReachedSet pReachedSet, ProverEnvironmentWithFallback pProver)
+      throws CPATransferException, InterruptedException, SolverException {
+    List<AbstractState> targetStates =
+        TargetLocationCandidateInvariant.INSTANCE.filterApplicable(pReachedSet).toList();
+    BooleanFormula program = BMCHelper.createFormulaFor(targetStates, bfmgr);
+
+    if (incrementalSatCheckState == null || incrementalSatCheckState.prover != pProver) {
+      incrementalSatCheckState = new IncrementalSatCheckState(pProver);
+    }
+    final IncrementalSatCheckState state = incrementalSatCheckState;
+
+    // Count the formula nodes that are new on the prover. The traversal does not descend into
+    // already asserted formulas, so its cost is proportional to the newly unrolled part.
+    stats.incrementalFormulaMeasuring.start();
+    int[] newFormulaSize = new int[1];
+    fmgr.visitRecursively(
+        program,
+        new DefaultFormulaVisitor<TraversalProcess>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            if (!state.assertedFormulas.add(pF)) {
+              return TraversalProcess.SKIP;
+            }
+            newFormulaSize[0]++;
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    stats.incrementalFormulaMeasuring.stop();
+
+    List<BooleanFormula> newDefinitions = new ArrayList<>();
+    List<BooleanFormula> activations = new ArrayList<>(targetStates.size());
+    for (AbstractState targetState : targetStates) {
+      BooleanFormula activation = state.targetStateActivations.get(targetState);
+      if (activation == null) {
+        activation = bfmgr.makeVariable(TARGET_ACTIVATION_VARIABLE + activationCounter++);
+        newDefinitions.add(
+            bfmgr.implication(
+                activation,
+                BMCHelper.createFormulaFor(Collections.singleton(targetState), bfmgr)));
+        state.targetStateActivations.put(targetState, activation);
+      }
+      activations.add(activation);
+    }
+    if (!newDefinitions.isEmpty()) {
+      pProver.push(bfmgr.and(newDefinitions)); // never popped
+    }
+
+    logger.log(Level.INFO, "Starting incremental satisfiability check...");
+    stats.satCheck.start();
+    pProver.push(bfmgr.or(activations));
+    boolean safe = pProver.isUnsat();
+    stats.satCheck.stop();
+
+    LoopIterationBounding loopBound = CPAs.retrieveCPA(cpa, LoopIterationBounding.class);
+    stats.addIncrementalSatCheck(
+        loopBound == null ? -1 : loopBound.getMaxLoopIterations(),
+        newFormulaSize[0],
+        stats.satCheck.getLengthOfLastInterval());
+    // Leave query on solver stack until error path is created
+
+    if (safe) {
+      TargetLocationCandidateInvariant.INSTANCE.assumeTruth(pReachedSet);
+      state.targetStateActivations.keySet().removeAll(targetStates);
+    } else {
+      analyzeCounterexample(program, pReachedSet, pProver);
+    }
+
+    pProver.pop();
+
+    return safe;
+  }
+
   private boolean refineCtiBlockingClauses(
       ReachedSet pReachedSet,
       ProverEnvironmentWithFallback pProver,
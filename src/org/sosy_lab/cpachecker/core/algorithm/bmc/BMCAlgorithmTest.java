@@ -0,0 +1,120 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.bmc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.common.io.TempFile.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/** Tests that incremental sat checks of BMC give the same verdicts as non-incremental ones. */
+public class BMCAlgorithmTest {
+
+  private static final String BMC_CONFIG = "config/bmc-incremental.properties";
+  private static final String K_INDUCTION_CONFIG =
+      "config/components/kInduction/kInduction.properties";
+
+  private static final List<String> SAFE_PROGRAM =
+      ImmutableList.of(
+          "void main() {",
+          "  int i = 0;",
+          "  int sum = 0;",
+          "  while (i < 5) {",
+          "    i++;",
+          "    sum = sum + i;",
+          "  }",
+          "  if (sum != 15) {",
+          "ERROR:",
+          "    return;",
+          "  }",
+          "}");
+
+  private static final List<String> UNSAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "void main() {",
+          "  int i = 0;",
+          "  while (__VERIFIER_nondet_int()) {",
+          "    i++;",
+          "  }",
+          "  if (i == 3) {",
+          "ERROR:",
+          "    return;",
+          "  }",
+          "}");
+
+  @Test
+  public void testBmcSafe() throws Exception {
+    assertVerdict(BMC_CONFIG, SAFE_PROGRAM, Result.TRUE);
+  }
+
+  @Test
+  public void testBmcUnsafe() throws Exception {
+    assertVerdict(BMC_CONFIG, UNSAFE_PROGRAM, Result.FALSE);
+  }
+
+  @Test
+  public void testKInductionSafe() throws Exception {
+    assertVerdict(K_INDUCTION_CONFIG, SAFE_PROGRAM, Result.TRUE);
+  }
+
+  @Test
+  public void testKInductionUnsafe() throws Exception {
+    assertVerdict(K_INDUCTION_CONFIG, UNSAFE_PROGRAM, Result.FALSE);
+  }
+
+  private static void assertVerdict(String pConfigFile, List<String> pProgram, Result pExpected)
+      throws Exception {
+    assertThat(run(pConfigFile, pProgram, false)).isEqualTo(pExpected);
+    assertThat(run(pConfigFile, pProgram, true)).isEqualTo(pExpected);
+  }
+
+  private static Result run(String pConfigFile, List<String> pProgram, boolean pIncremental)
+      throws Exception {
+    try (DeleteOnCloseFile programFile =
+        TempFile.builder().prefix("test").suffix(".c").createDeleteOnClose()) {
+      Files.write(programFile.toPath(), pProgram);
+
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .loadFromFile(pConfigFile)
+              .setOption("specification", "config/specification/default.spc")
+              .setOption("bmc.incrementalSatCheck", Boolean.toString(pIncremental))
+              .build();
+
+      return CPATestRunner.run(config, programFile.toPath().toString())
+          .getCheckerResult()
+          .getResult();
+    }
+  }
+}
@@ -24,6 +24,10 @@
 package org.sosy_lab.cpachecker.core.algorithm.bmc;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -39,6 +43,25 @@ public class BMCStatistics implements Statistics {
   final Timer inductionPreparation = new Timer();
   final Timer inductionCheck = new Timer();
 
+  final Timer incrementalFormulaMeasuring = new Timer();
+  private final List<String> incrementalSatChecks = new ArrayList<>();
+  private long newFormulaSize = 0;
+
+  /**
+   * Record an incremental sat check for the given bound.
+   *
+   * @param pBound the current loop bound
+   * @param pNewFormulaSize the number of formula nodes that were not already asserted before
+   * @param pTime the time of the sat check
+   */
+  void addIncrementalSatCheck(int pBound, int pNewFormulaSize, TimeSpan pTime) {
+    newFormulaSize += pNewFormulaSize;
+    incrementalSatChecks.add(
+        String.format(
+            "k = %3d: %8d formula nodes new, sat check %s",
+            pBound, pNewFormulaSize, pTime.formatAs(TimeUnit.SECONDS)));
+  }
+
   @Override
   public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
     if (bmcPreparation.getNumberOfIntervals() > 0) {
@@ -53,6 +76,14 @@ public class BMCStatistics implements Statistics {
     if (assertionsCheck.getNumberOfIntervals() > 0) {
       out.println("Time for bounding assertions check:  " + assertionsCheck);
     }
+    if (!incrementalSatChecks.isEmpty()) {
+      out.println("Formula nodes asserted incrementally: " + newFormulaSize);
+      out.println("Time for measuring formulas:         " + incrementalFormulaMeasuring);
+      out.println("Incremental sat checks per bound:");
+      for (String check : incrementalSatChecks) {
+        out.println("  " + check);
+      }
+    }
     if (inductionCheck.getNumberOfIntervals() > 0) {
       out.println("Time for induction formula creation: " + inductionPreparation);
       out.println("Time for induction check:            " + inductionCheck);
@@ -35,8 +35,6 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -44,6 +42,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -55,6 +54,7 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm.CPAAlgorithmFactory;
@@ -73,6 +73,7 @@ import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries.NoopStatisticsSeries;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
 
 @Options(prefix="algorithm.parallelBam")
@@ -129,7 +130,7 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
         new ConcurrentHashMap<>();
     final int numberOfCores = getNumberOfCores();
     oneTimeLogger.logfOnce(Level.INFO, "creating pool for %d threads", numberOfCores);
-    final ExecutorService pool = Executors.newFixedThreadPool(numberOfCores);
+    final ParallelBAMScheduler scheduler = new ParallelBAMScheduler(numberOfCores, stats);
     final AtomicReference<Throwable> error = new AtomicReference<>(null);
     final AtomicBoolean terminateAnalysis = new AtomicBoolean(false);
 
@@ -146,7 +147,7 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
             bamcpa.getBlockPartitioning().getMainBlock(),
             true,
             reachedSetMapping,
-            pool,
+            scheduler,
             algorithmFactory,
             shutdownNotifier,
             stats,
@@ -161,16 +162,17 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     boolean isSound = true;
     try {
       // TODO set timelimit to global limit minus overhead?
-      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+      scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
 
     } finally {
-      if (!pool.isTerminated()) {
+      scheduler.collectStatistics();
+      if (!scheduler.isTerminated()) {
         // in case of problems we must kill the thread pool,
         // otherwise we have a running daemon thread and CPAchecker does not terminate.
         logger.log(Level.WARNING, "threadpool did not terminate, killing threadpool now.");
         logger.log(Level.ALL, "remaining dependencies:\n", rse.getDependenciesAsDot());
         isSound = false;
-        pool.shutdownNow();
+        scheduler.shutdownNow();
       }
     }
 
@@ -281,6 +283,9 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     final AtomicInteger numActiveThreads = new AtomicInteger(0);
     final StatHist histActiveThreads = new StatHist("Active threads");
     final StatHist executionCounter = new StatHist("RSE execution counter");
+    final StatHist schedulerQueueDepth = new StatHist("Pending jobs in scheduler");
+    final LongAdder reprioritizedJobs = new LongAdder();
+    final LongAdder idleTime = new LongAdder(); // nanoseconds
     private final StatCounter unfinishedRSEcounter = new StatCounter("unfinished reached-sets");
 
     final StatisticsSeries<Integer> runningRSESeries =
@@ -296,6 +301,15 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
       StatisticsUtils.write(pOut, 0, 50, threadTime);
       StatisticsUtils.write(pOut, 1, 50, addingStatesTime);
       StatisticsUtils.write(pOut, 1, 50, terminationCheckTime);
+      StatisticsUtils.write(pOut, 0, 50, schedulerQueueDepth);
+      StatisticsUtils.write(pOut, 0, 50, "Number of reprioritized jobs", reprioritizedJobs);
+      StatisticsUtils.write(
+          pOut,
+          0,
+          50,
+          "Idle time of worker threads",
+          TimeSpan.ofNanos(idleTime.sum()).formatAs(TimeUnit.SECONDS));
+      bamcpa.getCache().printContentionStatistics(StatisticsWriter.writingStatisticsTo(pOut));
 
       if (runningRSESeriesFile != null) {
         try {
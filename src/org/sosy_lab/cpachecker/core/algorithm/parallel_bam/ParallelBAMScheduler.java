@@ -0,0 +1,190 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.parallel_bam;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.sosy_lab.cpachecker.core.algorithm.parallel_bam.ParallelBAMAlgorithm.ParallelBAMStatistics;
+
+/**
+ * Scheduler for the jobs of all {@link ReachedSetExecutor}s, based on a priority queue that is
+ * shared by all worker threads.
+ *
+ * <p>Jobs are not executed in the order of their submission. Each submitted job is stored in the
+ * priority queue and a ticket is submitted to a fixed thread pool. Whenever a worker executes a
+ * ticket, it takes the job with the highest priority from the queue. The priority of a job is the
+ * number of other {@link ReachedSetExecutor}s that wait for the reached-set of the job, such that
+ * reached-sets on the critical path of the analysis are handled first. Whenever this number
+ * changes, the {@link ReachedSetExecutor} calls {@link #updatePriority(ReachedSetExecutor)} and its
+ * pending jobs are moved to their new position in the queue.
+ */
+final class ParallelBAMScheduler {
+
+  private final ExecutorService pool;
+  private final int parallelism;
+  private final ParallelBAMStatistics stats;
+
+  /** pending jobs, ordered by priority. Guarded by this. */
+  private final NavigableSet<Job> jobs = new TreeSet<>();
+
+  /** pending jobs of each RSE, needed for updating their priority. Guarded by this. */
+  private final Multimap<ReachedSetExecutor, Job> jobsOfExecutor = ArrayListMultimap.create();
+
+  /** sequence number for FIFO-order of jobs with the same priority. Guarded by this. */
+  private long sequence = 0;
+
+  private final LongAdder busyTime = new LongAdder();
+  private final long startTime;
+
+  private static class Job implements Comparable<Job> {
+
+    private final Runnable runnable;
+    private final ReachedSetExecutor rse;
+    private final long number;
+
+    /** only modified while the job is not contained in the queue */
+    private int priority;
+
+    Job(Runnable pRunnable, ReachedSetExecutor pRse, int pPriority, long pNumber) {
+      runnable = pRunnable;
+      rse = pRse;
+      priority = pPriority;
+      number = pNumber;
+    }
+
+    @Override
+    public int compareTo(Job other) {
+      // higher priority first, then older jobs first
+      int result = Integer.compare(other.priority, priority);
+      return result != 0 ? result : Long.compare(number, other.number);
+    }
+  }
+
+  ParallelBAMScheduler(int pParallelism, ParallelBAMStatistics pStats) {
+    parallelism = pParallelism;
+    stats = checkNotNull(pStats);
+    pool = Executors.newFixedThreadPool(pParallelism);
+    startTime = System.nanoTime();
+  }
+
+  /** Returns an executor that schedules all jobs with the current priority of the given RSE. */
+  Executor executorFor(ReachedSetExecutor pRse) {
+    return job -> execute(job, pRse);
+  }
+
+  private void execute(Runnable pRunnable, ReachedSetExecutor pRse) {
+    Job job;
+    synchronized (this) {
+      job = new Job(pRunnable, pRse, pRse.getNumberOfDependingExecutors(), sequence++);
+      jobs.add(job);
+      jobsOfExecutor.put(pRse, job);
+      stats.schedulerQueueDepth.insertValue(jobs.size());
+    }
+    try {
+      pool.execute(this::runNextJob);
+    } catch (RejectedExecutionException e) {
+      synchronized (this) {
+        jobs.remove(job);
+        jobsOfExecutor.remove(pRse, job);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Move the pending jobs of the given RSE to the position that matches its current number of
+   * depending RSEs.
+   */
+  synchronized void updatePriority(ReachedSetExecutor pRse) {
+    if (!jobsOfExecutor.containsKey(pRse)) {
+      return;
+    }
+    int priority = pRse.getNumberOfDependingExecutors();
+    for (Job job : jobsOfExecutor.get(pRse)) {
+      if (job.priority != priority) {
+        jobs.remove(job);
+        job.priority = priority;
+        jobs.add(job);
+        stats.reprioritizedJobs.increment();
+      }
+    }
+  }
+
+  private void runNextJob() {
+    // there is at least one job per ticket, but it is not necessarily the job of this ticket.
+    Job job;
+    synchronized (this) {
+      job = jobs.pollFirst();
+      if (job != null) {
+        jobsOfExecutor.remove(job.rse, job);
+      }
+    }
+    if (job != null) {
+      long start = System.nanoTime();
+      try {
+        job.runnable.run();
+      } finally {
+        busyTime.add(System.nanoTime() - start);
+      }
+    }
+  }
+
+  /** Stop accepting new jobs, already scheduled jobs will be executed. */
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  /** Stop accepting new jobs and try to stop the running jobs. */
+  void shutdownNow() {
+    pool.shutdownNow();
+    synchronized (this) {
+      jobs.clear();
+      jobsOfExecutor.clear();
+    }
+  }
+
+  boolean isTerminated() {
+    return pool.isTerminated();
+  }
+
+  boolean awaitTermination(long pTimeout, TimeUnit pUnit) throws InterruptedException {
+    return pool.awaitTermination(pTimeout, pUnit);
+  }
+
+  /** Write the idle time of the workers into the statistics. */
+  void collectStatistics() {
+    long totalTime = (System.nanoTime() - startTime) * parallelism;
+    stats.idleTime.add(Math.max(0, totalTime - busyTime.sum()));
+  }
+}
@@ -45,7 +45,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -66,6 +66,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.bam.BAMCPAWithBreakOnMissingBlock;
 import org.sosy_lab.cpachecker.cpa.bam.MissingBlockAbstractionState;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache.BAMCacheEntry;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheConcurrent;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
 import org.sosy_lab.cpachecker.exceptions.UnsupportedCodeException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
@@ -100,7 +101,10 @@ class ReachedSetExecutor {
   /** important central data structure, shared over all threads, need to be synchronized. */
   private final ConcurrentMap<ReachedSet, ReachedSetExecutor> reachedSetMapping;
 
-  private final ExecutorService pool;
+  private final ParallelBAMScheduler scheduler;
+
+  /** executor for the jobs of this RSE, prioritized by the number of depending RSEs. */
+  private final Executor executor;
 
   private final BAMCPAWithBreakOnMissingBlock bamcpa;
   private final AlgorithmFactory algorithmFactory;
@@ -131,6 +135,12 @@ class ReachedSetExecutor {
   private final Multimap<ReachedSetExecutor, AbstractState> dependingFrom =
       LinkedHashMultimap.create();
 
+  /**
+   * The number of RSEs in {@link #dependingFrom}, only written while holding its lock, but read
+   * without it by the scheduler.
+   */
+  private volatile int numberOfDependingExecutors = 0;
+
   /** This future contains the list of tasks to be executed with this RSE. */
   private CompletableFuture<Void> waitingTask;
 
@@ -140,7 +150,7 @@ class ReachedSetExecutor {
       Block pBlock,
       boolean pIsMainReachedSet,
       ConcurrentMap<ReachedSet, ReachedSetExecutor> pReachedSetMapping,
-      ExecutorService pPool,
+      ParallelBAMScheduler pScheduler,
       AlgorithmFactory pAlgorithmFactory,
       ShutdownNotifier pShutdownNotifier,
       ParallelBAMStatistics pStats,
@@ -152,7 +162,8 @@ class ReachedSetExecutor {
     block = pBlock;
     isMainReachedSet = pIsMainReachedSet;
     reachedSetMapping = pReachedSetMapping;
-    pool = pPool;
+    scheduler = pScheduler;
+    executor = scheduler.executorFor(this);
     algorithmFactory = pAlgorithmFactory;
     shutdownNotifier = pShutdownNotifier;
     stats = pStats;
@@ -170,7 +181,7 @@ class ReachedSetExecutor {
     addingStatesTimer = stats.addingStatesTime.getNewTimer();
     terminationCheckTimer = stats.terminationCheckTime.getNewTimer();
 
-    waitingTask = CompletableFuture.runAsync(NOOP, pool); // initialization
+    waitingTask = CompletableFuture.runAsync(NOOP, executor); // initialization
   }
 
   public Runnable asRunnable() {
@@ -184,7 +195,8 @@ class ReachedSetExecutor {
   }
 
   synchronized void addNewTask(Runnable r) {
-    waitingTask = waitingTask.thenRunAsync(r, pool).exceptionally(new ExceptionHandler(this));
+    waitingTask =
+        waitingTask.thenRunAsync(r, executor).exceptionally(new ExceptionHandler(this));
   }
 
   /** use only for debugging and exception handling */
@@ -211,7 +223,7 @@ class ReachedSetExecutor {
 
       if (shutdownNotifier.shouldShutdown()) {
         terminateAnalysis.set(true);
-        pool.shutdownNow();
+        scheduler.shutdownNow();
         return;
       }
 
@@ -263,7 +275,7 @@ class ReachedSetExecutor {
       logger.logException(level, e, e.getClass().getName());
       terminateAnalysis.set(true);
       error.set(e);
-      pool.shutdownNow();
+      scheduler.shutdownNow();
     } finally {
       stats.numActiveThreads.decrementAndGet();
       threadTimer.stop();
@@ -338,7 +350,7 @@ class ReachedSetExecutor {
 
       if (isMainReachedSet) {
         logger.logf(level, "%s :: mainRS finished, shutdown threadpool", this);
-        pool.shutdown();
+        scheduler.shutdown();
       }
 
       // we never need to execute this RSE again,
@@ -401,7 +413,17 @@ class ReachedSetExecutor {
         registerJob(parent.getKey(), parent.getKey().asRunnable(parent.getValue()));
       }
       dependingFrom.clear();
+      numberOfDependingExecutors = 0;
     }
+    scheduler.updatePriority(this);
+  }
+
+  /**
+   * Returns the number of other RSEs waiting for the current one. RSEs with a higher number are on
+   * the critical path of the analysis and their jobs are scheduled first.
+   */
+  int getNumberOfDependingExecutors() {
+    return numberOfDependingExecutors;
   }
 
   private void addDependencies(
@@ -410,7 +432,10 @@ class ReachedSetExecutor {
     dependsOn.add(pBsme.getState());
     synchronized (subRse.dependingFrom) {
       subRse.dependingFrom.put(this, pBsme.getState());
+      subRse.numberOfDependingExecutors = subRse.dependingFrom.keySet().size();
     }
+    // the jobs of the sub-analysis are now more important
+    scheduler.updatePriority(subRse);
   }
 
   /**
@@ -492,13 +517,16 @@ class ReachedSetExecutor {
     ReachedSet newRs = pBsme.getReachedSet();
     BAMDataManager data = bamcpa.getData();
 
-    synchronized (data) {
+    // Only one thread per block may check and create the reached-set,
+    // other blocks can be handled concurrently.
+    BAMCacheConcurrent cache = bamcpa.getCache();
+    cache.lockBlock(pBsme.getBlock());
+    try {
       if (newRs == null) {
         // We are only synchronized in the current method. Thus, we need to check
         // the cache again, maybe another thread already created the needed reached-set.
         final BAMCacheEntry entry =
-            data.getCache()
-                .get(pBsme.getReducedState(), pBsme.getReducedPrecision(), pBsme.getBlock());
+            cache.get(pBsme.getReducedState(), pBsme.getReducedPrecision(), pBsme.getBlock());
         newRs = entry == null ? null : entry.getReachedSet();
       }
 
@@ -511,6 +539,8 @@ class ReachedSetExecutor {
                 pBsme.getReducedState(), pBsme.getReducedPrecision(), pBsme.getBlock());
         newRs = entry.getReachedSet();
       }
+    } finally {
+      cache.unlockBlock(pBsme.getBlock());
     }
 
     ReachedSetExecutor newSubRse =
@@ -520,7 +550,7 @@ class ReachedSetExecutor {
             pBsme.getBlock(),
             false, // mainReachedSet is never nested in another reached-set
             reachedSetMapping,
-            pool,
+            scheduler,
             algorithmFactory,
             shutdownNotifier,
             stats,
@@ -1,5 +1,6 @@
 /**
  * This algorithm executes the sub-analyses of BAM in several threads. The cache data-structures
- * from BAM are synchronized.
+ * from BAM are synchronized. The sub-analyses are scheduled by priority, such that reached-sets
+ * that other sub-analyses wait for are analyzed first.
  */
 package org.sosy_lab.cpachecker.core.algorithm.parallel_bam;
@@ -28,6 +28,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsTree;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 /**
@@ -82,6 +83,18 @@ public interface Statistics {
    */
   default void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {}
 
+  /**
+   * Add the current values of some key statistics to a snapshot that is taken while the analysis
+   * is running (cf. option statistics.snapshots.interval).
+   *
+   * <p>Note that this method is called from a different thread than the analysis, so it should
+   * only read values that are safe to read concurrently, e.g., volatile fields or atomic counters,
+   * and never iterate over data structures of the analysis.
+   *
+   * @param pSnapshot the tree to which the values should be added
+   */
+  default void writeSnapshot(StatisticsTree pSnapshot) {}
+
   int DEFAULT_OUTPUT_NAME_COL_WIDTH = 50;
 
   /**
@@ -0,0 +1,349 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.Striped;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.ConcurrentWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.ThreadSafeWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * Thread-safe implementation of the reached set that partitions the set like {@link
+ * PartitionedReachedSet} by the key returned from {@link Partitionable#getPartitionKey()}.
+ *
+ * <p>All lookups (e.g., {@link #getReached(AbstractState)} and {@link
+ * #getPrecision(AbstractState)}) are lock-free, and the waitlist can be accessed concurrently.
+ * Single operations are atomic, but sequences of operations like the merge and stop steps of the
+ * CPA algorithm are not. Clients that modify a partition from several threads can use {@link
+ * #getPartitionLock(AbstractState)} to serialize their operations per location, such that
+ * operations on different locations do not block each other.
+ *
+ * <p>The order of this set is not deterministic: iterating over the reached set (or a partition)
+ * does not follow the insertion order, and two runs with the same input may iterate in different
+ * orders. If several threads take states from the waitlist concurrently (cf. {@link
+ * #pollFromWaitlist()}), the order in which states are explored is nondeterministic as well,
+ * the traversal strategy is only respected for the states taken by a single thread. Analyses
+ * whose result depends on these orders (e.g., which of several target states is found first) may
+ * thus produce different results across runs.
+ */
+public class ConcurrentPartitionedReachedSet implements ReachedSet {
+
+  /** Replacement for the partition key null, which is not supported by concurrent maps. */
+  private static final Object NULL_KEY = new Object();
+
+  private static final int NUMBER_OF_STRIPES = 1024;
+
+  private final ConcurrentMap<AbstractState, Precision> reached = new ConcurrentHashMap<>();
+  private final Set<AbstractState> unmodifiableReached =
+      Collections.unmodifiableSet(reached.keySet());
+
+  /**
+   * Partitions are never removed (except in {@link #clear()}), such that views returned by {@link
+   * #getReached(AbstractState)} stay valid while states of the partition are removed and added.
+   */
+  private final ConcurrentMap<Object, Set<AbstractState>> partitionedReached =
+      new ConcurrentHashMap<>();
+
+  private final Striped<Lock> partitionLocks = Striped.lock(NUMBER_OF_STRIPES);
+
+  private final AtomicReference<AbstractState> firstState = new AtomicReference<>();
+  private volatile @Nullable AbstractState lastState = null;
+  private final ThreadSafeWaitlist waitlist;
+
+  public ConcurrentPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    waitlist = ConcurrentWaitlist.create(waitlistFactory);
+  }
+
+  @Override
+  public void add(AbstractState state, Precision precision) throws IllegalArgumentException {
+    Preconditions.checkNotNull(state);
+    Preconditions.checkNotNull(precision);
+
+    boolean wasEmpty = reached.isEmpty();
+    Precision previousPrecision = reached.putIfAbsent(state, precision);
+
+    if (previousPrecision == null) {
+      // State wasn't already in the reached set.
+      if (wasEmpty) {
+        firstState.compareAndSet(null, state);
+      }
+      getPartition(getPartitionKey(state)).add(state);
+      lastState = state;
+      waitlist.add(state);
+
+    } else if (!precision.equals(previousPrecision)) {
+      // State was already in the reached set (cf. DefaultReachedSet#add).
+      throw new IllegalArgumentException(
+          "State added to reached set which is already contained, but with a different precision");
+    }
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> toAdd) {
+    for (Pair<AbstractState, Precision> pair : toAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  @Override
+  public void reAddToWaitlist(AbstractState s) {
+    Preconditions.checkNotNull(s);
+    Preconditions.checkArgument(reached.containsKey(s), "State has to be in the reached set");
+
+    waitlist.addIfAbsent(s);
+  }
+
+  @Override
+  public void updatePrecision(AbstractState s, Precision newPrecision) {
+    Preconditions.checkNotNull(s);
+    Preconditions.checkNotNull(newPrecision);
+
+    if (reached.replace(s, newPrecision) == null) {
+      throw new IllegalArgumentException(
+          "State needs to be in the reached set in order to change the precision.");
+    }
+  }
+
+  @Override
+  public void remove(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    firstState.compareAndSet(state, null);
+    if (state.equals(lastState)) {
+      lastState = null;
+    }
+    waitlist.remove(state);
+    if (reached.remove(state) != null) {
+      Set<AbstractState> partition = partitionedReached.get(wrapKey(getPartitionKey(state)));
+      if (partition != null) {
+        partition.remove(state);
+      }
+    }
+  }
+
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> toRemove) {
+    for (AbstractState state : toRemove) {
+      remove(state);
+    }
+  }
+
+  @Override
+  public void removeOnlyFromWaitlist(AbstractState state) {
+    checkNotNull(state);
+    waitlist.remove(state);
+  }
+
+  @Override
+  public void clear() {
+    firstState.set(null);
+    lastState = null;
+    waitlist.clear();
+    reached.clear();
+    partitionedReached.clear();
+  }
+
+  @Override
+  public Set<AbstractState> asCollection() {
+    return unmodifiableReached;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return unmodifiableReached.iterator();
+  }
+
+  @Override
+  public Collection<Precision> getPrecisions() {
+    return Collections.unmodifiableCollection(reached.values());
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState state) {
+    return Collections.unmodifiableSet(getPartition(getPartitionKey(state)));
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(CFANode location) {
+    checkNotNull(location);
+    return asCollection();
+  }
+
+  @Override
+  public @Nullable AbstractState getFirstState() {
+    return firstState.get();
+  }
+
+  @Override
+  public @Nullable AbstractState getLastState() {
+    return lastState;
+  }
+
+  @Override
+  public boolean hasWaitingState() {
+    return !waitlist.isEmpty();
+  }
+
+  @Override
+  public Collection<AbstractState> getWaitlist() {
+    return new AbstractCollection<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        return Iterators.unmodifiableIterator(waitlist.iterator());
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        if (!(obj instanceof AbstractState)) {
+          return false;
+        }
+        return waitlist.contains((AbstractState) obj);
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return waitlist.isEmpty();
+      }
+
+      @Override
+      public int size() {
+        return waitlist.size();
+      }
+
+      @Override
+      public String toString() {
+        return waitlist.toString();
+      }
+    };
+  }
+
+  @Override
+  public AbstractState popFromWaitlist() {
+    return waitlist.pop();
+  }
+
+  /**
+   * Remove and return the next state from the waitlist, or return null if the waitlist is empty.
+   * In contrast to {@link #popFromWaitlist()}, this method can be used by several threads without
+   * external synchronization, because checking for and taking the next state is one atomic step.
+   */
+  public @Nullable AbstractState pollFromWaitlist() {
+    return waitlist.poll();
+  }
+
+  @Override
+  public Precision getPrecision(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    Precision prec = reached.get(state);
+    Preconditions.checkArgument(prec != null, "State not in reached set:\n%s", state);
+    return prec;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super AbstractState, ? super Precision> pAction) {
+    reached.forEach(pAction);
+  }
+
+  @Override
+  public boolean contains(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    return reached.containsKey(state);
+  }
+
+  @Override
+  public int size() {
+    return reached.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return reached.isEmpty();
+  }
+
+  public int getNumberOfPartitions() {
+    return partitionedReached.size();
+  }
+
+  /**
+   * Return the lock that guards the partitions of the given state. The locks are striped by the
+   * location of the state (or by the partition key for states without location), because the
+   * location is part of the partition key and is never changed by the precision adjustment. Thus
+   * all states that may be merged with or cover the given state share this lock. Different
+   * locations may share the same lock.
+   */
+  public Lock getPartitionLock(AbstractState pState) {
+    Object key = AbstractStates.extractLocation(pState);
+    if (key == null) {
+      key = wrapKey(getPartitionKey(pState));
+    }
+    return partitionLocks.get(key);
+  }
+
+  @Override
+  public String toString() {
+    return reached.keySet().toString();
+  }
+
+  private Set<AbstractState> getPartition(@Nullable Object key) {
+    Object wrappedKey = wrapKey(key);
+    Set<AbstractState> partition = partitionedReached.get(wrappedKey);
+    if (partition == null) {
+      partition =
+          partitionedReached.computeIfAbsent(wrappedKey, k -> ConcurrentHashMap.newKeySet());
+    }
+    return partition;
+  }
+
+  private static Object wrapKey(@Nullable Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private @Nullable Object getPartitionKey(AbstractState pState) {
+    checkNotNull(pState);
+    assert pState instanceof Partitionable
+        : "Partitionable states necessary for ConcurrentPartitionedReachedSet";
+    return ((Partitionable) pState).getPartitionKey();
+  }
+}
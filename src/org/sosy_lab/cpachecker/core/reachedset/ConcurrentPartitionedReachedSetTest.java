@@ -0,0 +1,245 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+/** Stress tests for the thread-safety of {@link ConcurrentPartitionedReachedSet}. */
+public class ConcurrentPartitionedReachedSetTest {
+
+  private static final int THREADS = 8;
+  private static final int STATES_PER_THREAD = 2000;
+
+  private static final Precision PRECISION = SingletonPrecision.getInstance();
+
+  private static final class TestState implements AbstractState, Partitionable {
+
+    private final int id;
+
+    private TestState(int pId) {
+      id = pId;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return id % 17;
+    }
+
+    @Override
+    public String toString() {
+      return "TestState " + id;
+    }
+  }
+
+  private ExecutorService pool;
+
+  @Before
+  public void setUp() {
+    pool = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    pool.shutdownNow();
+    pool.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  private static List<AbstractState> createStates(int pFirstId, int pCount) {
+    List<AbstractState> states = new ArrayList<>(pCount);
+    for (int i = 0; i < pCount; i++) {
+      states.add(new TestState(pFirstId + i));
+    }
+    return states;
+  }
+
+  /** Run the given task in all threads at the same time and wait for all of them. */
+  private void runConcurrently(Callable<Void> pTask) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Void>> futures = new ArrayList<>(THREADS);
+    for (int i = 0; i < THREADS; i++) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return pTask.call();
+              }));
+    }
+    start.countDown();
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+  }
+
+  private static List<AbstractState> drainWaitlist(ConcurrentPartitionedReachedSet pReached) {
+    List<AbstractState> result = new ArrayList<>();
+    AbstractState state;
+    while ((state = pReached.pollFromWaitlist()) != null) {
+      result.add(state);
+    }
+    return result;
+  }
+
+  @Test
+  public void testConcurrentAddAndPoll() throws Exception {
+    for (TraversalMethod traversal : ImmutableList.of(TraversalMethod.BFS, TraversalMethod.DFS)) {
+      ConcurrentPartitionedReachedSet reached = new ConcurrentPartitionedReachedSet(traversal);
+      AtomicInteger nextId = new AtomicInteger(0);
+      List<AbstractState> polled = Collections.synchronizedList(new ArrayList<>());
+
+      runConcurrently(
+          () -> {
+            List<AbstractState> states =
+                createStates(nextId.getAndAdd(STATES_PER_THREAD), STATES_PER_THREAD);
+            for (AbstractState state : states) {
+              reached.add(state, PRECISION);
+              AbstractState next = reached.pollFromWaitlist();
+              if (next != null) {
+                polled.add(next);
+              }
+            }
+            return null;
+          });
+      polled.addAll(drainWaitlist(reached));
+
+      assertThat(reached.size()).isEqualTo(THREADS * STATES_PER_THREAD);
+      assertThat(polled).containsNoDuplicates();
+      assertThat(polled).containsExactlyElementsIn(reached.asCollection());
+      assertThat(reached.hasWaitingState()).isFalse();
+      assertThat(reached.getWaitlist()).isEmpty();
+    }
+  }
+
+  @Test
+  public void testConcurrentReAddToWaitlist() throws Exception {
+    ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+    List<AbstractState> states = createStates(0, STATES_PER_THREAD);
+    for (AbstractState state : states) {
+      reached.add(state, PRECISION);
+    }
+    assertThat(drainWaitlist(reached)).containsExactlyElementsIn(states);
+
+    // all threads re-add the same states, each of them needs to be in the waitlist once
+    runConcurrently(
+        () -> {
+          for (AbstractState state : states) {
+            reached.reAddToWaitlist(state);
+          }
+          return null;
+        });
+
+    assertThat(reached.getWaitlist()).hasSize(states.size());
+    assertThat(drainWaitlist(reached)).containsExactlyElementsIn(states);
+  }
+
+  @Test
+  public void testConcurrentPollAndReAddToWaitlist() throws Exception {
+    ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.DFS);
+    List<AbstractState> states = createStates(0, STATES_PER_THREAD);
+    for (AbstractState state : states) {
+      reached.add(state, PRECISION);
+    }
+    // counts how often each state is held by a thread, which must never exceed one
+    ConcurrentHashMap<AbstractState, AtomicInteger> holders = new ConcurrentHashMap<>();
+    AtomicInteger violations = new AtomicInteger(0);
+
+    runConcurrently(
+        () -> {
+          for (int i = 0; i < STATES_PER_THREAD; i++) {
+            AbstractState state = reached.pollFromWaitlist();
+            if (state == null) {
+              continue;
+            }
+            AtomicInteger count = holders.computeIfAbsent(state, s -> new AtomicInteger());
+            if (count.incrementAndGet() > 1) {
+              violations.incrementAndGet();
+            }
+            count.decrementAndGet();
+            // re-add the state like a worker that was interrupted, and some other states
+            reached.reAddToWaitlist(state);
+            reached.reAddToWaitlist(states.get(i));
+          }
+          return null;
+        });
+
+    assertThat(violations.get()).isEqualTo(0);
+    List<AbstractState> remaining = drainWaitlist(reached);
+    assertThat(remaining).containsNoDuplicates();
+    assertThat(remaining).containsExactlyElementsIn(states);
+  }
+
+  @Test
+  public void testConcurrentRemove() throws Exception {
+    ConcurrentPartitionedReachedSet reached =
+        new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+    AtomicInteger nextId = new AtomicInteger(0);
+
+    runConcurrently(
+        () -> {
+          List<AbstractState> states =
+              createStates(nextId.getAndAdd(STATES_PER_THREAD), STATES_PER_THREAD);
+          for (AbstractState state : states) {
+            reached.add(state, PRECISION);
+          }
+          // remove every second state again
+          for (int i = 0; i < states.size(); i += 2) {
+            reached.remove(states.get(i));
+          }
+          return null;
+        });
+
+    int expectedSize = THREADS * STATES_PER_THREAD / 2;
+    assertThat(reached.size()).isEqualTo(expectedSize);
+    assertThat(reached.getWaitlist()).hasSize(expectedSize);
+    List<AbstractState> remaining = drainWaitlist(reached);
+    assertThat(remaining).containsExactlyElementsIn(reached.asCollection());
+    int partitionSizes = 0;
+    for (int i = 0; i < 17; i++) {
+      partitionSizes += reached.getReached(new TestState(i)).size();
+    }
+    assertThat(partitionSizes).isEqualTo(expectedSize);
+  }
+}
@@ -39,6 +39,7 @@ import org.sosy_lab.cpachecker.core.waitlist.BranchBasedWeightedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.CallstackSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.DepthBasedWeightedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.ExplicitSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.IndexedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.LoopIterationSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.LoopstackSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.PostorderSortedWaitlist;
@@ -54,7 +55,7 @@ import org.sosy_lab.cpachecker.cpa.usage.UsageReachedSet;
 public class ReachedSetFactory {
 
   private enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, USAGE
+    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, USAGE, CONCURRENT
   }
 
   @Option(
@@ -64,6 +65,17 @@ public class ReachedSetFactory {
   )
   private Waitlist.TraversalMethod traversalMethod = Waitlist.TraversalMethod.DFS;
 
+  @Option(
+    secure = true,
+    name = "traversal.useIndexedWaitlist",
+    description =
+        "use waitlists that support removal of states in constant time for BFS and DFS"
+            + " (also as secondary strategy of sorted waitlists),"
+            + " which speeds up removing subtrees from the reached set during refinement."
+            + " The reached set CONCURRENT uses its own waitlist and ignores this option."
+  )
+  private boolean useIndexedWaitlist = false;
+
   @Option(
     secure = true,
     name = "traversal.useCallstack",
@@ -189,6 +201,8 @@ public class ReachedSetFactory {
             + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
             + "\nPSEUDOPARTITIONED: based on PARTITIONED, uses additional info about the states' lattice "
             + "(maybe faster for some special analyses which use merge_sep and stop_sep"
+            + "\nCONCURRENT: based on PARTITIONED, thread-safe with lock-free lookups "
+            + "and a concurrent waitlist (for cpa.numberOfWorkers > 1)"
   )
   private ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
@@ -216,8 +230,48 @@ public class ReachedSetFactory {
   }
 
   public ReachedSet create() {
+    WaitlistFactory waitlistFactory = createWaitlistFactory();
+
+    ReachedSet reached;
+    switch (reachedSet) {
+    case PARTITIONED:
+        reached = new PartitionedReachedSet(waitlistFactory);
+        break;
+    case PSEUDOPARTITIONED:
+        reached = new PseudoPartitionedReachedSet(waitlistFactory);
+        break;
+    case LOCATIONMAPPED:
+        reached = new LocationMappedReachedSet(waitlistFactory);
+        break;
+    case USAGE:
+        reached = new UsageReachedSet(waitlistFactory, config, logger);
+        break;
+    case CONCURRENT:
+        reached = new ConcurrentPartitionedReachedSet(waitlistFactory);
+        break;
+    case NORMAL:
+    default:
+        reached = new DefaultReachedSet(waitlistFactory);
+    }
+
+    if (withStatistics) {
+      reached = new StatisticsReachedSet(reached);
+    }
+
+    return reached;
+  }
+
+  /** Create the factory for the waitlist that is used by the reached sets of this factory. */
+  public WaitlistFactory createWaitlistFactory() {
     WaitlistFactory waitlistFactory = traversalMethod;
 
+    if (useIndexedWaitlist
+        && reachedSet != ReachedSetType.CONCURRENT
+        && (traversalMethod == Waitlist.TraversalMethod.BFS
+            || traversalMethod == Waitlist.TraversalMethod.DFS)) {
+      waitlistFactory = IndexedWaitlist.factory(traversalMethod);
+    }
+
     if (useWeightedDepthOrder) {
       waitlistFactory = DepthBasedWeightedWaitlist.factory(waitlistFactory, config);
     }
@@ -266,30 +320,6 @@ public class ReachedSetFactory {
     if (useBlocks) {
       waitlistFactory = BlockWaitlist.factory(waitlistFactory, blockConfig, logger);
     }
-
-    ReachedSet reached;
-    switch (reachedSet) {
-    case PARTITIONED:
-        reached = new PartitionedReachedSet(waitlistFactory);
-        break;
-    case PSEUDOPARTITIONED:
-        reached = new PseudoPartitionedReachedSet(waitlistFactory);
-        break;
-    case LOCATIONMAPPED:
-        reached = new LocationMappedReachedSet(waitlistFactory);
-        break;
-    case USAGE:
-        reached = new UsageReachedSet(waitlistFactory, config, logger);
-        break;
-    case NORMAL:
-    default:
-        reached = new DefaultReachedSet(waitlistFactory);
-    }
-
-    if (withStatistics) {
-      reached = new StatisticsReachedSet(reached);
-    }
-
-    return reached;
+    return waitlistFactory;
   }
 }
@@ -47,6 +47,11 @@ import org.sosy_lab.cpachecker.util.statistics.StatKind;
  * implementation. A factory for this implementation needs to be given to the
  * constructor.
  *
+ * The methods contains() and remove() need logarithmic time for finding the
+ * waitlist of the respective key, plus the time of the same method of the
+ * wrapped waitlist. Use {@link IndexedWaitlist} as second waitlist
+ * implementation for logarithmic removal of states.
+ *
  * The iterators created by this class are unmodifiable.
  */
 public abstract class AbstractSortedWaitlist<K extends Comparable<K>> implements Waitlist {
@@ -0,0 +1,238 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * Thread-safe waitlist implementation for breadth-first (BFS) and depth-first (DFS) traversal. All
+ * operations are lock-free, the size is tracked separately because {@link
+ * ConcurrentLinkedDeque#size()} needs linear time. The waitlist contains each state at most once,
+ * adding a state that is already contained has no effect.
+ *
+ * <p>Use {@link #create(WaitlistFactory)} to get a thread-safe waitlist for an arbitrary traversal
+ * strategy. Strategies other than BFS and DFS are supported by guarding the original waitlist with
+ * a lock.
+ *
+ * <p>If several threads take states concurrently, each thread gets the states in the order of the
+ * traversal strategy, but the interleaving of the threads (and thus the global exploration order)
+ * is nondeterministic.
+ */
+public class ConcurrentWaitlist implements ThreadSafeWaitlist {
+
+  private final ConcurrentLinkedDeque<AbstractState> waitlist = new ConcurrentLinkedDeque<>();
+
+  /**
+   * The states in {@link #waitlist}. A state is added here before it is inserted into the deque
+   * and removed only after it was taken from the deque, such that no state is inserted twice.
+   */
+  private final Set<AbstractState> members = ConcurrentHashMap.newKeySet();
+
+  private final AtomicInteger size = new AtomicInteger(0);
+  private final TraversalMethod traversal;
+
+  private ConcurrentWaitlist(TraversalMethod pTraversal) {
+    Preconditions.checkArgument(
+        pTraversal == TraversalMethod.BFS || pTraversal == TraversalMethod.DFS);
+    traversal = pTraversal;
+  }
+
+  @Override
+  public void add(AbstractState pState) {
+    addIfAbsent(pState);
+  }
+
+  @Override
+  public boolean addIfAbsent(AbstractState pState) {
+    if (!members.add(checkNotNull(pState))) {
+      return false;
+    }
+    waitlist.addLast(pState);
+    size.incrementAndGet();
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    while (poll() != null) {
+      // drain such that concurrent insertions stay consistent with the members
+    }
+  }
+
+  @Override
+  public boolean contains(AbstractState pState) {
+    return members.contains(pState);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return waitlist.isEmpty();
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return waitlist.iterator();
+  }
+
+  @Override
+  public @Nullable AbstractState poll() {
+    AbstractState state;
+    switch (traversal) {
+      case BFS:
+        state = waitlist.pollFirst();
+        break;
+      case DFS:
+        state = waitlist.pollLast();
+        break;
+      default:
+        throw new AssertionError();
+    }
+    if (state != null) {
+      // A concurrent addIfAbsent() of the same state between taking and unregistering it
+      // has no effect, which is equivalent to adding it before it was taken.
+      members.remove(state);
+      size.decrementAndGet();
+    }
+    return state;
+  }
+
+  @Override
+  public AbstractState pop() {
+    AbstractState state = poll();
+    Preconditions.checkState(state != null, "pop() called on empty waitlist");
+    return state;
+  }
+
+  @Override
+  public boolean remove(AbstractState pState) {
+    boolean removed = waitlist.removeFirstOccurrence(pState);
+    if (removed) {
+      members.remove(pState);
+      size.decrementAndGet();
+    }
+    return removed;
+  }
+
+  @Override
+  public int size() {
+    return Math.max(0, size.get());
+  }
+
+  @Override
+  public String toString() {
+    return waitlist.toString();
+  }
+
+  /**
+   * Return a thread-safe waitlist that follows the same strategy as the waitlists created by the
+   * given factory.
+   */
+  public static ThreadSafeWaitlist create(final WaitlistFactory pDelegate) {
+    checkNotNull(pDelegate);
+    if (pDelegate == TraversalMethod.BFS || pDelegate == TraversalMethod.DFS) {
+      return new ConcurrentWaitlist((TraversalMethod) pDelegate);
+    }
+    return new SynchronizedWaitlist(pDelegate.createWaitlistInstance());
+  }
+
+  /** Wrapper that guards all accesses to an arbitrary (sorted) waitlist with one monitor. */
+  private static class SynchronizedWaitlist implements ThreadSafeWaitlist {
+
+    private final Waitlist delegate;
+
+    private SynchronizedWaitlist(Waitlist pDelegate) {
+      delegate = checkNotNull(pDelegate);
+    }
+
+    @Override
+    public synchronized void add(AbstractState pState) {
+      delegate.add(pState);
+    }
+
+    @Override
+    public synchronized boolean addIfAbsent(AbstractState pState) {
+      if (delegate.contains(pState)) {
+        return false;
+      }
+      delegate.add(pState);
+      return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+      delegate.clear();
+    }
+
+    @Override
+    public synchronized boolean contains(AbstractState pState) {
+      return delegate.contains(pState);
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+      return delegate.isEmpty();
+    }
+
+    /** Returns an iterator over a snapshot of the waitlist. */
+    @Override
+    public synchronized Iterator<AbstractState> iterator() {
+      return ImmutableList.copyOf(delegate).iterator();
+    }
+
+    @Override
+    public synchronized AbstractState pop() {
+      return delegate.pop();
+    }
+
+    @Override
+    public synchronized @Nullable AbstractState poll() {
+      return delegate.isEmpty() ? null : delegate.pop();
+    }
+
+    @Override
+    public synchronized boolean remove(AbstractState pState) {
+      return delegate.remove(pState);
+    }
+
+    @Override
+    public synchronized int size() {
+      return delegate.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+      return delegate.toString();
+    }
+  }
+}
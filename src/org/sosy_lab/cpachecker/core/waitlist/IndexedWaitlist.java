@@ -0,0 +1,202 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.Iterators;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * Waitlist implementation that supports either a breadth-first (BFS) or depth-first (DFS) strategy
+ * for pop() like {@link SimpleWaitlist}, but with contains() and remove() in amortized constant
+ * time instead of linear time.
+ *
+ * <p>Additionally to the deque of states, the number of occurrences of each state is stored in a
+ * hash map. Removing a state from the middle of the deque only leaves a tombstone, i.e., the state
+ * stays in the deque and is skipped when it is popped. If more than half of the entries of the
+ * deque are tombstones, the deque is compacted.
+ *
+ * <p>The iterators created by this class are unmodifiable.
+ */
+public class IndexedWaitlist implements Waitlist, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final TraversalMethod traversal;
+
+  private final Deque<AbstractState> waitlist = new ArrayDeque<>();
+
+  /** Number of occurrences of each state in the waitlist (without tombstones). */
+  private final Map<AbstractState, Integer> occurrences = new HashMap<>();
+
+  /** Number of tombstones for each state in the deque. */
+  private final Map<AbstractState, Integer> tombstones = new HashMap<>();
+
+  private int tombstoneCount = 0;
+
+  protected IndexedWaitlist(TraversalMethod pTraversal) {
+    checkArgument(pTraversal == TraversalMethod.BFS || pTraversal == TraversalMethod.DFS);
+    traversal = pTraversal;
+  }
+
+  @Override
+  public void add(AbstractState pState) {
+    if (tombstoneCount > 0 && tombstones.containsKey(pState)) {
+      // the tombstone needs to stay attached to the old position of the state
+      compact();
+    }
+    waitlist.addLast(pState);
+    occurrences.merge(pState, 1, Integer::sum);
+  }
+
+  @Override
+  public void clear() {
+    waitlist.clear();
+    occurrences.clear();
+    tombstones.clear();
+    tombstoneCount = 0;
+  }
+
+  @Override
+  public boolean contains(AbstractState pState) {
+    return occurrences.containsKey(pState);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return occurrences.isEmpty();
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    compact();
+    return Iterators.unmodifiableIterator(waitlist.iterator());
+  }
+
+  @Override
+  public AbstractState pop() {
+    while (true) {
+      AbstractState state = removeNext();
+      if (tombstoneCount > 0 && decrement(tombstones, state)) {
+        tombstoneCount--;
+        continue;
+      }
+      decrement(occurrences, state);
+      return state;
+    }
+  }
+
+  private AbstractState removeNext() {
+    switch (traversal) {
+      case BFS:
+        return waitlist.removeFirst();
+
+      case DFS:
+        return waitlist.removeLast();
+
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  @Override
+  public boolean remove(AbstractState pState) {
+    if (!decrement(occurrences, pState)) {
+      return false;
+    }
+    // cheap special cases without tombstone
+    if (tombstoneCount == 0) {
+      if (pState.equals(waitlist.peekLast())) {
+        waitlist.removeLast();
+        return true;
+      } else if (pState.equals(waitlist.peekFirst())) {
+        waitlist.removeFirst();
+        return true;
+      }
+    }
+    tombstones.merge(pState, 1, Integer::sum);
+    tombstoneCount++;
+    if (2 * tombstoneCount > waitlist.size()) {
+      compact();
+    }
+    return true;
+  }
+
+  /** Remove all tombstones from the deque. */
+  private void compact() {
+    if (tombstoneCount == 0) {
+      return;
+    }
+    AbstractState[] states = waitlist.toArray(new AbstractState[waitlist.size()]);
+    waitlist.clear();
+    for (AbstractState state : states) {
+      if (!decrement(tombstones, state)) {
+        waitlist.addLast(state);
+      }
+    }
+    assert tombstones.isEmpty();
+    tombstoneCount = 0;
+  }
+
+  /** Decrement the count of a state in the given map, return false if it was not contained. */
+  private static boolean decrement(Map<AbstractState, Integer> pCounts, AbstractState pState) {
+    Integer count = pCounts.get(pState);
+    if (count == null) {
+      return false;
+    }
+    if (count == 1) {
+      pCounts.remove(pState);
+    } else {
+      pCounts.put(pState, count - 1);
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return waitlist.size() - tombstoneCount;
+  }
+
+  @Override
+  public String toString() {
+    compact();
+    return waitlist.toString();
+  }
+
+  /**
+   * Return a factory for indexed waitlists with the given strategy, which needs to be either BFS or
+   * DFS.
+   */
+  public static WaitlistFactory factory(TraversalMethod pTraversal) {
+    checkArgument(pTraversal == TraversalMethod.BFS || pTraversal == TraversalMethod.DFS);
+    return () -> new IndexedWaitlist(pTraversal);
+  }
+}
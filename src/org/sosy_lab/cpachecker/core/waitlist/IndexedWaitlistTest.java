@@ -0,0 +1,99 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+public class IndexedWaitlistTest {
+
+  private static List<AbstractState> createStates(int pCount) {
+    List<AbstractState> states = new ArrayList<>(pCount);
+    for (int i = 0; i < pCount; i++) {
+      states.add(new AbstractState() {});
+    }
+    return states;
+  }
+
+  @Test
+  public void sameOrderAsSimpleWaitlistTest() {
+    for (TraversalMethod traversal : ImmutableList.of(TraversalMethod.BFS, TraversalMethod.DFS)) {
+      Random random = new Random(0);
+      List<AbstractState> states = createStates(1000);
+      Waitlist expected = traversal.createWaitlistInstance();
+      Waitlist actual = IndexedWaitlist.factory(traversal).createWaitlistInstance();
+
+      for (int round = 0; round < 5000; round++) {
+        AbstractState state = states.get(random.nextInt(states.size()));
+        switch (random.nextInt(4)) {
+          case 0:
+          case 1:
+            if (!expected.contains(state)) {
+              expected.add(state);
+              actual.add(state);
+            }
+            break;
+          case 2:
+            assertThat(actual.remove(state)).isEqualTo(expected.remove(state));
+            break;
+          default:
+            if (!expected.isEmpty()) {
+              assertThat(actual.pop()).isSameAs(expected.pop());
+            }
+        }
+        assertThat(actual.size()).isEqualTo(expected.size());
+        assertThat(actual.isEmpty()).isEqualTo(expected.isEmpty());
+        assertThat(actual.contains(state)).isEqualTo(expected.contains(state));
+      }
+      assertThat(actual).containsExactlyElementsIn(expected).inOrder();
+
+      while (!expected.isEmpty()) {
+        assertThat(actual.pop()).isSameAs(expected.pop());
+      }
+      assertThat(actual.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  public void removeFromMiddleTest() {
+    List<AbstractState> states = createStates(5);
+    Waitlist waitlist = IndexedWaitlist.factory(TraversalMethod.BFS).createWaitlistInstance();
+    states.forEach(waitlist::add);
+
+    assertThat(waitlist.remove(states.get(2))).isTrue();
+    assertThat(waitlist.remove(states.get(2))).isFalse();
+    assertThat(waitlist.size()).isEqualTo(4);
+    assertThat(waitlist.pop()).isSameAs(states.get(0));
+    assertThat(waitlist.pop()).isSameAs(states.get(1));
+    assertThat(waitlist.pop()).isSameAs(states.get(3));
+    assertThat(waitlist).containsExactly(states.get(4));
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/** A waitlist that can be accessed concurrently by several threads. */
+public interface ThreadSafeWaitlist extends Waitlist {
+
+  /**
+   * Remove and return the next state according to the traversal strategy, or return null if the
+   * waitlist is empty. In contrast to {@link #pop()} this method may also be called when the
+   * waitlist is empty, because another thread could have taken the last state in the meantime.
+   */
+  @Nullable AbstractState poll();
+
+  /**
+   * Add a state to the waitlist if it is not already contained. The check and the insertion are
+   * one atomic operation.
+   *
+   * @return whether the state was added
+   */
+  boolean addIfAbsent(AbstractState state);
+}
@@ -31,7 +31,9 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -98,10 +100,43 @@ public class ARGCPA extends AbstractSingleWrapperCPA
               + "is subsumed by the second wrapped state (and the parents are not yet subsumed).")
   private boolean mergeOnWrappedSubsumption = false;
 
+  @Option(
+    secure = true,
+    description =
+        "Keep the successors of states that are removed from the ARG during refinement, "
+            + "and reuse them if an equal state is re-created during re-exploration, "
+            + "instead of computing them again. This is only supported if the transfer relation "
+            + "of the wrapped CPA does not depend on the precision, e.g., for value analysis."
+  )
+  private boolean reuseRemovedSubtrees = false;
+
+  @Option(
+    secure = true,
+    description =
+        "maximum number of expanded states whose successors are recorded for a later reuse, "
+            + "the oldest ones are dropped first (cf. cpa.arg.reuseRemovedSubtrees)"
+  )
+  @IntegerOption(min = 1)
+  private int maxRecordedExpansions = 1000000;
+
+  @Option(
+    secure = true,
+    description =
+        "maximum number of removed states whose successors are kept for reuse, "
+            + "the oldest ones are dropped first (cf. cpa.arg.reuseRemovedSubtrees)"
+  )
+  @IntegerOption(min = 1)
+  private int maxReusableRemovedStates = 100000;
+
   private final LogManager logger;
 
+  private final @Nullable ReexplorationCache reexplorationCache;
+
   private final ARGStatistics stats;
 
+  /** guards the links of the ARG if it is built by several threads concurrently */
+  private final ARGLinkLock linkLock = new ARGLinkLock();
+
   private ARGCPA(
       ConfigurableProgramAnalysis cpa,
       Configuration config,
@@ -113,6 +148,12 @@ public class ARGCPA extends AbstractSingleWrapperCPA
     config.inject(this);
     this.logger = logger;
     stats = new ARGStatistics(config, logger, this, pSpecification, cfa);
+    if (reuseRemovedSubtrees) {
+      ReexplorationCache.checkApplicableTo(cpa);
+      reexplorationCache = new ReexplorationCache(maxRecordedExpansions, maxReusableRemovedStates);
+    } else {
+      reexplorationCache = null;
+    }
   }
 
   @Override
@@ -122,7 +163,8 @@ public class ARGCPA extends AbstractSingleWrapperCPA
 
   @Override
   public TransferRelation getTransferRelation() {
-    return new ARGTransferRelation(getWrappedCpa().getTransferRelation());
+    return new ARGTransferRelation(
+        getWrappedCpa().getTransferRelation(), reexplorationCache, linkLock);
   }
 
   @Override
@@ -131,10 +173,14 @@ public class ARGCPA extends AbstractSingleWrapperCPA
     if (wrappedMergeOperator == MergeSepOperator.getInstance()) {
       return MergeSepOperator.getInstance();
     } else if (inCPAEnabledAnalysis) {
-      return new ARGMergeJoinCPAEnabledAnalysis(wrappedMergeOperator, deleteInCPAEnabledAnalysis);
+      return new ARGMergeJoinCPAEnabledAnalysis(
+          wrappedMergeOperator, deleteInCPAEnabledAnalysis, linkLock);
     } else {
       return new ARGMergeJoin(
-          wrappedMergeOperator, getWrappedCpa().getAbstractDomain(), mergeOnWrappedSubsumption);
+          wrappedMergeOperator,
+          getWrappedCpa().getAbstractDomain(),
+          mergeOnWrappedSubsumption,
+          linkLock);
     }
   }
 
@@ -144,7 +190,8 @@ public class ARGCPA extends AbstractSingleWrapperCPA
         getWrappedCpa().getStopOperator(),
         logger,
         inCPAEnabledAnalysis,
-        keepCoveredStatesInReached);
+        keepCoveredStatesInReached,
+        linkLock);
   }
 
   @Override
@@ -153,7 +200,7 @@ public class ARGCPA extends AbstractSingleWrapperCPA
     if (wrappedPrec instanceof SimplePrecisionAdjustment) {
       return new ARGSimplePrecisionAdjustment((SimplePrecisionAdjustment) wrappedPrec);
     } else {
-      return new ARGPrecisionAdjustment(wrappedPrec, inCPAEnabledAnalysis, stats);
+      return new ARGPrecisionAdjustment(wrappedPrec, inCPAEnabledAnalysis, stats, linkLock);
     }
   }
 
@@ -192,6 +239,24 @@ public class ARGCPA extends AbstractSingleWrapperCPA
     return stats;
   }
 
+  /**
+   * Returns the cache that keeps the successors of removed ARG states for reuse, or null if
+   * removed subtrees are not reused (cf. option cpa.arg.reuseRemovedSubtrees).
+   */
+  public @Nullable ReexplorationCache getReexplorationCache() {
+    return reexplorationCache;
+  }
+
+  /**
+   * Returns the lock that guards the links between ARG states. It needs to be enabled if the ARG
+   * is built by several threads concurrently. The operators of this CPA take the lock themselves
+   * while they touch the links, other code that modifies the ARG during such an exploration needs
+   * to hold it.
+   */
+  public ARGLinkLock getLinkLock() {
+    return linkLock;
+  }
+
   @Override
   public boolean areAbstractSuccessors(AbstractState pElement, CFAEdge pCfaEdge,
       Collection<? extends AbstractState> pSuccessors) throws CPATransferException, InterruptedException {
@@ -0,0 +1,64 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Guards the links between ARG states (parents, children, and coverage) if the ARG is built by
+ * several threads concurrently. Before {@link #enable()} is called, locking and unlocking do
+ * nothing, such that a sequential exploration does not pay for the synchronization.
+ *
+ * <p>The operators of {@link ARGCPA} hold this lock only while they read or update the links of
+ * a single state, never while they call the operators of the wrapped CPA. It is reentrant, so
+ * code that modifies larger parts of the ARG (e.g., forced covering) may hold it across calls to
+ * these operators.
+ */
+public final class ARGLinkLock {
+
+  private final Lock lock = new ReentrantLock();
+
+  private volatile boolean enabled = false;
+
+  /**
+   * Let all further calls to {@link #lock()} and {@link #unlock()} actually lock. This must be
+   * called before the threads that modify the ARG are started, and while nobody holds the lock.
+   */
+  public void enable() {
+    enabled = true;
+  }
+
+  public void lock() {
+    if (enabled) {
+      lock.lock();
+    }
+  }
+
+  public void unlock() {
+    if (enabled) {
+      lock.unlock();
+    }
+  }
+}
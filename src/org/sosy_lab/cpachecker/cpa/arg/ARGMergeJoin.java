@@ -35,14 +35,17 @@ public class ARGMergeJoin implements MergeOperator {
   private final MergeOperator wrappedMerge;
   private final AbstractDomain wrappedDomain;
   private final boolean mergeOnWrappedSubsumption;
+  private final ARGLinkLock linkLock;
 
   public ARGMergeJoin(
       MergeOperator pWrappedMerge,
       AbstractDomain pWrappedDomain,
-      boolean pMergeOnWrappedSubsumption) {
+      boolean pMergeOnWrappedSubsumption,
+      ARGLinkLock pLinkLock) {
     wrappedMerge = pWrappedMerge;
     wrappedDomain = pWrappedDomain;
     mergeOnWrappedSubsumption = pMergeOnWrappedSubsumption;
+    linkLock = pLinkLock;
   }
 
   @Override
@@ -72,8 +75,15 @@ public class ARGMergeJoin implements MergeOperator {
 
     boolean continueMerge = !retElement.equals(wrappedState2);
     if (mergeOnWrappedSubsumption) {
-      HashSet<ARGState> parents1 = new HashSet<>(argElement1.getParents());
-      HashSet<ARGState> parents2 = new HashSet<>(argElement2.getParents());
+      HashSet<ARGState> parents1;
+      HashSet<ARGState> parents2;
+      linkLock.lock();
+      try {
+        parents1 = new HashSet<>(argElement1.getParents());
+        parents2 = new HashSet<>(argElement2.getParents());
+      } finally {
+        linkLock.unlock();
+      }
       continueMerge =
           continueMerge
               || (!parents2.containsAll(parents1)
@@ -85,18 +95,24 @@ public class ARGMergeJoin implements MergeOperator {
 
     ARGState mergedElement = new ARGState(retElement, null);
 
-    // now replace argElement2 by mergedElement in ARG
-    argElement2.replaceInARGWith(mergedElement);
-
-    // and also replace argElement1 with it
-    for (ARGState parentOfElement1 : argElement1.getParents()) {
-      mergedElement.addParent(parentOfElement1);
+    linkLock.lock();
+    try {
+      // now replace argElement2 by mergedElement in ARG
+      argElement2.replaceInARGWith(mergedElement);
+
+      // and also replace argElement1 with it
+      for (ARGState parentOfElement1 : argElement1.getParents()) {
+        mergedElement.addParent(parentOfElement1);
+      }
+
+      // argElement1 is the current successor,
+      // it does not have any children yet and covered nodes yet
+      assert argElement1.getChildren().isEmpty();
+      assert argElement1.getCoveredByThis().isEmpty();
+    } finally {
+      linkLock.unlock();
     }
 
-    // argElement1 is the current successor, it does not have any children yet and covered nodes yet
-    assert argElement1.getChildren().isEmpty();
-    assert argElement1.getCoveredByThis().isEmpty();
-
     // ARGElement1 will only be removed from ARG if stop(e1, reached) returns true.
     // So we can't actually remove it now, but we need to remember this later.
     argElement1.setMergedWith(mergedElement);
@@ -41,10 +41,13 @@ public class ARGMergeJoinCPAEnabledAnalysis implements MergeOperator {
   private final boolean deleteSubgraphAfterMerge;
   private final MergeOperator wrappedMerge;
   private final ArrayList<ARGState> toDeleteFromReached = new ArrayList<>();
+  private final ARGLinkLock linkLock;
 
-  public ARGMergeJoinCPAEnabledAnalysis(MergeOperator pWrappedMerge, final boolean pDeleteSubgraph) {
+  public ARGMergeJoinCPAEnabledAnalysis(
+      MergeOperator pWrappedMerge, final boolean pDeleteSubgraph, ARGLinkLock pLinkLock) {
     wrappedMerge = pWrappedMerge;
     deleteSubgraphAfterMerge = pDeleteSubgraph;
+    linkLock = pLinkLock;
   }
 
   // may cause problems during refinement, relink of elements may lead to non-matching abstraction formulae
@@ -77,13 +80,18 @@ public class ARGMergeJoinCPAEnabledAnalysis implements MergeOperator {
 
     ARGState mergedElement = new ARGState(retElement, null);
 
-    if (deleteSubgraphAfterMerge) {
-      // now replace argElement2 by mergedElement in ARG
-      // deleteChildren(argElement2);
-      deleteChildren2(argElement2);
-    }
+    linkLock.lock();
+    try {
+      if (deleteSubgraphAfterMerge) {
+        // now replace argElement2 by mergedElement in ARG
+        // deleteChildren(argElement2);
+        deleteChildren2(argElement2);
+      }
 
-    argElement2.replaceInARGWith(mergedElement);
+      argElement2.replaceInARGWith(mergedElement);
+    } finally {
+      linkLock.unlock();
+    }
 
 
     argElement1.setMergedWith(mergedElement);
@@ -45,14 +45,20 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
 
   private final PrecisionAdjustment wrappedPrecAdjustment;
   private final ARGStatistics statistics;
+  private final ARGLinkLock linkLock;
 
   protected final boolean inCPAEnabledAnalysis;
 
 
-  public ARGPrecisionAdjustment(PrecisionAdjustment pWrappedPrecAdjustment, boolean pInCPAEnabledAnalysis, ARGStatistics pStats) {
+  public ARGPrecisionAdjustment(
+      PrecisionAdjustment pWrappedPrecAdjustment,
+      boolean pInCPAEnabledAnalysis,
+      ARGStatistics pStats,
+      ARGLinkLock pLinkLock) {
     wrappedPrecAdjustment = pWrappedPrecAdjustment;
     inCPAEnabledAnalysis = pInCPAEnabledAnalysis;
     statistics = pStats;
+    linkLock = pLinkLock;
   }
 
   @Override
@@ -70,7 +76,12 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
     Optional<PrecisionAdjustmentResult> result = prec(element, oldPrecision, pElements, projection, fullState);
 
     // print statistics for this algorithm iteration (if necessary)
-    statistics.printIterationStatistics(pElements);
+    linkLock.lock();
+    try {
+      statistics.printIterationStatistics(pElements);
+    } finally {
+      linkLock.unlock();
+    }
 
     return result;
   }
@@ -82,9 +93,7 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
       AbstractState fullState) throws CPAException, InterruptedException {
 
     if (inCPAEnabledAnalysis && element.isTarget()) {
-      if (elementHasSiblings(element)) {
-        removeUnreachedSiblingsFromARG(element, pElements);
-      }
+      removeUnreachedSiblingsFromARG(element, pElements);
       // strengthening of PredicateCPA already proved if path is infeasible and removed infeasible element
       // thus path is feasible here
       throw new CPAEnabledAnalysisPropertyViolationException("Property violated during successor computation", element, false);
@@ -104,14 +113,19 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
         );
 
     if (!optionalUnwrappedResult.isPresent()) {
-      element.removeFromARG();
+      linkLock.lock();
+      try {
+        element.removeFromARG();
+      } finally {
+        linkLock.unlock();
+      }
       return Optional.empty();
     }
 
     PrecisionAdjustmentResult unwrappedResult = optionalUnwrappedResult.get();
 
     // ensure that ARG and reached set are consistent if BREAK is signaled for a state with multiple children
-    if (unwrappedResult.action() == Action.BREAK && elementHasSiblings(element)) {
+    if (unwrappedResult.action() == Action.BREAK) {
       removeUnreachedSiblingsFromARG(element, pElements);
     }
 
@@ -126,13 +140,19 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
 
     ARGState resultElement = new ARGState(newElement, null);
 
-    element.replaceInARGWith(resultElement); // this completely eliminates element
+    linkLock.lock();
+    try {
+      element.replaceInARGWith(resultElement); // this completely eliminates element
+    } finally {
+      linkLock.unlock();
+    }
 
     return Optional.of(PrecisionAdjustmentResult.create(resultElement, newPrecision, action));
   }
 
   /**
    * This method removes all siblings of the given element from the ARG, if they are not yet in the reached set.
+   * It does nothing if the element has no siblings.
    *
    * These measures are necessary in the cases where precision adjustment signals {@link Action#BREAK} for a state
    * whose parent has multiple children, and not all children have been processed completely. In this case, not all
@@ -143,16 +163,25 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
    * @param pReachedSet the current reached set
    */
   private void removeUnreachedSiblingsFromARG(ARGState element, UnmodifiableReachedSet pReachedSet) {
-    Set<ARGState> scheduledForDeletion = new HashSet<>();
+    linkLock.lock();
+    try {
+      if (!elementHasSiblings(element)) {
+        return;
+      }
+
+      Set<ARGState> scheduledForDeletion = new HashSet<>();
 
-    for (ARGState sibling : Iterables.getOnlyElement(element.getParents()).getChildren()) {
-      if (sibling != element && !pReachedSet.contains(sibling)) {
-        scheduledForDeletion.add(sibling);
+      for (ARGState sibling : Iterables.getOnlyElement(element.getParents()).getChildren()) {
+        if (sibling != element && !pReachedSet.contains(sibling)) {
+          scheduledForDeletion.add(sibling);
+        }
       }
-    }
 
-    for (ARGState sibling : scheduledForDeletion) {
-      sibling.removeFromARG();
+      for (ARGState sibling : scheduledForDeletion) {
+        sibling.removeFromARG();
+      }
+    } finally {
+      linkLock.unlock();
     }
   }
 
@@ -342,6 +342,13 @@ public class ARGReachedSet {
     // (if sibling not removed and precision is not weaker)
     toUnreach.addAll(newToUnreach);
 
+    if (cpa instanceof ARGCPA) {
+      ReexplorationCache reexplorationCache = ((ARGCPA) cpa).getReexplorationCache();
+      if (reexplorationCache != null) {
+        reexplorationCache.recordRemovedStates(toUnreach);
+      }
+    }
+
     Set<ARGState> toWaitlist = removeSet(toUnreach);
 
     return toWaitlist;
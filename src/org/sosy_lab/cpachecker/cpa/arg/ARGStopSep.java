@@ -40,14 +40,17 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
   private final boolean inCPAEnabledAnalysis;
   private final StopOperator wrappedStop;
   private final LogManager logger;
+  private final ARGLinkLock linkLock;
 
   public ARGStopSep(
       StopOperator pWrappedStop,
       LogManager pLogger,
       boolean pInCPAEnabledAnalysis,
-      boolean pKeepCoveredStatesInReached) {
+      boolean pKeepCoveredStatesInReached,
+      ARGLinkLock pLinkLock) {
     wrappedStop = pWrappedStop;
     logger = pLogger;
+    linkLock = pLinkLock;
     keepCoveredStatesInReached = pKeepCoveredStatesInReached;
     inCPAEnabledAnalysis = pInCPAEnabledAnalysis;
   }
@@ -73,10 +76,15 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
         if (wrappedStop.stop(argElement.getWrappedState(), Collections.singleton(mergedWith.getWrappedState()), pPrecision)) {
           // merged and covered
-          if (inCPAEnabledAnalysis) {
-            argElement.setCovered(mergedWith);
-          } else {
-            argElement.removeFromARG();
+          linkLock.lock();
+          try {
+            if (inCPAEnabledAnalysis) {
+              argElement.setCovered(mergedWith);
+            } else {
+              argElement.removeFromARG();
+            }
+          } finally {
+            linkLock.unlock();
           }
           logger.log(Level.FINEST, "Element is covered by the element it was merged into");
 
@@ -104,23 +112,32 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
     // Check if the argElement has only one parent and remember it for later:
     ARGState parent = null;
-    if (argElement.getParents().size() == 1) {
-      parent = Iterables.get(argElement.getParents(), 0);
+    linkLock.lock();
+    try {
+      if (argElement.getParents().size() == 1) {
+        parent = Iterables.get(argElement.getParents(), 0);
+      }
+    } finally {
+      linkLock.unlock();
     }
 
     for (AbstractState reachedState : pReached) {
       ARGState argReachedState = (ARGState)reachedState;
       if (stop(argElement, argReachedState, pPrecision)) {
-        if (parent != null && argReachedState.getParents().contains(parent)) {
-          // if the covering state has the same parent as the covered state
-          // and if the covered state has no other parents,
-          // it should always be safe to remove the covered state:
-          argElement.removeFromARG();
-          return true;
-        } else {
-          // if this option is true, we always return false here on purpose
-          return !keepCoveredStatesInReached;
+        linkLock.lock();
+        try {
+          if (parent != null && argReachedState.getParents().contains(parent)) {
+            // if the covering state has the same parent as the covered state
+            // and if the covered state has no other parents,
+            // it should always be safe to remove the covered state:
+            argElement.removeFromARG();
+            return true;
+          }
+        } finally {
+          linkLock.unlock();
         }
+        // if this option is true, we always return false here on purpose
+        return !keepCoveredStatesInReached;
       }
     }
     return false;
@@ -150,7 +167,12 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
     boolean stop = wrappedStop.stop(wrappedState, Collections.singleton(wrappedReachedState), pPrecision);
 
     if (stop) {
-      pElement.setCovered(pReachedState);
+      linkLock.lock();
+      try {
+        pElement.setCovered(pReachedState);
+      } finally {
+        linkLock.unlock();
+      }
     }
     return stop;
   }
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cpa.arg;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -37,8 +38,25 @@ public class ARGTransferRelation implements TransferRelation {
 
   private final TransferRelation transferRelation;
 
+  private final @Nullable ReexplorationCache reexplorationCache;
+
+  /**
+   * Lock that guards the ARG links, the successors of the wrapped CPA are computed without holding
+   * it such that several threads can compute successors concurrently.
+   */
+  private final ARGLinkLock linkLock;
+
   public ARGTransferRelation(TransferRelation tr) {
+    this(tr, null, new ARGLinkLock());
+  }
+
+  ARGTransferRelation(
+      TransferRelation tr,
+      @Nullable ReexplorationCache pReexplorationCache,
+      ARGLinkLock pLinkLock) {
     transferRelation = tr;
+    reexplorationCache = pReexplorationCache;
+    linkLock = pLinkLock;
   }
 
   @Override
@@ -47,31 +65,52 @@ public class ARGTransferRelation implements TransferRelation {
       throws CPATransferException, InterruptedException {
     ARGState element = (ARGState)pElement;
 
-    // covered elements may be in the reached set, but should always be ignored
-    if (element.isCovered()) {
-      return Collections.emptySet();
+    linkLock.lock();
+    try {
+      // covered elements may be in the reached set, but should always be ignored,
+      // the same holds for elements that another thread has replaced in the meantime
+      if (element.isDestroyed() || element.isCovered()) {
+        return Collections.emptySet();
+      }
+
+      element.markExpanded();
+    } finally {
+      linkLock.unlock();
     }
 
-    element.markExpanded();
+    Collection<? extends AbstractState> successors = null;
+    if (reexplorationCache != null) {
+      successors = reexplorationCache.takeSuccessorsFor(element.getWrappedState());
+    }
 
-    AbstractState wrappedState = element.getWrappedState();
-    Collection<? extends AbstractState> successors;
-    try {
-      successors = transferRelation.getAbstractSuccessors(wrappedState, pPrecision);
-    } catch (UnrecognizedCodeException e) {
-      // setting parent of this unsupported code part
-      e.setParentState(element);
-      throw e;
+    if (successors == null) {
+      try {
+        successors = transferRelation.getAbstractSuccessors(element.getWrappedState(), pPrecision);
+      } catch (UnrecognizedCodeException e) {
+        // setting parent of this unsupported code part
+        e.setParentState(element);
+        throw e;
+      }
     }
 
-    if (successors.isEmpty()) {
-      return Collections.emptySet();
+    if (reexplorationCache != null) {
+      reexplorationCache.recordExpansion(element, successors);
     }
 
-    Collection<ARGState> wrappedSuccessors = new ArrayList<>();
-    for (AbstractState absElement : successors) {
-      ARGState successorElem = new ARGState(absElement, element);
-      wrappedSuccessors.add(successorElem);
+    Collection<ARGState> wrappedSuccessors = new ArrayList<>(successors.size());
+    linkLock.lock();
+    try {
+      if (element.isDestroyed()) {
+        // another thread merged the element during a parallel exploration,
+        // its replacement will be explored instead
+        return Collections.emptySet();
+      }
+      for (AbstractState absElement : successors) {
+        ARGState successorElem = new ARGState(absElement, element);
+        wrappedSuccessors.add(successorElem);
+      }
+    } finally {
+      linkLock.unlock();
     }
 
     return wrappedSuccessors;
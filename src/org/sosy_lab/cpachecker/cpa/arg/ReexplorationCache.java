@@ -0,0 +1,203 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.cpa.automaton.ControlAutomatonCPA;
+import org.sosy_lab.cpachecker.cpa.callstack.CallstackCPA;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeCPA;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeState;
+import org.sosy_lab.cpachecker.cpa.functionpointer.FunctionPointerCPA;
+import org.sosy_lab.cpachecker.cpa.location.LocationCPA;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Keeps the successors of states in subtrees that were removed from the ARG during a refinement,
+ * such that the re-exploration can take them over instead of computing them again.
+ *
+ * <p>The successors of each expanded state are recorded by the {@link ARGTransferRelation}. When
+ * {@link ARGReachedSet} removes a subtree, the recorded successors of its states become candidates
+ * for reuse. If later a state is expanded whose wrapped state is equal to the wrapped state of such
+ * a removed state, the candidate successors are returned instead of calling the wrapped transfer
+ * relation. The successors still pass through precision adjustment, merge, and stop with the new
+ * precision, so a removed subtree is re-attached exactly as far as the new precision yields the
+ * same states again.
+ *
+ * <p>This is only correct if the wrapped transfer relation is deterministic and does not depend on
+ * the precision (e.g., value analysis, where the precision is applied in the precision
+ * adjustment), which {@link #checkApplicableTo(ConfigurableProgramAnalysis)} ensures. Wrapped
+ * states are compared with {@link Object#equals(Object)}, with composite states being compared
+ * component-wise, so analyses with states that only support identity comparison never reuse
+ * anything.
+ */
+public final class ReexplorationCache {
+
+  /**
+   * The CPAs whose transfer relations do not depend on the precision and are deterministic. The
+   * automata of the specification only use their precision for disabling the automaton, which no
+   * refinement does.
+   */
+  private static final ImmutableSet<Class<? extends ConfigurableProgramAnalysis>>
+      PRECISION_INDEPENDENT_CPAS =
+          ImmutableSet.of(
+              LocationCPA.class,
+              CallstackCPA.class,
+              FunctionPointerCPA.class,
+              ValueAnalysisCPA.class,
+              ControlAutomatonCPA.class);
+
+  /**
+   * the successors computed for the most recently expanded ARG states, the keys are weak, such
+   * that states that are removed from the ARG in some other way can be garbage collected
+   */
+  private final Cache<ARGState, List<AbstractState>> successorsOfExpandedStates;
+
+  /** the successors of removed states, keyed by the (comparable) wrapped removed state */
+  private final Map<Object, List<AbstractState>> candidates;
+
+  private final StatCounter recordedExpansions =
+      new StatCounter("Number of removed expanded states kept for reuse");
+  private final StatCounter reusedExpansions =
+      new StatCounter("Number of expansions reused from removed subtrees");
+  private final StatInt reusedSuccessors =
+      new StatInt(StatKind.SUM, "Number of successors reused from removed subtrees");
+  private final StatCounter evictedCandidates =
+      new StatCounter("Number of removed expanded states evicted");
+  private final StatCounter evictedExpansions =
+      new StatCounter("Number of recorded expansions evicted");
+
+  ReexplorationCache(final int pMaxExpansions, final int pMaxCandidates) {
+    successorsOfExpandedStates =
+        CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(pMaxExpansions)
+            .<ARGState, List<AbstractState>>removalListener(
+                notification -> {
+                  if (notification.getCause() == RemovalCause.SIZE) {
+                    evictedExpansions.inc();
+                  }
+                })
+            .build();
+    candidates =
+        new LinkedHashMap<Object, List<AbstractState>>() {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Object, List<AbstractState>> pEldest) {
+            if (size() > pMaxCandidates) {
+              evictedCandidates.inc();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Checks that the reuse of removed subtrees is correct for the given CPA, i.e., that it consists
+   * only of CPAs with transfer relations that do not depend on the precision.
+   */
+  static void checkApplicableTo(ConfigurableProgramAnalysis pWrappedCpa)
+      throws InvalidConfigurationException {
+    for (ConfigurableProgramAnalysis cpa : CPAs.asIterable(pWrappedCpa)) {
+      if (!(cpa instanceof CompositeCPA) && !PRECISION_INDEPENDENT_CPAS.contains(cpa.getClass())) {
+        throw new InvalidConfigurationException(
+            "Option cpa.arg.reuseRemovedSubtrees is not supported for "
+                + cpa.getClass().getSimpleName()
+                + ", because its transfer relation may depend on the precision.");
+      }
+    }
+  }
+
+  /** Remember the successors that the wrapped transfer relation computed for the given state. */
+  void recordExpansion(ARGState pState, Collection<? extends AbstractState> pSuccessors) {
+    successorsOfExpandedStates.put(pState, ImmutableList.copyOf(pSuccessors));
+  }
+
+  /** Make the recorded successors of the given states, which get removed, available for reuse. */
+  synchronized void recordRemovedStates(Collection<ARGState> pRemovedStates) {
+    for (ARGState state : pRemovedStates) {
+      List<AbstractState> successors = successorsOfExpandedStates.getIfPresent(state);
+      if (successors != null) {
+        successorsOfExpandedStates.invalidate(state);
+        recordedExpansions.inc();
+        candidates.put(toKey(state.getWrappedState()), successors);
+      }
+    }
+  }
+
+  /**
+   * Returns the successors of a removed state with a wrapped state equal to the given one, or null
+   * if there is none. Each candidate is handed out only once, because the wrapped states are not
+   * copied.
+   */
+  synchronized @Nullable List<AbstractState> takeSuccessorsFor(AbstractState pWrappedState) {
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    List<AbstractState> successors = candidates.remove(toKey(pWrappedState));
+    if (successors != null) {
+      reusedExpansions.inc();
+      reusedSuccessors.setNextValue(successors.size());
+    }
+    return successors;
+  }
+
+  private static Object toKey(AbstractState pState) {
+    if (pState instanceof CompositeState) {
+      ImmutableList.Builder<Object> components = ImmutableList.builder();
+      for (AbstractState component : ((CompositeState) pState).getWrappedStates()) {
+        components.add(toKey(component));
+      }
+      return components.build();
+    }
+    return pState;
+  }
+
+  public void printStatistics(StatisticsWriter pWriter) {
+    pWriter
+        .put(recordedExpansions)
+        .put(reusedExpansions)
+        .put(reusedSuccessors)
+        .put(evictedCandidates)
+        .put(evictedExpansions);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.common.io.TempFile.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class ReexplorationCacheTest {
+
+  private enum TestState implements AbstractState {
+    A,
+    B,
+    C
+  }
+
+  private static final List<String> SAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "void main() {",
+          "  int a = 1;",
+          "  int b = 2;",
+          "  int i = 0;",
+          "  int x = __VERIFIER_nondet_int();",
+          "  while (i < 10) {",
+          "    i++;",
+          "    if (x == i && a != 1) { goto ERROR; }",
+          "    if (x == i + 1 && b != 2) { goto ERROR; }",
+          "  }",
+          "  return;",
+          "ERROR:",
+          "  return;",
+          "}");
+
+  private static final List<String> UNSAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "void main() {",
+          "  int a = 1;",
+          "  int i = 0;",
+          "  int x = __VERIFIER_nondet_int();",
+          "  while (i < 10) {",
+          "    i++;",
+          "    if (x == i && a != 1) { goto ERROR; }",
+          "  }",
+          "  if (x == 5) { goto ERROR; }",
+          "  return;",
+          "ERROR:",
+          "  return;",
+          "}");
+
+  @Test
+  public void testReuseOfRemovedState() {
+    ReexplorationCache cache = new ReexplorationCache(10, 10);
+    ARGState root = new ARGState(TestState.A, null);
+    ARGState child = new ARGState(TestState.B, root);
+    cache.recordExpansion(root, ImmutableList.of(TestState.B, TestState.C));
+    cache.recordExpansion(child, ImmutableList.of());
+
+    assertThat(cache.takeSuccessorsFor(TestState.A)).isNull();
+
+    cache.recordRemovedStates(ImmutableList.of(root));
+    assertThat(cache.takeSuccessorsFor(TestState.B)).isNull();
+    assertThat(cache.takeSuccessorsFor(TestState.A))
+        .containsExactly(TestState.B, TestState.C)
+        .inOrder();
+    // each candidate is handed out only once
+    assertThat(cache.takeSuccessorsFor(TestState.A)).isNull();
+  }
+
+  @Test
+  public void testRecordedExpansionsAreBounded() {
+    int maxExpansions = 5;
+    ReexplorationCache cache = new ReexplorationCache(maxExpansions, 100);
+    List<ARGState> states = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      ARGState state = new ARGState(TestState.A, null);
+      cache.recordExpansion(state, ImmutableList.of(TestState.B));
+      states.add(state);
+    }
+
+    int available = 0;
+    for (ARGState state : states) {
+      cache.recordRemovedStates(ImmutableList.of(state));
+      if (cache.takeSuccessorsFor(TestState.A) != null) {
+        available++;
+      }
+    }
+    assertThat(available).isAtMost(maxExpansions);
+  }
+
+  @Test
+  public void testCandidatesAreBounded() {
+    ReexplorationCache cache = new ReexplorationCache(10, 1);
+    ARGState state1 = new ARGState(TestState.A, null);
+    ARGState state2 = new ARGState(TestState.B, null);
+    cache.recordExpansion(state1, ImmutableList.of(TestState.C));
+    cache.recordExpansion(state2, ImmutableList.of(TestState.C));
+    cache.recordRemovedStates(ImmutableList.of(state1, state2));
+
+    // the older candidate was dropped
+    assertThat(cache.takeSuccessorsFor(TestState.A)).isNull();
+    assertThat(cache.takeSuccessorsFor(TestState.B)).containsExactly(TestState.C);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testRejectUnknownCpa() throws InvalidConfigurationException {
+    ReexplorationCache.checkApplicableTo(mock(ConfigurableProgramAnalysis.class));
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testRejectPredicateAnalysis() throws Exception {
+    run("config/predicateAnalysis.properties", SAFE_PROGRAM, true);
+  }
+
+  @Test
+  public void testValueAnalysisSafe() throws Exception {
+    assertThat(run("config/valueAnalysis-Cegar.properties", SAFE_PROGRAM, true))
+        .isEqualTo(Result.TRUE);
+    assertThat(run("config/valueAnalysis-Cegar.properties", SAFE_PROGRAM, false))
+        .isEqualTo(Result.TRUE);
+  }
+
+  @Test
+  public void testValueAnalysisUnsafe() throws Exception {
+    assertThat(run("config/valueAnalysis-Cegar.properties", UNSAFE_PROGRAM, true))
+        .isEqualTo(Result.FALSE);
+    assertThat(run("config/valueAnalysis-Cegar.properties", UNSAFE_PROGRAM, false))
+        .isEqualTo(Result.FALSE);
+  }
+
+  private static Result run(String pConfigFile, List<String> pProgram, boolean pReuse)
+      throws Exception {
+    try (DeleteOnCloseFile programFile =
+        TempFile.builder().prefix("test").suffix(".c").createDeleteOnClose()) {
+      Files.write(programFile.toPath(), pProgram);
+
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .loadFromFile(pConfigFile)
+              .setOption("specification", "config/specification/default.spc")
+              .setOption("cpa.arg.reuseRemovedSubtrees", Boolean.toString(pReuse))
+              .build();
+
+      return CPATestRunner.run(config, programFile.toPath().toString())
+          .getCheckerResult()
+          .getResult();
+    }
+  }
+}
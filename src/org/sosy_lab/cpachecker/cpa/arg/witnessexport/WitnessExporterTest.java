@@ -43,6 +43,7 @@ import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.xml.parsers.DocumentBuilderFactory;
 import org.junit.Assert;
 import org.junit.Test;
 import org.sosy_lab.common.configuration.Configuration;
@@ -50,10 +51,14 @@ import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
 import org.sosy_lab.cpachecker.util.test.CPATestRunner;
 import org.sosy_lab.cpachecker.util.test.TestDataTools;
 import org.sosy_lab.cpachecker.util.test.TestResults;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 public class WitnessExporterTest {
 
@@ -97,6 +102,61 @@ public class WitnessExporterTest {
       .performTest();
   }
 
+  @Test(timeout = 90000)
+  public void streamingExportMatchesDom() throws Exception {
+    String program = Paths.get(TEST_DIR_PATH, "rule60_list2.c_false-unreach-call_1.i").toString();
+    String specification = "config/specification/default.spc";
+
+    TempCompressedFilePath domWitness = new TempCompressedFilePath("witness", ".graphml");
+    generateWitness(
+        program,
+        WitnessGenerationConfig.PREDICATE_ANALYSIS,
+        specification,
+        ImmutableMap.of(),
+        domWitness);
+    TempCompressedFilePath streamedWitness = new TempCompressedFilePath("witness", ".graphml");
+    generateWitness(
+        program,
+        WitnessGenerationConfig.PREDICATE_ANALYSIS,
+        specification,
+        ImmutableMap.of("cpa.arg.witness.streamingExport", "true"),
+        streamedWitness);
+
+    Document expected = parseWitness(domWitness.uncompressedFilePath);
+    Document actual = parseWitness(streamedWitness.uncompressedFilePath);
+    Assert.assertTrue(
+        "streamed witness differs from witness built via DOM", actual.isEqualNode(expected));
+  }
+
+  /**
+   * Parse a witness and remove everything that may differ between two exports of the same ARG,
+   * i.e., whitespace and the creation time.
+   */
+  private static Document parseWitness(Path pWitness) throws Exception {
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    Document doc = factory.newDocumentBuilder().parse(pWitness.toFile());
+    removeIrrelevantNodes(doc.getDocumentElement());
+    doc.normalizeDocument();
+    return doc;
+  }
+
+  private static void removeIrrelevantNodes(Node pNode) {
+    Node child = pNode.getFirstChild();
+    while (child != null) {
+      Node next = child.getNextSibling();
+      if ((child.getNodeType() == Node.TEXT_NODE && child.getTextContent().trim().isEmpty())
+          || child.getNodeType() == Node.COMMENT_NODE
+          || (child instanceof Element
+              && KeyDef.CREATIONTIME.id.equals(((Element) child).getAttribute("key")))) {
+        pNode.removeChild(child);
+      } else {
+        removeIrrelevantNodes(child);
+      }
+      child = next;
+    }
+  }
+
   private static void performTest(
       String pFilename,
       String pSpecification,
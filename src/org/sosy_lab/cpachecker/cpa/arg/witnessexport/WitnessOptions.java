@@ -90,6 +90,15 @@ class WitnessOptions {
   @Option(secure = true, description = "Always export source file name, even default")
   private boolean exportSourceFileName = false;
 
+  @Option(
+    secure = true,
+    description =
+        "Verification witness: Write the GraphML document directly to the output file "
+            + "instead of building it in memory first. This reduces the memory consumption "
+            + "for large witnesses."
+  )
+  private boolean streamingExport = false;
+
   boolean exportFunctionCallsAndReturns() {
     return exportFunctionCallsAndReturns;
   }
@@ -137,4 +146,8 @@ class WitnessOptions {
   boolean exportSourceFileName() {
     return exportSourceFileName;
   }
+
+  boolean streamingExport() {
+    return streamingExport;
+  }
 }
@@ -135,6 +135,7 @@ import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeType;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
+import org.sosy_lab.cpachecker.util.automaton.GraphMlStreamWriter;
 import org.sosy_lab.cpachecker.util.automaton.VerificationTaskMetaData;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTreeFactory;
@@ -1189,6 +1190,11 @@ class WitnessWriter implements EdgeAppender {
     // merge redundant sibling edges leading to the sink together, if possible
     mergeRedundantSinkEdges();
 
+    if (witnessOptions.streamingExport()) {
+      writeElementsOfGraphToStream(pTarget, entryStateNodeId);
+      return;
+    }
+
     // Write elements
     final GraphMlBuilder doc;
     try {
@@ -1343,6 +1349,129 @@ class WitnessWriter implements EdgeAppender {
     }
   }
 
+  /**
+   * Write the witness graph without building a DOM. The graph is traversed twice in the same order
+   * as by {@link #writeElementsOfGraphToDoc(GraphMlBuilder, String)}: The first traversal only
+   * determines the keys used in the witness, because the GraphML keys have to be declared before
+   * the first node. The second traversal writes nodes and edges directly to the target and
+   * consumes the witness graph while doing so: A node is written when it is first reached,
+   * together with the data of all its entering edges (which are known at this point because the
+   * graph is complete), and is then removed from {@link #enteringEdges} and the other per-node
+   * maps. The leaving edges of a node are removed from {@link #leavingEdges} when they are
+   * written. Apart from whitespace, the produced witness is identical to the one built via the DOM.
+   *
+   * <p>The witness graph has to be complete before writing starts, because the merging of nodes in
+   * {@link #writePath} needs the whole graph. While writing, the memory used for the witness thus
+   * shrinks instead of growing by a DOM with an element for every node, edge, and data entry.
+   */
+  private void writeElementsOfGraphToStream(Appendable pTarget, String entryStateNodeId)
+      throws IOException {
+    GraphMlStreamWriter writer =
+        new GraphMlStreamWriter(
+            pTarget,
+            graphType,
+            defaultSourcefileName,
+            cfa,
+            verificationTaskMetaData,
+            getUsedKeys(entryStateNodeId));
+
+    Deque<String> waitlist = Queues.newArrayDeque();
+    writeNodeToStream(writer, entryStateNodeId);
+    waitlist.push(entryStateNodeId);
+    while (!waitlist.isEmpty()) {
+      String source = waitlist.pop();
+      for (Edge edge : leavingEdges.removeAll(source)) {
+        // entering edges are removed when a node is written, so only new nodes still have them
+        if (enteringEdges.containsKey(edge.getTarget())
+            && writeNodeToStream(writer, edge.getTarget())) {
+          waitlist.push(edge.getTarget());
+        }
+        List<Pair<KeyDef, String>> edgeData = new ArrayList<>();
+        for (Map.Entry<KeyDef, String> entry : edge.getLabel().getMapping().entrySet()) {
+          if (entry.getKey().keyFor.equals(ElementType.EDGE)) {
+            edgeData.add(Pair.of(entry.getKey(), entry.getValue()));
+          }
+        }
+        writer.writeEdge(edge.getSource(), edge.getTarget(), edgeData);
+      }
+    }
+    writer.finish();
+  }
+
+  /**
+   * Determine the keys that are used by the nodes and edges reachable from the given entry node.
+   * This also fixes the loop-head invariants of these nodes, so {@link #getExportedInvariant} is
+   * stable afterwards.
+   */
+  private Set<KeyDef> getUsedKeys(String entryStateNodeId) {
+    Set<KeyDef> usedKeys = EnumSet.noneOf(KeyDef.class);
+    Set<String> visitedNodes = new HashSet<>();
+    Deque<String> waitlist = Queues.newArrayDeque();
+    waitlist.push(entryStateNodeId);
+    visitedNodes.add(entryStateNodeId);
+    while (!waitlist.isEmpty()) {
+      String source = waitlist.pop();
+      for (Edge edge : leavingEdges.get(source)) {
+        setLoopHeadInvariantIfApplicable(edge.getTarget());
+        if (visitedNodes.add(edge.getTarget())
+            && !ExpressionTrees.getFalse().equals(getExportedInvariant(edge.getTarget()))) {
+          waitlist.push(edge.getTarget());
+        }
+        for (KeyDef key : edge.getLabel().getMapping().keySet()) {
+          if (key.keyFor.equals(ElementType.EDGE)) {
+            usedKeys.add(key);
+          }
+        }
+      }
+    }
+    for (String node : visitedNodes) {
+      for (Pair<KeyDef, String> data : getNodeData(node)) {
+        usedKeys.add(data.getFirst());
+      }
+      for (Pair<KeyDef, String> data : getInvariantsData(node, getExportedInvariant(node))) {
+        usedKeys.add(data.getFirst());
+      }
+      for (Edge edge : enteringEdges.get(node)) {
+        for (KeyDef key : edge.getLabel().getMapping().keySet()) {
+          if (key.keyFor.equals(ElementType.NODE)) {
+            usedKeys.add(key);
+          }
+        }
+      }
+    }
+    return usedKeys;
+  }
+
+  /**
+   * Write the given node with its own data and the node data of its entering edges, and remove the
+   * node from the per-node maps afterwards.
+   *
+   * @return whether the successors of the node need to be written, i.e., whether its invariant is
+   *     not false
+   */
+  private boolean writeNodeToStream(GraphMlStreamWriter pWriter, String pStateId)
+      throws IOException {
+    ExpressionTree<Object> invariant = getExportedInvariant(pStateId);
+    List<Pair<KeyDef, String>> data = getNodeData(pStateId);
+    data.addAll(getInvariantsData(pStateId, invariant));
+    for (Edge edge : enteringEdges.removeAll(pStateId)) {
+      for (Map.Entry<KeyDef, String> entry : edge.getLabel().getMapping().entrySet()) {
+        if (entry.getKey().keyFor.equals(ElementType.NODE)) {
+          data.add(Pair.of(entry.getKey(), entry.getValue()));
+        }
+      }
+    }
+    pWriter.writeNode(pStateId, data);
+
+    nodeFlags.removeAll(pStateId);
+    violatedProperties.removeAll(pStateId);
+    stateInvariants.remove(pStateId);
+    stateQuasiInvariants.remove(pStateId);
+    stateScopes.remove(pStateId);
+    invariantExportStates.remove(pStateId);
+    return !ExpressionTrees.getFalse().equals(invariant);
+  }
+
   private void setLoopHeadInvariantIfApplicable(String pTarget) {
     if (!ExpressionTrees.getTrue().equals(getStateInvariant(pTarget))) {
       return;
@@ -1380,18 +1509,32 @@ class WitnessWriter implements EdgeAppender {
 
   private ExpressionTree<Object> addInvariantsData(
       GraphMlBuilder pDoc, Element pNode, String pStateId) {
+    ExpressionTree<Object> tree = getExportedInvariant(pStateId);
+    for (Pair<KeyDef, String> data : getInvariantsData(pStateId, tree)) {
+      pDoc.addDataElementChild(pNode, data.getFirst(), data.getSecond());
+    }
+    return tree;
+  }
+
+  private ExpressionTree<Object> getExportedInvariant(String pStateId) {
     if (!invariantExportStates.contains(pStateId)) {
       return ExpressionTrees.getTrue();
     }
-    ExpressionTree<Object> tree = getStateInvariant(pStateId);
-    if (!tree.equals(ExpressionTrees.getTrue())) {
-      pDoc.addDataElementChild(pNode, KeyDef.INVARIANT, tree.toString());
-      String scope = stateScopes.get(pStateId);
-      if (scope != null && !scope.isEmpty() && !tree.equals(ExpressionTrees.getFalse())) {
-        pDoc.addDataElementChild(pNode, KeyDef.INVARIANTSCOPE, scope);
-      }
+    return getStateInvariant(pStateId);
+  }
+
+  private List<Pair<KeyDef, String>> getInvariantsData(
+      String pStateId, ExpressionTree<Object> pTree) {
+    if (pTree.equals(ExpressionTrees.getTrue())) {
+      return ImmutableList.of();
     }
-    return tree;
+    List<Pair<KeyDef, String>> result = new ArrayList<>(2);
+    result.add(Pair.of(KeyDef.INVARIANT, pTree.toString()));
+    String scope = stateScopes.get(pStateId);
+    if (scope != null && !scope.isEmpty() && !pTree.equals(ExpressionTrees.getFalse())) {
+      result.add(Pair.of(KeyDef.INVARIANTSCOPE, scope));
+    }
+    return result;
   }
 
   private boolean hasFlagsOrProperties(String pNode) {
@@ -1681,22 +1824,30 @@ class WitnessWriter implements EdgeAppender {
 
   private Element createNewNode(GraphMlBuilder pDoc, String pEntryStateNodeId) {
     Element result = pDoc.createNodeElement(pEntryStateNodeId, NodeType.ONPATH);
+    for (Pair<KeyDef, String> data : getNodeData(pEntryStateNodeId)) {
+      pDoc.addDataElementChild(result, data.getFirst(), data.getSecond());
+    }
+    return result;
+  }
+
+  private List<Pair<KeyDef, String>> getNodeData(String pStateId) {
+    List<Pair<KeyDef, String>> result = new ArrayList<>();
 
     if (witnessOptions.exportNodeLabel()) {
       // add a printable label that for example is shown in yEd
-      pDoc.addDataElementChild(result, KeyDef.LABEL, pEntryStateNodeId);
+      result.add(Pair.of(KeyDef.LABEL, pStateId));
     }
 
-    for (NodeFlag f : nodeFlags.get(pEntryStateNodeId)) {
-      pDoc.addDataElementChild(result, f.key, "true");
+    for (NodeFlag f : nodeFlags.get(pStateId)) {
+      result.add(Pair.of(f.key, "true"));
     }
-    for (Property violation : violatedProperties.get(pEntryStateNodeId)) {
-      pDoc.addDataElementChild(result, KeyDef.VIOLATEDPROPERTY, violation.toString());
+    for (Property violation : violatedProperties.get(pStateId)) {
+      result.add(Pair.of(KeyDef.VIOLATEDPROPERTY, violation.toString()));
     }
 
-    if(stateQuasiInvariants.containsKey(pEntryStateNodeId)) {
-      ExpressionTree<Object> tree = getQuasiInvariant(pEntryStateNodeId);
-        pDoc.addDataElementChild(result, KeyDef.INVARIANT, tree.toString());
+    if (stateQuasiInvariants.containsKey(pStateId)) {
+      ExpressionTree<Object> tree = getQuasiInvariant(pStateId);
+      result.add(Pair.of(KeyDef.INVARIANT, tree.toString()));
     }
 
     return result;
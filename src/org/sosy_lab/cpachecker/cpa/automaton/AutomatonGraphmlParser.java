@@ -24,13 +24,11 @@
 package org.sosy_lab.cpachecker.cpa.automaton;
 
 import com.google.common.base.Joiner;
-import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
@@ -52,7 +50,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -73,6 +70,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -109,7 +107,6 @@ import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
 import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
@@ -128,7 +125,7 @@ public class AutomatonGraphmlParser {
 
   private static final String THREAD_ID_VAR_NAME = KeyDef.THREADID.toString().toUpperCase();
 
-  private static final String TOO_MANY_GRAPHS_ERROR_MESSAGE =
+  static final String TOO_MANY_GRAPHS_ERROR_MESSAGE =
       "The witness file must describe exactly one witness automaton.";
 
   private static final String ACCESS_ERROR_MESSAGE = "Error while accessing witness file: %s!";
@@ -176,6 +173,16 @@ public class AutomatonGraphmlParser {
   )
   private boolean strictChecking = true;
 
+  @Option(
+    secure = true,
+    description =
+        "Read witnesses with a streaming XML parser that creates the states and transitions of"
+            + " the witness automaton directly while reading, instead of building a DOM tree of"
+            + " the whole witness first. Witnesses that the streaming parser cannot read are"
+            + " parsed with the DOM parser."
+  )
+  private boolean useStreamingParser = true;
+
   @Option(secure=true, description="File for exporting the witness automaton in DOT format.")
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path automatonDumpFile = null;
@@ -221,10 +228,21 @@ public class AutomatonGraphmlParser {
    */
   private List<Automaton> parseAutomatonFile(ByteSource pInputSource, Set<Property> pProperties)
       throws InvalidConfigurationException {
+    if (useStreamingParser) {
+      try {
+        return AutomatonGraphmlParser
+            .<List<Automaton>, InvalidConfigurationException>handlePotentiallyGZippedInput(
+                pInputSource,
+                inputStream -> parseAutomatonFile(inputStream, pProperties, true),
+                e -> new WitnessParseException(e));
+      } catch (StreamingParserException e) {
+        logger.logDebugException(e, "Streaming parser failed, falling back to DOM parser");
+      }
+    }
     return AutomatonGraphmlParser
         .<List<Automaton>, InvalidConfigurationException>handlePotentiallyGZippedInput(
             pInputSource,
-            inputStream -> parseAutomatonFile(inputStream, pProperties),
+            inputStream -> parseAutomatonFile(inputStream, pProperties, false),
             e -> new WitnessParseException(e));
   }
 
@@ -233,11 +251,13 @@ public class AutomatonGraphmlParser {
    *
    * @param pInputStream the input stream to parse the witness from.
    * @param pProperties which are assumed to be witnessed.
+   * @param pStreaming whether to read the witness with the streaming parser.
    * @throws InvalidConfigurationException if the configuration is invalid.
    * @throws IOException if there occurs an IOException while reading from the stream.
    * @return the automata representing the witnesses found in the stream.
    */
-  private List<Automaton> parseAutomatonFile(InputStream pInputStream, Set<Property> pProperties)
+  private List<Automaton> parseAutomatonFile(
+      InputStream pInputStream, Set<Property> pProperties, boolean pStreaming)
       throws InvalidConfigurationException, IOException {
     final CParser cparser =
         CParser.Factory.getParser(
@@ -251,7 +271,8 @@ public class AutomatonGraphmlParser {
             CParser.Factory.getOptions(config),
             cfa.getMachineModel());
 
-    AutomatonGraphmlParserState graphMLParserState = setupGraphMLParser(pInputStream, pProperties);
+    AutomatonGraphmlParserState graphMLParserState =
+        setupGraphMLParser(pInputStream, pProperties, pStreaming);
 
     // Parse the transitions
     parseTransitions(cparser, graphMLParserState);
@@ -923,54 +944,37 @@ public class AutomatonGraphmlParser {
   }
 
   /**
-   * Initializes the GraphML-parser state by parsing the XML document from the given input stream
-   * into an intermediate representation.
+   * Initializes the GraphML-parser state by reading the states and transitions of the witness
+   * automaton from the given input stream.
    *
    * @param pInputStream the input stream to read from.
    * @param pProperties which are assumed to be witnessed.
+   * @param pStreaming whether to read the document with the streaming parser.
    * @return the initialized parser state.
    * @throws IOException if reading from the input stream fails.
    * @throws WitnessParseException if the initial validity checks for conformity with the witness
    *     format fail.
    */
   private AutomatonGraphmlParserState setupGraphMLParser(
-      InputStream pInputStream, Set<Property> pProperties)
+      InputStream pInputStream, Set<Property> pProperties, boolean pStreaming)
       throws IOException, WitnessParseException {
 
-    GraphMLDocumentData docDat = parseXML(pInputStream);
+    WitnessGraphCollector collector = new WitnessGraphCollector();
+    GraphMLElement graph =
+        pStreaming
+            ? parseXMLStreaming(pInputStream, collector)
+            : parseXML(pInputStream, collector);
+    collector.finish();
 
-    checkFields(docDat.getGraph());
+    checkFields(graph);
 
-    WitnessType graphType = getWitnessType(docDat.getGraph());
+    WitnessType graphType = getWitnessType(graph);
 
     // Extract the information on the automaton ----
-    Node nameAttribute = docDat.getGraph().getAttributes().getNamedItem("name");
+    String nameAttribute = graph.getAttribute("name");
     String automatonName = WITNESS_AUTOMATON_NAME;
     if (nameAttribute != null) {
-      automatonName += "_" + nameAttribute.getTextContent();
-    }
-
-    Map<String, GraphMLState> states = Maps.newHashMap();
-    Multimap<GraphMLState, GraphMLTransition> enteringTransitions = HashMultimap.create();
-    Multimap<GraphMLState, GraphMLTransition> leavingTransitions = HashMultimap.create();
-    NumericIdProvider numericIdProvider = NumericIdProvider.create();
-    Set<GraphMLState> entryStates = Sets.newHashSet();
-    for (Node transition : docDat.getTransitions()) {
-      collectEdgeData(
-          docDat,
-          states,
-          entryStates,
-          leavingTransitions,
-          enteringTransitions,
-          numericIdProvider,
-          transition);
-    }
-    if (states.size() < docDat.idToNodeMap.size()) {
-      for (String stateId : docDat.idToNodeMap.keySet()) {
-        if (!states.containsKey(stateId)) {
-          states.put(stateId, parseState(docDat, states, stateId, Optional.empty()));
-        }
-      }
+      automatonName += "_" + nameAttribute;
     }
 
     AutomatonGraphmlParserState state =
@@ -978,9 +982,9 @@ public class AutomatonGraphmlParser {
             automatonName,
             graphType,
             pProperties,
-            states.values(),
-            enteringTransitions,
-            leavingTransitions,
+            collector.states.values(),
+            collector.enteringTransitions,
+            collector.leavingTransitions,
             cfa.getAllFunctionNames());
 
     // Check if entry state is connected to a violation state
@@ -1009,7 +1013,12 @@ public class AutomatonGraphmlParser {
     return state;
   }
 
-  private GraphMLDocumentData parseXML(InputStream pInputStream)
+  /**
+   * Parses the witness into a DOM tree and passes its nodes and edges to the given collector.
+   *
+   * @return the graph element of the witness.
+   */
+  private static GraphMLElement parseXML(InputStream pInputStream, WitnessGraphCollector pCollector)
       throws WitnessParseException, IOException {
 
     // Parse the XML document ----
@@ -1023,13 +1032,36 @@ public class AutomatonGraphmlParser {
       throw new WitnessParseException(e);
     }
 
-    return new GraphMLDocumentData(doc);
+    NodeList graphs = doc.getElementsByTagName(GraphMLTag.GRAPH.toString());
+    checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
+    for (Node node : asIterable(doc.getElementsByTagName(GraphMLTag.NODE.toString()))) {
+      pCollector.acceptNode(GraphMLElement.fromDom((Element) node));
+    }
+    for (Node edge : asIterable(doc.getElementsByTagName(GraphMLTag.EDGE.toString()))) {
+      pCollector.acceptEdge(GraphMLElement.fromDom((Element) edge));
+    }
+    return GraphMLElement.fromDom((Element) Objects.requireNonNull(graphs.item(0)));
+  }
+
+  /**
+   * Reads the witness with the streaming parser and passes each node and edge to the given
+   * collector as soon as it was read, without building a DOM tree.
+   *
+   * @return the graph element of the witness.
+   */
+  private static GraphMLElement parseXMLStreaming(
+      InputStream pInputStream, WitnessGraphCollector pCollector) throws WitnessParseException {
+    try {
+      return GraphMLStaxReader.read(pInputStream, pCollector);
+    } catch (XMLStreamException e) {
+      throw new StreamingParserException(e);
+    }
   }
 
-  private void checkFields(Node graphNode) throws IOException, WitnessParseException {
+  private void checkFields(GraphMLElement graphNode) throws IOException, WitnessParseException {
 
-    checkHashSum(GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.PROGRAMHASH));
-    checkArchitecture(GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.ARCHITECTURE));
+    checkHashSum(graphNode.getData(KeyDef.PROGRAMHASH));
+    checkArchitecture(graphNode.getData(KeyDef.ARCHITECTURE));
 
     if (strictChecking) {
       checkRequiredField(graphNode, KeyDef.WITNESS_TYPE);
@@ -1064,9 +1096,9 @@ public class AutomatonGraphmlParser {
     return functionExitMatcher;
   }
 
-  private static boolean entersLoopHead(Node pTransition) throws WitnessParseException {
+  private static boolean entersLoopHead(GraphMLElement pTransition) throws WitnessParseException {
     Set<String> loopHeadFlags =
-        GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ENTERLOOPHEAD);
+        pTransition.getData(KeyDef.ENTERLOOPHEAD);
     if (!loopHeadFlags.isEmpty()) {
       Set<Boolean> loopHeadFlagValues =
           loopHeadFlags.stream().map(Boolean::parseBoolean).collect(Collectors.toSet());
@@ -1111,18 +1143,19 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition specifying which line numbers to assume.
    * @return a predicate to match file locations based on the line numbers specified by the transition.
    */
-  private static Optional<Predicate<FileLocation>> getOriginLineMatcherPredicate(Node pTransition)
+  private static Optional<Predicate<FileLocation>> getOriginLineMatcherPredicate(
+      GraphMLElement pTransition)
       throws WitnessParseException {
-    Set<String> originFileTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ORIGINFILE);
+    Set<String> originFileTags = pTransition.getData(KeyDef.ORIGINFILE);
     checkParsable(
         originFileTags.size() < 2,
         "At most one origin-file data tag must be provided for an edge.");
 
-    Set<String> startLineTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.STARTLINE);
+    Set<String> startLineTags = pTransition.getData(KeyDef.STARTLINE);
     checkParsable(
         startLineTags.size() < 2,
         "At most one startline data tag must be provided for each edge.");
-    Set<String> endLineTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ENDLINE);
+    Set<String> endLineTags = pTransition.getData(KeyDef.ENDLINE);
     checkParsable(
         endLineTags.size() < 2, "At most one endline data tag must be provided for each edge.");
 
@@ -1165,16 +1198,17 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition specifying which character offset to assume.
    * @return a predicate to match file locations based on the offsets specified by the transition.
    */
-  private static Optional<Predicate<FileLocation>> getOffsetMatcherPredicate(Node pTransition) throws WitnessParseException {
-    Set<String> originFileTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ORIGINFILE);
+  private static Optional<Predicate<FileLocation>> getOffsetMatcherPredicate(
+      GraphMLElement pTransition) throws WitnessParseException {
+    Set<String> originFileTags = pTransition.getData(KeyDef.ORIGINFILE);
     checkParsable(
         originFileTags.size() < 2,
         "At most one origin-file data tag must be provided for an edge.");
 
-    Set<String> offsetTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.OFFSET);
+    Set<String> offsetTags = pTransition.getData(KeyDef.OFFSET);
     checkParsable(
         offsetTags.size() < 2, "At most one offset data tag must be provided for each edge.");
-    Set<String> endoffsetTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ENDOFFSET);
+    Set<String> endoffsetTags = pTransition.getData(KeyDef.ENDOFFSET);
     checkParsable(
         endoffsetTags.size() < 2, "At most one endoffset data tag must be provided for each edge.");
 
@@ -1219,8 +1253,9 @@ public class AutomatonGraphmlParser {
    * @return an automaton-transition condition for specific branches of an assumption corresponding
    *     to the control case specified by the given transition.
    */
-  private static AutomatonBoolExpr getAssumeCaseMatcher(Node pTransition) throws WitnessParseException {
-    Set<String> assumeCaseTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.CONTROLCASE);
+  private static AutomatonBoolExpr getAssumeCaseMatcher(GraphMLElement pTransition)
+      throws WitnessParseException {
+    Set<String> assumeCaseTags = pTransition.getData(KeyDef.CONTROLCASE);
 
     if (assumeCaseTags.size() > 0) {
       checkParsable(
@@ -1250,7 +1285,8 @@ public class AutomatonGraphmlParser {
    * @throws WitnessParseException if more than one thread id was specified.
    */
   private static Optional<GraphMLTransition.GraphMLThread> getThread(
-      Node pTransition, NumericIdProvider pNumericIdProvider) throws WitnessParseException {
+      GraphMLElement pTransition, NumericIdProvider pNumericIdProvider)
+      throws WitnessParseException {
     return parseThreadId(pTransition, pNumericIdProvider, KeyDef.THREADID, "At most one threadId tag must be provided for each transition.");
   }
 
@@ -1266,9 +1302,12 @@ public class AutomatonGraphmlParser {
    * @throws WitnessParseException if more than one thread id was specified.
    */
   private static Optional<GraphMLTransition.GraphMLThread> parseThreadId(
-      Node pTransition, NumericIdProvider pNumericIdProvider, KeyDef pKey, String pErrorMessage)
+      GraphMLElement pTransition,
+      NumericIdProvider pNumericIdProvider,
+      KeyDef pKey,
+      String pErrorMessage)
       throws WitnessParseException {
-    Set<String> threadIdTags = GraphMLDocumentData.getDataOnNode(pTransition, pKey);
+    Set<String> threadIdTags = pTransition.getData(pKey);
 
     if (threadIdTags.size() > 0) {
       checkParsable(
@@ -1292,158 +1331,151 @@ public class AutomatonGraphmlParser {
   }
 
   /**
-   * Reads an automaton edge from the graphml file and inserts it into the automaton.
-   *
-   * @param pDocDat the GraphML-document-data helper.
-   * @param pStates the map from state identifiers to parsed states.
-   * @param pEntryStates the set of entry states.
-   * @param pLeavingEdges the map from predecessor states to transitions leaving these states that
-   *     the given transition will be entered into.
-   * @param pEnteringEdges the map from successor states to transitions entering these states that
-   *     the given transition will be entered into.
-   * @param pNumericThreadIdProvider a numeric id provider to map textual thread ids to numeric
-   *     ones.
-   * @param pTransition the transition to be analyzed, represented as a GraphML edge.
+   * Collects the states and transitions of the witness automaton from the nodes and edges of a
+   * GraphML witness. Each node is converted into a state and each edge into a transition as soon as
+   * it is passed to the collector, so the GraphML elements themselves are not kept. Only edges that
+   * are read before their source or target node are buffered until the end of the witness.
    */
-  private void collectEdgeData(
-      GraphMLDocumentData pDocDat,
-      Map<String, GraphMLState> pStates,
-      Set<GraphMLState> pEntryStates,
-      Multimap<GraphMLState, GraphMLTransition> pLeavingEdges,
-      Multimap<GraphMLState, GraphMLTransition> pEnteringEdges,
-      NumericIdProvider pNumericThreadIdProvider,
-      Node pTransition)
-      throws WitnessParseException {
-    String sourceStateId =
-        GraphMLDocumentData.getAttributeValue(
-            pTransition, "source", "Every transition needs a source!");
-    GraphMLState source = parseState(pDocDat, pStates, sourceStateId, Optional.of(pTransition));
-
-    String targetStateId =
-        GraphMLDocumentData.getAttributeValue(
-            pTransition, "target", "Every transition needs a target!");
-    GraphMLState target = parseState(pDocDat, pStates, targetStateId, Optional.of(pTransition));
-
-    Optional<String> functionEntry = parseSingleDataValue(pTransition, KeyDef.FUNCTIONENTRY,
-        "At most one function can be entered by one transition.");
-
-    Optional<String> functionExit = parseSingleDataValue(pTransition, KeyDef.FUNCTIONEXIT,
-        "At most one function can be exited by one transition.");
-    Optional<String> explicitAssumptionScope = parseSingleDataValue(pTransition, KeyDef.ASSUMPTIONSCOPE,
-        "At most one explicit assumption scope must be provided for a transition.");
-    Optional<String> assumptionResultFunction =
-        parseSingleDataValue(pTransition, KeyDef.ASSUMPTIONRESULTFUNCTION,
-            "At most one result function must be provided for a transition.");
-
-    Optional<GraphMLTransition.GraphMLThread> thread = getThread(pTransition, pNumericThreadIdProvider);
-    Optional<AutomatonAction> threadIdAssignment =
-        thread.isPresent()
-            ? Optional.of(getThreadIdAssignment(thread.get().getId()))
-            : Optional.empty();
-
-    GraphMLTransition transition =
-        new GraphMLTransition(
-            source,
-            target,
-            functionEntry,
-            functionExit,
-            getOffsetMatcherPredicate(pTransition),
-            getOriginLineMatcherPredicate(pTransition),
-            getAssumeCaseMatcher(pTransition),
-            thread.orElse(DEFAULT_THREAD),
-            threadIdAssignment,
-            GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ASSUMPTION),
-            explicitAssumptionScope,
-            assumptionResultFunction,
-            entersLoopHead(pTransition));
-
-    pLeavingEdges.put(source, transition);
-    pEnteringEdges.put(target, transition);
-
-    Element sourceStateNode = pDocDat.getNodeWithId(sourceStateId);
-    if (sourceStateNode == null) {
-      throw new WitnessParseException(
-          String.format(
-              "Source %s of transition %s does not exist.",
-              sourceStateId, transitionToString(pTransition)));
-    }
-    Element targetStateNode = pDocDat.getNodeWithId(targetStateId);
-    if (targetStateNode == null) {
-      throw new WitnessParseException(
-          String.format(
-              "Target %s of transition %s does not exist.",
-              targetStateId, transitionToString(pTransition)));
-    }
+  private class WitnessGraphCollector implements GraphMLStaxReader.ElementConsumer {
 
-    if (source.isViolationState()) {
-      logger.log(
-          Level.WARNING,
-          String.format(
-              "Source %s of transition %s is a violation state. No outgoing edges expected.",
-              sourceStateId, transitionToString(pTransition)));
-    }
+    private final Map<String, GraphMLState> states = Maps.newHashMap();
+    private final Multimap<GraphMLState, GraphMLTransition> enteringTransitions =
+        HashMultimap.create();
+    private final Multimap<GraphMLState, GraphMLTransition> leavingTransitions =
+        HashMultimap.create();
+    private final NumericIdProvider numericIdProvider = NumericIdProvider.create();
+    private final List<GraphMLElement> pendingEdges = new ArrayList<>();
 
-    if (source.isSinkState()) {
-      logger.log(
-          Level.WARNING,
-          String.format(
-              "Source %s of transition %s is a sink state. No outgoing edges expected.",
-              sourceStateId, transitionToString(pTransition)));
+    @Override
+    public void acceptNode(GraphMLElement pNode) throws WitnessParseException {
+      String stateId = getAttributeValue(pNode, "id", "Every state needs an ID!");
+      Optional<String> candidateScope =
+          parseSingleDataValue(
+              pNode,
+              KeyDef.INVARIANTSCOPE,
+              "At most one explicit invariant scope must be provided for a state.");
+      GraphMLState state =
+          new GraphMLState(
+              stateId, pNode.getData(KeyDef.INVARIANT), candidateScope, pNode.getNodeFlags());
+      if (states.put(stateId, state) != null) {
+        throw new WitnessParseException(
+            String.format("The state with id <%s> is defined more than once.", stateId));
+      }
     }
 
-    if (source.isEntryState()) {
-      pEntryStates.add(source);
-    }
-    if (target.isEntryState()) {
-      pEntryStates.add(target);
+    @Override
+    public void acceptEdge(GraphMLElement pEdge) throws WitnessParseException {
+      String sourceStateId = getAttributeValue(pEdge, "source", "Every transition needs a source!");
+      String targetStateId = getAttributeValue(pEdge, "target", "Every transition needs a target!");
+      if (states.containsKey(sourceStateId) && states.containsKey(targetStateId)) {
+        collectEdgeData(pEdge, states.get(sourceStateId), states.get(targetStateId));
+      } else {
+        pendingEdges.add(pEdge);
+      }
     }
-  }
 
-  private GraphMLState parseState(
-      GraphMLDocumentData pDocDat,
-      Map<String, GraphMLState> pStates,
-      String pStateId,
-      Optional<Node> pReference)
-      throws WitnessParseException {
-    GraphMLState result = pStates.get(pStateId);
-    if (result != null) {
-      return result;
+    /** Collects the edges that were read before their nodes. All nodes must have been read. */
+    void finish() throws WitnessParseException {
+      for (GraphMLElement edge : pendingEdges) {
+        GraphMLState source = getState(edge.getAttribute("source"), edge);
+        GraphMLState target = getState(edge.getAttribute("target"), edge);
+        collectEdgeData(edge, source, target);
+      }
+      pendingEdges.clear();
     }
 
-    Element stateNode = pDocDat.getNodeWithId(pStateId);
-    if (stateNode == null) {
-      final String message;
-      if (pReference.isPresent()) {
-        message =
+    private GraphMLState getState(String pStateId, GraphMLElement pReference)
+        throws WitnessParseException {
+      GraphMLState result = states.get(pStateId);
+      if (result == null) {
+        throw new WitnessParseException(
             String.format(
                 "The state with id <%s> does not exist, but is referenced in the transition <%s>",
-                pStateId, transitionToString(pReference.get()));
-      } else {
-        message = String.format("The state with if <%s> does not exist.", pStateId);
+                pStateId, transitionToString(pReference)));
       }
-      throw new WitnessParseException(message);
+      return result;
     }
 
-    Set<String> candidates = GraphMLDocumentData.getDataOnNode(stateNode, KeyDef.INVARIANT);
-    Optional<String> candidateScope = parseSingleDataValue(stateNode, KeyDef.INVARIANTSCOPE,
-        "At most one explicit invariant scope must be provided for a state.");
+    /**
+     * Reads an automaton edge from the graphml file and inserts it into the automaton.
+     *
+     * @param pTransition the transition to be analyzed, represented as a GraphML edge.
+     * @param pSource the state for the source node of the edge.
+     * @param pTarget the state for the target node of the edge.
+     */
+    private void collectEdgeData(
+        GraphMLElement pTransition, GraphMLState pSource, GraphMLState pTarget)
+        throws WitnessParseException {
+      Optional<String> functionEntry = parseSingleDataValue(pTransition, KeyDef.FUNCTIONENTRY,
+          "At most one function can be entered by one transition.");
 
-    result = new GraphMLState(
-        pStateId,
-        candidates,
-        candidateScope,
-        pDocDat.getNodeFlags(stateNode));
+      Optional<String> functionExit = parseSingleDataValue(pTransition, KeyDef.FUNCTIONEXIT,
+          "At most one function can be exited by one transition.");
+      Optional<String> explicitAssumptionScope =
+          parseSingleDataValue(pTransition, KeyDef.ASSUMPTIONSCOPE,
+              "At most one explicit assumption scope must be provided for a transition.");
+      Optional<String> assumptionResultFunction =
+          parseSingleDataValue(pTransition, KeyDef.ASSUMPTIONRESULTFUNCTION,
+              "At most one result function must be provided for a transition.");
+
+      Optional<GraphMLTransition.GraphMLThread> thread = getThread(pTransition, numericIdProvider);
+      Optional<AutomatonAction> threadIdAssignment =
+          thread.isPresent()
+              ? Optional.of(getThreadIdAssignment(thread.get().getId()))
+              : Optional.empty();
+
+      GraphMLTransition transition =
+          new GraphMLTransition(
+              pSource,
+              pTarget,
+              functionEntry,
+              functionExit,
+              getOffsetMatcherPredicate(pTransition),
+              getOriginLineMatcherPredicate(pTransition),
+              getAssumeCaseMatcher(pTransition),
+              thread.orElse(DEFAULT_THREAD),
+              threadIdAssignment,
+              pTransition.getData(KeyDef.ASSUMPTION),
+              explicitAssumptionScope,
+              assumptionResultFunction,
+              entersLoopHead(pTransition));
+
+      leavingTransitions.put(pSource, transition);
+      enteringTransitions.put(pTarget, transition);
+
+      if (pSource.isViolationState()) {
+        logger.log(
+            Level.WARNING,
+            String.format(
+                "Source %s of transition %s is a violation state. No outgoing edges expected.",
+                pSource.getId(), transitionToString(pTransition)));
+      }
 
-    pStates.put(pStateId, result);
+      if (pSource.isSinkState()) {
+        logger.log(
+            Level.WARNING,
+            String.format(
+                "Source %s of transition %s is a sink state. No outgoing edges expected.",
+                pSource.getId(), transitionToString(pTransition)));
+      }
+    }
+  }
 
-    return result;
+  private static String getAttributeValue(
+      GraphMLElement pElement, String pAttributeName, String pExceptionMessage)
+      throws WitnessParseException {
+    String value = pElement.getAttribute(pAttributeName);
+    if (value == null) {
+      throw new WitnessParseException(pExceptionMessage);
+    }
+    return value;
   }
 
-  private static Optional<String> parseSingleDataValue(Node pEdge,
+  private static Optional<String> parseSingleDataValue(GraphMLElement pEdge,
       KeyDef pKey,
       String pErrorMessage) throws WitnessParseException {
     Set<String> values =
-        GraphMLDocumentData.getDataOnNode(pEdge, pKey);
+        pEdge.getData(pKey);
     checkParsable(values.size() <= 1, pErrorMessage);
     String value = Iterables.getOnlyElement(values, null);
     return Optional.ofNullable(value);
@@ -1455,9 +1487,9 @@ public class AutomatonGraphmlParser {
    * @param pAutomaton the GraphML graph node representing the witness automaton.
    * @return the witness-automaton type of an automaton represented as a GraphML graph.
    */
-  private WitnessType getWitnessType(Node pAutomaton) throws WitnessParseException {
+  private WitnessType getWitnessType(GraphMLElement pAutomaton) throws WitnessParseException {
     Set<String> witnessTypeText =
-        GraphMLDocumentData.getDataOnNode(pAutomaton, KeyDef.WITNESS_TYPE);
+        pAutomaton.getData(KeyDef.WITNESS_TYPE);
     final WitnessType witnessType;
     if (witnessTypeText.isEmpty()) {
       witnessType = WitnessType.VIOLATION_WITNESS;
@@ -1479,28 +1511,23 @@ public class AutomatonGraphmlParser {
     return witnessType;
   }
 
-  private static String transitionToString(Node pTransition) {
+  private static String transitionToString(GraphMLElement pTransition) {
     if (pTransition == null) {
       return "null";
     }
-    NamedNodeMap attributes = pTransition.getAttributes();
-    if (attributes != null) {
-      Node id = attributes.getNamedItem("id");
-      if (id != null) {
-        return id.getNodeValue();
-      }
-    }
     return pTransition.toString();
   }
 
-  private static void checkRequiredField(Node pGraphNode, KeyDef pKey)
+
+  private static void checkRequiredField(GraphMLElement pGraphNode, KeyDef pKey)
       throws WitnessParseException {
     checkRequiredField(pGraphNode, pKey, false);
   }
 
-  private static void checkRequiredField(Node pGraphNode, KeyDef pKey, boolean pAcceptEmpty)
+  private static void checkRequiredField(
+      GraphMLElement pGraphNode, KeyDef pKey, boolean pAcceptEmpty)
       throws WitnessParseException {
-    Iterable<String> data = GraphMLDocumentData.getDataOnNode(pGraphNode, pKey);
+    Iterable<String> data = pGraphNode.getData(pKey);
     if (Iterables.isEmpty(data)) {
       throw new WitnessParseException(
           String.format("The witness does not contain the required field '%s'", pKey.id));
@@ -1744,119 +1771,6 @@ public class AutomatonGraphmlParser {
 
   }
 
-  private static class GraphMLDocumentData {
-
-    private final Node graph;
-
-    private final ImmutableMap<String, Element> idToNodeMap;
-
-    private final Iterable<Node> transitions;
-
-    public GraphMLDocumentData(Document pDocument) throws WitnessParseException {
-
-      NodeList graphs = pDocument.getElementsByTagName(GraphMLTag.GRAPH.toString());
-      checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
-      graph = Objects.requireNonNull(graphs.item(0));
-
-      ImmutableMap.Builder<String, Element> idToNodeMapBuilder = ImmutableMap.builder();
-      NodeList nodes = pDocument.getElementsByTagName(GraphMLTag.NODE.toString());
-      for (Node stateNode : asIterable(nodes)) {
-        String stateId = getAttributeValue(stateNode, "id", "Every state needs an ID!");
-        idToNodeMapBuilder.put(stateId, (Element) stateNode);
-      }
-      idToNodeMap = idToNodeMapBuilder.build();
-
-      transitions = asIterable(pDocument.getElementsByTagName(GraphMLTag.EDGE.toString()));
-    }
-
-    public Node getGraph() {
-      return graph;
-    }
-
-    public Iterable<Node> getTransitions() {
-      return transitions;
-    }
-
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
-
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMLTag.DATA.toString());
-
-      for (Node dataChild : asIterable(dataChilds)) {
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
-        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
-        if (flag != null) {
-          result.add(flag);
-        }
-      }
-
-      return result;
-    }
-
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage)
-        throws WitnessParseException {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
-      if (attribute == null) {
-        throw new WitnessParseException(exceptionMessage);
-      }
-      return attribute.getTextContent();
-    }
-
-    private @Nullable Element getNodeWithId(String nodeId) {
-      Element result = idToNodeMap.get(nodeId);
-      if (result == null
-          || !result.getTagName().equals(GraphMLTag.NODE.toString())) {
-        return null;
-      }
-      return result;
-    }
-
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
-      Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Element nodeElement = (Element) node;
-      Set<Node> dataNodes = findKeyedDataNode(nodeElement, dataKey);
-
-      Set<String> result = Sets.newHashSet();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
-      }
-
-      return result;
-    }
-
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = Sets.newHashSet();
-      Set<Node> alternative = null;
-      NodeList dataChilds = of.getElementsByTagName(GraphMLTag.DATA.toString());
-      for (Node dataChild : asIterable(dataChilds)) {
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String nodeKey = attribute.getTextContent();
-        if (nodeKey.equals(dataKey.id)) {
-          result.add(dataChild);
-          alternative = null;
-        }
-        // Backwards-compatibility: type/graph-type
-        if (alternative == null
-            && result.isEmpty()
-            && dataKey.equals(KeyDef.WITNESS_TYPE)
-            && nodeKey.equals("type")) {
-          alternative = Sets.newHashSet();
-          alternative.add(dataChild);
-        }
-      }
-      if (result.isEmpty() && alternative != null) {
-        return alternative;
-      }
-      return result;
-    }
-
-  }
-
   public static boolean isGraphmlAutomatonFromConfiguration(Path pPath)
       throws InvalidConfigurationException {
     try {
@@ -1919,11 +1833,11 @@ public class AutomatonGraphmlParser {
     // (The one) root node of the graph ----
     NodeList graphs = doc.getElementsByTagName(GraphMLTag.GRAPH.toString());
     checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
-    Node graphNode = graphs.item(0);
+    GraphMLElement graphNode = GraphMLElement.fromDom((Element) graphs.item(0));
 
     checkRequiredField(graphNode, KeyDef.WITNESS_TYPE);
 
-    Set<String> graphTypeText = GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.WITNESS_TYPE);
+    Set<String> graphTypeText = graphNode.getData(KeyDef.WITNESS_TYPE);
     final WitnessType graphType;
     if (graphTypeText.isEmpty()) {
       graphType = WitnessType.VIOLATION_WITNESS;
@@ -2005,6 +1919,19 @@ public class AutomatonGraphmlParser {
     }
   }
 
+  /**
+   * Signals that the streaming parser could not read a witness, which is then read with the DOM
+   * parser instead.
+   */
+  private static class StreamingParserException extends WitnessParseException {
+
+    private static final long serialVersionUID = 4305792264218530631L;
+
+    private StreamingParserException(XMLStreamException pCause) {
+      super(pCause);
+    }
+  }
+
   private static String getMessage(Throwable pException) {
     String message = pException.getMessage();
     if (message == null) {
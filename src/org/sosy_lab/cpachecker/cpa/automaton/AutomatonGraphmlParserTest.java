@@ -0,0 +1,79 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.CProgramScope;
+import org.sosy_lab.cpachecker.util.Property.CommonPropertyType;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/** Tests that the streaming XML parser for witnesses gives the same automata as the DOM parser. */
+public class AutomatonGraphmlParserTest {
+
+  private static final String PROGRAM =
+      "test/programs/witnessValidation/multivar_true-unreach-call1_true-termination.i";
+
+  private static List<String> parse(CFA pCfa, boolean pStreaming) throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("witness.useStreamingParser", Boolean.toString(pStreaming))
+            .build();
+    LogManager logger = LogManager.createTestLogManager();
+    List<Automaton> automata =
+        new AutomatonGraphmlParser(config, logger, pCfa, new CProgramScope(pCfa, logger))
+            .parseAutomatonFile(
+                GraphMLStaxReaderTest.REAL_WITNESS,
+                ImmutableSet.of(CommonPropertyType.REACHABILITY));
+
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    for (Automaton automaton : automata) {
+      // the order of states and transitions is not relevant
+      result.addAll(Splitter.on('\n').split(automaton.toString()));
+    }
+    return result.build();
+  }
+
+  @Test
+  public void testStreamingParserGivesSameAutomaton() throws Exception {
+    Configuration config = TestDataTools.configurationForTest().build();
+    CFA cfa =
+        new CFACreator(config, LogManager.createTestLogManager(), ShutdownNotifier.createDummy())
+            .parseFileAndCreateCFA(ImmutableList.of(PROGRAM));
+
+    List<String> dom = parse(cfa, false);
+    assertThat(dom).isNotEmpty();
+    assertThat(parse(cfa, true)).containsExactlyElementsIn(dom);
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2017  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.util.EnumSet;
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * The attributes and data values of a single graph, node, or edge element of a GraphML witness.
+ * This is all the witness parser needs from an element, so elements can be parsed one at a time
+ * without keeping a document tree of the whole witness.
+ */
+final class GraphMLElement {
+
+  private final String tagName;
+
+  private final ImmutableMap<String, String> attributes;
+
+  /** The values of the data elements, grouped by their key. */
+  private final ImmutableSetMultimap<String, String> data;
+
+  private GraphMLElement(
+      String pTagName,
+      ImmutableMap<String, String> pAttributes,
+      ImmutableSetMultimap<String, String> pData) {
+    tagName = Objects.requireNonNull(pTagName);
+    attributes = pAttributes;
+    data = pData;
+  }
+
+  /**
+   * Copies the attributes and data values of the given DOM element. Like before the introduction of
+   * this class, the data values are taken from all data elements below the given element.
+   */
+  static GraphMLElement fromDom(Element pElement) {
+    Builder builder = new Builder(pElement.getTagName());
+    NamedNodeMap attributes = pElement.getAttributes();
+    for (int i = 0; i < attributes.getLength(); i++) {
+      Node attribute = attributes.item(i);
+      builder.putAttribute(attribute.getNodeName(), attribute.getNodeValue());
+    }
+    NodeList dataChilds = pElement.getElementsByTagName(GraphMLTag.DATA.toString());
+    for (int i = 0; i < dataChilds.getLength(); i++) {
+      Element dataChild = (Element) dataChilds.item(i);
+      if (!dataChild.hasAttribute("key")) {
+        throw new IllegalArgumentException("Every data element must have a key attribute!");
+      }
+      builder.putData(dataChild.getAttribute("key"), dataChild.getTextContent());
+    }
+    return builder.build();
+  }
+
+  String getTagName() {
+    return tagName;
+  }
+
+  @Nullable
+  String getAttribute(String pName) {
+    return attributes.get(pName);
+  }
+
+  /** Returns the (distinct) values of the data elements with the given key. */
+  ImmutableSet<String> getData(KeyDef pKey) {
+    ImmutableSet<String> result = data.get(pKey.id);
+    // Backwards-compatibility: type/graph-type
+    if (result.isEmpty() && pKey.equals(KeyDef.WITNESS_TYPE)) {
+      return data.get("type").isEmpty()
+          ? result
+          : ImmutableSet.of(data.get("type").iterator().next());
+    }
+    return result;
+  }
+
+  /** Returns the flags of a node, i.e., the flags for which the node has a data element. */
+  EnumSet<NodeFlag> getNodeFlags() {
+    EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
+    for (String key : data.keySet()) {
+      NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
+      if (flag != null) {
+        result.add(flag);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (pOther instanceof GraphMLElement) {
+      GraphMLElement other = (GraphMLElement) pOther;
+      return tagName.equals(other.tagName)
+          && attributes.equals(other.attributes)
+          && data.equals(other.data);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(tagName, attributes, data);
+  }
+
+  @Override
+  public String toString() {
+    String id = attributes.get("id");
+    if (id != null) {
+      return id;
+    }
+    return tagName + attributes;
+  }
+
+  static final class Builder {
+
+    private final String tagName;
+    private final ImmutableMap.Builder<String, String> attributes = ImmutableMap.builder();
+    private final ImmutableSetMultimap.Builder<String, String> data =
+        ImmutableSetMultimap.builder();
+
+    Builder(String pTagName) {
+      tagName = pTagName;
+    }
+
+    Builder putAttribute(String pName, String pValue) {
+      attributes.put(pName, pValue);
+      return this;
+    }
+
+    Builder putData(String pKey, String pValue) {
+      data.put(pKey, pValue);
+      return this;
+    }
+
+    GraphMLElement build() {
+      return new GraphMLElement(tagName, attributes.build(), data.build());
+    }
+  }
+}
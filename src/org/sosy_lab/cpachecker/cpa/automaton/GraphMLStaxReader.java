@@ -0,0 +1,165 @@
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser.WitnessParseException;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
+
+/**
+ * Reads a GraphML witness from a stream of StAX events without building a document tree.
+ *
+ * <p>Each node and edge of the witness is collected into a {@link GraphMLElement} and handed to an
+ * {@link ElementConsumer} as soon as its end tag is read, so the reader itself keeps at most one
+ * node or edge (and the data of the graph) in memory. Whitespace, comments, and key definitions
+ * carry no information for the witness automaton and are skipped. Attribute and data values are
+ * interned, because witnesses repeat the same values (source code, line numbers, file names, node
+ * ids in edges) for thousands of elements.
+ */
+final class GraphMLStaxReader {
+
+  /** Receives the nodes and edges of a witness in the order in which they are read. */
+  interface ElementConsumer {
+
+    void acceptNode(GraphMLElement pNode) throws WitnessParseException;
+
+    void acceptEdge(GraphMLElement pEdge) throws WitnessParseException;
+  }
+
+  private final Interner<String> interner = Interners.newStrongInterner();
+
+  private GraphMLStaxReader() {}
+
+  /**
+   * Reads the witness from the given input stream.
+   *
+   * @param pInputStream the stream to read the witness from.
+   * @param pConsumer receives each node and edge of the witness as soon as it was read.
+   * @return the graph element of the witness with its attributes and its own data values.
+   * @throws XMLStreamException if the input is not well-formed or uses features (such as a
+   *     document type definition) that are not supported by the streaming reader.
+   * @throws WitnessParseException if the document does not contain exactly one graph, or if the
+   *     consumer rejects a node or edge.
+   */
+  static GraphMLElement read(InputStream pInputStream, ElementConsumer pConsumer)
+      throws XMLStreamException, WitnessParseException {
+    return new GraphMLStaxReader().readGraph(pInputStream, pConsumer);
+  }
+
+  private GraphMLElement readGraph(InputStream pInputStream, ElementConsumer pConsumer)
+      throws XMLStreamException, WitnessParseException {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+    @Nullable GraphMLElement graph = null;
+    // the graph, node, and edge elements that are currently open, innermost first
+    Deque<GraphMLElement.Builder> openElements = new ArrayDeque<>();
+    // key and text of the currently open data element, if any
+    @Nullable String dataKey = null;
+    int dataDepth = 0;
+    StringBuilder text = new StringBuilder();
+
+    XMLStreamReader reader = factory.createXMLStreamReader(pInputStream);
+    try {
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            String tagName = qualifiedName(reader.getName());
+            if (dataDepth > 0) {
+              // like the DOM parser, use the text of nested elements as part of the value
+              dataDepth++;
+            } else if (tagName.equals(GraphMLTag.DATA.toString())) {
+              dataKey = reader.getAttributeValue(null, "key");
+              if (dataKey == null) {
+                throw new WitnessParseException("Every data element must have a key attribute!");
+              }
+              dataDepth = 1;
+              text.setLength(0);
+            } else if (tagName.equals(GraphMLTag.GRAPH.toString())) {
+              if (graph != null || !openElements.isEmpty()) {
+                throw new WitnessParseException(
+                    AutomatonGraphmlParser.TOO_MANY_GRAPHS_ERROR_MESSAGE);
+              }
+              openElements.push(startElement(tagName, reader));
+            } else if (tagName.equals(GraphMLTag.NODE.toString())
+                || tagName.equals(GraphMLTag.EDGE.toString())) {
+              openElements.push(startElement(tagName, reader));
+            }
+            break;
+
+          case XMLStreamConstants.END_ELEMENT:
+            if (dataDepth > 0) {
+              dataDepth--;
+              if (dataDepth == 0 && !openElements.isEmpty()) {
+                openElements.peek().putData(interner.intern(dataKey), intern(text));
+              }
+              break;
+            }
+            String closedTagName = qualifiedName(reader.getName());
+            if (closedTagName.equals(GraphMLTag.NODE.toString())) {
+              pConsumer.acceptNode(openElements.pop().build());
+            } else if (closedTagName.equals(GraphMLTag.EDGE.toString())) {
+              pConsumer.acceptEdge(openElements.pop().build());
+            } else if (closedTagName.equals(GraphMLTag.GRAPH.toString())) {
+              graph = openElements.pop().build();
+            }
+            break;
+
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            if (dataDepth > 0) {
+              text.append(reader.getText());
+            }
+            break;
+
+          default:
+            // comments, processing instructions, and document events carry no witness data
+            break;
+        }
+      }
+    } finally {
+      reader.close();
+    }
+
+    if (graph == null) {
+      throw new WitnessParseException(AutomatonGraphmlParser.TOO_MANY_GRAPHS_ERROR_MESSAGE);
+    }
+    return graph;
+  }
+
+  private GraphMLElement.Builder startElement(String pTagName, XMLStreamReader pReader) {
+    GraphMLElement.Builder builder = new GraphMLElement.Builder(pTagName);
+    for (int i = 0; i < pReader.getAttributeCount(); i++) {
+      builder.putAttribute(
+          qualifiedName(pReader.getAttributeName(i)),
+          interner.intern(pReader.getAttributeValue(i)));
+    }
+    return builder;
+  }
+
+  private String intern(StringBuilder pText) {
+    String value = pText.toString();
+    pText.setLength(0);
+    return interner.intern(value);
+  }
+
+  /** Returns the name as a non-namespace-aware DOM parser would report it. */
+  private static String qualifiedName(QName pName) {
+    String prefix = pName.getPrefix();
+    if (prefix == null || prefix.isEmpty()) {
+      return pName.getLocalPart();
+    }
+    return prefix + ":" + pName.getLocalPart();
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser.WitnessParseException;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class GraphMLStaxReaderTest {
+
+  private static final String WITNESS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+          + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+          + "  <!-- a comment -->\n"
+          + "  <key attr.name=\"sourcecode\" attr.type=\"string\" for=\"edge\" id=\"sourcecode\"/>\n"
+          + "  <graph edgedefault=\"directed\">\n"
+          + "    <data key=\"witness-type\">violation_witness</data>\n"
+          + "    <node id=\"N1\">\n"
+          + "      <data key=\"entry\">true</data>\n"
+          + "    </node>\n"
+          + "    <node id=\"N2\"/>\n"
+          + "    <edge source=\"N1\" target=\"N2\">\n"
+          + "      <data key=\"sourcecode\"><![CDATA[x = 1 < 2;]]></data>\n"
+          + "      <data key=\"startline\">17</data>\n"
+          + "    </edge>\n"
+          + "    <edge source=\"N2\" target=\"N2\">\n"
+          + "      <data key=\"sourcecode\">x = 1 &lt; 2;</data>\n"
+          + "      <data key=\"startline\">17</data>\n"
+          + "    </edge>\n"
+          + "  </graph>\n"
+          + "</graphml>\n";
+
+  static final Path REAL_WITNESS =
+      Paths.get(
+          "test/programs/witnessValidation/multivar_true-unreach-call1_true-termination.graphml");
+
+  /** Keeps all nodes and edges it receives, in the order in which they were read. */
+  private static class RecordingConsumer implements GraphMLStaxReader.ElementConsumer {
+
+    private final List<GraphMLElement> nodes = new ArrayList<>();
+    private final List<GraphMLElement> edges = new ArrayList<>();
+
+    @Override
+    public void acceptNode(GraphMLElement pNode) {
+      nodes.add(pNode);
+    }
+
+    @Override
+    public void acceptEdge(GraphMLElement pEdge) {
+      edges.add(pEdge);
+    }
+  }
+
+  private static GraphMLElement read(String pContent, RecordingConsumer pConsumer)
+      throws XMLStreamException, WitnessParseException {
+    InputStream input = new ByteArrayInputStream(pContent.getBytes(StandardCharsets.UTF_8));
+    return GraphMLStaxReader.read(input, pConsumer);
+  }
+
+  @Test
+  public void testStructure() throws Exception {
+    RecordingConsumer consumer = new RecordingConsumer();
+    GraphMLElement graph = read(WITNESS, consumer);
+
+    assertThat(graph.getData(KeyDef.WITNESS_TYPE)).containsExactly("violation_witness");
+    assertThat(graph.getAttribute("edgedefault")).isEqualTo("directed");
+
+    assertThat(consumer.nodes).hasSize(2);
+    assertThat(consumer.nodes.get(0).getAttribute("id")).isEqualTo("N1");
+    assertThat(consumer.nodes.get(0).getNodeFlags()).containsExactly(NodeFlag.ISENTRY);
+    assertThat(consumer.nodes.get(1).getNodeFlags()).isEmpty();
+
+    assertThat(consumer.edges).hasSize(2);
+    GraphMLElement edge = consumer.edges.get(0);
+    assertThat(edge.getAttribute("source")).isEqualTo("N1");
+    assertThat(edge.getAttribute("target")).isEqualTo("N2");
+    assertThat(edge.getData(KeyDef.SOURCECODE)).containsExactly("x = 1 < 2;");
+    assertThat(edge.getData(KeyDef.STARTLINE)).containsExactly("17");
+    assertThat(consumer.edges.get(1).getData(KeyDef.SOURCECODE)).containsExactly("x = 1 < 2;");
+  }
+
+  @Test
+  public void testValuesInterned() throws Exception {
+    RecordingConsumer consumer = new RecordingConsumer();
+    read(WITNESS, consumer);
+
+    // both edges have equal source code and line numbers
+    GraphMLElement edge = consumer.edges.get(0);
+    GraphMLElement loop = consumer.edges.get(1);
+    assertThat(loop.getData(KeyDef.SOURCECODE).iterator().next())
+        .isSameAs(edge.getData(KeyDef.SOURCECODE).iterator().next());
+    assertThat(loop.getData(KeyDef.STARTLINE).iterator().next())
+        .isSameAs(edge.getData(KeyDef.STARTLINE).iterator().next());
+    assertThat(loop.getAttribute("source")).isSameAs(consumer.nodes.get(1).getAttribute("id"));
+  }
+
+  @Test
+  public void testEqualToDomParserForRealWitness() throws Exception {
+    Document dom;
+    try (InputStream input = Files.newInputStream(REAL_WITNESS)) {
+      dom = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+    }
+
+    RecordingConsumer consumer = new RecordingConsumer();
+    GraphMLElement graph;
+    try (InputStream input = Files.newInputStream(REAL_WITNESS)) {
+      graph = GraphMLStaxReader.read(input, consumer);
+    }
+
+    assertThat(consumer.nodes).containsExactlyElementsIn(fromDom(dom, "node")).inOrder();
+    assertThat(consumer.edges).containsExactlyElementsIn(fromDom(dom, "edge")).inOrder();
+    GraphMLElement domGraph = fromDom(dom, "graph").get(0);
+    for (KeyDef key : EnumSet.of(KeyDef.WITNESS_TYPE, KeyDef.PROGRAMHASH, KeyDef.PRODUCER)) {
+      assertThat(graph.getData(key)).isNotEmpty();
+      assertThat(graph.getData(key)).isEqualTo(domGraph.getData(key));
+    }
+  }
+
+  private static List<GraphMLElement> fromDom(Document pDocument, String pTagName) {
+    List<GraphMLElement> result = new ArrayList<>();
+    NodeList elements = pDocument.getElementsByTagName(pTagName);
+    for (int i = 0; i < elements.getLength(); i++) {
+      result.add(GraphMLElement.fromDom((Element) elements.item(i)));
+    }
+    return result;
+  }
+
+  @Test(expected = WitnessParseException.class)
+  public void testTwoGraphs() throws Exception {
+    read("<graphml><graph></graph><graph></graph></graphml>", new RecordingConsumer());
+  }
+
+  @Test(expected = XMLStreamException.class)
+  public void testMalformed() throws Exception {
+    read("<graphml><graph></graphml>", new RecordingConsumer());
+  }
+}
@@ -37,10 +37,9 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
-import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache;
-import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheSynchronized;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheConcurrent;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
-import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManagerSynchronized;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManagerConcurrent;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 @Options(prefix = "cpa.bam")
@@ -56,7 +55,7 @@ public class BAMCPAWithBreakOnMissingBlock extends AbstractBAMCPA {
   )
   private boolean breakForMissingBlock = true;
 
-  private final BAMCache cache;
+  private final BAMCacheConcurrent cache;
   private final BAMDataManager data;
 
   private BAMCPAWithBreakOnMissingBlock(
@@ -71,8 +70,8 @@ public class BAMCPAWithBreakOnMissingBlock extends AbstractBAMCPA {
     super(pCpa, pConfig, pLogger, pShutdownNotifier, pSpecification, pCfa);
     pConfig.inject(this);
 
-    cache = new BAMCacheSynchronized(pConfig, getReducer(), pLogger);
-    data = new BAMDataManagerSynchronized(cache, reachedsetFactory, pLogger);
+    cache = new BAMCacheConcurrent(getReducer(), pLogger);
+    data = new BAMDataManagerConcurrent(cache, reachedsetFactory, pLogger);
   }
 
   @Override
@@ -95,7 +94,7 @@ public class BAMCPAWithBreakOnMissingBlock extends AbstractBAMCPA {
     return new BAMStopOperatorWithBreakOnMissingBlock(getWrappedCpa().getStopOperator());
   }
 
-  public BAMCache getCache() {
+  public BAMCacheConcurrent getCache() {
     return cache;
   }
 
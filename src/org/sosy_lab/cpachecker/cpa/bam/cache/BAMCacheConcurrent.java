@@ -0,0 +1,226 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.FluentIterable;
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Reducer;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+
+/**
+ * A thread-safe BAM cache for the parallel BAM analysis. The entries are partitioned by their
+ * block, each block has its own concurrent map and its own lock. Reading from the cache does not
+ * need any lock, and modifications of the cache only block other modifications for the same block.
+ *
+ * <p>Clients that need to perform a check-then-act sequence on the entries of one block (e.g.,
+ * creating a new reached-set only if no other thread has already created one) can use {@link
+ * #lockBlock(Block)} and {@link #unlockBlock(Block)}.
+ */
+public class BAMCacheConcurrent implements BAMCache {
+
+  private final Reducer reducer;
+  private final LogManager logger;
+
+  private final ConcurrentMap<Block, BlockEntries> entriesByBlock = new ConcurrentHashMap<>();
+
+  /** only for statistics, not deterministic in parallel context. */
+  private final ThreadLocal<@Nullable BAMCacheEntry> lastAnalyzedEntry = new ThreadLocal<>();
+
+  private final StatCounter cacheMisses = new StatCounter("Number of cache misses");
+  private final StatCounter partialCacheHits = new StatCounter("Number of partial cache hits");
+  private final StatCounter fullCacheHits = new StatCounter("Number of full cache hits");
+
+  private final StatCounter lockAcquisitions =
+      new StatCounter("Number of lock acquisitions for blocks");
+  private final StatCounter contendedLockAcquisitions =
+      new StatCounter("Number of contended lock acquisitions");
+  private final ThreadSafeTimerContainer lockWaitTime =
+      new ThreadSafeTimerContainer("Time for waiting on locks for blocks");
+  private final ThreadLocal<TimerWrapper> lockWaitTimer =
+      ThreadLocal.withInitial(lockWaitTime::getNewTimer);
+
+  private static class BlockEntries {
+    private final ConcurrentMap<Object, BAMCacheEntry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+  }
+
+  public BAMCacheConcurrent(Reducer pReducer, LogManager pLogger) {
+    reducer = checkNotNull(pReducer);
+    logger = checkNotNull(pLogger);
+  }
+
+  private BlockEntries getEntries(Block pContext) {
+    BlockEntries entries = entriesByBlock.get(pContext);
+    if (entries == null) {
+      entries = entriesByBlock.computeIfAbsent(pContext, k -> new BlockEntries());
+    }
+    return entries;
+  }
+
+  /**
+   * Acquire the lock of the given block. The lock is reentrant and the caller must release it
+   * with {@link #unlockBlock(Block)}.
+   */
+  public void lockBlock(Block pContext) {
+    ReentrantLock lock = getEntries(pContext).lock;
+    if (!lock.tryLock()) {
+      contendedLockAcquisitions.inc();
+      TimerWrapper timer = lockWaitTimer.get();
+      timer.start();
+      try {
+        lock.lock();
+      } finally {
+        timer.stop();
+      }
+    }
+    lockAcquisitions.inc();
+  }
+
+  public void unlockBlock(Block pContext) {
+    getEntries(pContext).lock.unlock();
+  }
+
+  @Override
+  public BAMCacheEntry put(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext, ReachedSet pItem) {
+    Object key = reducer.getHashCodeForState(pStateKey, pPrecisionKey);
+    BAMCacheEntry entry = new BAMCacheEntry(pItem);
+    lockBlock(pContext);
+    try {
+      getEntries(pContext).entries.put(key, entry);
+    } finally {
+      unlockBlock(pContext);
+    }
+    return entry;
+  }
+
+  @Override
+  public BAMCacheEntry get(AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    BAMCacheEntry entry = get0(pStateKey, pPrecisionKey, pContext);
+    lastAnalyzedEntry.set(entry);
+
+    if (entry == null) {
+      cacheMisses.inc();
+      logger.log(Level.FINEST, "CACHE_ACCESS: entry not available");
+    } else {
+      logger.log(Level.FINEST, "CACHE_ACCESS: precise entry");
+      if (entry.getExitStates() == null) {
+        partialCacheHits.inc();
+      } else {
+        fullCacheHits.inc();
+      }
+    }
+    return entry;
+  }
+
+  private @Nullable BAMCacheEntry get0(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    BlockEntries entries = entriesByBlock.get(pContext);
+    if (entries == null) {
+      return null;
+    }
+    return entries.entries.get(reducer.getHashCodeForState(pStateKey, pPrecisionKey));
+  }
+
+  @Override
+  @Deprecated
+  public ARGState getLastAnalyzedBlock() {
+    BAMCacheEntry entry = lastAnalyzedEntry.get();
+    return entry == null ? null : entry.getRootOfBlock();
+  }
+
+  @Override
+  public boolean containsPreciseKey(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    return get0(pStateKey, pPrecisionKey, pContext) != null;
+  }
+
+  @Override
+  public Collection<ReachedSet> getAllCachedReachedStates() {
+    return FluentIterable.from(entriesByBlock.values())
+        .transformAndConcat(entries -> entries.entries.values())
+        .transform(BAMCacheEntry::getReachedSet)
+        .toList();
+  }
+
+  @Override
+  public void clear() {
+    for (BlockEntries entries : entriesByBlock.values()) {
+      entries.lock.lock();
+      try {
+        entries.entries.clear();
+      } finally {
+        entries.lock.unlock();
+      }
+    }
+  }
+
+  /** Write statistics about the contention on the locks for blocks. */
+  public void printContentionStatistics(StatisticsWriter pWriter) {
+    pWriter
+        .put(lockAcquisitions)
+        .beginLevel()
+        .put(contendedLockAcquisitions)
+        .put(lockWaitTime)
+        .endLevel();
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    long sumCalls =
+        cacheMisses.getValue() + partialCacheHits.getValue() + fullCacheHits.getValue();
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put("Number of blocks in cache", entriesByBlock.size())
+        .put("Total number of recursive CPA calls", sumCalls)
+        .beginLevel()
+        .put(cacheMisses)
+        .put(partialCacheHits)
+        .put(fullCacheHits)
+        .endLevel();
+  }
+
+  @Override
+  public @Nullable String getName() {
+    return "BAMCache";
+  }
+}
@@ -193,7 +193,7 @@ public class BAMCacheImpl implements BAMCache {
   class AbstractStateHash {
 
     private final Object wrappedHash;
-    private final Block context;
+    final Block context;
     final AbstractState stateKey;
     final Precision precisionKey;
 
@@ -0,0 +1,588 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
+import org.sosy_lab.cpachecker.cfa.ast.AIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.ASimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache.BAMCacheEntry;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheImpl.AbstractStateHash;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Stores finished block summaries of the {@link BAMCacheImpl} in a file and loads them into the
+ * cache of a later run, such that blocks that did not change between two versions of a program
+ * need not be analyzed again.
+ *
+ * <p>Each summary is stored together with a fingerprint of the CFA of its block, which is
+ * independent of node numbers and source locations, but covers the declarations (including types
+ * and initializers) of all variables and functions referenced in the block. When loading,
+ * summaries are only used for blocks of the current program with the same fingerprint. The whole
+ * file is ignored if it was written by a different version of CPAchecker or with different
+ * options (e.g., a different configuration of the analysis or its precision).
+ *
+ * <p>The abstract states of a summary are stored with Java serialization (as for proof-carrying
+ * code), and the CFA nodes referenced by these states are translated into the nodes of the
+ * current CFA via the canonical node order of the block. If the stored program has exactly the
+ * same CFA as the current one, no translation is necessary and also states that reference nodes
+ * outside of their block can be loaded.
+ *
+ * <p>Only summaries that can be reused without the internal data of the analysis run that
+ * created them are stored: the reached-set must be complete, must not contain target states, and
+ * must not contain entries of nested blocks.
+ */
+@Options(prefix = "cpa.bam.persistentCache")
+public class BAMPersistentCache implements Statistics {
+
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * Prefixes of options that do not influence the block summaries, e.g., because they only
+   * affect output or resource limits. Option names that contain "export" are also ignored.
+   */
+  private static final ImmutableList<String> IRRELEVANT_OPTIONS =
+      ImmutableList.of(
+          "cpa.bam.persistentCache.",
+          "cfa.cache.",
+          "cfa.useCache",
+          "cfa.numberOfThreads",
+          "cpa.numberOfWorkers",
+          "limits.",
+          "log.",
+          "output.",
+          "report.",
+          "statistics.");
+
+  @Option(
+      secure = true,
+      name = "load",
+      description =
+          "Load block summaries from this file (written by a previous run) into the cache.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path loadFile = null;
+
+  @Option(
+      secure = true,
+      name = "store",
+      description =
+          "Store finished block summaries into this file at the end of the analysis, "
+              + "such that they can be loaded by a later run.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path storeFile = null;
+
+  private final BAMCacheImpl cache;
+  private final BAMDataManager data;
+  private final BlockPartitioning blockPartitioning;
+  private final CFA cfa;
+  private final LogManager logger;
+  private final String configurationFingerprint;
+
+  private final Timer fingerprintTimer = new Timer();
+  private final Timer loadTimer = new Timer();
+  private int loadedEntries = 0;
+  private int entriesWithoutMatchingBlock = 0;
+  private int entriesFailedToLoad = 0;
+  private int entriesNotStorable = 0;
+  private int entriesFailedToStore = 0;
+
+  private @Nullable String programFingerprint = null;
+
+  public BAMPersistentCache(
+      Configuration pConfig,
+      BAMCacheImpl pCache,
+      BAMDataManager pData,
+      BlockPartitioning pBlockPartitioning,
+      CFA pCfa,
+      LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    cache = checkNotNull(pCache);
+    data = checkNotNull(pData);
+    blockPartitioning = checkNotNull(pBlockPartitioning);
+    cfa = checkNotNull(pCfa);
+    logger = checkNotNull(pLogger);
+    configurationFingerprint = computeConfigurationFingerprint(pConfig);
+  }
+
+  public boolean isEnabled() {
+    return loadFile != null || storeFile != null;
+  }
+
+  /** Load all matching block summaries from the configured file into the cache. */
+  public void load() {
+    if (loadFile == null || !Files.isReadable(loadFile)) {
+      return;
+    }
+    Optional<CFAInfo> cfaInfo = GlobalInfo.getInstance().getCFAInfo();
+    if (!cfaInfo.isPresent()) {
+      logger.log(Level.WARNING, "Cannot load block summaries without information about the CFA.");
+      return;
+    }
+
+    loadTimer.start();
+    try (InputStream fis = Files.newInputStream(loadFile);
+        DataInputStream in = new DataInputStream(new GZIPInputStream(fis))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        logger.log(Level.WARNING, "Ignoring block summaries in", loadFile, "of unknown format.");
+        return;
+      }
+      if (!in.readUTF().equals(configurationFingerprint)) {
+        logger.log(
+            Level.WARNING,
+            "Ignoring block summaries in",
+            loadFile,
+            "because they were created by a different version of CPAchecker "
+                + "or with a different configuration.");
+        return;
+      }
+      boolean sameProgram = in.readUTF().equals(getProgramFingerprint());
+
+      Map<String, Block> blocksByFingerprint = new HashMap<>();
+      fingerprintTimer.start();
+      for (Block block : blockPartitioning.getBlocks()) {
+        blocksByFingerprint.put(computeFingerprint(block), block);
+      }
+      fingerprintTimer.stop();
+
+      int numEntries = in.readInt();
+      for (int i = 0; i < numEntries; i++) {
+        String blockFingerprint = in.readUTF();
+        int[] nodeNumbers = new int[in.readInt()];
+        for (int j = 0; j < nodeNumbers.length; j++) {
+          nodeNumbers[j] = in.readInt();
+        }
+        byte[] payload = new byte[in.readInt()];
+        in.readFully(payload);
+
+        Block block = blocksByFingerprint.get(blockFingerprint);
+        if (block == null) {
+          entriesWithoutMatchingBlock++;
+          continue;
+        }
+
+        Map<Integer, CFANode> translation = null;
+        if (!sameProgram) {
+          List<CFANode> nodes = getCanonicalNodeOrder(block);
+          if (nodes.size() != nodeNumbers.length) {
+            entriesWithoutMatchingBlock++;
+            continue;
+          }
+          translation = new HashMap<>();
+          for (int j = 0; j < nodeNumbers.length; j++) {
+            translation.put(nodeNumbers[j], nodes.get(j));
+          }
+        }
+
+        cfaInfo.get().setNodeNumberTranslation(translation);
+        try {
+          loadEntry(payload, block);
+        } catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+          // the summary references parts of the program that do not exist anymore,
+          // or was created by a different version of CPAchecker
+          entriesFailedToLoad++;
+          logger.logDebugException(e, "Could not load block summary");
+        } finally {
+          cfaInfo.get().setNodeNumberTranslation(null);
+        }
+      }
+
+      logger.log(Level.INFO, "Loaded", loadedEntries, "of", numEntries, "block summaries.");
+
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not load block summaries");
+    } finally {
+      loadTimer.stop();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void loadEntry(byte[] pPayload, Block pBlock) throws IOException, ClassNotFoundException {
+    final AbstractState stateKey;
+    final Precision precisionKey;
+    final List<AbstractState> states;
+    final List<Precision> precisions;
+    final List<AbstractState> exitStates;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(pPayload))) {
+      stateKey = (AbstractState) in.readObject();
+      precisionKey = (Precision) in.readObject();
+      states = (List<AbstractState>) in.readObject();
+      precisions = (List<Precision>) in.readObject();
+      exitStates = (List<AbstractState>) in.readObject();
+    }
+
+    if (cache.containsPreciseKey(stateKey, precisionKey, pBlock)) {
+      return;
+    }
+    ReachedSet reached = data.getReachedSetFactory().create();
+    for (int i = 0; i < states.size(); i++) {
+      reached.add(states.get(i), precisions.get(i));
+      reached.removeOnlyFromWaitlist(states.get(i));
+    }
+    BAMCacheEntry entry = cache.put(stateKey, precisionKey, pBlock, reached);
+    entry.setExitStates(exitStates);
+    loadedEntries++;
+  }
+
+  @Override
+  public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
+    if (storeFile == null) {
+      return;
+    }
+
+    try {
+      Map<Block, String> fingerprints = new HashMap<>();
+      List<byte[]> entries = new ArrayList<>();
+      List<Block> entryBlocks = new ArrayList<>();
+      for (Entry<AbstractStateHash, BAMCacheEntry> entry : cache.preciseReachedCache.entrySet()) {
+        AbstractStateHash key = entry.getKey();
+        BAMCacheEntry value = entry.getValue();
+        if (!isStorable(value)) {
+          entriesNotStorable++;
+          continue;
+        }
+        try {
+          entries.add(serializeEntry(key, value));
+          entryBlocks.add(key.context);
+        } catch (NotSerializableException e) {
+          entriesFailedToStore++;
+          logger.logDebugException(e, "Could not serialize block summary");
+        }
+      }
+
+      Path dir = storeFile.getParent();
+      if (dir != null) {
+        Files.createDirectories(dir);
+      }
+      try (OutputStream fos = Files.newOutputStream(storeFile);
+          DataOutputStream out = new DataOutputStream(new GZIPOutputStream(fos))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(configurationFingerprint);
+        out.writeUTF(getProgramFingerprint());
+        out.writeInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+          Block block = entryBlocks.get(i);
+          String fingerprint =
+              fingerprints.computeIfAbsent(block, BAMPersistentCache::computeFingerprint);
+          out.writeUTF(fingerprint);
+          List<CFANode> nodes = getCanonicalNodeOrder(block);
+          out.writeInt(nodes.size());
+          for (CFANode node : nodes) {
+            out.writeInt(node.getNodeNumber());
+          }
+          out.writeInt(entries.get(i).length);
+          out.write(entries.get(i));
+        }
+      }
+      logger.log(
+          Level.INFO,
+          "Stored",
+          entries.size(),
+          "block summaries,",
+          entriesNotStorable,
+          "were unfinished or contained nested blocks,",
+          entriesFailedToStore,
+          "could not be serialized.");
+
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not store block summaries");
+    }
+  }
+
+  private boolean isStorable(BAMCacheEntry pEntry) {
+    List<AbstractState> exitStates = pEntry.getExitStates();
+    ReachedSet reached = pEntry.getReachedSet();
+    if (exitStates == null || reached.hasWaitingState()) {
+      return false;
+    }
+    for (AbstractState state : reached) {
+      if (AbstractStates.isTargetState(state)
+          || ((ARGState) state).isDestroyed()
+          || data.hasInitialState(state)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] serializeEntry(AbstractStateHash pKey, BAMCacheEntry pEntry)
+      throws IOException {
+    ReachedSet reached = pEntry.getReachedSet();
+    ArrayList<AbstractState> states = new ArrayList<>(reached.size());
+    ArrayList<Precision> precisions = new ArrayList<>(reached.size());
+    for (AbstractState state : reached) {
+      states.add(state);
+      precisions.add(reached.getPrecision(state));
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(pKey.stateKey);
+      out.writeObject(pKey.precisionKey);
+      out.writeObject(states);
+      out.writeObject(precisions);
+      out.writeObject(new ArrayList<>(pEntry.getExitStates()));
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Return the nodes of a block in an order that depends only on the structure of the block,
+   * i.e., a depth-first traversal from the block entries along the leaving edges.
+   */
+  static List<CFANode> getCanonicalNodeOrder(Block pBlock) {
+    Set<CFANode> blockNodes = pBlock.getNodes();
+    Comparator<CFANode> byNodeNumber = Comparator.comparingInt(CFANode::getNodeNumber);
+    Set<CFANode> visited = new LinkedHashSet<>();
+    Deque<CFANode> waitlist = new ArrayDeque<>();
+
+    List<CFANode> startNodes = new ArrayList<>(pBlock.getCallNodes());
+    startNodes.sort(byNodeNumber);
+    for (CFANode start : startNodes) {
+      waitlist.push(start);
+      while (!waitlist.isEmpty()) {
+        CFANode node = waitlist.pop();
+        if (!visited.add(node)) {
+          continue;
+        }
+        // push in reverse order such that the first edge is handled first
+        for (int i = node.getNumLeavingEdges() - 1; i >= 0; i--) {
+          CFANode successor = node.getLeavingEdge(i).getSuccessor();
+          if (blockNodes.contains(successor) && !visited.contains(successor)) {
+            waitlist.push(successor);
+          }
+        }
+      }
+    }
+
+    // nodes that are not reachable from the block entries, should not happen usually
+    if (visited.size() < blockNodes.size()) {
+      List<CFANode> remaining = new ArrayList<>(blockNodes);
+      remaining.removeAll(visited);
+      remaining.sort(byNodeNumber);
+      visited.addAll(remaining);
+    }
+    return new ArrayList<>(visited);
+  }
+
+  /**
+   * Compute a fingerprint of the version of CPAchecker and of all options that may influence the
+   * analysis, such that summaries are not reused by a differently configured analysis.
+   */
+  static String computeConfigurationFingerprint(Configuration pConfig) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(FORMAT_VERSION);
+    hasher.putString(CPAchecker.getPlainVersion(), StandardCharsets.UTF_8).putByte((byte) 0);
+    for (String option : Splitter.on('\n').omitEmptyStrings().split(pConfig.asPropertiesString())) {
+      if (isRelevantOption(option)) {
+        hasher.putString(option, StandardCharsets.UTF_8).putByte((byte) 0);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private static boolean isRelevantOption(String pOption) {
+    String name = Splitter.on('=').limit(2).trimResults().splitToList(pOption).get(0);
+    return IRRELEVANT_OPTIONS.stream().noneMatch(name::startsWith)
+        && !Ascii.toLowerCase(name).contains("export");
+  }
+
+  /**
+   * Compute a fingerprint of the CFA of a block that does not depend on node numbers or source
+   * locations, such that blocks of different versions of a program have the same fingerprint if
+   * their code is the same. The declarations of all variables and functions that are referenced
+   * in the block are part of the fingerprint, because a changed type or initial value of a global
+   * variable changes the meaning of the block without changing its edges.
+   */
+  static String computeFingerprint(Block pBlock) {
+    List<CFANode> nodes = getCanonicalNodeOrder(pBlock);
+    Map<CFANode, Integer> index = new HashMap<>();
+    for (CFANode node : nodes) {
+      index.put(node, index.size());
+    }
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    SortedSet<String> declarations = new TreeSet<>();
+    for (CFANode node : nodes) {
+      putNode(hasher, node);
+      hasher.putBoolean(pBlock.isCallNode(node)).putBoolean(pBlock.isReturnNode(node));
+      for (CFAEdge edge : leavingEdges(node)) {
+        putEdge(hasher, edge);
+        collectReferencedDeclarations(edge, declarations);
+        Integer successor = index.get(edge.getSuccessor());
+        if (successor == null) {
+          hasher
+              .putInt(-1)
+              .putString(edge.getSuccessor().getFunctionName(), StandardCharsets.UTF_8);
+        } else {
+          hasher.putInt(successor);
+        }
+      }
+    }
+    for (String declaration : declarations) {
+      hasher.putString(declaration, StandardCharsets.UTF_8).putByte((byte) 0);
+    }
+    return hasher.hash().toString();
+  }
+
+  private static void collectReferencedDeclarations(CFAEdge pEdge, Set<String> pDeclarations) {
+    for (AAstNode astNode : CFAUtils.getAstNodesFromCfaEdge(pEdge)) {
+      for (AIdExpression id : CFAUtils.traverseRecursively(astNode).filter(AIdExpression.class)) {
+        ASimpleDeclaration declaration = id.getDeclaration();
+        if (declaration != null) {
+          // the AST string contains the type and the initializer of the declaration
+          pDeclarations.add(declaration.getQualifiedName() + ": " + declaration.toASTString());
+        }
+      }
+    }
+  }
+
+  /**
+   * Compute a fingerprint of the whole CFA including node numbers, such that states can be loaded
+   * without translation of node numbers if the stored fingerprint matches the current one.
+   */
+  private String getProgramFingerprint() {
+    if (programFingerprint == null) {
+      fingerprintTimer.start();
+      List<CFANode> nodes = new ArrayList<>(cfa.getAllNodes());
+      nodes.sort(Comparator.comparingInt(CFANode::getNodeNumber));
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (CFANode node : nodes) {
+        hasher.putInt(node.getNodeNumber());
+        putNode(hasher, node);
+        for (CFAEdge edge : leavingEdges(node)) {
+          putEdge(hasher, edge);
+          hasher.putInt(edge.getSuccessor().getNodeNumber());
+        }
+      }
+      programFingerprint = hasher.hash().toString();
+      fingerprintTimer.stop();
+    }
+    return programFingerprint;
+  }
+
+  private static Collection<CFAEdge> leavingEdges(CFANode pNode) {
+    List<CFAEdge> edges = new ArrayList<>(pNode.getNumLeavingEdges() + 1);
+    for (int i = 0; i < pNode.getNumLeavingEdges(); i++) {
+      edges.add(pNode.getLeavingEdge(i));
+    }
+    if (pNode.getLeavingSummaryEdge() != null) {
+      edges.add(pNode.getLeavingSummaryEdge());
+    }
+    return edges;
+  }
+
+  private static void putNode(Hasher pHasher, CFANode pNode) {
+    pHasher
+        .putString(pNode.getClass().getSimpleName(), StandardCharsets.UTF_8)
+        .putString(pNode.getFunctionName(), StandardCharsets.UTF_8)
+        .putInt(pNode.getNumLeavingEdges());
+  }
+
+  private static void putEdge(Hasher pHasher, CFAEdge pEdge) {
+    pHasher
+        .putString(pEdge.getEdgeType().name(), StandardCharsets.UTF_8)
+        .putString(pEdge.getDescription(), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .putIf(loadFile != null, "Number of loaded block summaries", loadedEntries)
+        .beginLevel()
+        .putIf(loadFile != null, "Skipped because of changed blocks", entriesWithoutMatchingBlock)
+        .putIf(loadFile != null, "Skipped because of errors", entriesFailedToLoad)
+        .endLevel()
+        .putIf(loadFile != null, "Time for loading block summaries", loadTimer)
+        .putIf(loadFile != null, "Time for computing block fingerprints", fingerprintTimer);
+  }
+
+  @Override
+  public @Nullable String getName() {
+    return "BAM persistent cache";
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpressionAssignmentStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.c.CStatementEdge;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cfa.types.c.CStorageClass;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+
+public class BAMPersistentCacheTest {
+
+  /** Create a block "x = 1;" where x is a global variable with the given type. */
+  private static Block createBlock(CType pTypeOfX) {
+    CVariableDeclaration x =
+        new CVariableDeclaration(
+            FileLocation.DUMMY, true, CStorageClass.AUTO, pTypeOfX, "x", "x", "x", null);
+    CFANode entry = new CFANode("f");
+    CFANode exit = new CFANode("f");
+    CFAEdge edge =
+        new CStatementEdge(
+            "x = 1;",
+            new CExpressionAssignmentStatement(
+                FileLocation.DUMMY,
+                new CIdExpression(FileLocation.DUMMY, x),
+                CIntegerLiteralExpression.ONE),
+            FileLocation.DUMMY,
+            entry,
+            exit);
+    entry.addLeavingEdge(edge);
+    exit.addEnteringEdge(edge);
+    return new Block(
+        ImmutableSet.of(),
+        ImmutableSet.of(entry),
+        ImmutableSet.of(exit),
+        ImmutableList.of(entry, exit));
+  }
+
+  @Test
+  public void testSameBlockSameFingerprint() {
+    assertThat(BAMPersistentCache.computeFingerprint(createBlock(CNumericTypes.INT)))
+        .isEqualTo(BAMPersistentCache.computeFingerprint(createBlock(CNumericTypes.INT)));
+  }
+
+  @Test
+  public void testChangedDeclarationChangesFingerprint() {
+    // the edge is the same, but the type of the referenced global variable differs
+    assertThat(BAMPersistentCache.computeFingerprint(createBlock(CNumericTypes.LONG_INT)))
+        .isNotEqualTo(BAMPersistentCache.computeFingerprint(createBlock(CNumericTypes.INT)));
+  }
+
+  @Test
+  public void testChangedOptionChangesConfigurationFingerprint() throws Exception {
+    Configuration config =
+        Configuration.builder().setOption("cpa.predicate.blk.threshold", "1").build();
+    Configuration changedOption =
+        Configuration.builder().setOption("cpa.predicate.blk.threshold", "2").build();
+    Configuration changedPrecision =
+        Configuration.builder()
+            .setOption("cpa.predicate.blk.threshold", "1")
+            .setOption("cpa.predicate.abstraction.initialPredicates", "predicates.txt")
+            .build();
+
+    String fingerprint = BAMPersistentCache.computeConfigurationFingerprint(config);
+    assertThat(BAMPersistentCache.computeConfigurationFingerprint(changedOption))
+        .isNotEqualTo(fingerprint);
+    assertThat(BAMPersistentCache.computeConfigurationFingerprint(changedPrecision))
+        .isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void testIrrelevantOptionKeepsConfigurationFingerprint() throws Exception {
+    Configuration config =
+        Configuration.builder()
+            .setOption("cpa.predicate.blk.threshold", "1")
+            .setOption("cpa.bam.persistentCache.load", "old.bin")
+            .setOption("output.path", "output")
+            .build();
+    Configuration otherFiles =
+        Configuration.builder()
+            .setOption("cpa.predicate.blk.threshold", "1")
+            .setOption("cpa.bam.persistentCache.store", "new.bin")
+            .setOption("output.path", "other-output")
+            .setOption("cpa.arg.export", "false")
+            .build();
+
+    assertThat(BAMPersistentCache.computeConfigurationFingerprint(otherFiles))
+        .isEqualTo(BAMPersistentCache.computeConfigurationFingerprint(config));
+  }
+}
@@ -55,6 +55,13 @@ public class ConstraintsStatistics implements Statistics {
       new StatTimer(StatKind.SUM, "Time for model re-use attempts");
   public final StatTimer timeForSatCheck = new StatTimer(StatKind.SUM, "Time for SMT check");
   public final StatCounter modelReuseSuccesses = new StatCounter("Successful model re-uses");
+  public final StatCounter solverCalls = new StatCounter("Number of SMT checks");
+  public final StatInt assertedConstraints =
+      new StatInt(StatKind.SUM, "Number of constraints asserted incrementally");
+  public final StatInt keptConstraints =
+      new StatInt(StatKind.SUM, "Number of constraints kept on prover stacks");
+  public final StatCounter createdProverStacks =
+      new StatCounter("Number of prover stacks created");
 
   public StatCounter cacheLookups = new StatCounter("Cache lookups");
   public StatTimer directCacheLookupTime = new StatTimer(StatKind.SUM, "Direct cache lookup time");
@@ -103,6 +110,10 @@ public class ConstraintsStatistics implements Statistics {
         .putIfUpdatedAtLeastOnce(timeForDefinitesComputation)
         .endLevel()
         .putIfUpdatedAtLeastOnce(modelReuseSuccesses)
+        .putIfUpdatedAtLeastOnce(solverCalls)
+        .putIfUpdatedAtLeastOnce(createdProverStacks)
+        .putIfUpdatedAtLeastOnce(assertedConstraints)
+        .putIfUpdatedAtLeastOnce(keptConstraints)
         .spacer() // Direct constraints solver cache
         .putIf(cacheLookups.getUpdateCount() > 0, cacheLookups)
         .putIf(cacheLookups.getUpdateCount() > 0, directCacheHits)
@@ -42,7 +42,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -65,7 +67,7 @@ import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
 @Options(prefix = "cpa.constraints")
-public class ConstraintsSolver {
+public class ConstraintsSolver implements AutoCloseable {
 
   @Option(
     secure = true,
@@ -101,9 +103,32 @@ public class ConstraintsSolver {
       name = "useLastModel")
   private boolean useLastModel = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Keep the assertion stacks of prover environments between satisfiability checks, "
+              + "such that a check only asserts the constraints that are not shared with a "
+              + "previous check, e.g., the constraints added since the parent state. "
+              + "With this option, all constraints of a state are asserted, "
+              + "regardless of option cpa.constraints.minimalSatCheck.",
+      name = "incrementalSolving")
+  private boolean incrementalSolving = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Maximum number of prover environments kept for incremental solving, "
+              + "e.g., for the currently explored branches of the ARG. "
+              + "Values greater than 1 require a solver that supports several prover "
+              + "environments at the same time, which is not the case for SMTInterpol.",
+      name = "maxProverStacks")
+  @IntegerOption(min = 1)
+  private int maxProverStacks = 1;
+
   private ConstraintsCache cache;
   private Solver solver;
   private ProverEnvironment prover;
+  private final @Nullable ProverStackPool proverStacks;
   private FormulaManagerView formulaManager;
   private BooleanFormulaManagerView booleanFormulaManager;
 
@@ -145,6 +170,8 @@ public class ConstraintsSolver {
     } else {
       cache = new DummyCache();
     }
+
+    proverStacks = incrementalSolving ? new ProverStackPool(solver, maxProverStacks, stats) : null;
   }
 
   public boolean isUnsat(
@@ -168,6 +195,7 @@ public class ConstraintsSolver {
       return false;
     }
 
+    boolean successful = false;
     try {
       stats.timeForSolving.start();
 
@@ -186,10 +214,18 @@ public class ConstraintsSolver {
         pConstraints.setModel(res.getModelAssignment());
 
       } else {
-        prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS);
-        BooleanFormula definitesAndConstraints =
-            combineWithDefinites(constraintsAsFormulas, pConstraints);
-        prover.push(definitesAndConstraints);
+        if (proverStacks != null) {
+          // the constraints stay on the prover stack for later checks, the definite assignment
+          // and everything pushed after it is popped again in closeProver()
+          prover = proverStacks.getProverFor(getFullFormula(pConstraints, pFunctionName));
+          prover.push(getDefAssignmentsFormula(pConstraints));
+        } else {
+          prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+          BooleanFormula definitesAndConstraints =
+              combineWithDefinites(constraintsAsFormulas, pConstraints);
+          prover.push(definitesAndConstraints);
+        }
+        int temporaryLevels = 1;
 
         ImmutableList<ValueAssignment> newModelAsAssignment;
         ImmutableList<ValueAssignment> modelAsAssignment = pConstraints.getModel();
@@ -205,6 +241,8 @@ public class ConstraintsSolver {
                     .collect(booleanFormulaManager.toConjunction());
             modelFormula = createLiteralLabel(literalForModel, modelFormula);
             prover.push(modelFormula);
+            temporaryLevels++;
+            stats.solverCalls.inc();
             unsat = prover.isUnsatWithAssumptions(
                 ImmutableList.of(literalForModel));
             if (!unsat) {
@@ -218,6 +256,7 @@ public class ConstraintsSolver {
         if (unsat == null || unsat) {
           try {
             stats.timeForSatCheck.start();
+            stats.solverCalls.inc();
             unsat = prover.isUnsat();
           } finally {
             stats.timeForSatCheck.stop();
@@ -247,12 +286,19 @@ public class ConstraintsSolver {
 
           cache.addUnsat(constraintsAsFormulas);
         }
+
+        if (proverStacks != null) {
+          for (int i = 0; i < temporaryLevels; i++) {
+            prover.pop();
+          }
+        }
       }
 
+      successful = true;
       return unsat;
 
     } finally {
-      closeProver();
+      closeProver(successful);
       stats.timeForSolving.stop();
     }
   }
@@ -318,13 +364,25 @@ public class ConstraintsSolver {
     return relevantConstraints;
   }
 
-  private void closeProver() {
+  private void closeProver(boolean pSuccessful) {
     if (prover != null) {
-      prover.close();
+      if (proverStacks == null) {
+        prover.close();
+      } else if (!pSuccessful) {
+        // we do not know which levels of the assertion stack are left
+        proverStacks.discard(prover);
+      }
       prover = null;
     }
   }
 
+  @Override
+  public void close() {
+    if (proverStacks != null) {
+      proverStacks.close();
+    }
+  }
+
   private ImmutableCollection<ValueAssignment> resolveDefiniteAssignments(
       ConstraintsState pConstraints, List<ValueAssignment> pModel)
       throws InterruptedException, SolverException {
@@ -363,6 +421,7 @@ public class ConstraintsSolver {
 
     prohibitAssignment = createLiteralLabel(literalForSingleAssignment, prohibitAssignment);
     prover.push(prohibitAssignment);
+    stats.solverCalls.inc();
     boolean isUnsat =
         prover.isUnsatWithAssumptions(Collections.singleton(literalForSingleAssignment));
     prover.pop();
@@ -382,7 +441,7 @@ public class ConstraintsSolver {
    * @throws UnrecognizedCodeException see {@link FormulaCreator#createFormula(Constraint)}
    * @throws InterruptedException see {@link FormulaCreator#createFormula(Constraint)}
    */
-  private Collection<BooleanFormula> getFullFormula(
+  private List<BooleanFormula> getFullFormula(
       Collection<Constraint> pConstraints, String pFunctionName)
       throws UnrecognizedCodeException, InterruptedException {
 
@@ -0,0 +1,148 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+
+/**
+ * A small pool of prover environments whose assertion stacks are kept between satisfiability
+ * checks, with one constraint per stack level.
+ *
+ * <p>The constraints of a state along an ARG branch are the constraints of its parent plus the
+ * constraints added by the last edge. For such a query, the stack that shares the longest prefix
+ * with it is popped down to that prefix, and only the remaining constraints are pushed. Exploring
+ * a branch thus only pushes, and a fork of the ARG only pops the constraints of the sibling. If no
+ * stack shares a prefix with the query (e.g., when a different branch is continued after the
+ * current one was covered), a new stack is created or the least recently used one is recycled.
+ */
+final class ProverStackPool implements AutoCloseable {
+
+  private static final class ProverStack {
+    private final ProverEnvironment prover;
+    private final List<BooleanFormula> assertedFormulas = new ArrayList<>();
+
+    private ProverStack(ProverEnvironment pProver) {
+      prover = pProver;
+    }
+  }
+
+  private final Solver solver;
+  private final int maxStacks;
+  private final ConstraintsStatistics stats;
+
+  /** the prover stacks, the most recently used one first */
+  private final Deque<ProverStack> stacks = new ArrayDeque<>();
+
+  ProverStackPool(Solver pSolver, int pMaxStacks, ConstraintsStatistics pStats) {
+    solver = pSolver;
+    maxStacks = pMaxStacks;
+    stats = pStats;
+  }
+
+  /**
+   * Returns a prover environment on whose assertion stack exactly the given formulas are asserted,
+   * one per level. The caller may push further levels, but has to pop them again before the next
+   * call to this method, or {@link #discard(ProverEnvironment) discard} the prover.
+   */
+  ProverEnvironment getProverFor(List<BooleanFormula> pFormulas) throws InterruptedException {
+    ProverStack stack = null;
+    int commonPrefix = 0;
+    for (ProverStack candidate : stacks) {
+      int prefix = getCommonPrefixLength(candidate.assertedFormulas, pFormulas);
+      if (prefix > commonPrefix || stack == null) {
+        stack = candidate;
+        commonPrefix = prefix;
+      }
+    }
+
+    if (commonPrefix == 0) {
+      if (stacks.size() < maxStacks) {
+        stack = new ProverStack(solver.newProverEnvironment(ProverOptions.GENERATE_MODELS));
+        stats.createdProverStacks.inc();
+      } else {
+        stack = stacks.getLast();
+      }
+    }
+
+    stacks.remove(stack);
+    stacks.addFirst(stack);
+
+    List<BooleanFormula> asserted = stack.assertedFormulas;
+    while (asserted.size() > commonPrefix) {
+      stack.prover.pop();
+      asserted.remove(asserted.size() - 1);
+    }
+    for (BooleanFormula formula : pFormulas.subList(commonPrefix, pFormulas.size())) {
+      stack.prover.push(formula);
+      asserted.add(formula);
+    }
+
+    stats.keptConstraints.setNextValue(commonPrefix);
+    stats.assertedConstraints.setNextValue(pFormulas.size() - commonPrefix);
+    return stack.prover;
+  }
+
+  /**
+   * Closes the given prover and removes it from the pool, e.g., because an exception left its
+   * assertion stack in an unknown state.
+   */
+  void discard(ProverEnvironment pProver) {
+    Iterator<ProverStack> it = stacks.iterator();
+    while (it.hasNext()) {
+      ProverStack stack = it.next();
+      if (stack.prover == pProver) {
+        it.remove();
+        stack.prover.close();
+        return;
+      }
+    }
+  }
+
+  private static int getCommonPrefixLength(
+      List<BooleanFormula> pFirst, List<BooleanFormula> pSecond) {
+    int maxLength = Math.min(pFirst.size(), pSecond.size());
+    int length = 0;
+    while (length < maxLength && pFirst.get(length).equals(pSecond.get(length))) {
+      length++;
+    }
+    return length;
+  }
+
+  @Override
+  public void close() {
+    for (ProverStack stack : stacks) {
+      stack.prover.close();
+    }
+    stacks.clear();
+  }
+}
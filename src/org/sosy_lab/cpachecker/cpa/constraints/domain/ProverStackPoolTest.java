@@ -0,0 +1,92 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+public class ProverStackPoolTest extends SolverViewBasedTest0 {
+
+  private BooleanFormula lessThan(int pBound) {
+    IntegerFormula x = imgrv.makeVariable("x");
+    return imgrv.lessThan(x, imgrv.makeNumber(pBound));
+  }
+
+  private BooleanFormula greaterThan(int pBound) {
+    IntegerFormula x = imgrv.makeVariable("x");
+    return imgrv.greaterThan(x, imgrv.makeNumber(pBound));
+  }
+
+  @Test
+  public void testBranchOnlyPushesNewConstraints() throws SolverException, InterruptedException {
+    ConstraintsStatistics stats = new ConstraintsStatistics();
+    try (ProverStackPool pool = new ProverStackPool(solver, 1, stats)) {
+      ProverEnvironment parent =
+          pool.getProverFor(ImmutableList.of(lessThan(10), greaterThan(0)));
+      assertThat(parent.isUnsat()).isFalse();
+
+      ProverEnvironment child =
+          pool.getProverFor(ImmutableList.of(lessThan(10), greaterThan(0), greaterThan(8)));
+      assertThat(child).isSameAs(parent);
+      assertThat(child.isUnsat()).isFalse();
+
+      // the sibling shares the constraints of the parent
+      ProverEnvironment sibling =
+          pool.getProverFor(ImmutableList.of(lessThan(10), greaterThan(0), greaterThan(12)));
+      assertThat(sibling).isSameAs(parent);
+      assertThat(sibling.isUnsat()).isTrue();
+
+      assertThat(stats.createdProverStacks.getValue()).isEqualTo(1);
+      assertThat(stats.assertedConstraints.getValueSum()).isEqualTo(4);
+      assertThat(stats.keptConstraints.getValueSum()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  public void testUnrelatedBranchRecyclesStack() throws SolverException, InterruptedException {
+    ConstraintsStatistics stats = new ConstraintsStatistics();
+    try (ProverStackPool pool = new ProverStackPool(solver, 1, stats)) {
+      ProverEnvironment first = pool.getProverFor(ImmutableList.of(lessThan(10), greaterThan(5)));
+      assertThat(first.isUnsat()).isFalse();
+
+      // with the only stack in use, an unrelated query pops all its constraints
+      ProverEnvironment second = pool.getProverFor(ImmutableList.of(greaterThan(30)));
+      assertThat(second).isSameAs(first);
+      assertThat(second.isUnsat()).isFalse();
+
+      assertThat(pool.getProverFor(ImmutableList.of(greaterThan(30), lessThan(20))).isUnsat())
+          .isTrue();
+      assertThat(stats.createdProverStacks.getValue()).isEqualTo(1);
+      assertThat(stats.keptConstraints.getValueSum()).isEqualTo(1);
+    }
+  }
+}
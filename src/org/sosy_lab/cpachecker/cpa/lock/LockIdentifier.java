@@ -23,9 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.lock;
 
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 public class LockIdentifier implements Comparable<LockIdentifier> {
 
@@ -40,11 +40,14 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
     }
   }
 
-  private static Set<LockIdentifier> createdIds;
+  private static Map<LockIdentifier, LockIdentifier> createdIds;
 
   private final String name;
   private final LockType type;
 
+  /** Global number of this lock, used for representing sets of locks as bit sets. */
+  private int index = -1;
+
   protected LockIdentifier(String pName, LockType pType) {
     name = pName;
     type = pType;
@@ -60,7 +63,7 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
 
   public static LockIdentifier of(String name, String var, LockType type) {
     if (createdIds == null) {
-      createdIds = new HashSet<>();
+      createdIds = new HashMap<>();
     }
     LockIdentifier newId;
     if (var.isEmpty()) {
@@ -70,13 +73,13 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
       newId = new LockIdentifierWithVariable(name, varName, type);
     }
 
-    for (LockIdentifier id : createdIds) {
-      if (id.equals(newId)) {
-        return id;
-      }
+    LockIdentifier id = createdIds.get(newId);
+    if (id != null) {
+      return id;
     }
 
-    createdIds.add(newId);
+    newId.index = createdIds.size();
+    createdIds.put(newId, newId);
     return newId;
   }
 
@@ -84,6 +87,14 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
     return name;
   }
 
+  /**
+   * Returns a number that is unique for each lock created with {@link #of(String, String,
+   * LockType)}, and small enough to be used as position in a {@link java.util.BitSet}.
+   */
+  public int getIndex() {
+    return index;
+  }
+
   private static String getCleanName(String originName) {
     if (originName != null) {
       String newName = originName.replaceAll("\\(", "");
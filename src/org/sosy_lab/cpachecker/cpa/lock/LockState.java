@@ -29,6 +29,7 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -37,6 +38,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cpa.lock.effects.AcquireLockEffect;
 import org.sosy_lab.cpachecker.cpa.lock.effects.LockEffect;
 import org.sosy_lab.cpachecker.cpa.lock.effects.ReleaseLockEffect;
@@ -59,6 +61,21 @@ public class LockState extends AbstractLockState {
       return Sets.intersection(this, (LockTreeNode) pState).isEmpty();
     }
 
+    /**
+     * Returns the locks as a new set of their {@link LockIdentifier#getIndex() indices}, or null if
+     * some lock has no index. The set is computed on each call, as this node is a mutable set.
+     */
+    public @Nullable BitSet getLockBits() {
+      BitSet result = new BitSet();
+      for (LockIdentifier lock : this) {
+        if (lock.getIndex() < 0) {
+          return null;
+        }
+        result.set(lock.getIndex());
+      }
+      return result;
+    }
+
     @Override
     public int compareTo(CompatibleState pArg0) {
       Preconditions.checkArgument(pArg0 instanceof LockTreeNode);
@@ -42,7 +42,6 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -57,6 +56,7 @@ import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.Collections3;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -72,6 +72,8 @@ import org.sosy_lab.cpachecker.cpa.callstack.CallstackStateEqualsWrapper;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage.AbstractionNode;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
+import org.sosy_lab.cpachecker.util.BoundedCache;
+import org.sosy_lab.cpachecker.util.BoundedCache.EvictionPolicy;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
@@ -88,6 +90,7 @@ import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.cpachecker.util.predicates.weakening.InductiveWeakeningManager;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
@@ -177,6 +180,22 @@ public class PredicateAbstractionManager {
   @Option(secure=true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
+  @Option(
+      secure = true,
+      name = "abs.cacheSize",
+      description =
+          "Maximal number of entries in each of the abstraction caches (0 for unbounded caches).")
+  @IntegerOption(min = 0)
+  private int cacheSize = 0;
+
+  @Option(
+      secure = true,
+      name = "abs.cacheEvictionPolicy",
+      description =
+          "Which entries to evict from the abstraction caches "
+              + "if they reach cpa.predicate.abs.cacheSize.")
+  private EvictionPolicy cacheEvictionPolicy = EvictionPolicy.LRU;
+
   @Option(secure=true, name="refinement.splitItpAtoms",
       description="split each arithmetic equality into two inequalities when extracting predicates from interpolants")
   private boolean splitItpAtoms = false;
@@ -193,7 +212,8 @@ public class PredicateAbstractionManager {
 
   private boolean abstractionReuseDisabledBecauseOfAmbiguity = false;
 
-  private final Map<Pair<BooleanFormula, ImmutableSet<BooleanFormula>>, AbstractionFormula>
+  private final BoundedCache<
+          Pair<BooleanFormula, ImmutableSet<BooleanFormula>>, AbstractionFormula>
       abstractionCache;
 
   // Cache for satisfiability queries: if formula is contained, it is unsat
@@ -202,7 +222,8 @@ public class PredicateAbstractionManager {
   //cache for cartesian abstraction queries. For each predicate, the values
   // are -1: predicate is false, 0: predicate is don't care,
   // 1: predicate is true
-  private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
+  private final BoundedCache<Pair<BooleanFormula, AbstractionPredicate>, Byte>
+      cartesianAbstractionCache;
 
   public PredicateAbstractionManager(
       AbstractionManager pAmgr,
@@ -240,7 +261,8 @@ public class PredicateAbstractionManager {
     }
 
     if (useCache) {
-      abstractionCache = new HashMap<>();
+      abstractionCache =
+          new BoundedCache<>("Abstraction cache", cacheSize, cacheEvictionPolicy);
       unsatisfiabilityCache = new HashSet<>();
     } else {
       abstractionCache = null;
@@ -248,7 +270,8 @@ public class PredicateAbstractionManager {
     }
 
     if (useCache && (abstractionType != AbstractionType.BOOLEAN)) {
-      cartesianAbstractionCache = new HashMap<>();
+      cartesianAbstractionCache =
+          new BoundedCache<>("Cartesian abstraction cache", cacheSize, cacheEvictionPolicy);
     } else {
       cartesianAbstractionCache = null;
     }
@@ -291,6 +314,16 @@ public class PredicateAbstractionManager {
         noAbstractionReuse);
   }
 
+  /** Write statistics about the abstraction caches. */
+  public void printCacheStatistics(StatisticsWriter pWriter) {
+    if (abstractionCache != null) {
+      abstractionCache.printStatistics(pWriter);
+    }
+    if (cartesianAbstractionCache != null) {
+      cartesianAbstractionCache.printStatistics(pWriter);
+    }
+  }
+
   public void clear() {
     if (useCache) {
       abstractionCache.clear();
@@ -858,8 +891,9 @@ public class PredicateAbstractionManager {
       while (predicateIt.hasNext()) {
         final AbstractionPredicate p = predicateIt.next();
         Pair<BooleanFormula, AbstractionPredicate> cacheKey = Pair.of(f, p);
-        if (useCache && cartesianAbstractionCache.containsKey(cacheKey)) {
-          byte predVal = cartesianAbstractionCache.get(cacheKey);
+        Byte cachedPredVal = useCache ? cartesianAbstractionCache.get(cacheKey) : null;
+        if (cachedPredVal != null) {
+          byte predVal = cachedPredVal;
           stats.numCartesianAbsPredicatesCached++;
 
           stats.abstractionEnumTime.getCurentInnerTimer().start();
@@ -51,7 +51,6 @@ import org.sosy_lab.cpachecker.core.defaults.DelegateAbstractDomain;
 import org.sosy_lab.cpachecker.core.defaults.MergeJoinOperator;
 import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
 import org.sosy_lab.cpachecker.core.defaults.StopNeverOperator;
-import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
@@ -179,11 +178,11 @@ public class SMGCPA
   public StopOperator getStopOperator() {
     switch (stopType) {
       case "END_BLOCK":
-        return new SMGStopOperator(getAbstractDomain());
+        return new SMGStopOperator(getAbstractDomain(), true, options, stats);
       case "NEVER":
         return StopNeverOperator.getInstance();
       case "SEP":
-        return new StopSepOperator(getAbstractDomain());
+        return new SMGStopOperator(getAbstractDomain(), false, options, stats);
       default:
         throw new AssertionError("unknown stoptype for SMGCPA");
     }
@@ -159,6 +159,18 @@ public class SMGOptions {
       description = "with this option enabled, heap abstraction will be enabled.")
   private boolean enableHeapAbstraction = false;
 
+  @Option(
+    secure = true,
+    description =
+        "with this option enabled, a state is only checked for coverage against reached states "
+            + "with the same fingerprint, i.e., states that are equal up to renaming of values "
+            + "and objects. This avoids most joins in the stop operator, but states that are only "
+            + "covered by a more abstract state (e.g., by a longer list segment) are not stopped. "
+            + "The statistics of the SMGCPA show how many states were covered by a state with "
+            + "another fingerprint, i.e., how many coverings this option would lose."
+  )
+  private boolean stopOnlyOnEqualFingerprint = false;
+
   @Option(
       secure = true,
       name = "memoryErrors",
@@ -287,6 +299,10 @@ public class SMGOptions {
     return enableHeapAbstraction;
   }
 
+  public boolean stopOnlyOnEqualFingerprint() {
+    return stopOnlyOnEqualFingerprint;
+  }
+
   public boolean isMemoryErrorTarget() {
     return memoryErrors;
   }
@@ -29,15 +29,31 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.smg.join.SMGIsLessOrEqual;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 
 public class SMGStatistics implements Statistics {
 
+  final StatCounter coverageChecks = new StatCounter("Number of coverage checks");
+  final StatCounter skippedByFingerprint =
+      new StatCounter("Number of coverage checks skipped due to different fingerprints");
+  final StatCounter skippedByPreCheck =
+      new StatCounter("Number of coverage checks skipped due to stack or heap objects");
+  final StatCounter coveredWithEqualFingerprint =
+      new StatCounter("Number of states covered by a state with the same fingerprint");
+  final StatCounter coveredWithOtherFingerprint =
+      new StatCounter("Number of states covered by a state with another fingerprint");
+
   @Override
   public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
     put(pOut, 0, SMGIsLessOrEqual.isLEQTimer);
     put(pOut, 1, SMGIsLessOrEqual.globalsTimer);
     put(pOut, 1, SMGIsLessOrEqual.stackTimer);
     put(pOut, 1, SMGIsLessOrEqual.heapTimer);
+    put(pOut, 0, coverageChecks);
+    put(pOut, 1, skippedByFingerprint);
+    put(pOut, 1, skippedByPreCheck);
+    put(pOut, 0, coveredWithEqualFingerprint);
+    put(pOut, 0, coveredWithOtherFingerprint);
   }
 
   @Override
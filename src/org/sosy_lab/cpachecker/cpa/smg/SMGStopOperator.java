@@ -24,26 +24,143 @@
 package org.sosy_lab.cpachecker.cpa.smg;
 
 import java.util.Collection;
-import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
+import java.util.Iterator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.UnmodifiableCLangSMG;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
-public class SMGStopOperator extends StopSepOperator{
+/**
+ * Stop-sep operator for SMG states that avoids the (expensive) coverage check whenever it is
+ * cheaply known to fail or whenever the user disabled it:
+ *
+ * <ul>
+ *   <li>Reached states whose heap has a different fingerprint (cf. {@link
+ *       org.sosy_lab.cpachecker.cpa.smg.graphs.UnmodifiableSMG#getFingerprint()}) than the new
+ *       state are only checked if {@link SMGOptions#stopOnlyOnEqualFingerprint()} is disabled, and
+ *       only after all reached states with the same fingerprint.
+ *   <li>Reached states that cannot cover the new state because of their stack frames, their heap
+ *       objects, or their error predicates are skipped without a join, see {@link
+ *       #mayBeLessOrEqual(UnmodifiableSMGState, UnmodifiableSMGState)}.
+ * </ul>
+ *
+ * <p>Note that inside a composite analysis this operator is called with a single reached state at
+ * a time, so the pre-checks are what saves joins there. The numbers of skipped and performed
+ * coverage checks are reported in the {@link SMGStatistics}.
+ */
+public class SMGStopOperator implements StopOperator {
+
+  private final AbstractDomain domain;
+  private final boolean stopOnlyAtBlockEnd;
+  private final boolean stopOnlyOnEqualFingerprint;
+  private final boolean heapAbstraction;
+  private final SMGStatistics stats;
+
   /**
    * Creates a stop-sep operator based on the given partial order
+   *
+   * @param pStopOnlyAtBlockEnd whether states can only be covered at the end of a block
+   * @param pOptions the options that select the coverage check, cf. {@link
+   *     SMGOptions#stopOnlyOnEqualFingerprint()} and {@link SMGOptions#isHeapAbstractionEnabled()}
+   * @param pStats where the numbers of performed and skipped coverage checks are counted
    */
-  public SMGStopOperator(AbstractDomain d) {
-    super(d);
+  public SMGStopOperator(
+      AbstractDomain d, boolean pStopOnlyAtBlockEnd, SMGOptions pOptions, SMGStatistics pStats) {
+    domain = d;
+    stopOnlyAtBlockEnd = pStopOnlyAtBlockEnd;
+    stopOnlyOnEqualFingerprint = pOptions.stopOnlyOnEqualFingerprint();
+    heapAbstraction = pOptions.isHeapAbstractionEnabled();
+    stats = pStats;
   }
 
   @Override
   public boolean stop(AbstractState el, Collection<AbstractState> reached, Precision precision)
       throws CPAException, InterruptedException {
-    if (el instanceof SMGState && !((UnmodifiableSMGState) el).isBlockEnded()) {
+    UnmodifiableSMGState state = (UnmodifiableSMGState) el;
+    if (stopOnlyAtBlockEnd && !state.isBlockEnded()) {
+      return false;
+    }
+
+    long fingerprint = state.getHeap().getFingerprint();
+
+    // first check the reached states in the bucket of the new state
+    for (AbstractState reachedState : reached) {
+      if (fingerprintOf(reachedState) == fingerprint && isCoveredBy(state, reachedState)) {
+        stats.coveredWithEqualFingerprint.inc();
+        return true;
+      }
+    }
+
+    for (AbstractState reachedState : reached) {
+      if (fingerprintOf(reachedState) != fingerprint) {
+        if (stopOnlyOnEqualFingerprint) {
+          stats.skippedByFingerprint.inc();
+        } else if (isCoveredBy(state, reachedState)) {
+          stats.coveredWithOtherFingerprint.inc();
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean isCoveredBy(UnmodifiableSMGState pState, AbstractState pReachedState)
+      throws CPAException, InterruptedException {
+    if (!mayBeLessOrEqual(pState, (UnmodifiableSMGState) pReachedState)) {
+      stats.skippedByPreCheck.inc();
       return false;
     }
-    return super.stop(el, reached, precision);
+    stats.coverageChecks.inc();
+    return domain.isLessOrEqual(pState, pReachedState);
+  }
+
+  /**
+   * Cheap necessary condition for {@link UnmodifiableSMGState#isLessOrEqual}: returns false only
+   * if the new state is definitely not covered by the reached state. This checks what both the
+   * join and {@link org.sosy_lab.cpachecker.cpa.smg.join.SMGIsLessOrEqual} reject first, without
+   * looking at any edges of the SMGs.
+   */
+  private boolean mayBeLessOrEqual(
+      UnmodifiableSMGState pState, UnmodifiableSMGState pReachedState) {
+    if (!pState.getErrorPredicateRelation().isEmpty()
+        || !pReachedState.getErrorPredicateRelation().isEmpty()) {
+      return false;
+    }
+
+    UnmodifiableCLangSMG heap = pState.getHeap();
+    UnmodifiableCLangSMG reachedHeap = pReachedState.getHeap();
+    if (heap == reachedHeap) {
+      return true;
+    }
+
+    if (!heapAbstraction) {
+      // without abstraction both states need the same heap objects and the same stack depth
+      if (heap.getStackFrames().size() != reachedHeap.getStackFrames().size()
+          || !heap.getHeapObjects().equals(reachedHeap.getHeapObjects())) {
+        return false;
+      }
+    }
+
+    Iterator<CLangStackFrame> frames = heap.getStackFrames().iterator();
+    Iterator<CLangStackFrame> reachedFrames = reachedHeap.getStackFrames().iterator();
+    while (frames.hasNext() && reachedFrames.hasNext()) {
+      CLangStackFrame frame = frames.next();
+      CLangStackFrame reachedFrame = reachedFrames.next();
+      if (heapAbstraction
+          ? !frame.getFunctionDeclaration().equals(reachedFrame.getFunctionDeclaration())
+          : !frame
+              .getFunctionDeclaration()
+              .getOrigName()
+              .equals(reachedFrame.getFunctionDeclaration().getOrigName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long fingerprintOf(AbstractState pState) {
+    return ((UnmodifiableSMGState) pState).getHeap().getFingerprint();
   }
 }
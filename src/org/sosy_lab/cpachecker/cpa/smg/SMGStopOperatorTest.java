@@ -0,0 +1,116 @@
+/*
+ * CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.defaults.DelegateAbstractDomain;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+public class SMGStopOperatorTest {
+
+  private static final LogManager logger = LogManager.createTestLogManager();
+
+  private static final CFunctionDeclaration MAIN =
+      new CFunctionDeclaration(
+          FileLocation.DUMMY,
+          CFunctionType.functionTypeWithReturnType(CNumericTypes.INT),
+          "main",
+          ImmutableList.of());
+
+  private SMGOptions options;
+  private SMGStatistics stats;
+  private SMGState reached;
+
+  @Before
+  public void setUp() throws InvalidConfigurationException, SMGInconsistentException {
+    options = new SMGOptions(Configuration.defaultConfiguration());
+    stats = new SMGStatistics();
+    reached = new SMGState(logger, MachineModel.LINUX32, options);
+    reached.addStackFrame(MAIN);
+    reached.addNewHeapAllocation(32, "a");
+  }
+
+  private boolean stop(SMGOptions pOptions, SMGState pState)
+      throws CPAException, InterruptedException {
+    SMGStopOperator stop =
+        new SMGStopOperator(
+            DelegateAbstractDomain.<UnmodifiableSMGState>getInstance(), false, pOptions, stats);
+    return stop.stop(
+        pState, ImmutableSet.<AbstractState>of(reached), SingletonPrecision.getInstance());
+  }
+
+  @Test
+  public void testEqualState() throws CPAException, InterruptedException {
+    assertThat(stop(options, reached.copyOf())).isTrue();
+    assertThat(stats.coverageChecks.getValue()).isEqualTo(1);
+    assertThat(stats.coveredWithEqualFingerprint.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testOtherHeapObjectsSkipCoverageCheck() throws CPAException, InterruptedException {
+    SMGState state = reached.copyOf();
+    state.addNewHeapAllocation(32, "b");
+
+    assertThat(stop(options, state)).isFalse();
+    assertThat(stats.coverageChecks.getValue()).isEqualTo(0);
+    assertThat(stats.skippedByPreCheck.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testOtherFingerprint()
+      throws CPAException, InterruptedException, InvalidConfigurationException {
+    // the additional global variable changes the fingerprint, but not the coverage
+    SMGState state = reached.copyOf();
+    state.addGlobalVariable(32, "x");
+    assertThat(state.getHeap().getFingerprint())
+        .isNotEqualTo(reached.getHeap().getFingerprint());
+
+    assertThat(stop(options, state)).isTrue();
+    assertThat(stats.coveredWithOtherFingerprint.getValue()).isEqualTo(1);
+
+    SMGOptions fingerprintOnly =
+        new SMGOptions(
+            Configuration.builder()
+                .setOption("cpa.smg.stopOnlyOnEqualFingerprint", "true")
+                .build());
+    assertThat(stop(fingerprintOnly, state)).isFalse();
+    assertThat(stats.skippedByFingerprint.getValue()).isEqualTo(1);
+    assertThat(stats.coverageChecks.getValue()).isEqualTo(1);
+  }
+}
@@ -23,116 +23,164 @@
  */
 package org.sosy_lab.cpachecker.cpa.smg.graphs;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
+import com.google.common.collect.ImmutableList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGExplicitValue;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownAddressValue;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGSymbolicValue;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGValue;
-import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.cpa.smg.util.PersistentMultimap;
+
+/**
+ * This class tracks relations between symbolic values and between symbolic and explicit values.
+ * Implemented as an immutable data structure, thus copying an SMG does not need to copy it.
+ */
+public final class PredRelation {
+
+  /**
+   * Each relation is stored for both of its values, i.e., for a relation between A and B there are
+   * pairs (A,R) and (B,R).
+   */
+  private final PersistentMultimap<SMGValue, SymbolicRelation> smgValuesRelation;
 
-public class PredRelation {
   /** The Multimap is used as Bi-Map, i.e. each pair (K,V) is also inserted as pair (V,K). */
-  private final SetMultimap<Pair<SMGValue, SMGValue>, SymbolicRelation> smgValuesRelation =
-      HashMultimap.create();
-
-  private final SetMultimap<SMGValue, SMGValue> smgValuesDependency = HashMultimap.create();
-  private final SetMultimap<SMGValue, ExplicitRelation> smgExplicitValueRelation =
-      HashMultimap.create();
-  private final Map<SMGValue, Integer> smgValueSizeInBits = new HashMap<>();
-
-  /** Copy PredRelation */
-  public void putAll(PredRelation pPred) {
-    smgValuesRelation.putAll(pPred.smgValuesRelation);
-    smgValuesDependency.putAll(pPred.smgValuesDependency);
-    smgExplicitValueRelation.putAll(pPred.smgExplicitValueRelation);
-    smgValueSizeInBits.putAll(pPred.smgValueSizeInBits);
+  private final PersistentMultimap<SMGValue, SMGValue> smgValuesDependency;
+
+  private final PersistentMultimap<SMGValue, ExplicitRelation> smgExplicitValueRelation;
+  private final PersistentMap<SMGValue, Integer> smgValueSizeInBits;
+
+  public PredRelation() {
+    this(
+        PersistentMultimap.of(),
+        PersistentMultimap.of(),
+        PersistentMultimap.of(),
+        PathCopyingPersistentTreeMap.of());
   }
 
-  public void addRelation(SMGSymbolicValue pOne, int pCType1,
-                          SMGSymbolicValue pTwo, int pCType2,
-                          BinaryOperator pOperator) {
+  private PredRelation(
+      PersistentMultimap<SMGValue, SymbolicRelation> pValuesRelation,
+      PersistentMultimap<SMGValue, SMGValue> pValuesDependency,
+      PersistentMultimap<SMGValue, ExplicitRelation> pExplicitValueRelation,
+      PersistentMap<SMGValue, Integer> pValueSizeInBits) {
+    smgValuesRelation = pValuesRelation;
+    smgValuesDependency = pValuesDependency;
+    smgExplicitValueRelation = pExplicitValueRelation;
+    smgValueSizeInBits = pValueSizeInBits;
+  }
+
+  public PredRelation addRelationAndCopy(
+      SMGSymbolicValue pOne,
+      int pCType1,
+      SMGSymbolicValue pTwo,
+      int pCType2,
+      BinaryOperator pOperator) {
     // TODO: track address values
     if (!pOne.isUnknown()
         && !pTwo.isUnknown()
         && !(pOne instanceof SMGKnownAddressValue)
         && !(pTwo instanceof SMGKnownAddressValue)) {
-      addRelation(pOne, pTwo, pOperator);
-      addValueSize(pOne, pCType1);
-      addValueSize(pTwo, pCType2);
+      PredRelation result = addRelationAndCopy(pOne, pTwo, pOperator);
+      PersistentMap<SMGValue, Integer> sizes =
+          addValueSize(addValueSize(result.smgValueSizeInBits, pOne, pCType1), pTwo, pCType2);
+      return new PredRelation(
+          result.smgValuesRelation,
+          result.smgValuesDependency,
+          result.smgExplicitValueRelation,
+          sizes);
     }
+    return this;
   }
 
-  private void addValueSize(SMGValue pValue, Integer pCType2) {
-    if (!smgValueSizeInBits.containsKey(pValue)) {
-      smgValueSizeInBits.put(pValue, pCType2);
+  private static PersistentMap<SMGValue, Integer> addValueSize(
+      PersistentMap<SMGValue, Integer> pSizes, SMGValue pValue, Integer pCType) {
+    if (!pSizes.containsKey(pValue)) {
+      return pSizes.putAndCopy(pValue, pCType);
     }
+    return pSizes;
   }
 
-  public void addRelation(SMGValue pOne, SMGValue pTwo, BinaryOperator pOperator) {
+  public PredRelation addRelationAndCopy(SMGValue pOne, SMGValue pTwo, BinaryOperator pOperator) {
     SymbolicRelation relation = new SymbolicRelation(pOne, pTwo, pOperator);
-    if (!smgValuesDependency.containsEntry(pOne, pTwo)) {
-      smgValuesRelation.put(Pair.of(pOne, pTwo), relation);
-      smgValuesRelation.put(Pair.of(pTwo, pOne), relation);
-      smgValuesDependency.put(pOne, pTwo);
-      smgValuesDependency.put(pTwo, pOne);
-    } else {
-      if (!smgValuesRelation.containsEntry(Pair.of(pOne, pTwo), relation)) {
-        smgValuesRelation.put(Pair.of(pOne, pTwo), relation);
-        smgValuesRelation.put(Pair.of(pTwo, pOne), relation);
-      }
-    }
+    return new PredRelation(
+        smgValuesRelation.putAndCopy(pOne, relation).putAndCopy(pTwo, relation),
+        smgValuesDependency.putAndCopy(pOne, pTwo).putAndCopy(pTwo, pOne),
+        smgExplicitValueRelation,
+        smgValueSizeInBits);
   }
 
-  public void addExplicitRelation(SMGSymbolicValue pSymbolicValue, Integer pCType1,
-                                  SMGExplicitValue pExplicitValue, Integer pCType2,
-                                  BinaryOperator pOp) {
+  public PredRelation addExplicitRelationAndCopy(
+      SMGSymbolicValue pSymbolicValue,
+      Integer pCType1,
+      SMGExplicitValue pExplicitValue,
+      Integer pCType2,
+      BinaryOperator pOp) {
     assert(pCType1.equals(pCType2));
-    addExplicitRelation(pSymbolicValue, pExplicitValue, pOp);
-    addValueSize(pSymbolicValue, pCType1);
+    PredRelation result = addExplicitRelationAndCopy(pSymbolicValue, pExplicitValue, pOp);
+    return new PredRelation(
+        result.smgValuesRelation,
+        result.smgValuesDependency,
+        result.smgExplicitValueRelation,
+        addValueSize(result.smgValueSizeInBits, pSymbolicValue, pCType1));
   }
 
-  public void addExplicitRelation(
+  public PredRelation addExplicitRelationAndCopy(
       SMGValue pSymbolicValue, SMGExplicitValue pExplicitValue, BinaryOperator pOp) {
     ExplicitRelation relation = new ExplicitRelation(pSymbolicValue, pExplicitValue, pOp);
-    if (!smgExplicitValueRelation.containsEntry(pSymbolicValue, relation)) {
-      smgExplicitValueRelation.put(pSymbolicValue, relation);
-    }
+    return new PredRelation(
+        smgValuesRelation,
+        smgValuesDependency,
+        smgExplicitValueRelation.putAndCopy(pSymbolicValue, relation),
+        smgValueSizeInBits);
   }
 
-  public void removeValue(SMGValue pValue) {
-    for (SMGValue pOposit : smgValuesDependency.removeAll(pValue)) {
-
-      smgValuesDependency.remove(pOposit, pValue);
-
-      smgValuesRelation.removeAll(Pair.of(pOposit, pValue));
-      smgValuesRelation.removeAll(Pair.of(pValue, pOposit));
+  /** Remove all relations between the given value and other symbolic values. */
+  private PredRelation removeSymbolicRelationsAndCopy(SMGValue pValue) {
+    PersistentMultimap<SMGValue, SMGValue> dependency = smgValuesDependency.removeAndCopy(pValue);
+    PersistentMultimap<SMGValue, SymbolicRelation> relations = smgValuesRelation;
+    for (SMGValue pOposit : smgValuesDependency.get(pValue)) {
+      dependency = dependency.removeAndCopy(pOposit, pValue);
+      for (SymbolicRelation relation : smgValuesRelation.get(pValue)) {
+        if (relation.involves(pOposit)) {
+          relations = relations.removeAndCopy(pValue, relation).removeAndCopy(pOposit, relation);
+        }
+      }
     }
-    smgExplicitValueRelation.removeAll(pValue);
-    smgValueSizeInBits.remove(pValue);
+    return new PredRelation(
+        relations, dependency, smgExplicitValueRelation, smgValueSizeInBits);
+  }
+
+  public PredRelation removeValueAndCopy(SMGValue pValue) {
+    PredRelation result = removeSymbolicRelationsAndCopy(pValue);
+    return new PredRelation(
+        result.smgValuesRelation,
+        result.smgValuesDependency,
+        result.smgExplicitValueRelation.removeAndCopy(pValue),
+        result.smgValueSizeInBits.removeAndCopy(pValue));
   }
 
   /** replace the old value with a fresh value. */
-  public void replace(SMGValue fresh, SMGValue old) {
-    for (SMGValue relatedValue : smgValuesDependency.removeAll(old)) {
-      smgValuesDependency.remove(relatedValue, old);
-      smgValuesRelation.removeAll(Pair.of(old, relatedValue));
-        //TODO: modify predicates on merge values
-      smgValuesRelation.removeAll(Pair.of(relatedValue, old));
-    }
-    for (ExplicitRelation explicitRelation: smgExplicitValueRelation.removeAll(old)) {
-      addExplicitRelation(fresh, explicitRelation.explicitValue, explicitRelation.getOperator());
-      addValueSize(fresh, getSymbolicSize(old));
+  public PredRelation replaceValueAndCopy(SMGValue fresh, SMGValue old) {
+    //TODO: modify predicates on merge values
+    PredRelation result = removeSymbolicRelationsAndCopy(old);
+    PersistentMap<SMGValue, Integer> sizes = result.smgValueSizeInBits;
+    for (ExplicitRelation explicitRelation : smgExplicitValueRelation.get(old)) {
+      result =
+          result.addExplicitRelationAndCopy(
+              fresh, explicitRelation.explicitValue, explicitRelation.getOperator());
+      sizes = addValueSize(sizes, fresh, getSymbolicSize(old));
     }
-    smgValueSizeInBits.remove(old);
+    return new PredRelation(
+        result.smgValuesRelation,
+        result.smgValuesDependency,
+        result.smgExplicitValueRelation.removeAndCopy(old),
+        sizes.removeAndCopy(old));
   }
 
   public Integer getSymbolicSize(SMGValue pSymbolic) {
@@ -142,12 +190,14 @@ public class PredRelation {
   /** Returns closure list of symbolic values which affects pRelation */
   public Set<SMGValue> closureDependencyFor(PredRelation pRelation) {
     Set<SMGValue> toAdd = new HashSet<>();
-    for (Entry<SMGValue, SMGValue> entry : pRelation.smgValuesDependency.entries()) {
+    for (Entry<SMGValue, ? extends Set<SMGValue>> entry :
+        pRelation.smgValuesDependency.entries()) {
       SMGValue key = entry.getKey();
-      SMGValue value = entry.getValue();
-      if (key.compareTo(value) > 0) {
-        toAdd.add(key);
-        toAdd.add(value);
+      for (SMGValue value : entry.getValue()) {
+        if (key.compareTo(value) > 0) {
+          toAdd.add(key);
+          toAdd.add(value);
+        }
       }
     }
     Set<SMGValue> result = new HashSet<>();
@@ -164,7 +214,7 @@ public class PredRelation {
   }
 
   public boolean isEmpty() {
-    return smgExplicitValueRelation.isEmpty() && smgValuesRelation.isEmpty();
+    return smgExplicitValueRelation.size() == 0 && smgValuesRelation.size() == 0;
   }
 
   @Override
@@ -179,7 +229,7 @@ public class PredRelation {
       return false;
     }
     PredRelation other = (PredRelation) obj;
-    return other.smgValuesRelation != null && smgValuesRelation.equals(other.smgValuesRelation);
+    return smgValuesRelation.equals(other.smgValuesRelation);
   }
 
   @Override
@@ -195,36 +245,44 @@ public class PredRelation {
     return smgExplicitValueRelation.values();
   }
 
-  public Set<Entry<Pair<SMGValue, SMGValue>, SymbolicRelation>> getValuesRelations() {
-    return smgValuesRelation.entries();
+  /** Returns all relations between two distinct symbolic values, each relation only once. */
+  public Collection<SymbolicRelation> getValuesRelations() {
+    ImmutableList.Builder<SymbolicRelation> result = ImmutableList.builder();
+    for (Entry<SMGValue, ? extends Set<SymbolicRelation>> entry : smgValuesRelation.entries()) {
+      for (SymbolicRelation relation : entry.getValue()) {
+        SMGValue other =
+            relation.valueOne.equals(entry.getKey()) ? relation.valueTwo : relation.valueOne;
+        if (other.compareTo(entry.getKey()) > 0) {
+          result.add(relation);
+        }
+      }
+    }
+    return result.build();
   }
 
   public boolean isLessOrEqual(PredRelation pPathPredicateRelation) {
-    if (smgValuesDependency.size() > pPathPredicateRelation.smgValuesDependency.size()) {
-      return false;
-    }
-    if (smgExplicitValueRelation.size() > pPathPredicateRelation.smgExplicitValueRelation.size()) {
-      return false;
-    }
-    if (smgValuesRelation.size() > pPathPredicateRelation.smgValuesDependency.size()) {
-      return false;
-    }
-    if (!pPathPredicateRelation.smgValuesDependency.entries().containsAll(smgValuesDependency.entries())) {
-      return false;
-    }
-    if (!pPathPredicateRelation.smgExplicitValueRelation.entries().containsAll(smgExplicitValueRelation.entries())) {
+    return isSubset(smgValuesDependency, pPathPredicateRelation.smgValuesDependency)
+        && isSubset(smgExplicitValueRelation, pPathPredicateRelation.smgExplicitValueRelation)
+        && isSubset(smgValuesRelation, pPathPredicateRelation.smgValuesRelation);
+  }
+
+  private static <V> boolean isSubset(
+      PersistentMultimap<SMGValue, V> pSubset, PersistentMultimap<SMGValue, V> pSuperset) {
+    if (pSubset.size() > pSuperset.size()) {
       return false;
     }
-    if (!pPathPredicateRelation.smgValuesRelation.entries().containsAll(smgValuesRelation.entries())) {
-      return false;
+    for (Entry<SMGValue, ? extends Set<V>> entry : pSubset.entries()) {
+      if (!pSuperset.get(entry.getKey()).containsAll(entry.getValue())) {
+        return false;
+      }
     }
     return true;
   }
 
   static public class SymbolicRelation {
     final SMGValue valueOne;
-    SMGValue valueTwo;
-    BinaryOperator operator;
+    final SMGValue valueTwo;
+    final BinaryOperator operator;
 
     public SymbolicRelation(SMGValue pValueOne, SMGValue pValueTwo, BinaryOperator pOperator) {
       valueOne = pValueOne;
@@ -244,6 +302,10 @@ public class PredRelation {
       return valueTwo;
     }
 
+    private boolean involves(SMGValue pValue) {
+      return valueOne.equals(pValue) || valueTwo.equals(pValue);
+    }
+
     @Override
     public boolean equals(Object pO) {
       if (this == pO) {
@@ -276,9 +338,9 @@ public class PredRelation {
 
 
   static public class ExplicitRelation {
-    SMGValue symbolicValue;
-    SMGExplicitValue explicitValue;
-    BinaryOperator operator;
+    final SMGValue symbolicValue;
+    final SMGExplicitValue explicitValue;
+    final BinaryOperator operator;
 
     public ExplicitRelation(
         SMGValue pSymbolicValue, SMGExplicitValue pExplicitValue, BinaryOperator pOperator) {
@@ -328,10 +390,4 @@ public class PredRelation {
           '}';
     }
   }
-
-  public void clear() {
-    smgExplicitValueRelation.clear();
-    smgValuesDependency.clear();
-    smgValuesRelation.clear();
-  }
 }
@@ -0,0 +1,86 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg.graphs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownExpValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownSymValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGValue;
+
+public class PredRelationTest {
+
+  private final SMGValue val1 = SMGKnownSymValue.of();
+  private final SMGValue val2 = SMGKnownSymValue.of();
+  private final SMGValue val3 = SMGKnownSymValue.of();
+
+  @Test
+  public void addAndCopyDoesNotModifyOriginalTest() {
+    PredRelation empty = new PredRelation();
+    PredRelation relation = empty.addRelationAndCopy(val1, val2, BinaryOperator.LESS_THAN);
+
+    assertThat(empty.isEmpty()).isTrue();
+    assertThat(relation.isEmpty()).isFalse();
+    assertThat(relation.getValuesRelations()).hasSize(1);
+    assertThat(empty.isLessOrEqual(relation)).isTrue();
+    assertThat(relation.isLessOrEqual(empty)).isFalse();
+  }
+
+  @Test
+  public void removeValueTest() {
+    PredRelation relation =
+        new PredRelation()
+            .addRelationAndCopy(val1, val2, BinaryOperator.LESS_THAN)
+            .addRelationAndCopy(val2, val3, BinaryOperator.NOT_EQUALS)
+            .addExplicitRelationAndCopy(
+                val1, SMGKnownExpValue.valueOf(5), BinaryOperator.GREATER_THAN);
+
+    PredRelation removed = relation.removeValueAndCopy(val1);
+    assertThat(removed.getValuesRelations()).hasSize(1);
+    assertThat(removed.getExplicitRelations()).isEmpty();
+    assertThat(relation.getValuesRelations()).hasSize(2);
+    assertThat(relation.getExplicitRelations()).hasSize(1);
+    assertThat(removed.isLessOrEqual(relation)).isTrue();
+
+    assertThat(removed.removeValueAndCopy(val3).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void replaceValueTest() {
+    PredRelation relation =
+        new PredRelation()
+            .addRelationAndCopy(val1, val2, BinaryOperator.LESS_THAN)
+            .addExplicitRelationAndCopy(
+                val1, SMGKnownExpValue.valueOf(5), BinaryOperator.GREATER_THAN);
+
+    PredRelation replaced = relation.replaceValueAndCopy(val3, val1);
+    assertThat(replaced.getValuesRelations()).isEmpty();
+    assertThat(replaced.getExplicitRelations()).hasSize(1);
+    assertThat(replaced.getExplicitRelations().iterator().next().getSymbolicValue())
+        .isEqualTo(val3);
+    assertThat(relation.getValuesRelations()).hasSize(1);
+  }
+}
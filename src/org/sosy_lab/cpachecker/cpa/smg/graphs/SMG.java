@@ -33,6 +33,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdge;
@@ -42,6 +43,8 @@ import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgePointsToFilter;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.object.SMGNullObject;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.object.SMGObject;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGExplicitValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGSymbolicValue;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGValue;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGZeroValue;
 import org.sosy_lab.cpachecker.cpa.smg.util.PersistentSet;
@@ -62,9 +65,15 @@ public class SMG implements UnmodifiableSMG {
   private PersistentSet<SMGObject> externalObjectAllocation;
   private NeqRelation neq = new NeqRelation();
 
-  private final PredRelation pathPredicate = new PredRelation();
+  private PredRelation pathPredicate = new PredRelation();
   private PredRelation errorPredicate = new PredRelation();
 
+  /**
+   * Order-independent hash over objects, validity, and edges, updated with each modification.
+   * See {@link #getFingerprint()}.
+   */
+  private long fingerprint = 0;
+
 
   private final MachineModel machine_model;
 
@@ -103,12 +112,13 @@ public class SMG implements UnmodifiableSMG {
     hv_edges = pHeap.hv_edges;
     pt_edges = pHeap.pt_edges;
     neq = pHeap.neq;
-    pathPredicate.putAll(pHeap.pathPredicate);
-    errorPredicate.putAll(pHeap.errorPredicate);
+    pathPredicate = pHeap.pathPredicate;
+    errorPredicate = pHeap.errorPredicate;
     validObjects = pHeap.validObjects;
     externalObjectAllocation = pHeap.externalObjectAllocation;
     objects = pHeap.objects;
     values = pHeap.values;
+    fingerprint = pHeap.fingerprint;
   }
 
   @Override
@@ -167,8 +177,8 @@ public class SMG implements UnmodifiableSMG {
     Preconditions.checkArgument(!pValue.isZero(), "Can not remove NULL from SMG");
     values = values.removeAndCopy(pValue);
     neq = neq.removeValueAndCopy(pValue);
-    pathPredicate.removeValue(pValue);
-    errorPredicate.removeValue(pValue);
+    pathPredicate = pathPredicate.removeValueAndCopy(pValue);
+    errorPredicate = errorPredicate.removeValueAndCopy(pValue);
   }
   /**
    * Remove pObj from the SMG. This method does not remove
@@ -180,6 +190,12 @@ public class SMG implements UnmodifiableSMG {
    */
   @VisibleForTesting
   final public void removeObject(final SMGObject pObj) {
+    if (objects.contains(pObj)) {
+      fingerprint -= fingerprintOf(pObj);
+    }
+    if (validObjects.contains(pObj)) {
+      fingerprint -= validityFingerprintOf(pObj);
+    }
     objects = objects.removeAndCopy(pObj);
     validObjects = validObjects.removeAndCopy(pObj);
     externalObjectAllocation = externalObjectAllocation.removeAndCopy(pObj);
@@ -195,6 +211,15 @@ public class SMG implements UnmodifiableSMG {
   final public void removeObjectAndEdges(final SMGObject pObj) {
     Preconditions.checkArgument(pObj != SMGNullObject.INSTANCE, "Can not remove NULL from SMG");
     removeObject(pObj);
+    Set<SMGEdgeHasValue> hvEdgesOfObject = hv_edges.getEdgesForObject(pObj);
+    if (hvEdgesOfObject != null) {
+      for (SMGEdgeHasValue edge : hvEdgesOfObject) {
+        fingerprint -= fingerprintOf(edge);
+      }
+    }
+    for (SMGEdgePointsTo edge : SMGEdgePointsToFilter.targetObjectFilter(pObj).filter(pt_edges)) {
+      fingerprint -= fingerprintOf(edge);
+    }
     hv_edges = hv_edges.removeAllEdgesOfObjectAndCopy(pObj);
     pt_edges = pt_edges.removeAllEdgesOfObjectAndCopy(pObj);
 
@@ -224,6 +249,9 @@ public class SMG implements UnmodifiableSMG {
    *
    */
   final public void addObject(final SMGObject pObj, final boolean pValidity, final boolean pExternal) {
+    if (!objects.contains(pObj)) {
+      fingerprint += fingerprintOf(pObj);
+    }
     objects = objects.addAndCopy(pObj);
     setValidity(pObj, pValidity);
     setExternallyAllocatedFlag(pObj, pExternal);
@@ -249,6 +277,11 @@ public class SMG implements UnmodifiableSMG {
    */
   final public void addPointsToEdge(SMGEdgePointsTo pEdge) {
     Preconditions.checkArgument(values.contains(pEdge.getValue()), "adding an edge without source");
+    SMGEdgePointsTo oldEdge = pt_edges.getEdgeWithValue(pEdge.getValue());
+    if (oldEdge != null) {
+      fingerprint -= fingerprintOf(oldEdge);
+    }
+    fingerprint += fingerprintOf(pEdge);
     pt_edges = pt_edges.addAndCopy(pEdge);
   }
 
@@ -261,6 +294,9 @@ public class SMG implements UnmodifiableSMG {
    */
   final public void addHasValueEdge(SMGEdgeHasValue pEdge) {
     Preconditions.checkArgument(values.contains(pEdge.getValue()), "adding edge without target");
+    if (!containsHasValueEdge(pEdge)) {
+      fingerprint += fingerprintOf(pEdge);
+    }
     hv_edges = hv_edges.addEdgeAndCopy(pEdge);
   }
 
@@ -272,9 +308,17 @@ public class SMG implements UnmodifiableSMG {
    * @param pEdge Has-Value edge to remove
    */
   final public void removeHasValueEdge(SMGEdgeHasValue pEdge) {
+    if (containsHasValueEdge(pEdge)) {
+      fingerprint -= fingerprintOf(pEdge);
+    }
     hv_edges = hv_edges.removeEdgeAndCopy(pEdge);
   }
 
+  private boolean containsHasValueEdge(SMGEdgeHasValue pEdge) {
+    Set<SMGEdgeHasValue> edgesOfObject = hv_edges.getEdgesForObject(pEdge.getObject());
+    return edgesOfObject != null && edgesOfObject.contains(pEdge);
+  }
+
   /**
    * Remove the Points-To edge from the SMG with the value pValue as Source.
    *
@@ -284,6 +328,10 @@ public class SMG implements UnmodifiableSMG {
    */
   public final void removePointsToEdge(SMGValue pValue) {
     Preconditions.checkArgument(!pValue.isZero(), "Can not remove NULL from SMG");
+    SMGEdgePointsTo oldEdge = pt_edges.getEdgeWithValue(pValue);
+    if (oldEdge != null) {
+      fingerprint -= fingerprintOf(oldEdge);
+    }
     pt_edges = pt_edges.removeEdgeWithValueAndCopy(pValue);
   }
 
@@ -299,6 +347,13 @@ public class SMG implements UnmodifiableSMG {
    */
   public void setValidity(SMGObject pObject, boolean pValidity) {
     Preconditions.checkArgument(objects.contains(pObject), "Object [" + pObject + "] not in SMG");
+    if (pValidity != validObjects.contains(pObject)) {
+      if (pValidity) {
+        fingerprint += validityFingerprintOf(pObject);
+      } else {
+        fingerprint -= validityFingerprintOf(pObject);
+      }
+    }
     if (pValidity) {
       validObjects = validObjects.addAndCopy(pObject);
     } else {
@@ -340,6 +395,36 @@ public class SMG implements UnmodifiableSMG {
     return errorPredicate;
   }
 
+  /** Adds a relation between two symbolic values to the path predicate. */
+  public void addPathPredicateRelation(
+      SMGSymbolicValue pV1,
+      int pCType1,
+      SMGSymbolicValue pV2,
+      int pCType2,
+      BinaryOperator pOp) {
+    pathPredicate = pathPredicate.addRelationAndCopy(pV1, pCType1, pV2, pCType2, pOp);
+  }
+
+  /** Adds a relation between a symbolic and an explicit value to the path predicate. */
+  public void addPathPredicateExplicitRelation(
+      SMGSymbolicValue pV1,
+      int pCType1,
+      SMGExplicitValue pV2,
+      int pCType2,
+      BinaryOperator pOp) {
+    pathPredicate = pathPredicate.addExplicitRelationAndCopy(pV1, pCType1, pV2, pCType2, pOp);
+  }
+
+  /** Adds a relation between a symbolic and an explicit value to the error predicate. */
+  public void addErrorPredicateExplicitRelation(
+      SMGSymbolicValue pV1,
+      int pCType1,
+      SMGExplicitValue pV2,
+      int pCType2,
+      BinaryOperator pOp) {
+    errorPredicate = errorPredicate.addExplicitRelationAndCopy(pV1, pCType1, pV2, pCType2, pOp);
+  }
+
   public void resetErrorRelation() {
     errorPredicate = new PredRelation();
   }
@@ -565,14 +650,17 @@ public class SMG implements UnmodifiableSMG {
     addValue(fresh);
 
     neq = neq.replaceValueAndCopy(fresh, old);
-    pathPredicate.replace(fresh, old);
+    pathPredicate = pathPredicate.replaceValueAndCopy(fresh, old);
 
     removeValue(old);
 
     for (SMGEdgeHasValue old_hve : getHVEdges(SMGEdgeHasValueFilter.valueFilter(old))) {
       SMGEdgeHasValue newHvEdge =
           new SMGEdgeHasValue(old_hve.getType(), old_hve.getOffset(), old_hve.getObject(), fresh);
-      hv_edges = hv_edges.removeEdgeAndCopy(old_hve);
+      removeHasValueEdge(old_hve);
+      if (!containsHasValueEdge(newHvEdge)) {
+        fingerprint += fingerprintOf(newHvEdge);
+      }
       hv_edges = hv_edges.addEdgeAndCopy(newHvEdge);
     }
 
@@ -581,10 +669,16 @@ public class SMG implements UnmodifiableSMG {
       pt_edges = pt_edges.removeAndCopy(pt_edge);
       Preconditions.checkArgument(
           !pt_edges.containsEdgeWithValue(fresh) || fresh.equals(SMGZeroValue.INSTANCE));
-      pt_edges =
-          pt_edges.addAndCopy(
-              new SMGEdgePointsTo(
-                  fresh, pt_edge.getObject(), pt_edge.getOffset(), pt_edge.getTargetSpecifier()));
+      SMGEdgePointsTo newPtEdge =
+          new SMGEdgePointsTo(
+              fresh, pt_edge.getObject(), pt_edge.getOffset(), pt_edge.getTargetSpecifier());
+      SMGEdgePointsTo overwrittenEdge = pt_edges.getEdgeWithValue(fresh);
+      fingerprint -= fingerprintOf(pt_edge);
+      if (overwrittenEdge != null) {
+        fingerprint -= fingerprintOf(overwrittenEdge);
+      }
+      fingerprint += fingerprintOf(newPtEdge);
+      pt_edges = pt_edges.addAndCopy(newPtEdge);
     }
   }
 
@@ -603,7 +697,8 @@ public class SMG implements UnmodifiableSMG {
     hv_edges = new SMGHasValueEdgeSet();
     pt_edges = new SMGPointsToMap();
     neq = new NeqRelation();
-    pathPredicate.clear();
+    pathPredicate = new PredRelation();
+    fingerprint = computeFingerprint();
     initializeNullAddress();
   }
 
@@ -615,10 +710,77 @@ public class SMG implements UnmodifiableSMG {
   public void clearObjects() {
     objects = PersistentSet.of();
     validObjects = PersistentSet.of();
+    fingerprint = computeFingerprint();
     initializeNullObject();
   }
 
   private void initializeNullObject() {
+    fingerprint += fingerprintOf(SMGNullObject.INSTANCE);
     objects = objects.addAndCopy(SMGNullObject.INSTANCE);
   }
+
+  /**
+   * Returns a hash value of this SMG that is independent of the identities of values and objects.
+   * Two SMGs that are equal up to renaming of values and objects have the same fingerprint, so the
+   * fingerprint can be used for quickly finding candidates for a coverage check. It is based on
+   * the kind, size, level and validity of the objects, on the offsets of has-value edges (and
+   * whether they point to zero), and on the targets of points-to edges.
+   *
+   * <p>The fingerprint is maintained incrementally, so this method runs in constant time.
+   */
+  @Override
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  /** Computes the fingerprint from scratch, should be equal to {@link #getFingerprint()}. */
+  @VisibleForTesting
+  long computeFingerprint() {
+    long result = 0;
+    for (SMGObject object : objects) {
+      result += fingerprintOf(object);
+    }
+    for (SMGObject object : validObjects) {
+      result += validityFingerprintOf(object);
+    }
+    for (SMGEdgeHasValue edge : hv_edges.getHvEdges()) {
+      result += fingerprintOf(edge);
+    }
+    for (SMGEdgePointsTo edge : pt_edges) {
+      result += fingerprintOf(edge);
+    }
+    return result;
+  }
+
+  private static long fingerprintOf(SMGObject pObject) {
+    return mix(
+        ((long) pObject.getKind().ordinal() << 56)
+            ^ ((long) pObject.getLevel() << 40)
+            ^ pObject.getSize());
+  }
+
+  private static long validityFingerprintOf(SMGObject pObject) {
+    return mix(fingerprintOf(pObject) + 1);
+  }
+
+  private static long fingerprintOf(SMGEdgeHasValue pEdge) {
+    long value = pEdge.getValue().isZero() ? 1 : 2;
+    return mix(fingerprintOf(pEdge.getObject()) ^ mix((pEdge.getOffset() << 2) | value));
+  }
+
+  private static long fingerprintOf(SMGEdgePointsTo pEdge) {
+    long target = (pEdge.getOffset() << 3) | pEdge.getTargetSpecifier().ordinal();
+    return mix(fingerprintOf(pEdge.getObject()) + mix(target) + 3);
+  }
+
+  /** Finalization mix of MurmurHash3, distributes the bits of the input over the result. */
+  private static long mix(long pValue) {
+    long h = pValue;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
 }
\ No newline at end of file
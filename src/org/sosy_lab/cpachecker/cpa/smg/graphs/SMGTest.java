@@ -99,6 +99,48 @@ public class SMGTest {
     assertThat(nullEdges).containsExactly(32L, 32);
   }
 
+  @Test
+  public void fingerprintIsMaintainedIncrementallyTest() {
+    assertThat(smg.getFingerprint()).isEqualTo(smg.computeFingerprint());
+
+    smg.setValidity(obj1, false);
+    assertThat(smg.getFingerprint()).isEqualTo(smg.computeFingerprint());
+
+    SMGValue val3 = SMGKnownSymValue.of();
+    smg.replaceValue(val3, val1);
+    assertThat(smg.getFingerprint()).isEqualTo(smg.computeFingerprint());
+
+    smg.removeHasValueEdge(hv2has2at0);
+    assertThat(smg.getFingerprint()).isEqualTo(smg.computeFingerprint());
+
+    smg.removeObjectAndEdges(obj1);
+    assertThat(smg.getFingerprint()).isEqualTo(smg.computeFingerprint());
+
+    smg.clearObjects();
+    assertThat(smg.getFingerprint()).isEqualTo(smg.computeFingerprint());
+  }
+
+  @Test
+  public void fingerprintIgnoresIdentitiesTest() {
+    SMGObject otherObj1 = new SMGRegion(64, "other-1");
+    SMGObject otherObj2 = new SMGRegion(64, "other-2");
+    SMGValue otherVal1 = SMGKnownSymValue.of();
+    SMGValue otherVal2 = SMGKnownSymValue.of();
+
+    SMG other = getNewSMG64();
+    other.addObject(otherObj1);
+    other.addObject(otherObj2);
+    other.addValue(otherVal1);
+    other.addValue(otherVal2);
+    other.addPointsToEdge(new SMGEdgePointsTo(otherVal1, otherObj1, 0));
+    other.addHasValueEdge(new SMGEdgeHasValue(mockType, 0, otherObj2, otherVal2));
+    other.addHasValueEdge(new SMGEdgeHasValue(mockType, 32, otherObj2, otherVal1));
+    assertThat(other.getFingerprint()).isEqualTo(smg.getFingerprint());
+
+    other.addHasValueEdge(new SMGEdgeHasValue(mockType, 0, otherObj1, SMGZeroValue.INSTANCE));
+    assertThat(other.getFingerprint()).isNotEqualTo(smg.getFingerprint());
+  }
+
   @Test
   public void SMGConstructorTest() {
     SMG smg1 = getNewSMG64();
@@ -74,6 +74,12 @@ public interface UnmodifiableSMG {
 
   MachineModel getMachineModel();
 
+  /**
+   * Returns a hash value that is equal for SMGs that are equal up to renaming of values and
+   * objects, and that is computed in constant time.
+   */
+  long getFingerprint();
+
   TreeMap<Long, Integer> getNullEdgesMapOffsetToSizeForObject(SMGObject pObj);
 
   boolean isPointer(SMGValue value);
@@ -35,14 +35,17 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
-import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 
 public abstract class GenericFilter<P>  extends
 WrappedConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>, Pair<ExtendedARGPath, ExtendedARGPath>> {
 
-  StatTimer totalTimer = new StatTimer("Time for generic filter");
+  ThreadSafeTimerContainer totalTimerContainer =
+      new ThreadSafeTimerContainer("Time for generic filter");
+  TimerWrapper totalTimer = totalTimerContainer.getNewTimer();
   StatCounter filteredPairs = new StatCounter("Number of filtered pairs");
 
   private String mainFunction = "ldv_main";
@@ -95,6 +98,15 @@ WrappedConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>, Pair<
 
   protected abstract P getPathCore(ExtendedARGPath path);
 
+  @Override
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    GenericFilter<?> other = (GenericFilter<?>) pOther;
+    totalTimerContainer = other.totalTimerContainer;
+    totalTimer = totalTimerContainer.getNewTimer();
+    filteredPairs = other.filteredPairs;
+    super.shareStatisticsWith(pOther);
+  }
+
   @ForOverride
   protected void printAdditionalStatistics(@SuppressWarnings("unused") StatisticsWriter pOut) {}
 
@@ -102,7 +114,7 @@ WrappedConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>, Pair<
   public final void printStatistics(StatisticsWriter pOut) {
     StatisticsWriter newWriter =
         pOut.spacer()
-        .put(totalTimer)
+        .put(totalTimerContainer)
         .put(filteredPairs);
 
     printAdditionalStatistics(newWriter);
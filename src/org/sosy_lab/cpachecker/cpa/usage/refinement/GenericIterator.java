@@ -29,12 +29,15 @@ import java.util.List;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
-import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 
 public abstract class GenericIterator<I, O> extends WrappedConfigurableRefinementBlock<I, O> {
-  private StatTimer totalTimer = new StatTimer("Time for generic iterator");
+  private ThreadSafeTimerContainer totalTimerContainer =
+      new ThreadSafeTimerContainer("Time for generic iterator");
+  private TimerWrapper totalTimer = totalTimerContainer.getNewTimer();
   private StatCounter numOfIterations = new StatCounter("Number of iterations");
 
   PredicatePrecision completePrecision;
@@ -111,13 +114,22 @@ public abstract class GenericIterator<I, O> extends WrappedConfigurableRefinemen
   protected void finishIteration(
       @SuppressWarnings("unused") O output, @SuppressWarnings("unused") RefinementResult r) {}
 
+  @Override
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    GenericIterator<?, ?> other = (GenericIterator<?, ?>) pOther;
+    totalTimerContainer = other.totalTimerContainer;
+    totalTimer = totalTimerContainer.getNewTimer();
+    numOfIterations = other.numOfIterations;
+    super.shareStatisticsWith(pOther);
+  }
+
   @ForOverride
   protected void printDetailedStatistics(@SuppressWarnings("unused") StatisticsWriter pOut) {}
 
   @Override
   public final void printStatistics(StatisticsWriter pOut) {
     StatisticsWriter writer = pOut.spacer()
-        .put(totalTimer)
+        .put(totalTimerContainer)
         .put(numOfIterations);
 
     printDetailedStatistics(writer);
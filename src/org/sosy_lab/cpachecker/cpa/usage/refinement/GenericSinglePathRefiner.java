@@ -29,14 +29,17 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
-import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 
 public abstract class GenericSinglePathRefiner extends
     WrappedConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>, Pair<ExtendedARGPath, ExtendedARGPath>>  {
 
-  private StatTimer totalTimer = new StatTimer("Time for generic refiner");
+  private ThreadSafeTimerContainer totalTimerContainer =
+      new ThreadSafeTimerContainer("Time for generic refiner");
+  private TimerWrapper totalTimer = totalTimerContainer.getNewTimer();
   private StatCounter numberOfRefinements = new StatCounter("Number of refinements");
   private StatCounter numberOfRepeatedPath = new StatCounter("Number of repeated paths");
 
@@ -91,10 +94,20 @@ public abstract class GenericSinglePathRefiner extends
     }
   }
 
+  @Override
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    GenericSinglePathRefiner other = (GenericSinglePathRefiner) pOther;
+    totalTimerContainer = other.totalTimerContainer;
+    totalTimer = totalTimerContainer.getNewTimer();
+    numberOfRefinements = other.numberOfRefinements;
+    numberOfRepeatedPath = other.numberOfRepeatedPath;
+    super.shareStatisticsWith(pOther);
+  }
+
   @Override
   public final void printStatistics(StatisticsWriter pOut) {
     StatisticsWriter writer = pOut.spacer()
-        .put(totalTimer)
+        .put(totalTimerContainer)
         .put(numberOfRefinements)
         .put(numberOfRepeatedPath);
 
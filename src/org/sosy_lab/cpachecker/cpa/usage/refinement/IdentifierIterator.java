@@ -26,15 +26,27 @@ package org.sosy_lab.cpachecker.cpa.usage.refinement;
 import static com.google.common.collect.FluentIterable.from;
 
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -115,10 +127,27 @@ public class IdentifierIterator extends WrappedConfigurableRefinementBlock<Reach
 
   private final Map<SingleIdentifier, AdjustablePrecision> precisionMap = new HashMap<>();
 
-  public IdentifierIterator(ConfigurableRefinementBlock<SingleIdentifier> pWrapper, Configuration config,
-      ConfigurableProgramAnalysis pCpa, BAMTransferRelation pTransfer) throws InvalidConfigurationException {
-    super(pWrapper);
+  /** Independent refinement chains, the first one is also the wrapped refiner. */
+  private final ImmutableList<ConfigurableRefinementBlock<SingleIdentifier>> refinementChains;
+
+  /** The chains that are currently not used by a thread of the executor. */
+  private final BlockingQueue<ConfigurableRefinementBlock<SingleIdentifier>> idleChains;
+
+  /**
+   * Creates the iterator over the unsafe identifiers. If more than one refinement chain is given,
+   * the identifiers are refined in parallel, each chain by its own thread. The further chains have
+   * to share their statistics with the first one.
+   */
+  public IdentifierIterator(
+      List<ConfigurableRefinementBlock<SingleIdentifier>> pWrappers,
+      Configuration config,
+      ConfigurableProgramAnalysis pCpa,
+      BAMTransferRelation pTransfer)
+      throws InvalidConfigurationException {
+    super(pWrappers.get(0));
     config.inject(this);
+    refinementChains = ImmutableList.copyOf(pWrappers);
+    idleChains = new LinkedBlockingQueue<>(refinementChains);
     cpa = pCpa;
     UsageCPA uCpa = CPAs.retrieveCPA(pCpa, UsageCPA.class);
     uCpa.getStats().setBAMCPA((BAMCPA) cpa);
@@ -157,40 +186,65 @@ public class IdentifierIterator extends WrappedConfigurableRefinementBlock<Reach
     sendUpdateSignal(PredicateRefinerAdapter.class, pReached);
     sendUpdateSignal(PointIterator.class, container);
 
-    Iterator<SingleIdentifier> iterator = container.getUnrefinedUnsafeIterator();
+    List<SingleIdentifier> unsafes = ImmutableList.copyOf(container.getUnrefinedUnsafeIterator());
     boolean isPrecisionChanged = false;
     AbstractState firstState = pReached.getFirstState();
     AdjustablePrecision finalPrecision = (AdjustablePrecision) pReached.getPrecision(firstState);
 
-    while (iterator.hasNext()) {
-      SingleIdentifier currentId = iterator.next();
-
-      RefinementResult result = wrappedRefiner.performBlockRefinement(currentId);
-      newPrecisionFound |= result.isFalse();
+    @Nullable ExecutorService executor = null;
+    List<Future<RefinementResult>> parallelResults = ImmutableList.of();
+    if (refinementChains.size() > 1 && !unsafes.isEmpty()) {
+      executor =
+          Executors.newFixedThreadPool(
+              Math.min(refinementChains.size(), unsafes.size()),
+              new ThreadFactoryBuilder()
+                  .setNameFormat("Usage refinement %d")
+                  .setDaemon(true)
+                  .build());
+      parallelResults = refineInParallel(executor, unsafes);
+    }
 
-      AdjustablePrecision info = result.getPrecision();
+    try {
+      for (int j = 0; j < unsafes.size(); j++) {
+        SingleIdentifier currentId = unsafes.get(j);
 
-      if (!info.isEmpty()) {
-        AdjustablePrecision updatedPrecision;
-        if (precisionMap.containsKey(currentId)) {
-          updatedPrecision = precisionMap.get(currentId).add(info);
+        RefinementResult result;
+        if (parallelResults.isEmpty()) {
+          result = wrappedRefiner.performBlockRefinement(currentId);
         } else {
-          updatedPrecision = info;
+          result = getOrThrow(parallelResults.get(j));
+        }
+        newPrecisionFound |= result.isFalse();
+
+        AdjustablePrecision info = result.getPrecision();
+
+        if (!info.isEmpty()) {
+          AdjustablePrecision updatedPrecision;
+          if (precisionMap.containsKey(currentId)) {
+            updatedPrecision = precisionMap.get(currentId).add(info);
+          } else {
+            updatedPrecision = info;
+          }
+          precisionMap.put(currentId, updatedPrecision);
+          finalPrecision = finalPrecision.add(updatedPrecision);
+          isPrecisionChanged = true;
         }
-        precisionMap.put(currentId, updatedPrecision);
-        finalPrecision = finalPrecision.add(updatedPrecision);
-        isPrecisionChanged = true;
-      }
 
-      if (result.isTrue()) {
-        container.setAsRefined(currentId, result);
-        processedUnsafes.add(currentId);
-      } else if (hideFilteredUnsafes && result.isFalse() && !isPrecisionChanged) {
-        //We do not add a precision, but consider the unsafe as false
-        //set it as false now, because it will occur again, as precision is not changed
-        //We can not look at precision size here - the result can be false due to heuristics
-        container.setAsFalseUnsafe(currentId);
-        processedUnsafes.add(currentId);
+        if (result.isTrue()) {
+          container.setAsRefined(currentId, result);
+          processedUnsafes.add(currentId);
+        } else if (hideFilteredUnsafes && result.isFalse() && !isPrecisionChanged) {
+          //We do not add a precision, but consider the unsafe as false
+          //set it as false now, because it will occur again, as precision is not changed
+          //We can not look at precision size here - the result can be false due to heuristics
+          container.setAsFalseUnsafe(currentId);
+          processedUnsafes.add(currentId);
+        }
+      }
+    } finally {
+      if (executor != null) {
+        // stops the remaining refinements if one of them failed
+        executor.shutdownNow();
       }
     }
     int newTrueUnsafeSize = container.getProcessedUnsafeSize();
@@ -243,8 +297,57 @@ public class IdentifierIterator extends WrappedConfigurableRefinementBlock<Reach
     }
   }
 
+  /**
+   * Starts the refinement of all given identifiers on the threads of the executor. Each task
+   * takes a refinement chain that is currently idle, such that every chain is used by at most
+   * one thread at a time. Refinement of different identifiers is independent, only the solver
+   * and the caches of refined paths are shared (cf. {@link PredicateRefinerAdapter}).
+   */
+  private List<Future<RefinementResult>> refineInParallel(
+      ExecutorService pExecutor, List<SingleIdentifier> pUnsafes) {
+    List<Future<RefinementResult>> futures = new ArrayList<>(pUnsafes.size());
+    for (SingleIdentifier id : pUnsafes) {
+      futures.add(
+          pExecutor.submit(
+              () -> {
+                ConfigurableRefinementBlock<SingleIdentifier> chain = idleChains.take();
+                try {
+                  return chain.performBlockRefinement(id);
+                } finally {
+                  idleChains.put(chain);
+                }
+              }));
+    }
+    return futures;
+  }
+
+  private RefinementResult getOrThrow(Future<RefinementResult> pFuture)
+      throws CPAException, InterruptedException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("refinement of unsafe", e.getCause());
+    }
+  }
+
+  @Override
+  protected void sendFinishSignal() throws CPAException, InterruptedException {
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      chain.finish(getClass());
+    }
+  }
+
+  @Override
+  protected void sendUpdateSignal(Class<? extends RefinementInterface> dstClass, Object data) {
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      chain.update(getClass(), dstClass, data);
+    }
+  }
+
   @Override
   public void printStatistics(StatisticsWriter pOut) {
+    // the further chains count into the statistics of the first one
     wrappedRefiner.printStatistics(pOut);
   }
 
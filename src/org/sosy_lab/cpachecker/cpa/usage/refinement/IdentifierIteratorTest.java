@@ -0,0 +1,129 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.usage.refinement;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.common.io.TempFile.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult;
+import org.sosy_lab.cpachecker.cpa.usage.UsageReachedSet;
+import org.sosy_lab.cpachecker.cpa.usage.storage.UsageContainer;
+import org.sosy_lab.cpachecker.util.identifiers.SingleIdentifier;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/** Tests that refining the unsafes in parallel finds the same unsafes as the sequential mode. */
+public class IdentifierIteratorTest {
+
+  private static final String CONFIG = "config/includes/lockator/lockStatistics-linux.properties";
+
+  /** The unlocked writes to a and b are unreachable, the ones to c and d are real races. */
+  private static final List<String> PROGRAM =
+      ImmutableList.of(
+          "typedef int pthread_mutex_t;",
+          "extern void pthread_mutex_lock(pthread_mutex_t *lock);",
+          "extern void pthread_mutex_unlock(pthread_mutex_t *lock);",
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "int a, b, c, d;",
+          "pthread_mutex_t mutex;",
+          "",
+          "void main(void) {",
+          "  int x = __VERIFIER_nondet_int();",
+          "  int y = 0;",
+          "  if (y) {",
+          "    a = 1;",
+          "  }",
+          "  pthread_mutex_lock(&mutex);",
+          "  a = 2;",
+          "  b = 2;",
+          "  c = 2;",
+          "  d = 2;",
+          "  pthread_mutex_unlock(&mutex);",
+          "  if (y) {",
+          "    b = 1;",
+          "  }",
+          "  if (x) {",
+          "    c = 1;",
+          "  }",
+          "  d = 1;",
+          "}");
+
+  @Test
+  public void testParallelRefinementFindsSameUnsafes() throws Exception {
+    CPAcheckerResult sequential = run(1);
+    CPAcheckerResult parallel = run(3);
+
+    assertThat(parallel.getResult()).isEqualTo(sequential.getResult());
+    assertThat(unsafesOf(parallel)).containsExactlyElementsIn(unsafesOf(sequential)).inOrder();
+    assertThat(unsafesOf(parallel)).containsAllOf("c", "d");
+    assertThat(falseUnsafesOf(parallel))
+        .containsExactlyElementsIn(falseUnsafesOf(sequential))
+        .inOrder();
+  }
+
+  private static UsageContainer containerOf(CPAcheckerResult pResult) {
+    return ((UsageReachedSet) pResult.getReached()).getUsageContainer();
+  }
+
+  private static ImmutableSortedSet<String> unsafesOf(CPAcheckerResult pResult) {
+    return FluentIterable.from(containerOf(pResult).getProcessedUnsafes())
+        .transform(SingleIdentifier::getName)
+        .toSortedSet(String::compareTo);
+  }
+
+  private static ImmutableSortedSet<String> falseUnsafesOf(CPAcheckerResult pResult) {
+    return FluentIterable.from(containerOf(pResult).getFalseUnsafes())
+        .transform(SingleIdentifier::getName)
+        .toSortedSet(String::compareTo);
+  }
+
+  private static CPAcheckerResult run(int pThreads) throws Exception {
+    try (DeleteOnCloseFile programFile =
+        TempFile.builder().prefix("test").suffix(".c").createDeleteOnClose()) {
+      Files.write(programFile.toPath(), PROGRAM);
+
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .loadFromFile(CONFIG)
+              .setOption(
+                  "CompositeCPA.cpas",
+                  "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.lock.LockCPA,"
+                      + " cpa.predicate.BAMPredicateCPA")
+              .setOption("cpa.usage.unsafedetector.ignoreEmptyLockset", "false")
+              .setOption("cpa.usage.refinementThreads", Integer.toString(pThreads))
+              .build();
+
+      return CPATestRunner.run(config, programFile.toPath().toString()).getCheckerResult();
+    }
+  }
+}
@@ -28,8 +28,8 @@ import static com.google.common.collect.FluentIterable.from;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -48,17 +48,22 @@ import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 public class PathPairIterator extends
     GenericIterator<Pair<UsageInfo, UsageInfo>, Pair<ExtendedARGPath, ExtendedARGPath>> {
 
-  private final Set<List<Integer>> refinedStates = new HashSet<>();
+  // shared by the iterators of all refinement chains
+  private final Set<List<Integer>> refinedStates;
   private final BAMCPA bamCpa;
   private BAMMultipleCEXSubgraphComputer subgraphComputer;
   private final Map<UsageInfo, BAMSubgraphIterator> targetToPathIterator;
 
   //Statistics
-  private StatTimer computingPath = new StatTimer("Time for path computing");
+  private ThreadSafeTimerContainer computingPathContainer =
+      new ThreadSafeTimerContainer("Time for path computing");
+  private TimerWrapper computingPath = computingPathContainer.getNewTimer();
   private StatTimer additionTimerCheck = new StatTimer("Time for addition checks");
   private StatCounter numberOfPathCalculated = new StatCounter("Number of path calculated");
   private StatCounter numberOfPathFinished = new StatCounter("Number of new path calculated");
@@ -95,6 +100,22 @@ public class PathPairIterator extends
 
     }
     targetToPathIterator = new IdentityHashMap<>();
+    refinedStates = Sets.newConcurrentHashSet();
+  }
+
+  /**
+   * Creates an iterator for another refinement chain, which skips the states that were refined
+   * by any of the chains, just as the iterator of a single chain skips the states that it refined
+   * for the previous identifiers.
+   */
+  PathPairIterator(
+      ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>> pWrapper,
+      PathPairIterator pShared) {
+    super(pWrapper);
+    bamCpa = pShared.bamCpa;
+    idExtractor = pShared.idExtractor;
+    targetToPathIterator = new IdentityHashMap<>();
+    refinedStates = pShared.refinedStates;
   }
 
   @Override
@@ -189,10 +210,22 @@ public class PathPairIterator extends
     pResult.addInfo(this.getClass(), unreacheableUsages);
   }
 
+  @Override
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    PathPairIterator other = (PathPairIterator) pOther;
+    computingPathContainer = other.computingPathContainer;
+    computingPath = computingPathContainer.getNewTimer();
+    additionTimerCheck = other.additionTimerCheck;
+    numberOfPathCalculated = other.numberOfPathCalculated;
+    numberOfPathFinished = other.numberOfPathFinished;
+    numberOfRepeatedConstructedPaths = other.numberOfRepeatedConstructedPaths;
+    super.shareStatisticsWith(pOther);
+  }
+
   @Override
   protected void printDetailedStatistics(StatisticsWriter pOut) {
     pOut.spacer()
-      .put(computingPath)
+      .put(computingPathContainer)
       .put(additionTimerCheck)
       .put(numberOfPathCalculated)
       .put(numberOfPathFinished)
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.usage.refinement;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -70,12 +71,18 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
   private final UsageStatisticsRefinementStrategy strategy;
   private ARGReachedSet ARGReached;
 
-  private final Map<Set<CFAEdge>, PredicatePrecision> falseCache = new HashMap<>();
-  private final Map<Set<CFAEdge>, PredicatePrecision> falseCacheForCurrentIteration = new HashMap<>();
+  // The solver of the predicate analysis is shared by the adapters of all refinement chains,
+  // so they have to take turns if identifiers are refined in parallel.
+  // Its monitor also guards the caches, which are shared by all adapters as well,
+  // such that no chain refines a path again that another chain has already refined.
+  private final Solver solver;
+
+  private final Map<Set<CFAEdge>, PredicatePrecision> falseCache;
+  private final Map<Set<CFAEdge>, PredicatePrecision> falseCacheForCurrentIteration;
   //private final Multimap<SingleIdentifier, Set<CFAEdge>> idCached = LinkedHashMultimap.create();
-  private final Set<Set<CFAEdge>> trueCache = new HashSet<>();
+  private final Set<Set<CFAEdge>> trueCache;
 
-  private final Set<Set<CFAEdge>> potentialLoopTraces = new HashSet<>();
+  private final Set<Set<CFAEdge>> potentialLoopTraces;
   //Statistics
   private StatCounter solverFailures = new StatCounter("Solver failures");
   private StatCounter numberOfrepeatedPaths = new StatCounter("Number of repeated paths");
@@ -97,6 +104,7 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
     }
 
     logger = pLogger;
+    solver = predicateCpa.getSolver();
     PathFormulaManager pfmgr = predicateCpa.getPathFormulaManager();
 
     BlockFormulaStrategy blockFormulaStrategy = new BAMBlockFormulaStrategy(pfmgr);
@@ -111,10 +119,41 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
     refiner = new PredicateCPARefinerFactory(pCpa)
         .setBlockFormulaStrategy(blockFormulaStrategy)
         .create(strategy);
+    falseCache = new HashMap<>();
+    falseCacheForCurrentIteration = new HashMap<>();
+    trueCache = new HashSet<>();
+    potentialLoopTraces = new HashSet<>();
+  }
+
+  /**
+   * Creates an adapter for another refinement chain, which uses the same predicate refiner and the
+   * same caches of refined paths as the given adapter. The refinements of both adapters are
+   * serialized on the solver anyway.
+   */
+  PredicateRefinerAdapter(
+      ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>> wrapper,
+      PredicateRefinerAdapter pShared) {
+    super(wrapper);
+    logger = pShared.logger;
+    solver = pShared.solver;
+    strategy = pShared.strategy;
+    refiner = pShared.refiner;
+    falseCache = pShared.falseCache;
+    falseCacheForCurrentIteration = pShared.falseCacheForCurrentIteration;
+    trueCache = pShared.trueCache;
+    potentialLoopTraces = pShared.potentialLoopTraces;
   }
 
   @Override
   public RefinementResult call(ExtendedARGPath pInput) throws CPAException, InterruptedException {
+    // the caches must not change between the lookup and the refinement of the path
+    synchronized (solver) {
+      return refineWithCaches(pInput);
+    }
+  }
+
+  private RefinementResult refineWithCaches(ExtendedARGPath pInput)
+      throws CPAException, InterruptedException {
     RefinementResult result;
 
     Set<CFAEdge> currentPath = Sets.newHashSet(pInput.getInnerEdges());
@@ -177,6 +216,8 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
     try {
       numberOfrefinedPaths.inc();
       CounterexampleInfo cex = refiner.performRefinementForPath(ARGReached, path);
+      List<ARGState> affectedStates = ImmutableList.copyOf(getLastAffectedStates());
+      PredicatePrecision addedPrecision = getLastPrecision();
       Set<CFAEdge> edgeSet = Sets.newHashSet(path.getInnerEdges());
 
       if (!cex.isSpurious()) {
@@ -184,9 +225,9 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
         result = RefinementResult.createTrue();
       } else {
         result = RefinementResult.createFalse();
-        result.addInfo(PredicateRefinerAdapter.class, getLastAffectedStates());
-        result.addPrecision(getLastPrecision());
-        falseCacheForCurrentIteration.put(edgeSet, getLastPrecision());
+        result.addInfo(PredicateRefinerAdapter.class, affectedStates);
+        result.addPrecision(addedPrecision);
+        falseCacheForCurrentIteration.put(edgeSet, addedPrecision);
       }
 
     } catch (IllegalStateException e) {
@@ -212,17 +253,29 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
   @Override
   protected void handleFinishSignal(Class<? extends RefinementInterface> pCallerClass) {
     if (pCallerClass.equals(IdentifierIterator.class)) {
-      //false cache may contain other precision
-      //It happens if we clean it for other Id and rerefine it now
-      //Just replace old precision
-      falseCacheForCurrentIteration.forEach(falseCache::put);
-      falseCacheForCurrentIteration.clear();
       ARGReached = null;
-      strategy.lastAffectedStates.clear();
-      strategy.lastAddedPrecision = null;
+      synchronized (solver) {
+        //false cache may contain other precision
+        //It happens if we clean it for other Id and rerefine it now
+        //Just replace old precision
+        falseCacheForCurrentIteration.forEach(falseCache::put);
+        falseCacheForCurrentIteration.clear();
+        strategy.lastAffectedStates.clear();
+        strategy.lastAddedPrecision = null;
+      }
     }
   }
 
+  @Override
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    PredicateRefinerAdapter other = (PredicateRefinerAdapter) pOther;
+    solverFailures = other.solverFailures;
+    numberOfrepeatedPaths = other.numberOfrepeatedPaths;
+    numberOfrefinedPaths = other.numberOfrefinedPaths;
+    numberOfBAMupdates = other.numberOfBAMupdates;
+    super.shareStatisticsWith(pOther);
+  }
+
   @Override
   protected void printAdditionalStatistics(StatisticsWriter pOut) {
     pOut.beginLevel()
@@ -23,10 +23,13 @@
  */
 package org.sosy_lab.cpachecker.cpa.usage.refinement;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -87,14 +90,42 @@ public class RefinementBlockFactory {
   @Option(name = "pathEquality", description = "The way how to identify two paths as equal")
   PathEquation pathEquation = PathEquation.CFANodeId;
 
+  @Option(
+    name = "refinementThreads",
+    description =
+        "Number of threads for refining the unsafes of different identifiers in parallel,"
+            + " each with its own chain of the refinement blocks after the IdentifierIterator.",
+    secure = true
+  )
+  @IntegerOption(min = 1)
+  int refinementThreads = 1;
+
   public RefinementBlockFactory(ConfigurableProgramAnalysis pCpa, Configuration pConfig) throws InvalidConfigurationException {
     cpa = pCpa;
     config = pConfig;
     pConfig.inject(this);
   }
 
-  @SuppressWarnings("unchecked")
   public Refiner create() throws InvalidConfigurationException {
+    Pair<RefinementInterface, currentInnerBlockType> chain = createChain(0, null);
+    RefinementInterface currentBlock = chain.getFirst();
+    if (chain.getSecond() == currentInnerBlockType.ReachedSet) {
+      assert currentBlock instanceof Refiner;
+      return (Refiner) currentBlock;
+    } else {
+      throw new InvalidConfigurationException("The first block is not take a reached set as parameter");
+    }
+  }
+
+  /**
+   * Creates the blocks of the refinement chain starting at the given position, and returns the
+   * first block together with the type of its input. If a template chain is given, which starts
+   * at the same position, the new chain shares its predicate refiner, its caches of refined paths
+   * and states, and its statistics.
+   */
+  @SuppressWarnings("unchecked")
+  private Pair<RefinementInterface, currentInnerBlockType> createChain(
+      int pFirst, @Nullable RefinementInterface pTemplate) throws InvalidConfigurationException {
     BAMCPA bamCpa = CPAs.retrieveCPA(cpa, BAMCPA.class);
     UsageCPA usCPA = CPAs.retrieveCPA(cpa, UsageCPA.class);
     LogManager logger = usCPA.getLogger();
@@ -103,15 +134,30 @@ public class RefinementBlockFactory {
     RefinementInterface currentBlock = new RefinementPairStub();
     currentInnerBlockType currentBlockType = currentInnerBlockType.ExtendedARGPath;
 
-    for (int i = RefinementChain.size() - 1; i >= 0; i--) {
+    List<RefinementInterface> templateBlocks = new ArrayList<>();
+    for (RefinementInterface block = pTemplate;
+        block instanceof WrappedConfigurableRefinementBlock;
+        block = ((WrappedConfigurableRefinementBlock<?, ?>) block).wrappedRefiner) {
+      templateBlocks.add(block);
+    }
+
+    for (int i = RefinementChain.size() - 1; i >= pFirst; i--) {
 
       RefinementBlockTypes currentType = RefinementChain.get(i);
       if (currentBlockType == currentType.innerType) {
         switch (currentType) {
           case IdentifierIterator:
+            // every thread refines with its own copy of the following blocks
+            List<ConfigurableRefinementBlock<SingleIdentifier>> innerChains = new ArrayList<>();
+            innerChains.add((ConfigurableRefinementBlock<SingleIdentifier>) currentBlock);
+            for (int j = 1; j < refinementThreads; j++) {
+              innerChains.add(
+                  (ConfigurableRefinementBlock<SingleIdentifier>)
+                      createChain(i + 1, currentBlock).getFirst());
+            }
             currentBlock =
                 new IdentifierIterator(
-                    (ConfigurableRefinementBlock<SingleIdentifier>) currentBlock,
+                    innerChains,
                     config,
                     cpa,
                     bamCpa.getTransferRelation());
@@ -130,18 +176,34 @@ public class RefinementBlockFactory {
             break;
 
           case PathIterator:
-            currentBlock =
-                new PathPairIterator(
-                    (ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>)
-                        currentBlock,
-                    bamCpa,
-                    pathEquation);
+            if (templateBlocks.isEmpty()) {
+              currentBlock =
+                  new PathPairIterator(
+                      (ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>)
+                          currentBlock,
+                      bamCpa,
+                      pathEquation);
+            } else {
+              currentBlock =
+                  new PathPairIterator(
+                      (ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>)
+                          currentBlock,
+                      (PathPairIterator) templateBlocks.get(i - pFirst));
+            }
             currentBlockType = currentInnerBlockType.UsageInfo;
             break;
 
           case PredicateRefiner:
-            currentBlock = new PredicateRefinerAdapter((ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>) currentBlock,
-                cpa, logger);
+            if (templateBlocks.isEmpty()) {
+              currentBlock = new PredicateRefinerAdapter((ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>) currentBlock,
+                  cpa, logger);
+            } else {
+              currentBlock =
+                  new PredicateRefinerAdapter(
+                      (ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>)
+                          currentBlock,
+                      (PredicateRefinerAdapter) templateBlocks.get(i - pFirst));
+            }
             break;
 
           case CallstackFilter:
@@ -170,11 +232,10 @@ public class RefinementBlockFactory {
         throw new InvalidConfigurationException(currentType + " can not precede the " + currentBlock.getClass().getSimpleName());
       }
     }
-    if (currentBlockType == currentInnerBlockType.ReachedSet) {
-      assert currentBlock instanceof Refiner;
-      return (Refiner) currentBlock;
-    } else {
-      throw new InvalidConfigurationException("The first block is not take a reached set as parameter");
+    if (pTemplate != null) {
+      ((WrappedConfigurableRefinementBlock<?, ?>) currentBlock)
+          .shareStatisticsWith((WrappedConfigurableRefinementBlock<?, ?>) pTemplate);
     }
+    return Pair.of(currentBlock, currentBlockType);
   }
 }
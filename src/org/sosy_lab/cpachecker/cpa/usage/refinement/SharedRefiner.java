@@ -101,6 +101,14 @@ public class SharedRefiner extends GenericSinglePathRefiner {
     return result;
   }
 
+  @Override
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    SharedRefiner other = (SharedRefiner) pOther;
+    counter = other.counter;
+    numOfFalseResults = other.numOfFalseResults;
+    super.shareStatisticsWith(pOther);
+  }
+
   @Override
   protected void printAdditionalStatistics(StatisticsWriter pOut) {
     pOut.beginLevel()
@@ -89,6 +89,18 @@ public abstract class WrappedConfigurableRefinementBlock<I, O> implements Config
     wrappedRefiner.finish(callerClass);
   }
 
+  /**
+   * Lets this block and the blocks it wraps count their statistics into the ones of the
+   * corresponding blocks of the given chain, which has to be built from the same block types.
+   * The chains that refine in parallel share their statistics this way, so they are printed once.
+   */
+  void shareStatisticsWith(WrappedConfigurableRefinementBlock<?, ?> pOther) {
+    if (wrappedRefiner instanceof WrappedConfigurableRefinementBlock) {
+      ((WrappedConfigurableRefinementBlock<?, ?>) wrappedRefiner)
+          .shareStatisticsWith((WrappedConfigurableRefinementBlock<?, ?>) pOther.wrappedRefiner);
+    }
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> statsCollection) {
     if (wrappedRefiner instanceof StatisticsProvider) {
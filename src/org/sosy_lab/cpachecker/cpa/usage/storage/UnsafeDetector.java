@@ -23,15 +23,23 @@
  */
 package org.sosy_lab.cpachecker.cpa.usage.storage;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.cpa.lock.DeadLockState.DeadLockTreeNode;
 import org.sosy_lab.cpachecker.cpa.lock.LockIdentifier;
+import org.sosy_lab.cpachecker.cpa.lock.LockState.LockTreeNode;
 import org.sosy_lab.cpachecker.cpa.usage.UsageInfo;
 import org.sosy_lab.cpachecker.cpa.usage.UsageInfo.Access;
 import org.sosy_lab.cpachecker.util.Pair;
@@ -101,7 +109,15 @@ public class UnsafeDetector {
     return getUnsafePair(set.getTopUsages());
   }
 
-  private boolean isUnsafe(SortedSet<UsagePoint> points) {
+  @VisibleForTesting
+  boolean isUnsafe(SortedSet<UsagePoint> points) {
+    if (unsafeMode == UnsafeMode.RACE) {
+      List<UsagePoint> pointList = new ArrayList<>(points);
+      List<BitSet> locks = getLockBits(pointList);
+      if (locks != null) {
+        return findRace(pointList, locks, true) != null;
+      }
+    }
     for (UsagePoint point1 : points) {
       for (UsagePoint point2 : points.tailSet(point1)) {
         if (isUnsafePair(point1, point2)) {
@@ -112,8 +128,30 @@ public class UnsafeDetector {
     return false;
   }
 
-  private Pair<UsagePoint, UsagePoint> getUnsafePair(SortedSet<UsagePoint> set) {
+  @VisibleForTesting
+  @Nullable Pair<UsagePoint, UsagePoint> getUnsafePair(SortedSet<UsagePoint> set) {
 
+    List<UsagePoint> pointList = new ArrayList<>(set);
+    List<BitSet> locks = unsafeMode == UnsafeMode.RACE ? getLockBits(pointList) : null;
+    Pair<UsagePoint, UsagePoint> result =
+        locks != null ? findRace(pointList, locks, false) : findDifferentUnsafePair(set);
+    if (result != null) {
+      return result;
+    }
+    //Now we find an unsafe only from one usage
+    if (!ignoreEmptyLockset) {
+      for (UsagePoint point : set) {
+        if (isUnsafePair(point, point)) {
+          return Pair.of(point, point);
+        }
+      }
+    }
+    //If we can not find an unsafe here, fail
+    return null;
+  }
+
+  private @Nullable Pair<UsagePoint, UsagePoint> findDifferentUnsafePair(
+      SortedSet<UsagePoint> set) {
     for (UsagePoint point1 : set) {
       for (UsagePoint point2 : set.tailSet(point1)) {
         if (point1.equals(point2)) {
@@ -127,15 +165,65 @@ public class UnsafeDetector {
         }
       }
     }
-    //Now we find an unsafe only from one usage
-    if (!ignoreEmptyLockset) {
-      for (UsagePoint point : set) {
-        if (isUnsafePair(point, point)) {
-          return Pair.of(point, point);
+    return null;
+  }
+
+  /**
+   * Returns the lock sets of the given points as bit sets, or null if some point does not have
+   * a lock set with numbered locks. In this case, the points have to be compared pairwise.
+   */
+  private static @Nullable List<BitSet> getLockBits(List<UsagePoint> points) {
+    List<BitSet> result = new ArrayList<>(points.size());
+    for (UsagePoint point : points) {
+      LockTreeNode locks = point.get(LockTreeNode.class);
+      if (locks == null || locks.getLockBits() == null) {
+        return null;
+      }
+      result.add(locks.getLockBits());
+    }
+    return result;
+  }
+
+  /**
+   * Searches for a race between the given points without comparing all pairs.
+   *
+   * <p>The points are sorted by access, so the writes are a prefix of the list, and every race
+   * consists of a write and a point that follows it in the list. An index from each lock to the
+   * points holding it yields, for every write, the points that do not share a lock with it by
+   * removing all holders of its locks. Only these candidates are checked with {@link
+   * #isUnsafePair(UsagePoint, UsagePoint)}, which also considers the other compatible nodes,
+   * e.g., threads.
+   *
+   * @param points the points sorted in their natural order
+   * @param locks the lock sets of the points, at the same positions
+   * @param allowSinglePoint whether a point may form a race with itself
+   * @return a pair of racing points, or null if there is none
+   */
+  private @Nullable Pair<UsagePoint, UsagePoint> findRace(
+      List<UsagePoint> points, List<BitSet> locks, boolean allowSinglePoint) {
+    Map<Integer, BitSet> holders = new HashMap<>();
+    for (int i = 0; i < points.size(); i++) {
+      BitSet lockSet = locks.get(i);
+      for (int lock = lockSet.nextSetBit(0); lock >= 0; lock = lockSet.nextSetBit(lock + 1)) {
+        holders.computeIfAbsent(lock, k -> new BitSet(points.size())).set(i);
+      }
+    }
+
+    for (int i = 0; i < points.size() && points.get(i).getAccess() == Access.WRITE; i++) {
+      BitSet candidates = new BitSet(points.size());
+      candidates.set(allowSinglePoint ? i : i + 1, points.size());
+      BitSet lockSet = locks.get(i);
+      for (int lock = lockSet.nextSetBit(0); lock >= 0; lock = lockSet.nextSetBit(lock + 1)) {
+        candidates.andNot(holders.get(lock));
+      }
+      UsagePoint point1 = points.get(i);
+      for (int j = candidates.nextSetBit(0); j >= 0; j = candidates.nextSetBit(j + 1)) {
+        UsagePoint point2 = points.get(j);
+        if (isUnsafePair(point1, point2)) {
+          return Pair.of(point1, point2);
         }
       }
     }
-    //If we can not find an unsafe here, fail
     return null;
   }
 
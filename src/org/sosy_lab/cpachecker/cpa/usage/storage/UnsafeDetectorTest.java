@@ -0,0 +1,229 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.usage.storage;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.cpa.lock.LockIdentifier;
+import org.sosy_lab.cpachecker.cpa.lock.LockState.LockTreeNode;
+import org.sosy_lab.cpachecker.cpa.usage.CompatibleNode;
+import org.sosy_lab.cpachecker.cpa.usage.CompatibleState;
+import org.sosy_lab.cpachecker.cpa.usage.UsageInfo.Access;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * Tests that the indexed race search of {@link UnsafeDetector} finds the same unsafes as comparing
+ * all pairs of points.
+ */
+public class UnsafeDetectorTest {
+
+  private static final int ROUNDS = 500;
+  private static final int MAX_POINTS = 40;
+
+  /**
+   * A node like a thread label, whose compatibility is not an equivalence relation: two nodes are
+   * compatible if they belong to different threads or both run in parallel to themselves.
+   */
+  private static class TestThreadNode implements CompatibleNode {
+
+    private final int thread;
+    private final boolean parallel;
+
+    private TestThreadNode(int pThread, boolean pParallel) {
+      thread = pThread;
+      parallel = pParallel;
+    }
+
+    @Override
+    public boolean isCompatibleWith(CompatibleState pState) {
+      TestThreadNode other = (TestThreadNode) pState;
+      return thread != other.thread || (parallel && other.parallel);
+    }
+
+    @Override
+    public boolean cover(CompatibleNode pNode) {
+      return equals(pNode);
+    }
+
+    @Override
+    public int compareTo(CompatibleState pState) {
+      TestThreadNode other = (TestThreadNode) pState;
+      int result = Integer.compare(thread, other.thread);
+      return result != 0 ? result : Boolean.compare(parallel, other.parallel);
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (!(pObj instanceof TestThreadNode)) {
+        return false;
+      }
+      TestThreadNode other = (TestThreadNode) pObj;
+      return thread == other.thread && parallel == other.parallel;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(thread, parallel);
+    }
+
+    @Override
+    public String toString() {
+      return thread + (parallel ? "p" : "");
+    }
+  }
+
+  @Test
+  public void testWithoutLocks() throws InvalidConfigurationException {
+    checkRandomPointSets(0, false);
+  }
+
+  @Test
+  public void testWithLocks() throws InvalidConfigurationException {
+    checkRandomPointSets(4, false);
+  }
+
+  @Test
+  public void testWithLocksAndThreads() throws InvalidConfigurationException {
+    checkRandomPointSets(4, true);
+  }
+
+  @Test
+  public void testWithManyLocksAndThreads() throws InvalidConfigurationException {
+    checkRandomPointSets(70, true);
+  }
+
+  private static void checkRandomPointSets(int pNumberOfLocks, boolean pWithThreads)
+      throws InvalidConfigurationException {
+    List<LockIdentifier> locks = new ArrayList<>();
+    for (int i = 0; i < pNumberOfLocks; i++) {
+      locks.add(LockIdentifier.of("test_lock_" + i));
+    }
+    Random random = new Random(pNumberOfLocks * 2 + (pWithThreads ? 1 : 0));
+
+    for (boolean ignoreEmptyLockset : ImmutableList.of(true, false)) {
+      UnsafeDetector detector = createDetector(ignoreEmptyLockset);
+      for (int round = 0; round < ROUNDS; round++) {
+        SortedSet<UsagePoint> points = createPoints(random, locks, pWithThreads);
+        String message = "points " + points + ", ignoreEmptyLockset " + ignoreEmptyLockset;
+
+        assertWithMessage(message)
+            .that(detector.isUnsafe(points))
+            .isEqualTo(isUnsafePairwise(detector, points));
+
+        Pair<UsagePoint, UsagePoint> pair = detector.getUnsafePair(points);
+        Pair<UsagePoint, UsagePoint> expected =
+            getUnsafePairPairwise(detector, points, ignoreEmptyLockset);
+        if (expected == null) {
+          assertWithMessage(message).that(pair).isNull();
+        } else {
+          assertWithMessage(message).that(pair).isNotNull();
+          assertWithMessage(message)
+              .that(detector.isUnsafePair(pair.getFirst(), pair.getSecond()))
+              .isTrue();
+          // a pair of different points is preferred over a single point
+          assertWithMessage(message)
+              .that(pair.getFirst().equals(pair.getSecond()))
+              .isEqualTo(expected.getFirst().equals(expected.getSecond()));
+        }
+      }
+    }
+  }
+
+  private static UnsafeDetector createDetector(boolean pIgnoreEmptyLockset)
+      throws InvalidConfigurationException {
+    return new UnsafeDetector(
+        Configuration.builder()
+            .setOption(
+                "cpa.usage.unsafedetector.ignoreEmptyLockset",
+                Boolean.toString(pIgnoreEmptyLockset))
+            .build());
+  }
+
+  private static SortedSet<UsagePoint> createPoints(
+      Random pRandom, List<LockIdentifier> pLocks, boolean pWithThreads) {
+    SortedSet<UsagePoint> result = new TreeSet<>();
+    int size = 1 + pRandom.nextInt(MAX_POINTS);
+    for (int i = 0; i < size; i++) {
+      Set<LockIdentifier> lockSet = new HashSet<>();
+      for (LockIdentifier lock : pLocks) {
+        // keep the lock sets small, as they are in real programs
+        if (pRandom.nextInt(pLocks.size() + 1) == 0) {
+          lockSet.add(lock);
+        }
+      }
+      List<CompatibleNode> nodes = new ArrayList<>();
+      nodes.add(new LockTreeNode(lockSet));
+      if (pWithThreads) {
+        nodes.add(new TestThreadNode(pRandom.nextInt(3), pRandom.nextBoolean()));
+      }
+      Access access = pRandom.nextInt(3) == 0 ? Access.WRITE : Access.READ;
+      result.add(new UsagePoint(nodes, access));
+    }
+    assertThat(result).isNotEmpty();
+    return result;
+  }
+
+  private static boolean isUnsafePairwise(UnsafeDetector pDetector, SortedSet<UsagePoint> pPoints) {
+    for (UsagePoint point1 : pPoints) {
+      for (UsagePoint point2 : pPoints.tailSet(point1)) {
+        if (pDetector.isUnsafePair(point1, point2)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static Pair<UsagePoint, UsagePoint> getUnsafePairPairwise(
+      UnsafeDetector pDetector, SortedSet<UsagePoint> pPoints, boolean pIgnoreEmptyLockset) {
+    for (UsagePoint point1 : pPoints) {
+      for (UsagePoint point2 : pPoints.tailSet(point1)) {
+        if (!point1.equals(point2) && pDetector.isUnsafePair(point1, point2)) {
+          return Pair.of(point1, point2);
+        }
+      }
+    }
+    if (!pIgnoreEmptyLockset) {
+      for (UsagePoint point : pPoints) {
+        if (pDetector.isUnsafePair(point, point)) {
+          return Pair.of(point, point);
+        }
+      }
+    }
+    return null;
+  }
+}
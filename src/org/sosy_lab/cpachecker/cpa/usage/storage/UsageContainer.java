@@ -37,8 +37,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
-import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -59,6 +60,12 @@ import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
+/**
+ * Storage of the unsafes of all identifiers.
+ *
+ * <p>The bookkeeping of refined, failed, and false unsafes may be updated while the unsafes of
+ * other identifiers are refined in parallel, so it is kept in concurrent collections.
+ */
 @Options(prefix="cpa.usage")
 public class UsageContainer {
   private final SortedMap<SingleIdentifier, UnrefinedUsagePointSet> unrefinedIds;
@@ -69,7 +76,7 @@ public class UsageContainer {
 
   private final Set<SingleIdentifier> falseUnsafes;
 
-  private final Set<SingleIdentifier> processedUnsafes = new HashSet<>();
+  private final Set<SingleIdentifier> processedUnsafes = Sets.newConcurrentHashSet();
   //Only for statistics
   private Set<SingleIdentifier> initialSet = null;
   private int initialUsages;
@@ -88,10 +95,10 @@ public class UsageContainer {
   private boolean printOnlyTrueUnsafes = false;
 
   public UsageContainer(Configuration config, LogManager l) throws InvalidConfigurationException {
-    this(new TreeMap<SingleIdentifier, UnrefinedUsagePointSet>(),
-        new TreeMap<SingleIdentifier, RefinedUsagePointSet>(),
-        new TreeMap<SingleIdentifier, RefinedUsagePointSet>(),
-        new TreeSet<SingleIdentifier>(), l, new UnsafeDetector(config));
+    this(new ConcurrentSkipListMap<SingleIdentifier, UnrefinedUsagePointSet>(),
+        new ConcurrentSkipListMap<SingleIdentifier, RefinedUsagePointSet>(),
+        new ConcurrentSkipListMap<SingleIdentifier, RefinedUsagePointSet>(),
+        new ConcurrentSkipListSet<SingleIdentifier>(), l, new UnsafeDetector(config));
     config.inject(this);
   }
 
@@ -245,7 +252,7 @@ public class UsageContainer {
     }
   }
 
-  private void removeIdFromCaches(SingleIdentifier id) {
+  private synchronized void removeIdFromCaches(SingleIdentifier id) {
     unrefinedIds.remove(id);
     processedUnsafes.add(id);
   }
@@ -322,16 +329,19 @@ public class UsageContainer {
   }
 
   public AbstractUsagePointSet getUsages(SingleIdentifier id) {
-    if (unrefinedIds.containsKey(id)) {
-      return unrefinedIds.get(id);
-    } else if (refinedIds.containsKey(id)){
-      return refinedIds.get(id);
-    } else {
-      return failedIds.get(id);
+    // Single lookups, because the id may be moved to the refined ones concurrently.
+    // It is added there before it is removed from the unrefined ones.
+    AbstractUsagePointSet result = unrefinedIds.get(id);
+    if (result == null) {
+      result = refinedIds.get(id);
     }
+    if (result == null) {
+      result = failedIds.get(id);
+    }
+    return result;
   }
 
-  public void setAsFalseUnsafe(SingleIdentifier id) {
+  public synchronized void setAsFalseUnsafe(SingleIdentifier id) {
     falseUnsafes.add(id);
     removeIdFromCaches(id);
   }
@@ -343,7 +353,8 @@ public class UsageContainer {
     setAsRefined(id, result.getTrueRace().getFirst(), result.getTrueRace().getSecond());
   }
 
-  public void setAsRefined(SingleIdentifier id, UsageInfo firstUsage, UsageInfo secondUsage) {
+  public synchronized void setAsRefined(
+      SingleIdentifier id, UsageInfo firstUsage, UsageInfo secondUsage) {
     RefinedUsagePointSet rSet = RefinedUsagePointSet.create(firstUsage, secondUsage);
     if (firstUsage.isLooped() || secondUsage.isLooped()) {
       failedIds.put(id, rSet);
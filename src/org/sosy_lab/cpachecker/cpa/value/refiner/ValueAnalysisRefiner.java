@@ -192,6 +192,23 @@ public class ValueAnalysisRefiner
             pConfig, pLogger, pShutdownNotifier, pCfa),
         ValueAnalysisInterpolantManager.getInstance(),
         pPathExtractor,
+        () -> {
+          // each thread of a concurrent refinement needs its own strongest-post operator
+          final StrongestPostOperator<ValueAnalysisState> strongestPostOp =
+              new ValueAnalysisStrongestPostOperator(pLogger, pConfig, pCfa);
+          final ValueAnalysisFeasibilityChecker checker =
+              new ValueAnalysisFeasibilityChecker(strongestPostOp, pLogger, pCfa, pConfig);
+          return Pair.of(
+              checker,
+              new ValueAnalysisPathInterpolator(
+                  checker,
+                  strongestPostOp,
+                  new ValueAnalysisPrefixProvider(pLogger, pCfa, pConfig, pShutdownNotifier),
+                  pConfig,
+                  pLogger,
+                  pShutdownNotifier,
+                  pCfa));
+        },
         pConfig,
         pLogger);
 
@@ -165,6 +165,40 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   protected abstract void writeProofToStream(ObjectOutputStream out, UnmodifiableReachedSet reached)
       throws IOException, InvalidConfigurationException, InterruptedException;
 
+  /** Writer for proofs that are not stored in the default zip format. */
+  @FunctionalInterface
+  protected interface ProofFileWriter {
+    void write(Path pProofFile)
+        throws IOException, InvalidConfigurationException, InterruptedException;
+  }
+
+  /**
+   * Write the proof with the given writer instead of the default zip format. Errors are handled
+   * in the same way as by {@link #writeProof(UnmodifiableReachedSet)}.
+   */
+  protected void writeProofFile(ProofFileWriter pWriter) {
+    try {
+      Path dir = proofFile.getParent();
+      if (dir != null) {
+        Files.createDirectories(dir);
+      }
+      pWriter.write(proofFile);
+    } catch (NotSerializableException eS) {
+      logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage()
+          + " does not implement Serializable interface");
+    } catch (InvalidConfigurationException e) {
+      logger.log(Level.SEVERE, "Proof cannot be constructed due to conflicting configuration.",
+          e.getMessage());
+    } catch (InterruptedException e) {
+      logger.log(Level.SEVERE,
+          "Proof cannot be written due to time out during proof construction");
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    logger.log(Level.INFO, proofInfo.getInfoAsString());
+  }
+
 
   @Override
   public void readProof() throws IOException, ClassNotFoundException, InvalidConfigurationException {
@@ -149,6 +149,25 @@ public class PartitionedReachedSetStrategy extends AbstractStrategy {
 
   }
 
+  @Override
+  public void writeProof(UnmodifiableReachedSet pReached) {
+    if (ioHelper.useCompactProofFormat()) {
+      writeProofFile(file -> ioHelper.writeCompactProof(file, pReached));
+    } else {
+      super.writeProof(pReached);
+    }
+  }
+
+  @Override
+  public void readProof()
+      throws IOException, ClassNotFoundException, InvalidConfigurationException {
+    if (ioHelper.useCompactProofFormat()) {
+      ioHelper.readCompactProof(proofFile, stats);
+    } else {
+      super.readProof();
+    }
+  }
+
   @Override
   protected void writeProofToStream(ObjectOutputStream pOut, UnmodifiableReachedSet pReached) throws IOException,
       InvalidConfigurationException, InterruptedException {
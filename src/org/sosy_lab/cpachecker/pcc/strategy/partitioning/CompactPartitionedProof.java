@@ -0,0 +1,394 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CountingOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+
+/**
+ * Compact binary file format for partitioned proofs.
+ *
+ * <p>Each partition is stored in its own compressed chunk, such that partitions can be decoded
+ * independently of each other and in any order. Strings are stored once in a string table that is
+ * shared by all chunks, and CFA nodes are stored only by their node number. The file has the
+ * following layout, all numbers except for the fixed-size fields are encoded as varints:
+ *
+ * <pre>
+ * header:   magic (int), version (int), size of reached set, number of partitions, proof size
+ * chunks:   one deflated chunk with the Java-serialized states per partition
+ * strings:  number of strings, then (length, UTF-8 bytes) per string
+ * index:    (offset, length) of each chunk
+ * trailer:  offset of string table (long)
+ * </pre>
+ *
+ * <p>The reader memory-maps the file and only parses the header, the string table and the index
+ * when opening it. A partition is decoded when it is requested for the first time.
+ */
+public final class CompactPartitionedProof {
+
+  private static final int MAGIC = 0x50434350; // "PCCP"
+  private static final int VERSION = 2;
+
+  private CompactPartitionedProof() {}
+
+  /**
+   * Write the given partitions into the file.
+   *
+   * @param pFile the file, will be overwritten
+   * @param pReachedSetSize the size of the reached set from which the proof was computed
+   * @param pPartitions the states of each partition and the adjacent states outside of it
+   */
+  public static void write(
+      Path pFile, int pReachedSetSize, List<Pair<AbstractState[], AbstractState[]>> pPartitions)
+      throws IOException {
+    Map<String, Integer> strings = new HashMap<>();
+    List<String> stringTable = new ArrayList<>();
+    long[] offsets = new long[pPartitions.size()];
+    int[] lengths = new int[pPartitions.size()];
+
+    try (CountingOutputStream counter =
+            new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(pFile)));
+        DataOutputStream out = new DataOutputStream(counter)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      writeVarInt(out, pReachedSetSize);
+      writeVarInt(out, pPartitions.size());
+      int proofSize = 0;
+      for (Pair<AbstractState[], AbstractState[]> partition : pPartitions) {
+        proofSize += partition.getFirst().length + partition.getSecond().length;
+      }
+      writeVarInt(out, proofSize);
+
+      ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+      for (int i = 0; i < pPartitions.size(); i++) {
+        chunk.reset();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (ObjectOutputStream chunkOut =
+            new InterningObjectOutputStream(
+                new DeflaterOutputStream(chunk, deflater), strings, stringTable)) {
+          chunkOut.writeObject(pPartitions.get(i).getFirst());
+          chunkOut.writeObject(pPartitions.get(i).getSecond());
+        } finally {
+          deflater.end();
+        }
+        out.flush();
+        offsets[i] = counter.getCount();
+        lengths[i] = chunk.size();
+        chunk.writeTo(out);
+      }
+
+      out.flush();
+      long stringTableOffset = counter.getCount();
+      writeVarInt(out, stringTable.size());
+      for (String s : stringTable) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+      }
+      for (int i = 0; i < offsets.length; i++) {
+        writeVarLong(out, offsets[i]);
+        writeVarInt(out, lengths[i]);
+      }
+      out.writeLong(stringTableOffset);
+    }
+  }
+
+  /** Open the given file for reading. Only the metadata is read, partitions are decoded lazily. */
+  public static Reader open(Path pFile) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(pFile, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Proof file " + pFile + " is too large for the compact format");
+      }
+      // the mapping stays valid after closing the channel
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    try {
+      return new Reader(buffer);
+    } catch (BufferUnderflowException
+        | IndexOutOfBoundsException
+        | IllegalArgumentException
+        | ArithmeticException
+        | NegativeArraySizeException e) {
+      throw new IOException("Proof file " + pFile + " is corrupted", e);
+    }
+  }
+
+  /** Reader for a proof file, decoding of partitions is thread-safe. */
+  public static final class Reader {
+
+    private final ByteBuffer buffer;
+    private final int reachedSetSize;
+    private final int proofSize;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final ImmutableList<String> stringTable;
+
+    private Reader(ByteBuffer pBuffer) throws IOException {
+      buffer = pBuffer;
+      ByteBuffer in = buffer.duplicate();
+      if (in.getInt() != MAGIC) {
+        throw new IOException("Not a proof file in compact format");
+      }
+      int version = in.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported version " + version + " of compact proof format");
+      }
+      reachedSetSize = readVarInt(in);
+      int numPartitions = readVarInt(in);
+      proofSize = readVarInt(in);
+
+      in.position(Math.toIntExact(in.getLong(in.limit() - Long.BYTES)));
+      int numStrings = readVarInt(in);
+      ImmutableList.Builder<String> strings = ImmutableList.builderWithExpectedSize(numStrings);
+      for (int i = 0; i < numStrings; i++) {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.get(bytes);
+        strings.add(new String(bytes, StandardCharsets.UTF_8));
+      }
+      stringTable = strings.build();
+
+      offsets = new long[numPartitions];
+      lengths = new int[numPartitions];
+      for (int i = 0; i < numPartitions; i++) {
+        offsets[i] = readVarLong(in);
+        lengths[i] = readVarInt(in);
+      }
+    }
+
+    public int getReachedSetSize() {
+      return reachedSetSize;
+    }
+
+    public int getNumPartitions() {
+      return offsets.length;
+    }
+
+    /**
+     * Return the number of states in all partitions, including the adjacent states outside of each
+     * partition (which may be counted several times).
+     */
+    public int getProofSize() {
+      return proofSize;
+    }
+
+    /** Decode the partition with the given index. */
+    public Pair<AbstractState[], AbstractState[]> readPartition(int pIndex)
+        throws IOException, ClassNotFoundException {
+      checkElementIndex(pIndex, offsets.length);
+      ByteBuffer chunk = buffer.duplicate();
+      chunk.position(Math.toIntExact(offsets[pIndex]));
+      chunk.limit(Math.toIntExact(offsets[pIndex] + lengths[pIndex]));
+
+      try (ObjectInputStream in =
+          new InterningObjectInputStream(
+              new InflaterInputStream(new ByteBufferInputStream(chunk.slice())), stringTable)) {
+        return Pair.of((AbstractState[]) in.readObject(), (AbstractState[]) in.readObject());
+      } catch (ClassCastException e) {
+        throw new InvalidObjectException("Partition " + pIndex + " does not contain states");
+      }
+    }
+  }
+
+  /** Reference to an entry of the string table. */
+  private static final class InternedString implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final int id;
+
+    private InternedString(int pId) {
+      id = pId;
+    }
+  }
+
+  /** Reference to a CFA node of the analyzed program. */
+  private static final class InternedNode implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final int nodeNumber;
+
+    private InternedNode(int pNodeNumber) {
+      nodeNumber = pNodeNumber;
+    }
+  }
+
+  private static final class InterningObjectOutputStream extends ObjectOutputStream {
+
+    private final Map<String, Integer> strings;
+    private final List<String> stringTable;
+
+    private InterningObjectOutputStream(
+        OutputStream pOut, Map<String, Integer> pStrings, List<String> pStringTable)
+        throws IOException {
+      super(pOut);
+      strings = pStrings;
+      stringTable = pStringTable;
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object pObj) {
+      if (pObj instanceof String) {
+        return new InternedString(
+            strings.computeIfAbsent(
+                (String) pObj,
+                s -> {
+                  stringTable.add(s);
+                  return stringTable.size() - 1;
+                }));
+      } else if (pObj instanceof CFANode) {
+        return new InternedNode(((CFANode) pObj).getNodeNumber());
+      }
+      return pObj;
+    }
+  }
+
+  private static final class InterningObjectInputStream extends ObjectInputStream {
+
+    private final List<String> stringTable;
+    private CFAInfo cfaInfo;
+
+    private InterningObjectInputStream(InputStream pIn, List<String> pStringTable)
+        throws IOException {
+      super(pIn);
+      stringTable = pStringTable;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Object resolveObject(Object pObj) throws IOException {
+      if (pObj instanceof InternedString) {
+        int id = ((InternedString) pObj).id;
+        if (id < 0 || id >= stringTable.size()) {
+          throw new InvalidObjectException("Invalid reference " + id + " into string table");
+        }
+        return stringTable.get(id);
+      } else if (pObj instanceof InternedNode) {
+        if (cfaInfo == null) {
+          cfaInfo =
+              GlobalInfo.getInstance()
+                  .getCFAInfo()
+                  .orElseThrow(() -> new InvalidObjectException("CFA for proof not available"));
+        }
+        return cfaInfo.getNodeByNodeNumber(((InternedNode) pObj).nodeNumber);
+      }
+      return pObj;
+    }
+  }
+
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer pBuffer) {
+      buffer = pBuffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] pBytes, int pOffset, int pLength) {
+      if (pLength == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int length = Math.min(pLength, buffer.remaining());
+      buffer.get(pBytes, pOffset, length);
+      return length;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+  private static void writeVarInt(DataOutputStream pOut, int pValue) throws IOException {
+    writeVarLong(pOut, pValue & 0xFFFFFFFFL);
+  }
+
+  private static void writeVarLong(DataOutputStream pOut, long pValue) throws IOException {
+    long value = pValue;
+    while ((value & ~0x7FL) != 0) {
+      pOut.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    pOut.writeByte((int) value);
+  }
+
+  private static int readVarInt(ByteBuffer pIn) throws IOException {
+    long value = readVarLong(pIn);
+    if (value > 0xFFFFFFFFL) {
+      throw new IOException("Invalid varint in proof file");
+    }
+    return (int) value;
+  }
+
+  private static long readVarLong(ByteBuffer pIn) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte b = pIn.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Invalid varint in proof file");
+  }
+}
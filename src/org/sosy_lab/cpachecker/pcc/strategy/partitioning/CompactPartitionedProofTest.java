@@ -0,0 +1,119 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.Pair;
+
+public class CompactPartitionedProofTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static class TestState implements AbstractState, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String name;
+    private final int value;
+
+    TestState(String pName, int pValue) {
+      name = pName;
+      value = pValue;
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      return pObj instanceof TestState
+          && name.equals(((TestState) pObj).name)
+          && value == ((TestState) pObj).value;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, value);
+    }
+  }
+
+  private static AbstractState[] states(AbstractState... pStates) {
+    return pStates;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException, ClassNotFoundException {
+    Path file = tempFolder.newFile().toPath();
+    ImmutableList<Pair<AbstractState[], AbstractState[]>> partitions =
+        ImmutableList.of(
+            Pair.of(states(new TestState("main", 1), new TestState("main", 2)), states()),
+            Pair.of(states(new TestState("f", 3)), states(new TestState("main", 1))),
+            Pair.of(states(), states()));
+
+    CompactPartitionedProof.write(file, 42, partitions);
+    CompactPartitionedProof.Reader reader = CompactPartitionedProof.open(file);
+
+    assertThat(reader.getReachedSetSize()).isEqualTo(42);
+    assertThat(reader.getNumPartitions()).isEqualTo(3);
+    assertThat(reader.getProofSize()).isEqualTo(4);
+    // partitions can be read in any order and multiple times
+    for (int i : new int[] {2, 1, 0, 1}) {
+      Pair<AbstractState[], AbstractState[]> partition = reader.readPartition(i);
+      assertThat(partition.getFirst()).asList().containsExactly(partitions.get(i).getFirst());
+      assertThat(partition.getSecond()).asList().containsExactly(partitions.get(i).getSecond());
+    }
+  }
+
+  @Test
+  public void testStringsAreShared() throws IOException, ClassNotFoundException {
+    Path file = tempFolder.newFile().toPath();
+    String name = "a_rather_long_function_name_that_occurs_in_every_partition";
+    ImmutableList<Pair<AbstractState[], AbstractState[]>> partitions =
+        ImmutableList.of(
+            Pair.of(states(new TestState(name, 1)), states()),
+            Pair.of(states(new TestState(name, 2)), states()));
+
+    CompactPartitionedProof.write(file, 2, partitions);
+    CompactPartitionedProof.Reader reader = CompactPartitionedProof.open(file);
+
+    // the string is stored once in the string table and referenced from both partitions
+    TestState first = (TestState) reader.readPartition(0).getFirst()[0];
+    TestState second = (TestState) reader.readPartition(1).getFirst()[0];
+    assertThat(first.name).isEqualTo(name);
+    assertThat(second.name).isSameAs(first.name);
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidFile() throws IOException {
+    Path file = tempFolder.newFile().toPath();
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+    CompactPartitionedProof.open(file);
+  }
+}
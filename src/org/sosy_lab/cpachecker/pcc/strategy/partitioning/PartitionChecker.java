@@ -42,7 +42,6 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
-import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
@@ -79,7 +78,11 @@ public class PartitionChecker {
   public void checkPartition(int pIndex){
     Multimap<CFANode, AbstractState> statesPerLocation = HashMultimap.create();
     Pair<AbstractState[], AbstractState[]> partition = ioHelper.getPartition(pIndex);
-    Preconditions.checkNotNull(partition);
+    if (partition == null) {
+      // partition of proof could not be read
+      partitionHelper.abortCheckingPreparation();
+      return;
+    }
 
     // add nodes of partition
     for (AbstractState internalNode : partition.getFirst()) {
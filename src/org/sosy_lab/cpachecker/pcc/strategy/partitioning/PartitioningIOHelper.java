@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -66,6 +67,15 @@ public class PartitioningIOHelper {
   @Option(secure=true, description = "Heuristic for computing partitioning of proof (partial reached set).")
   private PartitioningHeuristics partitioningStrategy = PartitioningHeuristics.RANDOM;
 
+  @Option(
+    secure = true,
+    description =
+        "Write and read the proof in a compact binary format in which each partition is stored "
+            + "in a separate chunk that is decoded only when the partition is checked. "
+            + "The validation configuration (option pcc.storeConfig) is not stored in this format."
+  )
+  private boolean compactProofFormat = false;
+
   private final LogManager logger;
   private final PartialReachedConstructionAlgorithm partialConstructor;
   private final BalancedGraphPartitioner partitioner;
@@ -74,6 +84,7 @@ public class PartitioningIOHelper {
   private List<Pair<AbstractState[], AbstractState[]>> partitions;
   private Statistics currentGraphStatistics;
   private ProofStatesInfoCollector infoCollector;
+  private CompactPartitionedProof.@Nullable Reader compactProof;
 
   public PartitioningIOHelper(final Configuration pConfig, final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
@@ -98,12 +109,32 @@ public class PartitioningIOHelper {
   }
 
   public @Nullable Pair<AbstractState[], AbstractState[]> getPartition(int pIndex) {
+    if (compactProof != null) {
+      return decodePartition(compactProof, pIndex);
+    }
     if (0<=pIndex && pIndex<numPartitions && pIndex<partitions.size()) {
       return partitions.get(pIndex);
     }
     return null;
   }
 
+  private @Nullable Pair<AbstractState[], AbstractState[]> decodePartition(
+      final CompactPartitionedProof.Reader pProof, final int pIndex) {
+    if (pIndex < 0 || pIndex >= numPartitions) {
+      return null;
+    }
+    try {
+      return pProof.readPartition(pIndex);
+    } catch (IOException | ClassNotFoundException e) {
+      logger.logUserException(Level.SEVERE, e, "Could not read partition " + pIndex + " of proof");
+      return null;
+    }
+  }
+
+  public boolean useCompactProofFormat() {
+    return compactProofFormat;
+  }
+
   public void constructInternalProofRepresentation(final UnmodifiableReachedSet pReached)
       throws InvalidConfigurationException, InterruptedException {
     saveInternalProof(pReached.size(), computePartialReachedSetAndPartition(pReached));
@@ -232,6 +263,47 @@ public class PartitioningIOHelper {
     }
   }
 
+  /**
+   * Compute the partitioning of the proof and write it in the format of {@link
+   * CompactPartitionedProof}.
+   */
+  public void writeCompactProof(final Path pProofFile, final UnmodifiableReachedSet pReached)
+      throws InvalidConfigurationException, IOException, InterruptedException {
+    Pair<PartialReachedSetDirectedGraph, List<Set<Integer>>> partitionDescription =
+        computePartialReachedSetAndPartition(pReached);
+
+    List<Pair<AbstractState[], AbstractState[]>> partitionContents =
+        new ArrayList<>(partitionDescription.getSecond().size());
+    for (Set<Integer> partition : partitionDescription.getSecond()) {
+      AbstractState[] partitionNodes =
+          partitionDescription.getFirst().getSetNodes(partition, false);
+      if (infoCollector != null) {
+        infoCollector.addInfoForStates(partitionNodes);
+      }
+      partitionContents.add(
+          Pair.of(
+              partitionNodes,
+              partitionDescription.getFirst().getSuccessorNodesOutsideSet(partition, false)));
+    }
+
+    logger.log(Level.FINER, "Write proof in compact format");
+    CompactPartitionedProof.write(pProofFile, pReached.size(), partitionContents);
+  }
+
+  /**
+   * Open a proof in the format of {@link CompactPartitionedProof}. Only the metadata is read,
+   * partitions are decoded when they are requested via {@link #getPartition(int)}.
+   */
+  public void readCompactProof(final Path pProofFile, final PCStrategyStatistics pStats)
+      throws IOException {
+    compactProof = CompactPartitionedProof.open(pProofFile);
+    // count the size once here, partitions may be decoded several times
+    pStats.increaseProofSize(compactProof.getProofSize());
+    savedReachedSetSize = compactProof.getReachedSetSize();
+    numPartitions = compactProof.getNumPartitions();
+    partitions = null;
+  }
+
   public void setProofInfoCollector(final ProofStatesInfoCollector pInfoCollector) {
     infoCollector = pInfoCollector;
   }
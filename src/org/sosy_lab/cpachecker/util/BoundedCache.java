@@ -0,0 +1,272 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * A map-like cache that optionally holds at most a given number of entries and evicts entries
+ * according to an {@link EvictionPolicy} if this limit is reached. It also counts hits, misses,
+ * and evictions for the statistics output.
+ *
+ * <p>Like {@link HashMap}, this class is not thread-safe. Null keys and values are not
+ * permitted.
+ */
+public final class BoundedCache<K, V> {
+
+  public enum EvictionPolicy {
+    /** Evict the entry that was not accessed for the longest time. */
+    LRU,
+    /**
+     * Evict the entry that was accessed least often (ties are broken by evicting the entry that
+     * reached this access count first).
+     */
+    LFU,
+  }
+
+  private final String name;
+  private final int maxSize;
+  private final EvictionPolicy policy;
+
+  // used for LRU and unbounded caches, with access order
+  private final @Nullable LinkedHashMap<K, V> lruEntries;
+
+  // used for LFU
+  private final @Nullable Map<K, LfuEntry<V>> lfuEntries;
+  private final @Nullable Map<Integer, LinkedHashSet<K>> lfuBuckets;
+  private int lfuMinFrequency = 0;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private int peakSize = 0;
+
+  private static final class LfuEntry<V> {
+    private V value;
+    private int frequency = 1;
+
+    private LfuEntry(V pValue) {
+      value = pValue;
+    }
+  }
+
+  /**
+   * Create a new cache.
+   *
+   * @param pName the name of the cache in the statistics output
+   * @param pMaxSize the maximal number of entries, or 0 for an unbounded cache
+   * @param pPolicy which entries to evict if the cache is full
+   */
+  public BoundedCache(String pName, int pMaxSize, EvictionPolicy pPolicy) {
+    checkArgument(pMaxSize >= 0, "Cache size must not be negative");
+    name = checkNotNull(pName);
+    maxSize = pMaxSize;
+    policy = checkNotNull(pPolicy);
+
+    if (maxSize > 0 && policy == EvictionPolicy.LFU) {
+      lruEntries = null;
+      lfuEntries = new HashMap<>();
+      lfuBuckets = new HashMap<>();
+    } else {
+      lruEntries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> pEldest) {
+          if (maxSize > 0 && size() > maxSize) {
+            evictions++;
+            return true;
+          }
+          return false;
+        }
+      };
+      lfuEntries = null;
+      lfuBuckets = null;
+    }
+  }
+
+  /** Create a new cache without a size limit. */
+  public static <K, V> BoundedCache<K, V> unbounded(String pName) {
+    return new BoundedCache<>(pName, 0, EvictionPolicy.LRU);
+  }
+
+  /**
+   * Return the value that is cached for the given key, or null if the key is not present. This
+   * counts as an access to the entry for the eviction policy and is recorded as hit or miss.
+   */
+  public @Nullable V get(K pKey) {
+    V result;
+    if (lruEntries != null) {
+      result = lruEntries.get(pKey);
+    } else {
+      LfuEntry<V> entry = lfuEntries.get(pKey);
+      if (entry != null) {
+        incrementFrequency(pKey, entry);
+        result = entry.value;
+      } else {
+        result = null;
+      }
+    }
+
+    if (result == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return result;
+  }
+
+  /**
+   * Check whether a key is present without counting this as an access and without recording a
+   * hit or miss.
+   */
+  public boolean containsKey(K pKey) {
+    if (lruEntries != null) {
+      return lruEntries.containsKey(pKey);
+    } else {
+      return lfuEntries.containsKey(pKey);
+    }
+  }
+
+  /** Store a value in the cache, possibly evicting another entry. */
+  public void put(K pKey, V pValue) {
+    checkNotNull(pKey);
+    checkNotNull(pValue);
+    if (lruEntries != null) {
+      lruEntries.put(pKey, pValue);
+    } else {
+      LfuEntry<V> entry = lfuEntries.get(pKey);
+      if (entry != null) {
+        entry.value = pValue;
+        incrementFrequency(pKey, entry);
+      } else {
+        if (lfuEntries.size() >= maxSize) {
+          evictLeastFrequentlyUsed();
+        }
+        lfuEntries.put(pKey, new LfuEntry<>(pValue));
+        lfuBuckets.computeIfAbsent(1, k -> new LinkedHashSet<>()).add(pKey);
+        lfuMinFrequency = 1;
+      }
+    }
+    peakSize = Math.max(peakSize, size());
+  }
+
+  private void incrementFrequency(K pKey, LfuEntry<V> pEntry) {
+    int frequency = pEntry.frequency;
+    LinkedHashSet<K> bucket = lfuBuckets.get(frequency);
+    bucket.remove(pKey);
+    if (bucket.isEmpty()) {
+      lfuBuckets.remove(frequency);
+      if (lfuMinFrequency == frequency) {
+        lfuMinFrequency++;
+      }
+    }
+    if (frequency < Integer.MAX_VALUE) {
+      pEntry.frequency++;
+    }
+    lfuBuckets.computeIfAbsent(pEntry.frequency, k -> new LinkedHashSet<>()).add(pKey);
+  }
+
+  private void evictLeastFrequentlyUsed() {
+    LinkedHashSet<K> bucket = lfuBuckets.get(lfuMinFrequency);
+    Iterator<K> it = bucket.iterator();
+    K victim = it.next();
+    it.remove();
+    if (bucket.isEmpty()) {
+      lfuBuckets.remove(lfuMinFrequency);
+    }
+    lfuEntries.remove(victim);
+    evictions++;
+  }
+
+  public int size() {
+    return lruEntries != null ? lruEntries.size() : lfuEntries.size();
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /** Remove all entries. The statistics are kept. */
+  public void clear() {
+    if (lruEntries != null) {
+      lruEntries.clear();
+    } else {
+      lfuEntries.clear();
+      lfuBuckets.clear();
+      lfuMinFrequency = 0;
+    }
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public int getPeakSize() {
+    return peakSize;
+  }
+
+  /** Write hits, misses, evictions, and the number of entries to the statistics output. */
+  public void printStatistics(StatisticsWriter pWriter) {
+    long lookups = hits + misses;
+    pWriter
+        .put(name + " lookups", lookups)
+        .beginLevel()
+        .put("Hits", hits + " (" + StatisticsUtils.toPercent(hits, lookups) + ")")
+        .put("Misses", misses)
+        .put("Evictions", evictions)
+        .put("Entries (current/peak)", size() + " / " + peakSize)
+        .putIf(maxSize > 0, "Max entries (" + policy + ")", maxSize)
+        .endLevel();
+  }
+
+  /** Convenience method for {@link #printStatistics(StatisticsWriter)}. */
+  public void printStatistics(PrintStream pOut) {
+    printStatistics(StatisticsWriter.writingStatisticsTo(pOut));
+  }
+
+  @Override
+  public String toString() {
+    return name + " (" + size() + (maxSize > 0 ? "/" + maxSize + " " + policy : "") + " entries)";
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.BoundedCache.EvictionPolicy;
+
+public class BoundedCacheTest {
+
+  @Test
+  public void testUnbounded() {
+    BoundedCache<Integer, String> cache = BoundedCache.unbounded("test");
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, Integer.toString(i));
+    }
+    assertThat(cache.size()).isEqualTo(1000);
+    assertThat(cache.getEvictions()).isEqualTo(0);
+    assertThat(cache.get(0)).isEqualTo("0");
+    assertThat(cache.get(1000)).isNull();
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLRU() {
+    BoundedCache<Integer, String> cache = new BoundedCache<>("test", 2, EvictionPolicy.LRU);
+    cache.put(1, "1");
+    cache.put(2, "2");
+    cache.get(1);
+    cache.put(3, "3");
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getEvictions()).isEqualTo(1);
+    assertThat(cache.containsKey(1)).isTrue();
+    assertThat(cache.containsKey(2)).isFalse();
+    assertThat(cache.containsKey(3)).isTrue();
+  }
+
+  @Test
+  public void testLFU() {
+    BoundedCache<Integer, String> cache = new BoundedCache<>("test", 2, EvictionPolicy.LFU);
+    cache.put(1, "1");
+    cache.get(1);
+    cache.get(1);
+    cache.put(2, "2");
+    cache.get(2);
+    cache.put(3, "3");
+
+    // 2 was accessed less often than 1
+    assertThat(cache.containsKey(1)).isTrue();
+    assertThat(cache.containsKey(2)).isFalse();
+    assertThat(cache.containsKey(3)).isTrue();
+
+    // 3 is the least frequently used entry now
+    cache.put(4, "4");
+    assertThat(cache.containsKey(1)).isTrue();
+    assertThat(cache.containsKey(3)).isFalse();
+    assertThat(cache.get(4)).isEqualTo("4");
+    assertThat(cache.getEvictions()).isEqualTo(2);
+    assertThat(cache.getPeakSize()).isEqualTo(2);
+
+    cache.clear();
+    assertThat(cache.isEmpty()).isTrue();
+    cache.put(5, "5");
+    assertThat(cache.get(5)).isEqualTo("5");
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.automaton;
+
+import com.google.common.base.Strings;
+import com.google.common.io.CharStreams;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.ElementType;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
+
+/**
+ * Writer for GraphML witnesses that writes nodes and edges directly to the output, in contrast to
+ * {@link AutomatonGraphmlCommon.GraphMlBuilder}, which builds a DOM of the whole witness in
+ * memory. Because the key definitions precede the graph in GraphML, the set of keys that are used
+ * by nodes and edges has to be known in advance.
+ */
+public final class GraphMlStreamWriter {
+
+  private final Writer writer;
+  private final XMLStreamWriter xml;
+
+  /**
+   * Write the header of the witness, i.e., the key definitions and the data of the graph.
+   *
+   * @param pTarget where the witness is written to
+   * @param pUsedKeys the keys that are used by nodes and edges of the witness
+   */
+  public GraphMlStreamWriter(
+      Appendable pTarget,
+      WitnessType pGraphType,
+      @Nullable String pDefaultSourceFileName,
+      CFA pCfa,
+      VerificationTaskMetaData pVerificationTaskMetaData,
+      Set<KeyDef> pUsedKeys)
+      throws IOException {
+    writer = CharStreams.asWriter(pTarget);
+    try {
+      xml = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+      writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+      xml.writeStartElement("graphml");
+      xml.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+      xml.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+
+      // same keys as defined by GraphMlBuilder, in the same order
+      Set<KeyDef> keys = EnumSet.of(KeyDef.ORIGINFILE);
+      for (KeyDef keyDef : KeyDef.values()) {
+        if (keyDef.keyFor == ElementType.GRAPH) {
+          keys.add(keyDef);
+        }
+      }
+      keys.addAll(pUsedKeys);
+      for (KeyDef keyDef : keys) {
+        String defaultValue =
+            keyDef == KeyDef.ORIGINFILE && pDefaultSourceFileName != null
+                ? pDefaultSourceFileName
+                : keyDef.defaultValue;
+        writeKey(keyDef, defaultValue);
+      }
+
+      indent(1);
+      xml.writeStartElement(GraphMLTag.GRAPH.toString());
+      xml.writeAttribute("edgedefault", "directed");
+      writeData(
+          AutomatonGraphmlCommon.getGraphData(pGraphType, pCfa, pVerificationTaskMetaData), 2);
+    } catch (XMLStreamException e) {
+      throw toIOException(e);
+    }
+  }
+
+  private void writeKey(KeyDef pKeyDef, @Nullable String pDefaultValue)
+      throws XMLStreamException {
+    indent(1);
+    if (pDefaultValue == null) {
+      xml.writeEmptyElement(GraphMLTag.KEY.toString());
+    } else {
+      xml.writeStartElement(GraphMLTag.KEY.toString());
+    }
+    xml.writeAttribute("attr.name", pKeyDef.attrName);
+    xml.writeAttribute("attr.type", pKeyDef.attrType);
+    xml.writeAttribute("for", pKeyDef.keyFor.toString());
+    xml.writeAttribute("id", pKeyDef.id);
+    if (pDefaultValue != null) {
+      indent(2);
+      xml.writeStartElement(GraphMLTag.DEFAULT.toString());
+      xml.writeCharacters(pDefaultValue);
+      xml.writeEndElement();
+      indent(1);
+      xml.writeEndElement();
+    }
+  }
+
+  /** Write a node with the given data, all data must belong to keys that were declared as used. */
+  public void writeNode(String pNodeId, List<Pair<KeyDef, String>> pData) throws IOException {
+    try {
+      indent(2);
+      if (pData.isEmpty()) {
+        xml.writeEmptyElement(GraphMLTag.NODE.toString());
+        xml.writeAttribute("id", pNodeId);
+      } else {
+        xml.writeStartElement(GraphMLTag.NODE.toString());
+        xml.writeAttribute("id", pNodeId);
+        writeData(pData, 3);
+        indent(2);
+        xml.writeEndElement();
+      }
+    } catch (XMLStreamException e) {
+      throw toIOException(e);
+    }
+  }
+
+  /** Write an edge with the given data, all data must belong to keys that were declared as used. */
+  public void writeEdge(String pSource, String pTarget, List<Pair<KeyDef, String>> pData)
+      throws IOException {
+    try {
+      indent(2);
+      if (pData.isEmpty()) {
+        xml.writeEmptyElement(GraphMLTag.EDGE.toString());
+      } else {
+        xml.writeStartElement(GraphMLTag.EDGE.toString());
+      }
+      xml.writeAttribute("source", pSource);
+      xml.writeAttribute("target", pTarget);
+      if (!pData.isEmpty()) {
+        writeData(pData, 3);
+        indent(2);
+        xml.writeEndElement();
+      }
+    } catch (XMLStreamException e) {
+      throw toIOException(e);
+    }
+  }
+
+  private void writeData(List<Pair<KeyDef, String>> pData, int pLevel)
+      throws XMLStreamException {
+    for (Pair<KeyDef, String> data : pData) {
+      indent(pLevel);
+      xml.writeStartElement(GraphMLTag.DATA.toString());
+      xml.writeAttribute("key", data.getFirst().id);
+      xml.writeCharacters(data.getSecond());
+      xml.writeEndElement();
+    }
+  }
+
+  /** Close all open elements and flush the output. The underlying target is not closed. */
+  public void finish() throws IOException {
+    try {
+      indent(1);
+      xml.writeEndElement(); // graph
+      xml.writeCharacters("\n");
+      xml.writeEndElement(); // graphml
+      xml.writeEndDocument();
+      xml.flush();
+      writer.write('\n');
+      writer.flush();
+    } catch (XMLStreamException e) {
+      throw toIOException(e);
+    }
+  }
+
+  private void indent(int pLevel) throws XMLStreamException {
+    xml.writeCharacters("\n" + Strings.repeat(" ", pLevel));
+  }
+
+  private static IOException toIOException(XMLStreamException e) {
+    if (e.getNestedException() instanceof IOException) {
+      return (IOException) e.getNestedException();
+    }
+    return new IOException("Error while writing witness", e);
+  }
+}
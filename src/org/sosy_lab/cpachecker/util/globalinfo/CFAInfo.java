@@ -23,7 +23,11 @@
  */
 package org.sosy_lab.cpachecker.util.globalinfo;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cpa.location.LocationStateFactory;
@@ -33,6 +37,13 @@ public class CFAInfo {
   private LocationStateFactory locationStateFactory;
   private final CFA cfa;
 
+  /**
+   * Optional translation of node numbers of a different CFA into nodes of this CFA, used while
+   * deserializing states that were created for an older version of the program.
+   */
+  private final ThreadLocal<@Nullable Map<Integer, CFANode>> nodeNumberTranslation =
+      new ThreadLocal<>();
+
   CFAInfo(CFA cfa) {
     ImmutableMap.Builder<Integer, CFANode> nodeNumberToNode0 = ImmutableMap.builder();
     for (CFANode node : cfa.getAllNodes()) {
@@ -43,9 +54,29 @@ public class CFAInfo {
   }
 
   public CFANode getNodeByNodeNumber(int nodeNumber) {
+    Map<Integer, CFANode> translation = nodeNumberTranslation.get();
+    if (translation != null) {
+      CFANode node = translation.get(nodeNumber);
+      checkArgument(
+          node != null, "Node number %s has no counterpart in the current CFA", nodeNumber);
+      return node;
+    }
     return nodeNumberToNode.get(nodeNumber);
   }
 
+  /**
+   * Let {@link #getNodeByNodeNumber(int)} in the current thread look up node numbers in the given
+   * map instead of this CFA, until this method is called again with null. Node numbers that are
+   * not contained in the map are rejected with an {@link IllegalArgumentException}.
+   */
+  public void setNodeNumberTranslation(@Nullable Map<Integer, CFANode> pTranslation) {
+    if (pTranslation == null) {
+      nodeNumberTranslation.remove();
+    } else {
+      nodeNumberTranslation.set(pTranslation);
+    }
+  }
+
   public void storeLocationStateFactory(LocationStateFactory pElementFactory) {
     locationStateFactory = pElementFactory;
   }
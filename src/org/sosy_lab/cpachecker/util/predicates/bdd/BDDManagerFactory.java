@@ -42,12 +42,13 @@ public class BDDManagerFactory {
       description = "Which BDD package should be used?"
       + "\n- java:   JavaBDD (default, no dependencies, many features)"
       + "\n- sylvan: Sylvan (only 64bit Linux, uses multiple threads)"
+      + "\n- concurrent: pure-Java package, thread-safe without synchronization, no dependencies"
       + "\n- cudd:   CUDD (native library required, reordering not supported)"
       + "\n- micro:  MicroFactory (maximum number of BDD variables is 1024, slow, but less memory-comsumption)"
       + "\n- buddy:  Buddy (native library required)"
       + "\n- cal:    CAL (native library required)"
       + "\n- jdd:    JDD",
-      values = {"JAVA", "SYLVAN", "CUDD", "MICRO", "BUDDY", "CAL", "JDD"},
+      values = {"JAVA", "SYLVAN", "CONCURRENT", "CUDD", "MICRO", "BUDDY", "CAL", "JDD"},
       toUppercase = true)
   // documentation of the packages can be found at source of BDDFactory.init()
   private String bddPackage = "JAVA";
@@ -69,6 +70,8 @@ public class BDDManagerFactory {
     RegionManager rmgr;
     if (bddPackage.equals("SYLVAN")) {
       rmgr = new SylvanBDDRegionManager(config, logger);
+    } else if (bddPackage.equals("CONCURRENT")) {
+      rmgr = new ConcurrentBDDRegionManager(config, logger);
     } else {
       rmgr = new JavaBDDRegionManager(bddPackage, config, logger);
     }
@@ -0,0 +1,77 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+
+/**
+ * Regions represented using BDDs from {@link ConcurrentBDDRegionManager}. There is at most one
+ * instance per BDD node, and the node is kept alive as long as this instance is reachable.
+ */
+final class ConcurrentBDDRegion implements Region {
+
+  private final int node;
+
+  ConcurrentBDDRegion(int pNode) {
+    node = pNode;
+  }
+
+  @Override
+  public boolean isTrue() {
+    return node == ConcurrentBDDRegionManager.TRUE;
+  }
+
+  @Override
+  public boolean isFalse() {
+    return node == ConcurrentBDDRegionManager.FALSE;
+  }
+
+  int getNode() {
+    return node;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof ConcurrentBDDRegion) {
+      return node == ((ConcurrentBDDRegion) o).node;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return node;
+  }
+
+  @Override
+  public String toString() {
+    if (isTrue()) {
+      return "true";
+    } else if (isFalse()) {
+      return "false";
+    } else {
+      return "BDD node " + node;
+    }
+  }
+}
@@ -0,0 +1,1021 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import javax.annotation.concurrent.GuardedBy;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.predicates.PredicateOrderingStrategy;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+
+/**
+ * A BDD package written in pure Java that can be used from several threads concurrently without
+ * synchronizing the operations.
+ *
+ * <p>The nodes are stored off-heap in a direct buffer (three ints per node: variable, low child,
+ * high child), and are hash-consed with a lock-free open-addressing unique table. Results of
+ * operations are memorized in a lossy operation cache that is shared by all threads. Variables are
+ * never reordered, the variable index is its level in the BDD.
+ *
+ * <p>Nodes are reclaimed by a stop-the-world garbage collection if the node table is full. All
+ * operations hold the read part of {@link #lock}, the garbage collection holds the write part. The
+ * roots of the collection are the nodes that are referenced from a {@link ConcurrentBDDRegion}
+ * that is still alive. There is at most one region per node, which is registered with a weak
+ * reference, so no cleanup thread for polling a reference queue is necessary. If too many nodes
+ * are still alive after the collection, the node table is doubled in size.
+ */
+@Options(prefix = "bdd.concurrent")
+class ConcurrentBDDRegionManager implements RegionManager {
+
+  private static final Level LOG_LEVEL = Level.FINE;
+
+  static final int FALSE = 0;
+  static final int TRUE = 1;
+  private static final int TERMINAL_VAR = Integer.MAX_VALUE;
+
+  /** Number of ints that are stored per node (variable, low child, high child). */
+  private static final int NODE_INTS = 3;
+
+  /** Maximum log2 size of the node table, such that the direct buffer fits into 2GB. */
+  private static final int MAX_TABLE_SIZE = 27;
+
+  private static final int OP_AND = 0;
+  private static final int OP_OR = 1;
+  private static final int OP_XOR = 2;
+  private static final int OP_NOT = 3;
+  private static final int OP_ITE = 4;
+  private static final int OP_EXISTS = 5;
+  private static final int OP_ENTAILS = 6;
+
+  @Option(secure = true, description = "Log2 of the initial number of nodes in the BDD node table.")
+  @IntegerOption(min = 4, max = MAX_TABLE_SIZE)
+  private int initTableSize = 20;
+
+  @Option(secure = true, description = "Log2 size of the BDD operation cache.")
+  @IntegerOption(min = 4, max = MAX_TABLE_SIZE)
+  private int cacheSize = 18;
+
+  @Option(
+    secure = true,
+    description =
+        "Grow the BDD node table if after garbage collection more than this ratio of nodes is "
+            + "still alive."
+  )
+  private double maxLoad = 0.5;
+
+  private final LogManager logger;
+
+  /**
+   * Held for reading during every operation on nodes, and for writing during garbage collection,
+   * which replaces the tables. Operations never acquire it recursively.
+   */
+  private final StampedLock lock = new StampedLock();
+
+  // Node table and unique table. The references are only modified while the write lock is held,
+  // the contents are written concurrently.
+  private int capacity;
+  private IntBuffer nodes;
+  private AtomicIntegerArray uniqueTable;
+  private AtomicReferenceArray<WeakReference<ConcurrentBDDRegion>> regions;
+  private int[] freeNodes = new int[0];
+  private final AtomicInteger nextFreeNode = new AtomicInteger();
+  private final AtomicInteger nextFreshNode = new AtomicInteger();
+
+  // Lossy operation cache, entries are immutable and thus safe to publish by a data race.
+  private CacheEntry[] cache;
+
+  private final ConcurrentBDDRegion trueFormula;
+  private final ConcurrentBDDRegion falseFormula;
+
+  /** The regions of all variables, index is the variable. */
+  @GuardedBy("variables")
+  private final List<ConcurrentBDDRegion> variables = new ArrayList<>();
+
+  // Statistics
+  private final LongAdder cacheLookups = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final StatTimer gcTimer = new StatTimer("Time for BDD garbage collection");
+  private int gcRuns = 0;
+  private int resizes = 0;
+
+  ConcurrentBDDRegionManager(Configuration config, LogManager pLogger)
+      throws InvalidConfigurationException {
+    config.inject(this);
+    logger = pLogger;
+    if (maxLoad <= 0 || maxLoad >= 1) {
+      throw new InvalidConfigurationException(
+          "Invalid value "
+              + maxLoad
+              + " for option bdd.concurrent.maxLoad, needs to be between 0 and 1.");
+    }
+
+    capacity = 1 << initTableSize;
+    nodes = allocateNodes(capacity);
+    uniqueTable = new AtomicIntegerArray(2 * capacity);
+    regions = new AtomicReferenceArray<>(capacity);
+    cache = new CacheEntry[1 << cacheSize];
+
+    for (int terminal : new int[] {FALSE, TRUE}) {
+      nodes.put(terminal * NODE_INTS, TERMINAL_VAR);
+      nodes.put(terminal * NODE_INTS + 1, terminal);
+      nodes.put(terminal * NODE_INTS + 2, terminal);
+    }
+    nextFreshNode.set(TRUE + 1);
+    falseFormula = new ConcurrentBDDRegion(FALSE);
+    trueFormula = new ConcurrentBDDRegion(TRUE);
+    regions.set(FALSE, new WeakReference<>(falseFormula));
+    regions.set(TRUE, new WeakReference<>(trueFormula));
+  }
+
+  private static IntBuffer allocateNodes(int pCapacity) {
+    return ByteBuffer.allocateDirect(pCapacity * NODE_INTS * Integer.BYTES)
+        .order(ByteOrder.nativeOrder())
+        .asIntBuffer();
+  }
+
+  /** Thrown by {@link #allocateNode()} if there is no free node left. */
+  private static final class TableFullException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final TableFullException INSTANCE = new TableFullException();
+
+    private TableFullException() {
+      super("BDD node table is full", null, false, false);
+    }
+  }
+
+  private static final class CacheEntry {
+    private final int op;
+    private final int a;
+    private final int b;
+    private final int c;
+    private final int result;
+
+    private CacheEntry(int pOp, int pA, int pB, int pC, int pResult) {
+      op = pOp;
+      a = pA;
+      b = pB;
+      c = pC;
+      result = pResult;
+    }
+  }
+
+  // Access to the node table, only allowed while holding the lock
+
+  private int var(int node) {
+    return nodes.get(node * NODE_INTS);
+  }
+
+  private int low(int node) {
+    return nodes.get(node * NODE_INTS + 1);
+  }
+
+  private int high(int node) {
+    return nodes.get(node * NODE_INTS + 2);
+  }
+
+  private static int hash(int a, int b, int c) {
+    // MurmurHash3 finalizer on a simple combination
+    int h = (a * 31 + b) * 31 + c;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private int allocateNode() {
+    int free = nextFreeNode.getAndIncrement();
+    if (free < freeNodes.length) {
+      return freeNodes[free];
+    }
+    int fresh = nextFreshNode.getAndIncrement();
+    if (fresh < capacity) {
+      return fresh;
+    }
+    throw TableFullException.INSTANCE;
+  }
+
+  /** Return the unique node for the given variable and children, creating it if necessary. */
+  private int mk(int var, int low, int high) {
+    if (low == high) {
+      return low;
+    }
+    int mask = uniqueTable.length() - 1;
+    int slot = hash(var, low, high) & mask;
+    int created = -1;
+    while (true) {
+      int node = uniqueTable.get(slot);
+      if (node == 0) {
+        if (created < 0) {
+          created = allocateNode();
+          nodes.put(created * NODE_INTS, var);
+          nodes.put(created * NODE_INTS + 1, low);
+          nodes.put(created * NODE_INTS + 2, high);
+        }
+        if (uniqueTable.compareAndSet(slot, 0, created)) {
+          return created;
+        }
+        // another thread inserted a node into this slot, check it again
+        continue;
+      }
+      if (var(node) == var && low(node) == low && high(node) == high) {
+        // If we created a node in the meantime, it is unreferenced and will be collected.
+        return node;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private int cacheLookup(int op, int a, int b, int c) {
+    cacheLookups.increment();
+    CacheEntry entry = cache[hash(op * 31 + a, b, c) & (cache.length - 1)];
+    if (entry != null && entry.op == op && entry.a == a && entry.b == b && entry.c == c) {
+      cacheHits.increment();
+      return entry.result;
+    }
+    return -1;
+  }
+
+  private void cacheStore(int op, int a, int b, int c, int result) {
+    cache[hash(op * 31 + a, b, c) & (cache.length - 1)] = new CacheEntry(op, a, b, c, result);
+  }
+
+  // Operations on nodes, only allowed while holding the lock
+
+  private int and(int a, int b) {
+    if (a == FALSE || b == FALSE) {
+      return FALSE;
+    }
+    if (a == TRUE || a == b) {
+      return b;
+    }
+    if (b == TRUE) {
+      return a;
+    }
+    if (a > b) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    int result = cacheLookup(OP_AND, a, b, 0);
+    if (result < 0) {
+      int var = Math.min(var(a), var(b));
+      result =
+          mk(
+              var,
+              and(lowCofactor(a, var), lowCofactor(b, var)),
+              and(highCofactor(a, var), highCofactor(b, var)));
+      cacheStore(OP_AND, a, b, 0, result);
+    }
+    return result;
+  }
+
+  private int or(int a, int b) {
+    if (a == TRUE || b == TRUE) {
+      return TRUE;
+    }
+    if (a == FALSE || a == b) {
+      return b;
+    }
+    if (b == FALSE) {
+      return a;
+    }
+    if (a > b) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    int result = cacheLookup(OP_OR, a, b, 0);
+    if (result < 0) {
+      int var = Math.min(var(a), var(b));
+      result =
+          mk(
+              var,
+              or(lowCofactor(a, var), lowCofactor(b, var)),
+              or(highCofactor(a, var), highCofactor(b, var)));
+      cacheStore(OP_OR, a, b, 0, result);
+    }
+    return result;
+  }
+
+  private int xor(int a, int b) {
+    if (a == b) {
+      return FALSE;
+    }
+    if (a == FALSE) {
+      return b;
+    }
+    if (b == FALSE) {
+      return a;
+    }
+    if (a == TRUE) {
+      return not(b);
+    }
+    if (b == TRUE) {
+      return not(a);
+    }
+    if (a > b) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    int result = cacheLookup(OP_XOR, a, b, 0);
+    if (result < 0) {
+      int var = Math.min(var(a), var(b));
+      result =
+          mk(
+              var,
+              xor(lowCofactor(a, var), lowCofactor(b, var)),
+              xor(highCofactor(a, var), highCofactor(b, var)));
+      cacheStore(OP_XOR, a, b, 0, result);
+    }
+    return result;
+  }
+
+  private int not(int a) {
+    if (a == FALSE) {
+      return TRUE;
+    }
+    if (a == TRUE) {
+      return FALSE;
+    }
+    int result = cacheLookup(OP_NOT, a, 0, 0);
+    if (result < 0) {
+      result = mk(var(a), not(low(a)), not(high(a)));
+      cacheStore(OP_NOT, a, 0, 0, result);
+    }
+    return result;
+  }
+
+  private int ite(int f, int g, int h) {
+    if (f == TRUE || g == h) {
+      return g;
+    }
+    if (f == FALSE) {
+      return h;
+    }
+    if (g == TRUE && h == FALSE) {
+      return f;
+    }
+    if (g == FALSE && h == TRUE) {
+      return not(f);
+    }
+    int result = cacheLookup(OP_ITE, f, g, h);
+    if (result < 0) {
+      int var = Math.min(var(f), Math.min(var(g), var(h)));
+      result =
+          mk(
+              var,
+              ite(lowCofactor(f, var), lowCofactor(g, var), lowCofactor(h, var)),
+              ite(highCofactor(f, var), highCofactor(g, var), highCofactor(h, var)));
+      cacheStore(OP_ITE, f, g, h, result);
+    }
+    return result;
+  }
+
+  /** Existential quantification of f over all variables in the given cube. */
+  private int exists(int f, int cube) {
+    if (f == TRUE || f == FALSE) {
+      return f;
+    }
+    int var = var(f);
+    while (var(cube) < var) {
+      cube = high(cube);
+    }
+    if (cube == TRUE) {
+      return f;
+    }
+    int result = cacheLookup(OP_EXISTS, f, cube, 0);
+    if (result < 0) {
+      if (var(cube) == var) {
+        int low = exists(low(f), high(cube));
+        result = (low == TRUE) ? TRUE : or(low, exists(high(f), high(cube)));
+      } else {
+        result = mk(var, exists(low(f), cube), exists(high(f), cube));
+      }
+      cacheStore(OP_EXISTS, f, cube, 0, result);
+    }
+    return result;
+  }
+
+  /** Check whether f implies g, without creating nodes. */
+  private boolean entails(int f, int g) {
+    if (f == FALSE || g == TRUE || f == g) {
+      return true;
+    }
+    if (f == TRUE || g == FALSE) {
+      return false;
+    }
+    int result = cacheLookup(OP_ENTAILS, f, g, 0);
+    if (result < 0) {
+      int var = Math.min(var(f), var(g));
+      boolean entails =
+          entails(lowCofactor(f, var), lowCofactor(g, var))
+              && entails(highCofactor(f, var), highCofactor(g, var));
+      result = entails ? TRUE : FALSE;
+      cacheStore(OP_ENTAILS, f, g, 0, result);
+    }
+    return result == TRUE;
+  }
+
+  private int lowCofactor(int node, int var) {
+    return var(node) == var ? low(node) : node;
+  }
+
+  private int highCofactor(int node, int var) {
+    return var(node) == var ? high(node) : node;
+  }
+
+  /** Create the conjunction of all variables in the support of the given nodes. */
+  private int supportCube(int[] pNodes) {
+    BitSet support = new BitSet();
+    BitSet visited = new BitSet();
+    int[] stack = Arrays.copyOf(pNodes, Math.max(16, pNodes.length));
+    int size = pNodes.length;
+    while (size > 0) {
+      int node = stack[--size];
+      if (node == TRUE || node == FALSE || visited.get(node)) {
+        continue;
+      }
+      visited.set(node);
+      support.set(var(node));
+      if (size + 2 > stack.length) {
+        stack = Arrays.copyOf(stack, 2 * stack.length);
+      }
+      stack[size++] = low(node);
+      stack[size++] = high(node);
+    }
+    int cube = TRUE;
+    for (int var = support.previousSetBit(support.length()); var >= 0;
+        var = support.previousSetBit(var - 1)) {
+      cube = mk(var, FALSE, cube);
+    }
+    return cube;
+  }
+
+  // Wrapping of nodes in regions
+
+  /** Return the region for a node, only allowed while holding the lock. */
+  private ConcurrentBDDRegion wrap(int node) {
+    while (true) {
+      WeakReference<ConcurrentBDDRegion> ref = regions.get(node);
+      ConcurrentBDDRegion region = (ref == null) ? null : ref.get();
+      if (region != null) {
+        return region;
+      }
+      region = new ConcurrentBDDRegion(node);
+      if (regions.compareAndSet(node, ref, new WeakReference<>(region))) {
+        return region;
+      }
+    }
+  }
+
+  private static int unwrap(Region region) {
+    return ((ConcurrentBDDRegion) region).getNode();
+  }
+
+  /**
+   * Execute an operation on the nodes and wrap its result in a region. The operation needs to
+   * unwrap its arguments itself such that they are guaranteed to be alive during the operation.
+   * If the node table is full, the operation is restarted after garbage collection.
+   */
+  private ConcurrentBDDRegion apply(IntSupplier operation) {
+    while (true) {
+      long stamp = lock.readLock();
+      int observedGcRuns = gcRuns;
+      try {
+        return wrap(operation.getAsInt());
+      } catch (TableFullException e) {
+        // collect garbage below, after releasing the read lock
+      } finally {
+        lock.unlockRead(stamp);
+      }
+      collectGarbage(observedGcRuns);
+    }
+  }
+
+  private void collectGarbage(int observedGcRuns) {
+    long stamp = lock.writeLock();
+    try {
+      if (gcRuns != observedGcRuns) {
+        return; // another thread was faster
+      }
+      gcTimer.start();
+      try {
+        collectGarbage0();
+      } finally {
+        gcTimer.stop();
+      }
+      gcRuns++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Only allowed while holding the write lock. */
+  private void collectGarbage0() {
+    final int usedNodes = Math.min(nextFreshNode.get(), capacity);
+
+    // mark all nodes reachable from live regions
+    BitSet alive = new BitSet(usedNodes);
+    int[] stack = new int[64];
+    int size = 0;
+    for (int i = 0; i < usedNodes; i++) {
+      WeakReference<ConcurrentBDDRegion> ref = regions.get(i);
+      if (ref != null) {
+        if (ref.get() == null) {
+          regions.set(i, null);
+        } else {
+          if (size == stack.length) {
+            stack = Arrays.copyOf(stack, 2 * stack.length);
+          }
+          stack[size++] = i;
+        }
+      }
+    }
+    while (size > 0) {
+      int node = stack[--size];
+      if (alive.get(node)) {
+        continue;
+      }
+      alive.set(node);
+      if (node > TRUE) {
+        if (size + 2 > stack.length) {
+          stack = Arrays.copyOf(stack, 2 * stack.length);
+        }
+        stack[size++] = low(node);
+        stack[size++] = high(node);
+      }
+    }
+    alive.set(FALSE);
+    alive.set(TRUE);
+    final int aliveNodes = alive.cardinality();
+
+    // grow node table if necessary
+    int oldCapacity = capacity;
+    while (aliveNodes > capacity * maxLoad && capacity < (1 << MAX_TABLE_SIZE)) {
+      capacity *= 2;
+    }
+    if (aliveNodes >= capacity) {
+      throw new OutOfMemoryError("BDD node table is full");
+    }
+    if (capacity != oldCapacity) {
+      IntBuffer newNodes = allocateNodes(capacity);
+      IntBuffer oldNodes = nodes.duplicate();
+      oldNodes.clear();
+      newNodes.put(oldNodes);
+      nodes = newNodes;
+      AtomicReferenceArray<WeakReference<ConcurrentBDDRegion>> newRegions =
+          new AtomicReferenceArray<>(capacity);
+      for (int i = 0; i < usedNodes; i++) {
+        newRegions.set(i, regions.get(i));
+      }
+      regions = newRegions;
+      resizes++;
+    }
+
+    // rebuild free list and unique table
+    int[] free = new int[usedNodes - aliveNodes];
+    int freeCount = 0;
+    AtomicIntegerArray newUniqueTable = new AtomicIntegerArray(2 * capacity);
+    int mask = newUniqueTable.length() - 1;
+    for (int node = TRUE + 1; node < usedNodes; node++) {
+      if (alive.get(node)) {
+        int slot = hash(var(node), low(node), high(node)) & mask;
+        while (newUniqueTable.get(slot) != 0) {
+          slot = (slot + 1) & mask;
+        }
+        newUniqueTable.set(slot, node);
+      } else {
+        free[freeCount++] = node;
+      }
+    }
+    assert freeCount == free.length;
+    uniqueTable = newUniqueTable;
+    freeNodes = free;
+    nextFreeNode.set(0);
+    nextFreshNode.set(usedNodes);
+
+    // node indices are reused, so all cached results are invalid
+    Arrays.fill(cache, null);
+
+    logger.log(
+        LOG_LEVEL,
+        "BDD garbage collection freed",
+        freeCount,
+        "of",
+        usedNodes,
+        "nodes, size of node table is",
+        capacity);
+  }
+
+  // Public interface
+
+  @Override
+  public boolean entails(Region pF1, Region pF2) {
+    long stamp = lock.readLock();
+    try {
+      return entails(unwrap(pF1), unwrap(pF2));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Region createPredicate() {
+    synchronized (variables) {
+      int var = variables.size();
+      ConcurrentBDDRegion region = apply(() -> mk(var, FALSE, TRUE));
+      variables.add(region);
+      return region;
+    }
+  }
+
+  @Override
+  public Region makeTrue() {
+    return trueFormula;
+  }
+
+  @Override
+  public Region makeFalse() {
+    return falseFormula;
+  }
+
+  @Override
+  public Region makeNot(Region pF) {
+    return apply(() -> not(unwrap(pF)));
+  }
+
+  @Override
+  public Region makeAnd(Region pF1, Region pF2) {
+    return apply(() -> and(unwrap(pF1), unwrap(pF2)));
+  }
+
+  @Override
+  public Region makeOr(Region pF1, Region pF2) {
+    return apply(() -> or(unwrap(pF1), unwrap(pF2)));
+  }
+
+  @Override
+  public Region makeEqual(Region pF1, Region pF2) {
+    return apply(() -> not(xor(unwrap(pF1), unwrap(pF2))));
+  }
+
+  @Override
+  public Region makeUnequal(Region pF1, Region pF2) {
+    return apply(() -> xor(unwrap(pF1), unwrap(pF2)));
+  }
+
+  @Override
+  public Region makeIte(Region pF1, Region pF2, Region pF3) {
+    return apply(() -> ite(unwrap(pF1), unwrap(pF2), unwrap(pF3)));
+  }
+
+  @Override
+  public Region makeExists(Region pF1, Region... pF2) {
+    if (pF2.length == 0) {
+      return pF1;
+    }
+    return apply(
+        () -> {
+          int[] quantified = new int[pF2.length];
+          for (int i = 0; i < pF2.length; i++) {
+            quantified[i] = unwrap(pF2[i]);
+          }
+          return exists(unwrap(pF1), supportCube(quantified));
+        });
+  }
+
+  @Override
+  public Triple<Region, Region, Region> getIfThenElse(Region pF) {
+    int var;
+    Region fThen;
+    Region fElse;
+    long stamp = lock.readLock();
+    try {
+      int f = unwrap(pF);
+      checkArgument(f != TRUE && f != FALSE, "Cannot decompose constant region %s", pF);
+      var = var(f);
+      fThen = wrap(high(f));
+      fElse = wrap(low(f));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    Region predicate;
+    synchronized (variables) {
+      predicate = variables.get(var);
+    }
+    return Triple.of(predicate, fThen, fElse);
+  }
+
+  @Override
+  public RegionBuilder builder(ShutdownNotifier pShutdownNotifier) {
+    return new ConcurrentBDDRegionBuilder(pShutdownNotifier);
+  }
+
+  @Override
+  public Region fromFormula(
+      BooleanFormula pF, FormulaManagerView fmgr, Function<BooleanFormula, Region> atomToRegion) {
+    BooleanFormulaManagerView bfmgr = fmgr.getBooleanFormulaManager();
+    if (bfmgr.isFalse(pF)) {
+      return makeFalse();
+    }
+
+    if (bfmgr.isTrue(pF)) {
+      return makeTrue();
+    }
+
+    return bfmgr.visit(pF, new FormulaToRegionConverter(fmgr, atomToRegion));
+  }
+
+  /** Variable reordering is not supported, the order of variables is the order of creation. */
+  @Override
+  public void setVarOrder(ArrayList<Integer> pOrder) {}
+
+  /** Variable reordering is not supported, the order of variables is the order of creation. */
+  @Override
+  public void reorder(PredicateOrderingStrategy strategy) {}
+
+  @Override
+  public String getVersion() {
+    return "Concurrent BDD package (pure Java)";
+  }
+
+  @Override
+  public void printStatistics(PrintStream out) {
+    long stamp = lock.readLock();
+    try {
+      int usedNodes = Math.min(nextFreshNode.get(), capacity);
+      int remainingFreeNodes = Math.max(0, freeNodes.length - nextFreeNode.get());
+      int nodeCount = usedNodes - remainingFreeNodes;
+      long lookups = cacheLookups.sum();
+      long hits = cacheHits.sum();
+
+      writingStatisticsTo(out)
+          .put("Number of BDD nodes", nodeCount)
+          .put("Size of BDD node table", capacity)
+          .put("Load of BDD node table", StatisticsUtils.toPercent(nodeCount, capacity))
+          .put(
+              "Load of BDD unique table",
+              StatisticsUtils.toPercent(nodeCount, uniqueTable.length()))
+          .put("Size of BDD cache", cache.length)
+          .put("Number of BDD cache lookups", lookups)
+          .putIf(lookups > 0, "BDD cache hit rate", StatisticsUtils.toPercent(hits, lookups))
+          .put("Number of BDD node table resizes", resizes)
+          .put(
+              "Time for BDD garbage collection",
+              gcTimer.getConsumedTime().formatAs(SECONDS)
+                  + " (in "
+                  + gcRuns
+                  + " runs)");
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private class ConcurrentBDDRegionBuilder implements RegionBuilder {
+
+    private final ShutdownNotifier shutdownNotifier;
+    // Invariants:
+    // cubes contains a number of BDDs, whose disjunction makes up the result.
+    // cubes may also contain null values, which are to be ignored,
+    // but there is always at least one non-null value (if the list is not empty).
+    // The cube at index i is one built from i+1 models.
+    // When inserting, we find the left-most place in the list where we can insert.
+    // If the list is empty, we just add the cube at position 0.
+    // If this position is filled, we take the new cube and the cube from position 0,
+    // disjunct them and try storing the result at position 1,
+    // iteratively increasing the position.
+    // This is used to create balanced disjunctions
+    // instead of using a single growing BDD,
+    // while at the same time limiting the number of stored BDDs
+    // (log(numOfCubes) many).
+    private final List<Region> cubes = new ArrayList<>();
+    private Region currentCube = null;
+
+    private ConcurrentBDDRegionBuilder(ShutdownNotifier pShutdownNotifier) {
+      shutdownNotifier = pShutdownNotifier;
+    }
+
+    @Override
+    public void startNewConjunction() {
+      checkState(currentCube == null);
+      currentCube = trueFormula;
+    }
+
+    @Override
+    public void addPositiveRegion(Region r) {
+      checkState(currentCube != null);
+      currentCube = makeAnd(currentCube, r);
+    }
+
+    @Override
+    public void addNegativeRegion(Region r) {
+      checkState(currentCube != null);
+      Region cube = currentCube;
+      currentCube = apply(() -> and(unwrap(cube), not(unwrap(r))));
+    }
+
+    @Override
+    public void finishConjunction() {
+      checkState(currentCube != null);
+
+      for (int i = 0; i < cubes.size(); i++) {
+        Region cubeAtI = cubes.get(i);
+
+        if (cubeAtI == null) {
+          cubes.set(i, currentCube);
+          currentCube = null;
+          return;
+        } else {
+          currentCube = makeOr(currentCube, cubeAtI);
+          cubes.set(i, null);
+        }
+      }
+
+      if (currentCube != null) {
+        cubes.add(currentCube);
+        currentCube = null;
+      }
+    }
+
+    @Override
+    public Region getResult() throws InterruptedException {
+      checkState(currentCube == null);
+      Region result = falseFormula;
+      for (Region cube : cubes) {
+        if (cube != null) {
+          shutdownNotifier.shutdownIfNecessary();
+          result = makeOr(result, cube);
+        }
+      }
+      cubes.clear();
+      if (!result.isFalse()) {
+        cubes.add(result);
+      }
+      return result;
+    }
+
+    @Override
+    public void close() {
+      checkState(currentCube == null);
+      cubes.clear();
+    }
+  }
+
+  /** Class for creating BDDs out of a formula, with one region per (sub-)formula. */
+  private class FormulaToRegionConverter implements BooleanFormulaVisitor<Region> {
+
+    private final Function<BooleanFormula, Region> atomToRegion;
+    private final BooleanFormulaManager bfmgr;
+    private final Map<BooleanFormula, Region> cache = new HashMap<>();
+
+    FormulaToRegionConverter(
+        FormulaManagerView pFmgr, Function<BooleanFormula, Region> pAtomToRegion) {
+      atomToRegion = pAtomToRegion;
+      bfmgr = pFmgr.getBooleanFormulaManager();
+    }
+
+    private Region convert(BooleanFormula pOperand) {
+      Region operand = cache.get(pOperand);
+      if (operand == null) {
+        operand = bfmgr.visit(pOperand, this);
+        cache.put(pOperand, operand);
+      }
+      return operand;
+    }
+
+    @Override
+    public Region visitConstant(boolean value) {
+      return value ? trueFormula : falseFormula;
+    }
+
+    @Override
+    public Region visitBoundVar(BooleanFormula var, int deBruijnIdx) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Region visitAtom(BooleanFormula pAtom, FunctionDeclaration<BooleanFormula> decl) {
+      return atomToRegion.apply(pAtom);
+    }
+
+    @Override
+    public Region visitNot(BooleanFormula pOperand) {
+      return makeNot(convert(pOperand));
+    }
+
+    @Override
+    public Region visitAnd(List<BooleanFormula> pOperands) {
+      Region result = trueFormula;
+      for (BooleanFormula f : pOperands) {
+        result = makeAnd(result, convert(f));
+      }
+      return result;
+    }
+
+    @Override
+    public Region visitOr(List<BooleanFormula> pOperands) {
+      Region result = falseFormula;
+      for (BooleanFormula f : pOperands) {
+        result = makeOr(result, convert(f));
+      }
+      return result;
+    }
+
+    @Override
+    public Region visitXor(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return makeUnequal(convert(pOperand1), convert(pOperand2));
+    }
+
+    @Override
+    public Region visitEquivalence(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return makeEqual(convert(pOperand1), convert(pOperand2));
+    }
+
+    @Override
+    public Region visitImplication(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      Region operand1 = convert(pOperand1);
+      Region operand2 = convert(pOperand2);
+      return apply(() -> or(not(unwrap(operand1)), unwrap(operand2)));
+    }
+
+    @Override
+    public Region visitIfThenElse(
+        BooleanFormula pCondition, BooleanFormula pThenFormula, BooleanFormula pElseFormula) {
+      return makeIte(convert(pCondition), convert(pThenFormula), convert(pElseFormula));
+    }
+
+    @Override
+    public Region visitQuantifier(
+        Quantifier q,
+        BooleanFormula quantifiedAST,
+        List<Formula> boundVars,
+        BooleanFormula pBody) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.java_smt.api.SolverException;
+
+public class ConcurrentBDDRegionManagerTest {
+
+  private static final int VARIABLES = 12;
+
+  private ConcurrentBDDRegionManager rmgr;
+  private final List<Region> vars = new ArrayList<>();
+
+  @Before
+  public void setUp() throws InvalidConfigurationException {
+    // very small node table to exercise garbage collection and resizing
+    Configuration config =
+        Configuration.builder()
+            .setOption("bdd.concurrent.initTableSize", "4")
+            .setOption("bdd.concurrent.cacheSize", "4")
+            .build();
+    rmgr = new ConcurrentBDDRegionManager(config, LogManager.createTestLogManager());
+    for (int i = 0; i < VARIABLES; i++) {
+      vars.add(rmgr.createPredicate());
+    }
+  }
+
+  private Region parity(int offset) {
+    Region result = rmgr.makeFalse();
+    for (int i = 0; i < VARIABLES; i++) {
+      result = rmgr.makeUnequal(result, vars.get((i + offset) % VARIABLES));
+    }
+    return result;
+  }
+
+  @Test
+  public void booleanOperationsTest() throws SolverException, InterruptedException {
+    Region a = vars.get(0);
+    Region b = vars.get(1);
+    Region c = vars.get(2);
+    Region notA = rmgr.makeNot(a);
+
+    assertThat(rmgr.makeAnd(a, notA).isFalse()).isTrue();
+    assertThat(rmgr.makeOr(a, notA).isTrue()).isTrue();
+    assertThat(rmgr.makeEqual(a, a).isTrue()).isTrue();
+    assertThat(rmgr.makeUnequal(a, a).isFalse()).isTrue();
+    assertThat(rmgr.makeNot(notA)).isEqualTo(a);
+    assertThat(rmgr.makeIte(a, b, c))
+        .isEqualTo(rmgr.makeOr(rmgr.makeAnd(a, b), rmgr.makeAnd(notA, c)));
+
+    Region ab = rmgr.makeAnd(a, b);
+    assertThat(rmgr.entails(ab, a)).isTrue();
+    assertThat(rmgr.entails(a, ab)).isFalse();
+    assertThat(rmgr.entails(rmgr.makeFalse(), a)).isTrue();
+    assertThat(rmgr.makeExists(ab, b)).isEqualTo(a);
+    assertThat(rmgr.makeExists(rmgr.makeAnd(ab, c), b, c)).isEqualTo(a);
+
+    Triple<Region, Region, Region> ite = rmgr.getIfThenElse(rmgr.makeIte(a, b, c));
+    assertThat(ite.getFirst()).isEqualTo(a);
+    assertThat(ite.getSecond()).isEqualTo(b);
+    assertThat(ite.getThird()).isEqualTo(c);
+  }
+
+  @Test
+  public void garbageCollectionTest() {
+    Region expected = parity(0);
+    for (int i = 1; i < 100; i++) {
+      // creates garbage
+      parity(i);
+    }
+    assertThat(parity(5)).isEqualTo(expected);
+    assertThat(rmgr.makeExists(expected, vars.toArray(new Region[0])).isTrue()).isTrue();
+  }
+
+  @Test
+  public void concurrentOperationsTest() throws Exception {
+    Region expected = parity(0);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Region>> results = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        final int offset = i;
+        results.add(executor.submit(() -> parity(offset)));
+      }
+      for (Future<Region> result : results) {
+        assertThat(result.get()).isEqualTo(expected);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -26,10 +26,14 @@ package org.sosy_lab.cpachecker.util.predicates.pathformula;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
 import java.io.PrintStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
@@ -39,8 +43,11 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCFAEdgeException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
+import org.sosy_lab.cpachecker.util.BoundedCache;
+import org.sosy_lab.cpachecker.util.BoundedCache.EvictionPolicy;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
@@ -49,29 +56,49 @@ import org.sosy_lab.java_smt.api.Model.ValueAssignment;
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
  */
+@Options(prefix = "pathFormulaCache")
 public class CachingPathFormulaManager implements PathFormulaManager {
 
+  @Option(
+      secure = true,
+      description =
+          "Maximal number of entries in each of the caches of path formulas "
+              + "(0 for unbounded caches).")
+  @IntegerOption(min = 0)
+  private int maxSize = 0;
+
+  @Option(
+      secure = true,
+      description = "Which entries to evict from the caches of path formulas if they are full.")
+  private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
   public final Timer pathFormulaComputationTimer = new Timer();
   public int pathFormulaCacheHits = 0;
 
   public final PathFormulaManager delegate;
 
-  private final Map<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache
-            = new HashMap<>();
-  private final Map<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache
-            = new HashMap<>();
+  private final BoundedCache<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>>
+      andFormulaWithConditionsCache;
+  private final BoundedCache<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  private final BoundedCache<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final BoundedCache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
-  public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+  public CachingPathFormulaManager(PathFormulaManager pDelegate, Configuration pConfig)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
+
+    andFormulaWithConditionsCache =
+        new BoundedCache<>("Path formula cache (and with conditions)", maxSize, evictionPolicy);
+    andFormulaCache = new BoundedCache<>("Path formula cache (and)", maxSize, evictionPolicy);
+    orFormulaCache = new BoundedCache<>("Path formula cache (or)", maxSize, evictionPolicy);
+    emptyFormulaCache =
+        new BoundedCache<>("Path formula cache (empty)", maxSize, evictionPolicy);
   }
 
   @Override
@@ -114,14 +141,12 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
-    final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
+    // The disjunction is symmetric, so we order the operands such that both orders share
+    // one cache entry and a single lookup suffices.
+    final Pair<PathFormula, PathFormula> formulaCacheKey =
+        pF1.hashCode() <= pF2.hashCode() ? Pair.of(pF1, pF2) : Pair.of(pF2, pF1);
 
     PathFormula result = orFormulaCache.get(formulaCacheKey);
-    if (result == null) {
-      // try again with other order
-      result = orFormulaCache.get(Pair.of(pF2, pF1));
-    }
-
     if (result == null) {
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
@@ -241,6 +266,13 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     out.println("    Time for path formula computation: " + pathFormulaComputationTimer);
     out.println();
 
+    StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(out);
+    andFormulaWithConditionsCache.printStatistics(writer);
+    andFormulaCache.printStatistics(writer);
+    orFormulaCache.printStatistics(writer);
+    emptyFormulaCache.printStatistics(writer);
+    out.println();
+
     delegate.printStatistics(out);
   }
 
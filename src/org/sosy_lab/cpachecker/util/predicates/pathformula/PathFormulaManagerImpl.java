@@ -77,6 +77,8 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.Point
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.TypeHandlerWithPointerAliasing;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
@@ -129,6 +131,11 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
 
+  private final ThreadSafeTimerContainer formulaConstructionTime =
+      new ThreadSafeTimerContainer("Time for path formula construction");
+  private final ThreadLocal<TimerWrapper> formulaConstructionTimer =
+      ThreadLocal.withInitial(formulaConstructionTime::getNewTimer);
+
   @Option(
     secure = true,
     description = "add special information to formulas about non-deterministic functions"
@@ -239,7 +246,14 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
   private PathFormula makeAnd(
       PathFormula pOldFormula, final CFAEdge pEdge, ErrorConditions errorConditions)
       throws UnrecognizedCodeException, UnrecognizedCFAEdgeException, InterruptedException {
-    PathFormula pf = converter.makeAnd(pOldFormula, pEdge, errorConditions);
+    PathFormula pf;
+    TimerWrapper timer = formulaConstructionTimer.get();
+    timer.start();
+    try {
+      pf = converter.makeAnd(pOldFormula, pEdge, errorConditions);
+    } finally {
+      timer.stop();
+    }
 
     if (useNondetFlags) {
       SSAMapBuilder ssa = pf.getSsa().builder();
@@ -598,6 +612,14 @@ public class PathFormulaManagerImpl implements PathFormulaManager {
 
   @Override
   public void printStatistics(PrintStream out) {
+    if (formulaConstructionTime.getNumberOfIntervals() > 0) {
+      out.println(
+          "Time for path formula construction:  "
+              + formulaConstructionTime
+              + " (Calls: "
+              + formulaConstructionTime.getNumberOfIntervals()
+              + ")");
+    }
     converter.printStatistics(out);
   }
 
@@ -75,6 +75,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.Expre
 import org.sosy_lab.cpachecker.util.predicates.smt.ArrayFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -1046,12 +1047,18 @@ class AssignmentHandler {
     checkIsSimplified(lvalueType);
     final int size = conv.getSizeof(lvalueType);
 
-    if (options.useQuantifiersOnArrays()) {
-      addRetentionConstraintsWithQuantifiers(
-          lvalueType, pattern, startAddress, size, regionsToRetain);
-    } else {
-      addRetentionConstraintsWithoutQuantifiers(
-          region, lvalueType, pattern, startAddress, size, regionsToRetain);
+    final TimerWrapper timer = conv.retentionConstraintsTimer.get();
+    timer.start();
+    try {
+      if (options.useQuantifiersOnArrays()) {
+        addRetentionConstraintsWithQuantifiers(
+            lvalueType, pattern, startAddress, size, regionsToRetain);
+      } else {
+        addRetentionConstraintsWithoutQuantifiers(
+            region, lvalueType, pattern, startAddress, size, regionsToRetain);
+      }
+    } finally {
+      timer.stop();
     }
   }
 
@@ -98,6 +98,8 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.Point
 import org.sosy_lab.cpachecker.util.predicates.smt.ArrayFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -128,6 +130,12 @@ public class CToFormulaConverterWithPointerAliasing extends CtoFormulaConverter
   final Formula nullPointer;
   private MemoryRegionManager regionMgr;
 
+  // Statistics
+  private final ThreadSafeTimerContainer retentionConstraintsTime =
+      new ThreadSafeTimerContainer("Time for heap retention constraints");
+  final ThreadLocal<TimerWrapper> retentionConstraintsTimer =
+      ThreadLocal.withInitial(retentionConstraintsTime::getNewTimer);
+
   public CToFormulaConverterWithPointerAliasing(
       final FormulaEncodingWithPointerAliasingOptions pOptions,
       final FormulaManagerView formulaManagerView,
@@ -1394,6 +1402,14 @@ public class CToFormulaConverterWithPointerAliasing extends CtoFormulaConverter
 
   @Override
   public void printStatistics(PrintStream out) {
+    if (retentionConstraintsTime.getNumberOfIntervals() > 0) {
+      out.println(
+          "Time for heap retention constraints:  "
+              + retentionConstraintsTime
+              + " (Count: "
+              + retentionConstraintsTime.getNumberOfIntervals()
+              + ")");
+    }
     regionMgr.printStatistics(out);
   }
 }
@@ -0,0 +1,223 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing;
+
+import static com.google.common.base.Predicates.not;
+import static com.google.common.collect.FluentIterable.from;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.errorprone.annotations.CheckReturnValue;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import javax.annotation.concurrent.Immutable;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentLinkedList;
+import org.sosy_lab.common.collect.PersistentList;
+import org.sosy_lab.common.collect.PersistentSortedMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetPattern.RangePointerTargetPattern;
+
+/**
+ * The pointer targets of one memory region. This is a persistent collection that additionally
+ * indexes the targets by their base and their offset from the base address, such that the targets
+ * matching a pointer-target pattern with known base (and offset range) can be found without
+ * iterating over all targets of the region.
+ */
+@Immutable
+final class IndexedPointerTargets implements Iterable<PointerTarget> {
+
+  private static final IndexedPointerTargets EMPTY =
+      new IndexedPointerTargets(PersistentLinkedList.of(), PathCopyingPersistentTreeMap.of());
+
+  // All targets, most recently added first.
+  private final PersistentList<PointerTarget> targets;
+
+  // The same targets, indexed by base and then by offset.
+  private final PersistentSortedMap<
+          String, PersistentSortedMap<Long, PersistentList<PointerTarget>>>
+      index;
+
+  private IndexedPointerTargets(
+      PersistentList<PointerTarget> pTargets,
+      PersistentSortedMap<String, PersistentSortedMap<Long, PersistentList<PointerTarget>>>
+          pIndex) {
+    targets = pTargets;
+    index = pIndex;
+  }
+
+  static IndexedPointerTargets of() {
+    return EMPTY;
+  }
+
+  /** Create an instance with the given targets, in the same order as {@link #asList()}. */
+  static IndexedPointerTargets copyOf(final Iterable<PointerTarget> pTargets) {
+    IndexedPointerTargets result = EMPTY;
+    for (PointerTarget target : ImmutableList.copyOf(pTargets).reverse()) {
+      result = result.with(target);
+    }
+    return result;
+  }
+
+  @CheckReturnValue
+  IndexedPointerTargets with(final PointerTarget pTarget) {
+    String base = pTarget.getBase();
+    long offset = pTarget.getOffset();
+    PersistentSortedMap<Long, PersistentList<PointerTarget>> targetsOfBase =
+        index.getOrDefault(base, PathCopyingPersistentTreeMap.of());
+    PersistentList<PointerTarget> targetsAtOffset =
+        targetsOfBase.getOrDefault(offset, PersistentLinkedList.of());
+    return new IndexedPointerTargets(
+        targets.with(pTarget),
+        index.putAndCopy(
+            base, targetsOfBase.putAndCopy(offset, targetsAtOffset.with(pTarget))));
+  }
+
+  /**
+   * Merge two instances by adding all targets of the smaller one that are not yet contained in
+   * the bigger one.
+   */
+  static IndexedPointerTargets merge(
+      final IndexedPointerTargets pTargets1, final IndexedPointerTargets pTargets2) {
+    if (pTargets1 == pTargets2) {
+      return pTargets1;
+    }
+    final IndexedPointerTargets smaller;
+    final IndexedPointerTargets bigger;
+    if (pTargets1.size() > pTargets2.size()) {
+      smaller = pTargets2;
+      bigger = pTargets1;
+    } else {
+      smaller = pTargets1;
+      bigger = pTargets2;
+    }
+    if (smaller.size() == bigger.size() && smaller.targets.equals(bigger.targets)) {
+      return pTargets1;
+    }
+
+    final Set<PointerTarget> fromBigger = new HashSet<>(bigger.targets);
+    IndexedPointerTargets result = bigger;
+    for (final PointerTarget target : smaller.targets) {
+      if (!fromBigger.contains(target)) {
+        result = result.with(target);
+      }
+    }
+    return result;
+  }
+
+  PersistentList<PointerTarget> asList() {
+    return targets;
+  }
+
+  int size() {
+    return targets.size();
+  }
+
+  boolean isEmpty() {
+    return targets.isEmpty();
+  }
+
+  /** Return all targets that match the given pattern. */
+  FluentIterable<PointerTarget> getMatchingTargets(final Predicate<PointerTarget> pPattern) {
+    return from(getCandidates(pPattern)).filter(pPattern);
+  }
+
+  /** Return all targets that do not match the given pattern. */
+  FluentIterable<PointerTarget> getNonMatchingTargets(final Predicate<PointerTarget> pPattern) {
+    final @Nullable String base = getBase(pPattern);
+    if (base == null) {
+      return from(targets).filter(not(pPattern));
+    }
+    // targets of other bases can never match
+    return from(index.entrySet())
+        .filter(entry -> !entry.getKey().equals(base))
+        .transformAndConcat(entry -> flatten(entry.getValue()))
+        .append(from(flatten(index.getOrDefault(base, PathCopyingPersistentTreeMap.of())))
+            .filter(not(pPattern)));
+  }
+
+  /** Return a subset of the targets that contains at least all targets matching the pattern. */
+  private Iterable<PointerTarget> getCandidates(final Predicate<PointerTarget> pPattern) {
+    final @Nullable String base = getBase(pPattern);
+    if (base == null) {
+      return targets;
+    }
+    final NavigableMap<Long, PersistentList<PointerTarget>> targetsOfBase = index.get(base);
+    if (targetsOfBase == null) {
+      return PersistentLinkedList.of();
+    }
+
+    if (pPattern instanceof PointerTargetPattern) {
+      PointerTargetPattern pattern = (PointerTargetPattern) pPattern;
+      if (pattern.isExact()) {
+        return targetsOfBase.getOrDefault(pattern.getOffset(), PersistentLinkedList.of());
+      }
+    } else if (pPattern instanceof RangePointerTargetPattern) {
+      RangePointerTargetPattern pattern = (RangePointerTargetPattern) pPattern;
+      return flatten(
+          targetsOfBase.subMap(pattern.getStartOffset(), true, pattern.getEndOffset(), false));
+    }
+    return flatten(targetsOfBase);
+  }
+
+  private static @Nullable String getBase(final Predicate<PointerTarget> pPattern) {
+    if (pPattern instanceof PointerTargetPattern) {
+      return ((PointerTargetPattern) pPattern).getBase();
+    } else if (pPattern instanceof RangePointerTargetPattern) {
+      return ((RangePointerTargetPattern) pPattern).getBase();
+    }
+    return null;
+  }
+
+  private static Iterable<PointerTarget> flatten(
+      final Map<Long, PersistentList<PointerTarget>> pTargetsByOffset) {
+    return Iterables.concat(pTargetsByOffset.values());
+  }
+
+  @Override
+  public Iterator<PointerTarget> iterator() {
+    return targets.iterator();
+  }
+
+  @Override
+  public int hashCode() {
+    return targets.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object pObj) {
+    return pObj instanceof IndexedPointerTargets
+        && targets.equals(((IndexedPointerTargets) pObj).targets);
+  }
+
+  @Override
+  public String toString() {
+    return targets.toString();
+  }
+}
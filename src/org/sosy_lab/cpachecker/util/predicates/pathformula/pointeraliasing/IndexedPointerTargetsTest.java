@@ -0,0 +1,86 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+
+public class IndexedPointerTargetsTest {
+
+  private static final PointerTarget A0 = new PointerTarget("a", null, 0, 0);
+  private static final PointerTarget A4 = new PointerTarget("a", CNumericTypes.INT, 4, 0);
+  private static final PointerTarget A8 = new PointerTarget("a", CNumericTypes.INT, 0, 8);
+  private static final PointerTarget B0 = new PointerTarget("b", null, 0, 0);
+
+  private static final IndexedPointerTargets TARGETS =
+      IndexedPointerTargets.of().with(A0).with(B0).with(A4).with(A8);
+
+  @Test
+  public void testOrder() {
+    assertThat(TARGETS.asList()).containsExactly(A8, A4, B0, A0).inOrder();
+    assertThat(IndexedPointerTargets.copyOf(TARGETS)).isEqualTo(TARGETS);
+    assertThat(IndexedPointerTargets.copyOf(TARGETS).asList())
+        .containsExactly(A8, A4, B0, A0)
+        .inOrder();
+  }
+
+  @Test
+  public void testMatchingTargets() {
+    assertThat(TARGETS.getMatchingTargets(PointerTargetPattern.forBase("a"))).containsExactly(A0);
+    assertThat(TARGETS.getMatchingTargets(PointerTargetPattern.forBase("c"))).isEmpty();
+    assertThat(TARGETS.getMatchingTargets(PointerTargetPattern.any()))
+        .containsExactly(A0, A4, A8, B0);
+    assertThat(TARGETS.getMatchingTargets(PointerTargetPattern.forRange("a", 2, 6)))
+        .containsExactly(A4);
+    assertThat(TARGETS.getMatchingTargets(PointerTargetPattern.forRange("a", 0, 9)))
+        .containsExactly(A0, A4, A8);
+    assertThat(TARGETS.getMatchingTargets(target -> target.getOffset() == 0))
+        .containsExactly(A0, B0);
+  }
+
+  @Test
+  public void testNonMatchingTargets() {
+    assertThat(TARGETS.getNonMatchingTargets(PointerTargetPattern.forBase("a")))
+        .containsExactly(A4, A8, B0);
+    assertThat(TARGETS.getNonMatchingTargets(PointerTargetPattern.forRange("a", 4, 4)))
+        .containsExactly(A0, A8, B0);
+    assertThat(TARGETS.getNonMatchingTargets(PointerTargetPattern.any())).isEmpty();
+  }
+
+  @Test
+  public void testMerge() {
+    IndexedPointerTargets other = IndexedPointerTargets.copyOf(ImmutableList.of(B0, A0));
+    IndexedPointerTargets merged = IndexedPointerTargets.merge(TARGETS, other);
+    assertThat(merged).isSameAs(TARGETS);
+
+    IndexedPointerTargets onlyOther =
+        IndexedPointerTargets.copyOf(ImmutableList.of(new PointerTarget("c", null, 0, 0), A0));
+    merged = IndexedPointerTargets.merge(onlyOther, TARGETS);
+    assertThat(merged).hasSize(5);
+    assertThat(merged.getMatchingTargets(PointerTargetPattern.forBase("c"))).hasSize(1);
+  }
+}
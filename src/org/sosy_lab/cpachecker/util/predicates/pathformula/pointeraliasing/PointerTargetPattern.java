@@ -119,6 +119,17 @@ class PointerTargetPattern implements Serializable, Predicate<PointerTarget> {
     return containerOffset != null && properOffset != null;
   }
 
+  @Nullable
+  String getBase() {
+    return base;
+  }
+
+  /** Returns the offset of matching targets from their base address (only for exact patterns). */
+  long getOffset() {
+    checkArgument(isSemiExact());
+    return containerOffset + properOffset;
+  }
+
   PointerTarget asPointerTarget() {
     checkArgument(isExact());
     return new PointerTarget(base, containerType, properOffset, containerOffset);
@@ -131,18 +142,33 @@ class PointerTargetPattern implements Serializable, Predicate<PointerTarget> {
 
   private static final long serialVersionUID = -2918663736813010025L;
 
-  private static class RangePointerTargetPattern implements Predicate<PointerTarget> {
+  static final class RangePointerTargetPattern implements Predicate<PointerTarget> {
 
-    private final String base;
+    private final @Nullable String base;
     private final long startOffset;
     private final long endOffset;
 
-    private RangePointerTargetPattern(final String pBase, final long pStartOffset, final int pSize) {
+    private RangePointerTargetPattern(
+        final @Nullable String pBase, final long pStartOffset, final int pSize) {
       base = pBase;
       startOffset = pStartOffset;
       endOffset = pStartOffset + pSize;
     }
 
+    @Nullable
+    String getBase() {
+      return base;
+    }
+
+    long getStartOffset() {
+      return startOffset;
+    }
+
+    /** Returns the first offset after the range (exclusive). */
+    long getEndOffset() {
+      return endOffset;
+    }
+
     @Override
     public boolean apply(final PointerTarget target) {
       final long offset = target.containerOffset + target.properOffset;
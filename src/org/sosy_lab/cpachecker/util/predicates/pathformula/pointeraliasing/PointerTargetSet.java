@@ -61,8 +61,8 @@ public final class PointerTargetSet implements Serializable {
     return baseName.substring(BASE_PREFIX.length());
   }
 
-  PersistentList<PointerTarget> getAllTargets(final String regionName) {
-    return targets.getOrDefault(regionName, PersistentLinkedList.of());
+  IndexedPointerTargets getAllTargets(final String regionName) {
+    return targets.getOrDefault(regionName, IndexedPointerTargets.of());
   }
 
   public static PointerTargetSet emptyPointerTargetSet() {
@@ -116,7 +116,7 @@ public final class PointerTargetSet implements Serializable {
       final PersistentSortedMap<String, CType> bases,
       final PersistentSortedMap<CompositeField, Boolean> fields,
       final PersistentList<Pair<String, DeferredAllocation>> deferredAllocations,
-      final PersistentSortedMap<String, PersistentList<PointerTarget>> targets,
+      final PersistentSortedMap<String, IndexedPointerTargets> targets,
       final PersistentList<Formula> pHighestAllocatedAddresess,
       final int pAllocationCount) {
     this.bases = bases;
@@ -157,7 +157,7 @@ public final class PointerTargetSet implements Serializable {
     return deferredAllocations;
   }
 
-  PersistentSortedMap<String, PersistentList<PointerTarget>> getTargets() {
+  PersistentSortedMap<String, IndexedPointerTargets> getTargets() {
     return targets;
   }
 
@@ -204,7 +204,7 @@ public final class PointerTargetSet implements Serializable {
   // for all values of i from this map).
   // This means that when a location is not present in this map,
   // its value is not tracked and might get lost.
-  private final PersistentSortedMap<String, PersistentList<PointerTarget>> targets;
+  private final PersistentSortedMap<String, IndexedPointerTargets> targets;
 
   private final PersistentList<Formula> highestAllocatedAddresses;
 
@@ -260,7 +260,7 @@ public final class PointerTargetSet implements Serializable {
           fields,
           PersistentLinkedList.copyOf(deferredAllocations),
           PathCopyingPersistentTreeMap.copyOf(
-              Maps.transformValues(this.targets, PersistentLinkedList::copyOf)),
+              Maps.transformValues(this.targets, IndexedPointerTargets::copyOf)),
           highestAllocatedAddressesFormulas,
           allocationCount);
     }
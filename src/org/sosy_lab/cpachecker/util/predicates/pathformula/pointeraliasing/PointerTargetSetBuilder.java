@@ -23,7 +23,6 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing;
 
-import static com.google.common.base.Predicates.not;
 import static com.google.common.collect.FluentIterable.from;
 import static java.util.stream.Collectors.toCollection;
 import static org.sosy_lab.common.collect.Collections3.transformedImmutableSetCopy;
@@ -138,7 +137,7 @@ public interface PointerTargetSetBuilder {
     private PersistentSortedMap<String, CType> bases;
     private PersistentSortedMap<CompositeField, Boolean> fields;
     private PersistentList<Pair<String, DeferredAllocation>> deferredAllocations;
-    private PersistentSortedMap<String, PersistentList<PointerTarget>> targets;
+    private PersistentSortedMap<String, IndexedPointerTargets> targets;
     private PersistentList<Formula> highestAllocatedAddresses;
     private int allocationCount;
 
@@ -413,7 +412,7 @@ public interface PointerTargetSetBuilder {
         return true; // The field has already been added
       }
 
-      final PersistentSortedMap<String, PersistentList<PointerTarget>> oldTargets = targets;
+      final PersistentSortedMap<String, IndexedPointerTargets> oldTargets = targets;
       for (final PersistentSortedMap.Entry<String, CType> baseEntry : bases.entrySet()) {
         addTargets(baseEntry.getKey(), baseEntry.getValue(), 0, 0, field);
       }
@@ -722,7 +721,11 @@ public interface PointerTargetSetBuilder {
      */
     @Override
     public PersistentList<PointerTarget> getAllTargets(final MemoryRegion region) {
-      return targets.getOrDefault(regionMgr.getPointerAccessName(region), PersistentLinkedList.of());
+      return getIndexedTargets(region).asList();
+    }
+
+    private IndexedPointerTargets getIndexedTargets(final MemoryRegion region) {
+      return targets.getOrDefault(regionMgr.getPointerAccessName(region), IndexedPointerTargets.of());
     }
 
     /**
@@ -735,7 +738,7 @@ public interface PointerTargetSetBuilder {
     @Override
     public Iterable<PointerTarget> getMatchingTargets(
         final MemoryRegion region, final Predicate<PointerTarget> pattern) {
-      return from(getAllTargets(region)).filter(pattern);
+      return getIndexedTargets(region).getMatchingTargets(pattern);
     }
 
     /**
@@ -748,7 +751,7 @@ public interface PointerTargetSetBuilder {
     @Override
     public Iterable<PointerTarget> getNonMatchingTargets(
         final MemoryRegion region, final Predicate<PointerTarget> pattern) {
-      return from(getAllTargets(region)).filter(not(pattern));
+      return getIndexedTargets(region).getNonMatchingTargets(pattern);
     }
 
     /**
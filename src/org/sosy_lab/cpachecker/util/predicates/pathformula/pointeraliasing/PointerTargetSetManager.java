@@ -323,7 +323,7 @@ class PointerTargetSetManager {
             });
     shutdownNotifier.shutdownIfNecessary();
 
-    PersistentSortedMap<String, PersistentList<PointerTarget>> mergedTargets =
+    PersistentSortedMap<String, IndexedPointerTargets> mergedTargets =
       merge(pts1.getTargets(), pts2.getTargets(), mergeOnConflict());
     shutdownNotifier.shutdownIfNecessary();
 
@@ -483,11 +483,10 @@ class PointerTargetSetManager {
    * Gives a handler for merge conflicts.
    *
    * @param <K> The type of the keys in the merge conflict handler.
-   * @param <T> The type of the list entries in the merge conflict handler.
    * @return A handler for merge conflicts.
    */
-  private static <K, T> MergeConflictHandler<K, PersistentList<T>> mergeOnConflict() {
-    return (key, list1, list2) -> mergeLists(list1, list2);
+  private static <K> MergeConflictHandler<K, IndexedPointerTargets> mergeOnConflict() {
+    return (key, targets1, targets2) -> IndexedPointerTargets.merge(targets1, targets2);
   }
 
   /**
@@ -536,14 +535,14 @@ class PointerTargetSetManager {
    * @return The targets map together with all the added targets.
    */
   @CheckReturnValue
-  PersistentSortedMap<String, PersistentList<PointerTarget>> addToTargets(
+  PersistentSortedMap<String, IndexedPointerTargets> addToTargets(
       final String base,
       final @Nullable MemoryRegion region,
       final CType cType,
       final @Nullable CType containerType,
       final long properOffset,
       final long containerOffset,
-      PersistentSortedMap<String, PersistentList<PointerTarget>> targets,
+      PersistentSortedMap<String, IndexedPointerTargets> targets,
       final PersistentSortedMap<CompositeField, Boolean> fields) {
     checkIsSimplified(cType);
     /* Remove assertion: it fails on a correct code (gcc compiles it)
@@ -590,8 +589,8 @@ class PointerTargetSetManager {
         newRegion = regionMgr.makeMemoryRegion(cType);
       }
       String regionName = regionMgr.getPointerAccessName(newRegion);
-      PersistentList<PointerTarget> targetsForRegion =
-          targets.getOrDefault(regionName, PersistentLinkedList.of());
+      IndexedPointerTargets targetsForRegion =
+          targets.getOrDefault(regionName, IndexedPointerTargets.of());
       targets =
           targets.putAndCopy(
               regionName,
@@ -612,8 +611,8 @@ class PointerTargetSetManager {
    * @return A map of existing targets
    */
   @CheckReturnValue
-  private PersistentSortedMap<String, PersistentList<PointerTarget>> addAllTargets(
-      PersistentSortedMap<String, PersistentList<PointerTarget>> targets,
+  private PersistentSortedMap<String, IndexedPointerTargets> addAllTargets(
+      PersistentSortedMap<String, IndexedPointerTargets> targets,
       final PersistentSortedMap<String, CType> bases,
       final PersistentSortedMap<CompositeField, Boolean> fields) {
     for (final Map.Entry<String, CType> entry : bases.entrySet()) {
@@ -0,0 +1,231 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Thread-safe and size-bounded cache for results of satisfiability checks that can be shared by
+ * several {@link Solver} instances, e.g., by the analyses that are executed concurrently by the
+ * ParallelAlgorithm.
+ *
+ * <p>Formulas of different solver instances can not be compared directly, thus the cache is keyed
+ * by a canonical string representation of the formula (cf. {@link #toCanonicalString(
+ * FormulaManagerView, BooleanFormula)}), which only depends on the structure of the formula and
+ * not on the solver instance (or the solver library) that created it.
+ *
+ * <p>A cache instance is used by all solvers with the option {@code solver.useSharedResultCache}
+ * while it is installed with {@link #install(SharedSolverResultCache)}.
+ */
+public final class SharedSolverResultCache {
+
+  private static final AtomicReference<SharedSolverResultCache> installedCache =
+      new AtomicReference<>();
+
+  /** maps the canonical representation of a formula to whether it is unsatisfiable */
+  private final Cache<String, Boolean> unsatCache;
+
+  public SharedSolverResultCache(long pMaximumSize) {
+    checkArgument(pMaximumSize >= 0, "cache size must not be negative");
+    unsatCache = CacheBuilder.newBuilder().maximumSize(pMaximumSize).recordStats().build();
+  }
+
+  /**
+   * Make the given cache available to all solvers that are created afterwards.
+   *
+   * @throws IllegalStateException if another cache is already installed.
+   */
+  public static void install(SharedSolverResultCache pCache) {
+    checkNotNull(pCache);
+    if (!installedCache.compareAndSet(null, pCache)) {
+      throw new IllegalStateException("Another shared solver result cache is already installed");
+    }
+  }
+
+  /** Remove the given cache, such that it is not used by newly created solvers anymore. */
+  public static void uninstall(SharedSolverResultCache pCache) {
+    installedCache.compareAndSet(pCache, null);
+  }
+
+  static @Nullable SharedSolverResultCache getInstalledCache() {
+    return installedCache.get();
+  }
+
+  /**
+   * Return whether the formula with the given canonical representation is unsatisfiable, or null
+   * if it is not known.
+   */
+  @Nullable
+  Boolean isUnsat(String pCanonicalFormula) {
+    return unsatCache.getIfPresent(pCanonicalFormula);
+  }
+
+  void put(String pCanonicalFormula, boolean pIsUnsat) {
+    unsatCache.put(pCanonicalFormula, pIsUnsat);
+  }
+
+  public CacheStats getStatistics() {
+    return unsatCache.stats();
+  }
+
+  public long size() {
+    return unsatCache.size();
+  }
+
+  /**
+   * Compute a representation of a formula that is independent of the solver instance. Every
+   * distinct sub-formula is printed only once and referenced by its index afterwards, such that the
+   * size of the result is linear in the size of the formula DAG.
+   *
+   * <p>Operators are represented by their {@link FunctionDeclarationKind}. The solver-specific name
+   * of an operator is only included if the kind does not determine the operator, e.g., for
+   * uninterpreted functions, thus equal formulas created by different solvers usually get the same
+   * representation. All variables and constants include their type.
+   */
+  static String toCanonicalString(FormulaManagerView pFmgr, BooleanFormula pFormula) {
+    final FormulaManager rawFmgr = pFmgr.getRawFormulaManager();
+    final Map<Formula, Integer> ids = new HashMap<>();
+    final StringBuilder out = new StringBuilder();
+    final Deque<Formula> toProcess = new ArrayDeque<>();
+
+    FormulaVisitor<Void> process =
+        new FormulaVisitor<Void>() {
+
+          private void define(Formula f, String pDefinition) {
+            ids.put(f, ids.size());
+            out.append(pDefinition).append(':').append(rawFmgr.getFormulaType(f)).append(';');
+          }
+
+          @Override
+          public Void visitFreeVariable(Formula f, String name) {
+            toProcess.pop();
+            define(f, "v " + name);
+            return null;
+          }
+
+          @Override
+          public Void visitBoundVariable(Formula f, int deBruijnIdx) {
+            toProcess.pop();
+            define(f, "b " + deBruijnIdx);
+            return null;
+          }
+
+          @Override
+          public Void visitConstant(Formula f, Object value) {
+            toProcess.pop();
+            define(f, "c " + value);
+            return null;
+          }
+
+          @Override
+          public Void visitFunction(
+              Formula f, List<Formula> args, FunctionDeclaration<?> decl) {
+            if (pushMissing(args)) {
+              toProcess.pop();
+              StringBuilder definition = new StringBuilder("f ").append(decl.getKind());
+              if (needsName(decl.getKind())) {
+                definition.append(' ').append(decl.getName());
+              }
+              for (Formula arg : args) {
+                definition.append(' ').append(ids.get(arg));
+              }
+              define(f, definition.toString());
+            }
+            return null;
+          }
+
+          @Override
+          public Void visitQuantifier(
+              BooleanFormula f,
+              Quantifier quantifier,
+              List<Formula> boundVariables,
+              BooleanFormula body) {
+            if (pushMissing(boundVariables) & pushMissing(ImmutableList.of(body))) {
+              toProcess.pop();
+              StringBuilder definition = new StringBuilder("q ").append(quantifier);
+              for (Formula var : boundVariables) {
+                definition.append(' ').append(ids.get(var));
+              }
+              define(f, definition.append(' ').append(ids.get(body)).toString());
+            }
+            return null;
+          }
+
+          /** Push all unprocessed formulas and return whether all formulas are processed. */
+          private boolean pushMissing(List<? extends Formula> formulas) {
+            boolean allProcessed = true;
+            for (Formula formula : formulas) {
+              if (!ids.containsKey(formula)) {
+                toProcess.push(formula);
+                allProcessed = false;
+              }
+            }
+            return allProcessed;
+          }
+        };
+
+    toProcess.push(pFormula);
+    while (!toProcess.isEmpty()) {
+      Formula f = toProcess.peek();
+      if (ids.containsKey(f)) {
+        toProcess.pop();
+      } else {
+        rawFmgr.visit(f, process);
+      }
+    }
+    return out.toString();
+  }
+
+  private static boolean needsName(FunctionDeclarationKind pKind) {
+    switch (pKind) {
+      case UF:
+      case VAR:
+      case OTHER:
+      case BV_EXTRACT:
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+@RunWith(Parameterized.class)
+@SuppressFBWarnings("NP_NONNULL_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR")
+public class SharedSolverResultCacheTest extends SolverViewBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solverUnderTest;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solverUnderTest;
+  }
+
+  private BooleanFormula makeFormula(int pBound) {
+    IntegerFormula x = imgrv.makeVariable("x");
+    IntegerFormula y = imgrv.makeVariable("y");
+    return bmgrv.and(
+        imgrv.lessThan(x, y),
+        imgrv.lessThan(y, imgrv.makeNumber(pBound)),
+        imgrv.greaterThan(x, imgrv.makeNumber(0)));
+  }
+
+  @Test
+  public void testCanonicalStringOfEqualFormulas() {
+    assertThat(SharedSolverResultCache.toCanonicalString(mgrv, makeFormula(2)))
+        .isEqualTo(SharedSolverResultCache.toCanonicalString(mgrv, makeFormula(2)));
+  }
+
+  @Test
+  public void testCanonicalStringOfDifferentFormulas() {
+    assertThat(SharedSolverResultCache.toCanonicalString(mgrv, makeFormula(2)))
+        .isNotEqualTo(SharedSolverResultCache.toCanonicalString(mgrv, makeFormula(3)));
+  }
+
+  @Test
+  public void testResultSharedBetweenSolvers()
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    SharedSolverResultCache cache = new SharedSolverResultCache(100);
+    SharedSolverResultCache.install(cache);
+    try {
+      Configuration sharingConfig =
+          createTestConfigBuilder().setOption("solver.useSharedResultCache", "true").build();
+      Solver first = new Solver(factory, solverToUse(), context, sharingConfig, logger);
+      Solver second = new Solver(factory, solverToUse(), context, sharingConfig, logger);
+
+      assertThat(first.isUnsat(makeFormula(2))).isTrue();
+      assertThat(first.cachedSatChecks).isEqualTo(0);
+
+      assertThat(second.isUnsat(makeFormula(2))).isTrue();
+      assertThat(second.cachedSatChecks).isEqualTo(1);
+
+      assertThat(cache.size()).isEqualTo(1);
+      assertThat(cache.getStatistics().hitCount()).isEqualTo(1);
+    } finally {
+      SharedSolverResultCache.uninstall(cache);
+    }
+  }
+}
@@ -30,7 +30,6 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.HashMap;
 import java.util.List;
@@ -40,15 +39,19 @@ import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.util.BoundedCache;
+import org.sosy_lab.cpachecker.util.BoundedCache.EvictionPolicy;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.SeparateInterpolatingProverEnvironment;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingBasicProverEnvironment.UFCheckingProverOptions;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingInterpolatingProverEnvironment;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingProverEnvironment;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.java_smt.SolverContextFactory;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -96,6 +99,29 @@ public final class Solver implements AutoCloseable {
   description="Extract and cache unsat cores for satisfiability checking")
   private boolean cacheUnsatCores = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Use the cache for satisfiability checks that is shared with other analyses "
+              + "running in parallel (only has an effect with the ParallelAlgorithm "
+              + "and parallelAlgorithm.useSharedSolverCache).")
+  private boolean useSharedResultCache = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Maximal number of entries in the cache for satisfiability checks "
+              + "(0 for an unbounded cache).")
+  @IntegerOption(min = 0)
+  private int unsatCacheSize = 0;
+
+  @Option(
+      secure = true,
+      description =
+          "Which entries to evict from the cache for satisfiability checks "
+              + "if it reaches solver.unsatCacheSize.")
+  private EvictionPolicy unsatCacheEvictionPolicy = EvictionPolicy.LRU;
+
   private final @Nullable UFCheckingProverOptions ufCheckingProverOptions;
 
   private final FormulaManagerView fmgr;
@@ -104,7 +130,10 @@ public final class Solver implements AutoCloseable {
   private final SolverContext solvingContext;
   private final SolverContext interpolatingContext;
 
-  private final Map<BooleanFormula, Boolean> unsatCache = Maps.newHashMap();
+  private final BoundedCache<BooleanFormula, Boolean> unsatCache;
+
+  /** Cache that is shared with other solver instances, or null if not used. */
+  private final @Nullable SharedSolverResultCache sharedCache;
 
   /**
    * More complex unsat cache, grouped by an arbitrary key.
@@ -159,6 +188,10 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    sharedCache = useSharedResultCache ? SharedSolverResultCache.getInstalledCache() : null;
+    unsatCache =
+        new BoundedCache<>("Solver cache", unsatCacheSize, unsatCacheEvictionPolicy);
   }
 
   /**
@@ -204,6 +237,10 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    sharedCache = useSharedResultCache ? SharedSolverResultCache.getInstalledCache() : null;
+    unsatCache =
+        new BoundedCache<>("Solver cache", unsatCacheSize, unsatCacheEvictionPolicy);
   }
 
   /**
@@ -337,9 +374,23 @@ public final class Solver implements AutoCloseable {
 
     solverTime.start();
     try {
+      String canonicalFormula = null;
+      if (sharedCache != null) {
+        canonicalFormula = SharedSolverResultCache.toCanonicalString(fmgr, f);
+        result = sharedCache.isUnsat(canonicalFormula);
+        if (result != null) {
+          cachedSatChecks++;
+          unsatCache.put(f, result);
+          return result;
+        }
+      }
+
       result = isUnsatUncached(f);
 
       unsatCache.put(f, result);
+      if (sharedCache != null) {
+        sharedCache.put(canonicalFormula, result);
+      }
       return result;
 
     } finally {
@@ -521,6 +572,11 @@ public final class Solver implements AutoCloseable {
     return interpolatingContext.getVersion();
   }
 
+  /** Write statistics about the cache for satisfiability checks. */
+  public void printCacheStatistics(StatisticsWriter pWriter) {
+    unsatCache.printStatistics(pWriter);
+  }
+
   /**
    * Populate the cache for unsatisfiability queries with a formula
    * that is known to be unsat.
@@ -23,15 +23,26 @@
  */
 package org.sosy_lab.cpachecker.util.refinement;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.errorprone.annotations.ForOverride;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -54,6 +65,8 @@ import org.sosy_lab.cpachecker.cpa.arg.path.ARGPath;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException.Reason;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
@@ -100,6 +113,18 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
       + " e.g., for supporting counterexample checks")
   private boolean addAssumptionsToCex = true;
 
+  @Option(
+    secure = true,
+    description =
+        "number of threads for refining several error paths at once. "
+            + "With 1, only the error path given to the refiner is refined. "
+            + "Otherwise, up to this many error paths to distinct target states "
+            + "are checked for feasibility and interpolated concurrently, "
+            + "and their interpolants are merged into a single precision update. "
+            + "With -1 we use the number of available cores of the machine."
+  )
+  private int numberOfThreads = 1;
+
   protected final LogManager logger;
 
   private final PathInterpolator<I> interpolator;
@@ -110,12 +135,22 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
 
   private final PathExtractor pathExtractor;
 
+  /**
+   * the feasibility checkers and path interpolators for the additional error paths that are
+   * refined concurrently to the given one, one pair per thread
+   */
+  private final List<Pair<FeasibilityChecker<S>, PathInterpolator<I>>> concurrentComponents;
+
   private Set<Integer> previousErrorPathIds = Sets.newHashSet();
 
   // statistics
   private final StatCounter refinementCounter = new StatCounter("Number of refinements");
   private final StatInt numberOfTargets = new StatInt(StatKind.SUM, "Number of targets found");
   private final StatTimer refinementTime = new StatTimer("Time for completing refinement");
+  private final StatCounter additionallyRefinedPaths =
+      new StatCounter("Number of additional error paths refined concurrently");
+  private final StatCounter additionalFeasiblePaths =
+      new StatCounter("Number of additional error paths found feasible");
 
   public GenericRefiner(
       final FeasibilityChecker<S> pFeasibilityChecker,
@@ -125,14 +160,62 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
       final Configuration pConfig,
       final LogManager pLogger
   ) throws InvalidConfigurationException {
+    this(
+        pFeasibilityChecker,
+        pPathInterpolator,
+        pInterpolantManager,
+        pPathExtractor,
+        null,
+        pConfig,
+        pLogger);
+  }
+
+  /**
+   * Creates a refiner that can refine several error paths concurrently.
+   *
+   * @param pComponentsFactory creates a feasibility checker and a path interpolator that do not
+   *     share any mutable state with the given ones, or null if concurrent refinement is not
+   *     supported by the caller
+   */
+  public GenericRefiner(
+      final FeasibilityChecker<S> pFeasibilityChecker,
+      final PathInterpolator<I> pPathInterpolator,
+      final InterpolantManager<S, I> pInterpolantManager,
+      final PathExtractor pPathExtractor,
+      final @Nullable ComponentsFactory<S, I> pComponentsFactory,
+      final Configuration pConfig,
+      final LogManager pLogger
+  ) throws InvalidConfigurationException {
 
     pConfig.inject(this, GenericRefiner.class);
+    if (numberOfThreads == -1) {
+      numberOfThreads = Runtime.getRuntime().availableProcessors();
+    } else if (numberOfThreads < 1) {
+      throw new InvalidConfigurationException(
+          "Option cpa.value.refinement.numberOfThreads needs to be a positive number or -1.");
+    }
 
     logger = pLogger;
     interpolator = pPathInterpolator;
     interpolantManager = pInterpolantManager;
     checker = pFeasibilityChecker;
     pathExtractor = pPathExtractor;
+
+    if (numberOfThreads > 1 && pComponentsFactory == null) {
+      logger.log(
+          Level.WARNING,
+          getClass().getSimpleName(),
+          "does not support concurrent refinement, refining one error path at a time.");
+    }
+
+    ImmutableList.Builder<Pair<FeasibilityChecker<S>, PathInterpolator<I>>> components =
+        ImmutableList.builder();
+    if (pComponentsFactory != null) {
+      for (int i = 1; i < numberOfThreads; i++) {
+        components.add(pComponentsFactory.create());
+      }
+    }
+    concurrentComponents = components.build();
   }
 
   private boolean madeProgress(ARGPath path) {
@@ -184,7 +267,11 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     CounterexampleInfo cex = isPathFeasible(targetPathToUse);
 
     if (cex.isSpurious()) {
-      refineUsingInterpolants(pReached, obtainInterpolants(targetPathToUse));
+      refineUsingInterpolants(
+          pReached,
+          isConcurrentRefinementPossible(targetPathToUse)
+              ? obtainInterpolantsConcurrently(pReached, targetPathToUse)
+              : obtainInterpolants(targetPathToUse));
     }
 
     refinementTime.stop();
@@ -200,17 +287,141 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
   private InterpolationTree<S, I> obtainInterpolants(ARGPath pTargetPath)
       throws CPAException, InterruptedException {
 
+    InterpolationTree<S, I> interpolationTree =
+        interpolate(pTargetPath, checker, interpolator, true);
+
+    exportTree(interpolationTree, "FINAL");
+    return interpolationTree;
+  }
+
+  private InterpolationTree<S, I> interpolate(
+      final ARGPath pTargetPath,
+      final FeasibilityChecker<S> pChecker,
+      final PathInterpolator<I> pInterpolator,
+      final boolean pExportIntermediateTrees)
+      throws CPAException, InterruptedException {
+
     InterpolationTree<S, I> interpolationTree =
         createInterpolationTree(ImmutableList.of(pTargetPath));
 
     while (interpolationTree.hasNextPathForInterpolation()) {
-      performPathInterpolation(interpolationTree);
+      performPathInterpolation(interpolationTree, pChecker, pInterpolator);
+      if (pExportIntermediateTrees) {
+        exportTree(interpolationTree, "ALWAYS");
+      }
     }
 
-    exportTree(interpolationTree, "FINAL");
     return interpolationTree;
   }
 
+  /**
+   * Concurrent refinement merges the interpolants of all refined paths into a tree built from
+   * the ARG, so the given path has to be the one that the ARG itself yields for its target.
+   * This is not the case, e.g., for paths computed by BAM.
+   */
+  private boolean isConcurrentRefinementPossible(ARGPath pTargetPath) {
+    return !concurrentComponents.isEmpty()
+        && pTargetPath
+            .asStatesList()
+            .equals(ARGUtils.getOnePathTo(pTargetPath.getLastState()).asStatesList());
+  }
+
+  /**
+   * This method interpolates the given spurious error path, and at the same time checks and
+   * interpolates error paths to further target states of the ARG, each with its own feasibility
+   * checker and path interpolator. Feasible further paths are ignored here, they are reported
+   * once the analysis finds them again. The interpolants of all spurious paths are merged into a
+   * single interpolation tree, such that a single precision update covers all of them.
+   */
+  private InterpolationTree<S, I> obtainInterpolantsConcurrently(
+      final ARGReachedSet pReached, final ARGPath pTargetPath)
+      throws CPAException, InterruptedException {
+
+    List<ARGPath> furtherPaths = selectFurtherTargetPaths(pReached, pTargetPath);
+    if (furtherPaths.isEmpty()) {
+      return obtainInterpolants(pTargetPath);
+    }
+
+    // The threads are only kept for a single refinement, as refinements are rare compared to
+    // their cost, and there is no point in the life of a refiner at which it could be closed.
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            furtherPaths.size(),
+            new ThreadFactoryBuilder().setNameFormat("Refinement %d").setDaemon(true).build());
+
+    List<Future<@Nullable InterpolationTree<S, I>>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < furtherPaths.size(); i++) {
+        ARGPath path = furtherPaths.get(i);
+        FeasibilityChecker<S> pathChecker = concurrentComponents.get(i).getFirst();
+        PathInterpolator<I> pathInterpolator = concurrentComponents.get(i).getSecond();
+        futures.add(
+            executor.submit(
+                () ->
+                    pathChecker.isFeasible(path)
+                        ? null
+                        : interpolate(path, pathChecker, pathInterpolator, false)));
+      }
+
+      // the given path is handled by this thread, with the regular checker and interpolator
+      InterpolationTree<S, I> targetPathTree =
+          interpolate(pTargetPath, checker, interpolator, true);
+
+      List<ARGPath> spuriousPaths = new ArrayList<>();
+      List<InterpolationTree<S, I>> trees = new ArrayList<>();
+      spuriousPaths.add(pTargetPath);
+      trees.add(targetPathTree);
+      for (int i = 0; i < futures.size(); i++) {
+        InterpolationTree<S, I> tree = getOrThrow(futures.get(i));
+        if (tree == null) {
+          additionalFeasiblePaths.inc();
+        } else {
+          additionallyRefinedPaths.inc();
+          spuriousPaths.add(furtherPaths.get(i));
+          trees.add(tree);
+        }
+      }
+
+      InterpolationTree<S, I> interpolationTree = createInterpolationTree(spuriousPaths);
+      for (InterpolationTree<S, I> tree : trees) {
+        interpolationTree.addInterpolants(ImmutableMap.copyOf(tree.getInterpolantMapping()));
+      }
+
+      exportTree(interpolationTree, "FINAL");
+      return interpolationTree;
+
+    } finally {
+      // stops the refinements of further paths if the given one failed
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Selects error paths to target states other than the one of the given path, at most one per
+   * thread available for concurrent refinement.
+   */
+  private List<ARGPath> selectFurtherTargetPaths(
+      final ARGReachedSet pReached, final ARGPath pTargetPath) {
+    List<ARGState> furtherTargets =
+        AbstractStates.getTargetStates(pReached.asReachedSet())
+            .transform(s -> (ARGState) s)
+            .filter(s -> s != pTargetPath.getLastState() && !pathExtractor.isFeasibleTarget(s))
+            .limit(concurrentComponents.size())
+            .toList();
+    return pathExtractor.getTargetPaths(furtherTargets);
+  }
+
+  private @Nullable InterpolationTree<S, I> getOrThrow(
+      Future<@Nullable InterpolationTree<S, I>> pFuture)
+      throws CPAException, InterruptedException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("refinement", e.getCause());
+    }
+  }
+
   /**
    * This method creates the interpolation tree.
    */
@@ -219,8 +430,11 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     return new InterpolationTree<>(interpolantManager, logger, targets, true);
   }
 
-  private void performPathInterpolation(InterpolationTree<S, I> interpolationTree) throws CPAException,
-      InterruptedException {
+  private void performPathInterpolation(
+      InterpolationTree<S, I> interpolationTree,
+      FeasibilityChecker<S> pChecker,
+      PathInterpolator<I> pInterpolator)
+      throws CPAException, InterruptedException {
     ARGPath errorPath = interpolationTree.getNextPathForInterpolation();
 
     if (errorPath == InterpolationTree.EMPTY_PATH) {
@@ -231,7 +445,8 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
 
     I initialItp = interpolationTree.getInitialInterpolantForPath(errorPath);
 
-    if (isInitialInterpolantTooWeak(interpolationTree.getRoot(), initialItp, errorPath)) {
+    if (isInitialInterpolantTooWeak(
+        interpolationTree.getRoot(), initialItp, errorPath, pChecker)) {
       errorPath = ARGUtils.getOnePathTo(errorPath.getLastState());
       initialItp = interpolantManager.createInitialInterpolant();
     }
@@ -239,11 +454,11 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     logger.log(Level.FINEST, "performing interpolation, starting at ", errorPath.getFirstState().getStateId(),
         ", using interpolant ", initialItp);
 
-    interpolationTree.addInterpolants(interpolator.performInterpolation(errorPath, initialItp));
-    exportTree(interpolationTree, "ALWAYS");
+    interpolationTree.addInterpolants(pInterpolator.performInterpolation(errorPath, initialItp));
   }
 
-  private boolean isInitialInterpolantTooWeak(ARGState root, I initialItp, ARGPath errorPath)
+  private boolean isInitialInterpolantTooWeak(
+      ARGState root, I initialItp, ARGPath errorPath, FeasibilityChecker<S> pChecker)
       throws CPAException, InterruptedException {
 
     // if the first state of the error path is the root, the interpolant cannot be to weak
@@ -252,7 +467,7 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     }
 
     // for all other cases, check if the path is feasible when using the interpolant as initial state
-    return checker.isFeasible(errorPath, initialItp.reconstructState());
+    return pChecker.isFeasible(errorPath, initialItp.reconstructState());
   }
 
   private CounterexampleInfo isPathFeasible(
@@ -322,6 +537,9 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     writer.put(refinementCounter)
         .put(numberOfTargets)
         .put(refinementTime);
+    if (!concurrentComponents.isEmpty()) {
+      writer.put(additionallyRefinedPaths).put(additionalFeasiblePaths);
+    }
     printAdditionalStatistics(pOut, pResult, pReached); //hook
   }
 
@@ -338,6 +556,16 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     }
   }
 
+  /**
+   * Creates the feasibility checker and path interpolator for one thread of concurrent
+   * refinement.
+   */
+  @FunctionalInterface
+  public interface ComponentsFactory<S extends ForgetfulState<?>, I extends Interpolant<S, I>> {
+    Pair<FeasibilityChecker<S>, PathInterpolator<I>> create()
+        throws InvalidConfigurationException;
+  }
+
   /**
    * The strategy to determine where to restart the analysis after a successful refinement.
    * {@link #ROOT} means that the analysis is restarted from the root of the ARG
@@ -0,0 +1,132 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.refinement;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.common.io.TempFile.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Tests that refining further paths concurrently leads to the same verdicts and the same final
+ * precision as refining all paths one after another.
+ */
+public class GenericRefinerTest {
+
+  private static final String CONFIG = "config/valueAnalysis-Cegar-plain.properties";
+
+  /** Each of the infeasible error paths needs its own variable to be tracked. */
+  private static final List<String> SAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "void main() {",
+          "  int a = 1;",
+          "  int b = 2;",
+          "  int c = 3;",
+          "  int d = 4;",
+          "  int x = __VERIFIER_nondet_int();",
+          "  if (x == 0) {",
+          "    if (a != 1) { goto ERROR; }",
+          "  } else if (x == 1) {",
+          "    if (b != 2) { goto ERROR; }",
+          "  } else if (x == 2) {",
+          "    if (c != 3) { goto ERROR; }",
+          "  } else {",
+          "    if (d != 4) { goto ERROR; }",
+          "  }",
+          "  return;",
+          "ERROR:",
+          "  return;",
+          "}");
+
+  private static final List<String> UNSAFE_PROGRAM =
+      ImmutableList.of(
+          "extern int __VERIFIER_nondet_int();",
+          "",
+          "void main() {",
+          "  int a = 1;",
+          "  int b = 2;",
+          "  int x = __VERIFIER_nondet_int();",
+          "  if (x == 0) {",
+          "    if (a != 1) { goto ERROR; }",
+          "  } else if (x == 1) {",
+          "    if (b != 2) { goto ERROR; }",
+          "  } else {",
+          "    if (a + b == 3) { goto ERROR; }",
+          "  }",
+          "  return;",
+          "ERROR:",
+          "  return;",
+          "}");
+
+  @Test
+  public void testConcurrentRefinementSafe() throws Exception {
+    CPAcheckerResult sequential = run(SAFE_PROGRAM, 1);
+    CPAcheckerResult concurrent = run(SAFE_PROGRAM, 4);
+
+    assertThat(sequential.getResult()).isEqualTo(Result.TRUE);
+    assertThat(concurrent.getResult()).isEqualTo(Result.TRUE);
+    assertThat(precisionOf(concurrent)).isEqualTo(precisionOf(sequential));
+  }
+
+  @Test
+  public void testConcurrentRefinementUnsafe() throws Exception {
+    assertThat(run(UNSAFE_PROGRAM, 1).getResult()).isEqualTo(Result.FALSE);
+    assertThat(run(UNSAFE_PROGRAM, 4).getResult()).isEqualTo(Result.FALSE);
+  }
+
+  private static String precisionOf(CPAcheckerResult pResult) {
+    return VariableTrackingPrecision.joinVariableTrackingPrecisionsInReachedSet(
+            pResult.getReached())
+        .toString();
+  }
+
+  private static CPAcheckerResult run(List<String> pProgram, int pNumberOfThreads)
+      throws Exception {
+    try (DeleteOnCloseFile programFile =
+        TempFile.builder().prefix("test").suffix(".c").createDeleteOnClose()) {
+      Files.write(programFile.toPath(), pProgram);
+
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .loadFromFile(CONFIG)
+              .setOption("specification", "config/specification/default.spc")
+              .setOption("cpa.value.refinement.numberOfThreads", Integer.toString(pNumberOfThreads))
+              .build();
+
+      return CPATestRunner.run(config, programFile.toPath().toString()).getCheckerResult();
+    }
+  }
+}
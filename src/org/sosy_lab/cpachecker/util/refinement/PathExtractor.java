@@ -134,6 +134,11 @@ public class PathExtractor implements Statistics {
     return Lists.newArrayList(Collections2.transform(targetStates, ARGUtils::getOnePathTo));
   }
 
+  /** This method returns whether the given target state was found to be feasible before. */
+  boolean isFeasibleTarget(ARGState pTargetState) {
+    return feasibleTargets.contains(pTargetState);
+  }
+
   public void addFeasibleTarget(ARGState pLastState) {
     feasibleTargets.add(pLastState);
   }
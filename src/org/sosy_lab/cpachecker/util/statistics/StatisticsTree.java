@@ -0,0 +1,260 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Joiner;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+
+/**
+ * A tree of named statistical values that can be written in machine-readable formats (JSON and
+ * CSV). Inner nodes are again {@link StatisticsTree}s, leaves are numbers, booleans, or strings.
+ * Entries keep their insertion order.
+ *
+ * <p>Values of {@link AbstractStatValue}s and {@link Timer}s are stored with all their components
+ * (e.g., sum, count, and maximum), with times given in milliseconds. The statistics of all
+ * components that use {@link StatisticsWriter} or {@link StatisticsUtils} can be collected in such
+ * a tree with a {@link StatisticsTreeStream}.
+ */
+public final class StatisticsTree {
+
+  /** the key under which the value of an entry is stored if the entry also has children */
+  private static final String VALUE_KEY = "value";
+
+  private final Map<String, Object> entries = new LinkedHashMap<>();
+
+  /**
+   * Add the given value. {@link AbstractStatValue}s, {@link Timer}s, and {@link TimeSpan}s are
+   * stored as described in the class documentation, numbers, booleans, and trees as they are, and
+   * all other values as strings.
+   */
+  public StatisticsTree put(String pKey, Object pValue) {
+    checkNotNull(pKey);
+    checkNotNull(pValue);
+    if (pValue instanceof AbstractStatValue) {
+      putStatValue(pKey, (AbstractStatValue) pValue);
+    } else if (pValue instanceof Timer) {
+      Timer timer = (Timer) pValue;
+      getSubtree(pKey)
+          .put("sum", timer.getSumTime())
+          .put("count", timer.getNumberOfIntervals())
+          .put("avg", timer.getAvgTime())
+          .put("max", timer.getMaxTime());
+    } else if (pValue instanceof TimeSpan) {
+      entries.put(pKey, ((TimeSpan) pValue).asMillis());
+    } else if (pValue instanceof Number
+        || pValue instanceof Boolean
+        || pValue instanceof StatisticsTree) {
+      entries.put(pKey, pValue);
+    } else {
+      entries.put(pKey, pValue.toString());
+    }
+    return this;
+  }
+
+  /** Add the given statistical value with its title as key. */
+  public StatisticsTree put(AbstractStatValue pValue) {
+    return put(pValue.getTitle(), pValue);
+  }
+
+  private void putStatValue(String pKey, AbstractStatValue pValue) {
+    if (pValue instanceof StatCounter) {
+      entries.put(pKey, ((StatCounter) pValue).getValue());
+
+    } else if (pValue instanceof StatTimer) {
+      StatTimer timer = (StatTimer) pValue;
+      getSubtree(pKey)
+          .put("sum", timer.getConsumedTime())
+          .put("count", timer.getUpdateCount())
+          .put("max", timer.getMaxTime());
+
+    } else if (pValue instanceof StatInt) {
+      StatInt value = (StatInt) pValue;
+      getSubtree(pKey)
+          .put("sum", value.getValueSum())
+          .put("count", value.getValueCount())
+          .put("min", value.getMin())
+          .put("max", value.getMax())
+          .put("avg", value.getAverage());
+
+    } else if (pValue instanceof StatHist) {
+      StatHist hist = (StatHist) pValue;
+      getSubtree(pKey)
+          .put("sum", hist.getSum())
+          .put("count", hist.getUpdateCount())
+          .put("min", hist.getMin())
+          .put("max", hist.getMax())
+          .put("avg", hist.getAvg());
+
+    } else {
+      entries.put(pKey, pValue.toString());
+    }
+  }
+
+  /**
+   * Returns the subtree for the given key, creating it if necessary. If the key is mapped to a
+   * value, this value is kept in the new subtree with the key {@value #VALUE_KEY}.
+   */
+  public StatisticsTree getSubtree(String pKey) {
+    Object entry = entries.get(pKey);
+    if (entry instanceof StatisticsTree) {
+      return (StatisticsTree) entry;
+    }
+    StatisticsTree subtree = new StatisticsTree();
+    if (entry != null) {
+      subtree.put(VALUE_KEY, entry);
+    }
+    entries.put(pKey, subtree);
+    return subtree;
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /** Returns the given key, or a variant of it if this tree has already an entry for it. */
+  public String makeUnique(String pKey) {
+    String key = pKey;
+    for (int i = 2; entries.containsKey(key); i++) {
+      key = pKey + " (" + i + ")";
+    }
+    return key;
+  }
+
+  /** Write this tree as a single-line JSON object. */
+  public void writeJson(Appendable pOut) throws IOException {
+    pOut.append('{');
+    boolean first = true;
+    for (Map.Entry<String, Object> entry : entries.entrySet()) {
+      if (!first) {
+        pOut.append(',');
+      }
+      first = false;
+      writeJsonString(pOut, entry.getKey());
+      pOut.append(':');
+      writeJsonValue(pOut, entry.getValue());
+    }
+    pOut.append('}');
+  }
+
+  private static void writeJsonValue(Appendable pOut, Object pValue) throws IOException {
+    if (pValue instanceof StatisticsTree) {
+      ((StatisticsTree) pValue).writeJson(pOut);
+    } else if (pValue instanceof Boolean || isFiniteNumber(pValue)) {
+      pOut.append(pValue.toString());
+    } else {
+      writeJsonString(pOut, pValue.toString());
+    }
+  }
+
+  private static boolean isFiniteNumber(Object pValue) {
+    if (pValue instanceof Double || pValue instanceof Float) {
+      double value = ((Number) pValue).doubleValue();
+      return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+    return pValue instanceof Number;
+  }
+
+  private static void writeJsonString(Appendable pOut, String pValue) throws IOException {
+    pOut.append('"');
+    for (int i = 0; i < pValue.length(); i++) {
+      char c = pValue.charAt(i);
+      switch (c) {
+        case '"':
+          pOut.append("\\\"");
+          break;
+        case '\\':
+          pOut.append("\\\\");
+          break;
+        case '\n':
+          pOut.append("\\n");
+          break;
+        case '\r':
+          pOut.append("\\r");
+          break;
+        case '\t':
+          pOut.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            pOut.append(String.format("\\u%04x", (int) c));
+          } else {
+            pOut.append(c);
+          }
+      }
+    }
+    pOut.append('"');
+  }
+
+  /**
+   * Write this tree as CSV with the columns "key" and "value", one row per leaf. The key of a row
+   * consists of the keys of all entries on the path to the leaf, separated by " > ".
+   */
+  public void writeCsv(Appendable pOut) throws IOException {
+    pOut.append("key,value\n");
+    writeCsvRows(pOut, new ArrayList<>());
+  }
+
+  private void writeCsvRows(Appendable pOut, List<String> pPath) throws IOException {
+    for (Map.Entry<String, Object> entry : entries.entrySet()) {
+      pPath.add(entry.getKey());
+      if (entry.getValue() instanceof StatisticsTree) {
+        ((StatisticsTree) entry.getValue()).writeCsvRows(pOut, pPath);
+      } else {
+        writeCsvField(pOut, Joiner.on(" > ").join(pPath));
+        pOut.append(',');
+        writeCsvField(pOut, entry.getValue().toString());
+        pOut.append('\n');
+      }
+      pPath.remove(pPath.size() - 1);
+    }
+  }
+
+  private static void writeCsvField(Appendable pOut, String pField) throws IOException {
+    if (CharMatcher.anyOf(",\"\n\r").matchesAnyOf(pField)) {
+      pOut.append('"').append(pField.replace("\"", "\"\"")).append('"');
+    } else {
+      pOut.append(pField);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    try {
+      writeJson(sb);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PrintStream} for the human-readable statistics output that additionally collects the
+ * values that are written with {@link StatisticsWriter} or {@link StatisticsUtils} into a {@link
+ * StatisticsTree}, keeping their types. Each group of statistics that is printed with {@link
+ * StatisticsUtils#printStatistics} gets its own section in the tree, and values that are written
+ * with a higher indentation level than the previous value become children of that value. Lines
+ * that are printed directly are only part of the text output.
+ *
+ * <p>Like the statistics output in general, instances are not thread-safe.
+ */
+public final class StatisticsTreeStream extends PrintStream {
+
+  private final StatisticsTree root = new StatisticsTree();
+
+  /** The currently open sections, with the innermost section on top. */
+  private final Deque<Section> sections = new ArrayDeque<>();
+
+  private static class Section {
+
+    private final StatisticsTree tree;
+
+    /** The entries that can get children, with their level, key, and the tree containing them. */
+    private final Deque<Integer> levels = new ArrayDeque<>();
+    private final Deque<String> keys = new ArrayDeque<>();
+    private final Deque<StatisticsTree> parents = new ArrayDeque<>();
+
+    private Section(StatisticsTree pTree) {
+      tree = pTree;
+    }
+  }
+
+  @SuppressFBWarnings(
+    value = "DM_DEFAULT_ENCODING",
+    justification = "Default encoding is the correct one for the statistics output."
+  )
+  public StatisticsTreeStream(OutputStream pOut) {
+    super(pOut);
+    sections.push(new Section(root));
+  }
+
+  /** Returns the tree with all values that were written so far. */
+  public StatisticsTree getTree() {
+    return root;
+  }
+
+  /** Start a new section with the given name, which is closed by {@link #endSection()}. */
+  public void beginSection(String pName) {
+    StatisticsTree parent = sections.peek().tree;
+    sections.push(new Section(parent.getSubtree(parent.makeUnique(pName))));
+  }
+
+  public void endSection() {
+    checkState(sections.size() > 1, "no open section");
+    sections.pop();
+  }
+
+  /** Add a value to the current section. */
+  public void putValue(int pLevel, String pName, Object pValue) {
+    Section section = sections.peek();
+    while (!section.levels.isEmpty() && section.levels.peek() >= pLevel) {
+      section.levels.pop();
+      section.keys.pop();
+      section.parents.pop();
+    }
+
+    StatisticsTree parent =
+        section.levels.isEmpty()
+            ? section.tree
+            : section.parents.peek().getSubtree(section.keys.peek());
+    String key = parent.makeUnique(pName);
+    parent.put(key, pValue);
+
+    section.levels.push(pLevel);
+    section.keys.push(key);
+    section.parents.push(parent);
+  }
+}
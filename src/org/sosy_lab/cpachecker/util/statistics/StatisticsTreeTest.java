@@ -0,0 +1,128 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import org.junit.Test;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+
+public class StatisticsTreeTest {
+
+  private static class TestStatistics implements Statistics {
+
+    private final StatCounter abstractions = new StatCounter("Number of abstractions");
+    private final Timer timer = new Timer();
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      StatisticsWriter.writingStatisticsTo(pOut)
+          .put(abstractions)
+          .beginLevel()
+          .put("Times abstraction was reused", 4)
+          .put("Because of loop head", "8 (50%)")
+          .endLevel()
+          .put("Time for prec operator", timer)
+          .put("Has timed out", false);
+      pOut.println("Line without value: 12");
+    }
+
+    @Override
+    public String getName() {
+      return "Test";
+    }
+  }
+
+  @Test
+  public void testCollectFromOutput() {
+    TestStatistics statistics = new TestStatistics();
+    statistics.abstractions.inc();
+    statistics.abstractions.inc();
+
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    StatisticsTreeStream out = new StatisticsTreeStream(text);
+    StatisticsUtils.printStatistics(
+        statistics, out, LogManager.createTestLogManager(), Result.TRUE, null);
+    StatisticsUtils.write(out, 0, 10, "Outside", 1.5);
+    out.flush();
+
+    assertThat(out.getTree().toString())
+        .isEqualTo(
+            "{\"Test statistics\":{"
+                + "\"Number of abstractions\":{\"value\":2,"
+                + "\"Times abstraction was reused\":4,\"Because of loop head\":\"8 (50%)\"},"
+                + "\"Time for prec operator\":{\"sum\":0,\"count\":0,\"avg\":0,\"max\":0},"
+                + "\"Has timed out\":false},"
+                + "\"Outside\":1.5}");
+    // the text output is unchanged
+    assertThat(text.toString()).contains("Line without value: 12");
+    assertThat(text.toString()).contains("Times abstraction was reused:");
+  }
+
+  @Test
+  public void testCsv() throws IOException {
+    StatisticsTree tree = new StatisticsTree();
+    tree.getSubtree("a").put("b, c", 1L).put("d", "say \"hi\"");
+    tree.put("e", 2.5);
+
+    StringBuilder csv = new StringBuilder();
+    tree.writeCsv(csv);
+    assertThat(csv.toString())
+        .isEqualTo("key,value\n\"a > b, c\",1\na > d,\"say \"\"hi\"\"\"\ne,2.5\n");
+  }
+
+  @Test
+  public void testStatValues() {
+    StatCounter counter = new StatCounter("counter");
+    counter.inc();
+    counter.inc();
+    StatInt value = new StatInt(StatKind.SUM, "int");
+    value.setNextValue(3);
+    value.setNextValue(5);
+
+    StatisticsTree tree = new StatisticsTree().put(counter).put(value);
+    assertThat(tree.toString())
+        .isEqualTo(
+            "{\"counter\":2,\"int\":{\"sum\":8,\"count\":2,\"min\":3,\"max\":5,\"avg\":4.0}}");
+  }
+
+  @Test
+  public void testDuplicateKeysAndSpecialValues() {
+    StatisticsTreeStream out = new StatisticsTreeStream(new ByteArrayOutputStream());
+    out.beginSection("Section");
+    out.putValue(0, "x", 1);
+    out.putValue(0, "x", 2L);
+    out.endSection();
+    StatisticsTree tree = out.getTree().put("nan", Double.NaN).put("quote\n", true);
+    assertThat(tree.toString())
+        .isEqualTo("{\"Section\":{\"x\":1,\"x (2)\":2},\"nan\":\"NaN\",\"quote\\n\":true}");
+  }
+}
@@ -51,16 +51,23 @@ public class StatisticsUtils {
     return String.format("%.2f", val / full);
   }
 
+  /**
+   * Write a statistics line. If the target is a {@link StatisticsTreeStream}, the value is
+   * additionally collected with its type.
+   */
   public static void write(PrintStream target, int indentLevel, int outputNameColWidth,
       String name, Object value) {
     String indentation = Strings.repeat("  ", indentLevel);
     target.println(String.format("%-" + outputNameColWidth + "s %s",
                                  indentation + name + ":", value));
+    if (target instanceof StatisticsTreeStream) {
+      ((StatisticsTreeStream) target).putValue(indentLevel, name, value);
+    }
   }
 
   public static void write(PrintStream target, int indentLevel, int outputNameColWidth,
       AbstractStatValue stat) {
-    write(target, indentLevel, outputNameColWidth, stat.getTitle(), stat.toString());
+    write(target, indentLevel, outputNameColWidth, stat.getTitle(), stat);
   }
 
   /**
@@ -75,11 +82,16 @@ public class StatisticsUtils {
       final Result pResult,
       final UnmodifiableReachedSet pReached) {
     final String name = getStatisticsName(pStatistics);
-    if (!Strings.isNullOrEmpty(pStatistics.getName())) {
+    final boolean hasName = !Strings.isNullOrEmpty(pStatistics.getName());
+    if (hasName) {
       pOut.println();
       pOut.println(name);
       pOut.println(Strings.repeat("-", name.length()));
     }
+    final boolean collectTree = hasName && pOut instanceof StatisticsTreeStream;
+    if (collectTree) {
+      ((StatisticsTreeStream) pOut).beginSection(name);
+    }
 
     final Timer timer = new Timer();
     timer.start();
@@ -90,6 +102,10 @@ public class StatisticsUtils {
           Level.WARNING,
           e,
           "Out of memory while generating statistics from " + name + " and writing output files");
+    } finally {
+      if (collectTree) {
+        ((StatisticsTreeStream) pOut).endSection();
+      }
     }
     timer.stop();
     if (timer.getLengthOfLastInterval().compareTo(STATISTICS_WARNING_TIME) > 0) {